@@ -0,0 +1,105 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.cayenne.ObjectContext;
+import org.apache.cayenne.benchmarks.persistent.Artist;
+import org.apache.cayenne.benchmarks.persistent.Painting;
+import org.apache.cayenne.query.ObjectSelect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link ObjectContext#commitChanges()}, i.e. the flush of new and
+ * modified objects through
+ * {@link org.apache.cayenne.access.flush.DefaultDataDomainFlushAction}.
+ *
+ * @since 4.2
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CommitBenchmark {
+
+    @Param({"10", "100"})
+    public int objects;
+
+    private ObjectContext updateContext;
+    private List<Painting> updatePaintings;
+    private int updateCounter;
+
+    @Setup(Level.Iteration)
+    public void setUp(RuntimeState runtimeState) {
+        runtimeState.deleteAll();
+        runtimeState.insertArtists(1, objects);
+
+        this.updateContext = runtimeState.newContext();
+        this.updatePaintings = ObjectSelect.query(Painting.class).select(updateContext);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown(RuntimeState runtimeState) {
+        runtimeState.deleteAll();
+    }
+
+    @Benchmark
+    public void insert(RuntimeState runtimeState) {
+        ObjectContext context = runtimeState.newContext();
+
+        Artist artist = context.newObject(Artist.class);
+        artist.setArtistName("artist");
+
+        for (int i = 0; i < objects; i++) {
+            Painting painting = context.newObject(Painting.class);
+            painting.setPaintingTitle("painting" + i);
+            painting.setEstimatedPrice(BigDecimal.valueOf(i));
+            painting.setArtist(artist);
+        }
+
+        context.commitChanges();
+    }
+
+    @Benchmark
+    public void update() {
+        BigDecimal price = BigDecimal.valueOf(updateCounter++);
+        for (Painting painting : updatePaintings) {
+            painting.setEstimatedPrice(price);
+        }
+
+        updateContext.commitChanges();
+    }
+}
@@ -0,0 +1,122 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.benchmarks;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.cayenne.ObjectContext;
+import org.apache.cayenne.benchmarks.persistent.Artist;
+import org.apache.cayenne.benchmarks.persistent.Painting;
+import org.apache.cayenne.exp.Expression;
+import org.apache.cayenne.exp.ExpressionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures parsing of string expressions and in-memory evaluation of
+ * expressions against persistent objects. The objects are registered in a
+ * context, but never committed, so no database access is involved.
+ *
+ * @since 4.2
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExpressionBenchmark {
+
+    private static final String EXPRESSION = "artistName like 'artist1%' and dateOfBirth > $date";
+
+    @Param({"1000"})
+    public int objects;
+
+    private List<Artist> artists;
+    private List<Painting> paintings;
+    private Expression attributeQualifier;
+    private Expression pathQualifier;
+
+    @Setup(Level.Trial)
+    public void setUp(RuntimeState runtimeState) {
+        ObjectContext context = runtimeState.newContext();
+
+        this.artists = new ArrayList<>(objects);
+        this.paintings = new ArrayList<>(objects);
+
+        for (int i = 0; i < objects; i++) {
+            Artist artist = context.newObject(Artist.class);
+            artist.setArtistName("artist" + i);
+            artist.setDateOfBirth(LocalDate.of(1900, 1, 1).plusDays(i));
+            artists.add(artist);
+
+            Painting painting = context.newObject(Painting.class);
+            painting.setPaintingTitle("painting" + i);
+            painting.setEstimatedPrice(BigDecimal.valueOf(i));
+            painting.setArtist(artist);
+            paintings.add(painting);
+        }
+
+        this.attributeQualifier = Artist.ARTIST_NAME.like("artist1%")
+                .andExp(Artist.DATE_OF_BIRTH.gt(LocalDate.of(1900, 6, 1)));
+        this.pathQualifier = Painting.ARTIST.dot(Artist.ARTIST_NAME).likeIgnoreCase("ARTIST1%")
+                .andExp(Painting.ESTIMATED_PRICE.gt(BigDecimal.valueOf(100)));
+    }
+
+    @Benchmark
+    public Expression parse() {
+        return ExpressionFactory.exp(EXPRESSION);
+    }
+
+    @Benchmark
+    public List<Artist> filterObjects() {
+        return attributeQualifier.filterObjects(artists);
+    }
+
+    @Benchmark
+    public List<Painting> filterObjectsByPath() {
+        return pathQualifier.filterObjects(paintings);
+    }
+
+    @Benchmark
+    public int match() {
+        int matched = 0;
+        for (Artist artist : artists) {
+            if (attributeQualifier.match(artist)) {
+                matched++;
+            }
+        }
+
+        return matched;
+    }
+}
@@ -0,0 +1,94 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.benchmarks;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.cayenne.datasource.DataSourceBuilder;
+import org.apache.cayenne.datasource.PoolingDataSource;
+import org.apache.cayenne.datasource.PoolingDataSourceBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares connection checkout throughput of the queue-based
+ * {@link org.apache.cayenne.datasource.UnmanagedPoolingDataSource} and the
+ * lock-free {@link org.apache.cayenne.datasource.ConcurrentBagPoolingDataSource}.
+ * Use "-t" to change the number of threads competing for connections.
+ *
+ * @since 4.2
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class PoolingDataSourceBenchmark {
+
+    @Param({"queue", "concurrentBag"})
+    public String pool;
+
+    @Param({"8"})
+    public int maxConnections;
+
+    private PoolingDataSource dataSource;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        PoolingDataSourceBuilder builder = DataSourceBuilder
+                .url("jdbc:hsqldb:mem:pool_benchmark")
+                .driver("org.hsqldb.jdbc.JDBCDriver")
+                .userName("sa")
+                .pool(maxConnections, maxConnections);
+
+        if ("concurrentBag".equals(pool)) {
+            builder.concurrentBag();
+        }
+
+        this.dataSource = builder.build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        dataSource.close();
+    }
+
+    @Benchmark
+    public boolean getConnection() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getAutoCommit();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.cayenne.benchmarks.persistent.Artist;
+import org.apache.cayenne.query.ObjectSelect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures prefetch resolution of a to-many relationship with each of the
+ * prefetch semantics, i.e. the
+ * {@link org.apache.cayenne.access.HierarchicalObjectResolver} path.
+ *
+ * @since 4.2
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrefetchBenchmark {
+
+    @Param({"100"})
+    public int artists;
+
+    @Param({"10"})
+    public int paintingsPerArtist;
+
+    @Setup(Level.Trial)
+    public void setUp(RuntimeState runtimeState) {
+        runtimeState.deleteAll();
+        runtimeState.insertArtists(artists, paintingsPerArtist);
+    }
+
+    @Benchmark
+    public List<Artist> prefetchDisjoint(RuntimeState runtimeState) {
+        return ObjectSelect.query(Artist.class)
+                .prefetch(Artist.PAINTINGS.disjoint())
+                .select(runtimeState.newContext());
+    }
+
+    @Benchmark
+    public List<Artist> prefetchDisjointById(RuntimeState runtimeState) {
+        return ObjectSelect.query(Artist.class)
+                .prefetch(Artist.PAINTINGS.disjointById())
+                .select(runtimeState.newContext());
+    }
+
+    @Benchmark
+    public List<Artist> prefetchJoint(RuntimeState runtimeState) {
+        return ObjectSelect.query(Artist.class)
+                .prefetch(Artist.PAINTINGS.joint())
+                .select(runtimeState.newContext());
+    }
+}
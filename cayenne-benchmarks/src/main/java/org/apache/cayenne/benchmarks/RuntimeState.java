@@ -0,0 +1,129 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.benchmarks;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.apache.cayenne.ObjectContext;
+import org.apache.cayenne.benchmarks.persistent.Artist;
+import org.apache.cayenne.benchmarks.persistent.Painting;
+import org.apache.cayenne.configuration.Constants;
+import org.apache.cayenne.configuration.server.ServerModule;
+import org.apache.cayenne.configuration.server.ServerRuntime;
+import org.apache.cayenne.query.SQLExec;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * A JMH state holding a {@link ServerRuntime} connected to an embedded
+ * in-memory database. The database is selected with the "database" benchmark
+ * parameter, e.g. "-p database=hsqldb,h2,derby".
+ *
+ * @since 4.2
+ */
+@State(Scope.Benchmark)
+public class RuntimeState {
+
+    @Param({"hsqldb"})
+    public String database;
+
+    private ServerRuntime runtime;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        String driver;
+        String url;
+
+        switch (database) {
+            case "hsqldb":
+                driver = "org.hsqldb.jdbc.JDBCDriver";
+                url = "jdbc:hsqldb:mem:benchmarks";
+                break;
+            case "h2":
+                driver = "org.h2.Driver";
+                url = "jdbc:h2:mem:benchmarks;DB_CLOSE_DELAY=-1";
+                break;
+            case "derby":
+                driver = "org.apache.derby.jdbc.EmbeddedDriver";
+                url = "jdbc:derby:memory:benchmarks;create=true";
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported database: " + database);
+        }
+
+        this.runtime = ServerRuntime.builder()
+                .addConfig("cayenne-benchmarks.xml")
+                .addModule(binder -> ServerModule.contributeProperties(binder)
+                        .put(Constants.JDBC_DRIVER_PROPERTY, driver)
+                        .put(Constants.JDBC_URL_PROPERTY, url)
+                        .put(Constants.JDBC_MIN_CONNECTIONS_PROPERTY, "1")
+                        .put(Constants.JDBC_MAX_CONNECTIONS_PROPERTY, "8"))
+                .build();
+
+        deleteAll();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        deleteAll();
+        runtime.shutdown();
+    }
+
+    public ServerRuntime getRuntime() {
+        return runtime;
+    }
+
+    public ObjectContext newContext() {
+        return runtime.newContext();
+    }
+
+    /**
+     * Inserts a number of artists, each with a number of paintings.
+     */
+    public void insertArtists(int artists, int paintingsPerArtist) {
+        ObjectContext context = newContext();
+
+        for (int i = 0; i < artists; i++) {
+            Artist artist = context.newObject(Artist.class);
+            artist.setArtistName("artist" + i);
+            artist.setDateOfBirth(LocalDate.of(1900, 1, 1).plusDays(i));
+
+            for (int j = 0; j < paintingsPerArtist; j++) {
+                Painting painting = context.newObject(Painting.class);
+                painting.setPaintingTitle("painting" + i + "_" + j);
+                painting.setEstimatedPrice(BigDecimal.valueOf(i * 100 + j));
+                painting.setArtist(artist);
+            }
+        }
+
+        context.commitChanges();
+    }
+
+    public void deleteAll() {
+        ObjectContext context = newContext();
+        SQLExec.query("DELETE FROM PAINTING").execute(context);
+        SQLExec.query("DELETE FROM ARTIST").execute(context);
+    }
+}
@@ -0,0 +1,83 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.cayenne.access.translator.select.DefaultSelectTranslator;
+import org.apache.cayenne.benchmarks.persistent.Artist;
+import org.apache.cayenne.benchmarks.persistent.Painting;
+import org.apache.cayenne.dba.DbAdapter;
+import org.apache.cayenne.map.EntityResolver;
+import org.apache.cayenne.query.ObjectSelect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures SQL generation for select queries with {@link DefaultSelectTranslator}.
+ * No database access is involved.
+ *
+ * @since 4.2
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SelectTranslatorBenchmark {
+
+    private DbAdapter adapter;
+    private EntityResolver entityResolver;
+
+    @Setup(Level.Trial)
+    public void setUp(RuntimeState runtimeState) {
+        this.adapter = runtimeState.getRuntime().getDataDomain().getDataNode("datanode").getAdapter();
+        this.entityResolver = runtimeState.getRuntime().getDataDomain().getEntityResolver();
+    }
+
+    @Benchmark
+    public String translateSimple() {
+        ObjectSelect<Artist> select = ObjectSelect.query(Artist.class)
+                .where(Artist.ARTIST_NAME.eq("artist1"));
+        return new DefaultSelectTranslator(select, adapter, entityResolver).getSql();
+    }
+
+    @Benchmark
+    public String translateWithJoins() {
+        ObjectSelect<Painting> select = ObjectSelect.query(Painting.class)
+                .where(Painting.ARTIST.dot(Artist.ARTIST_NAME).like("artist%"))
+                .and(Painting.ESTIMATED_PRICE.between(BigDecimal.ONE, BigDecimal.TEN))
+                .orderBy(Painting.ARTIST.dot(Artist.ARTIST_NAME).asc(), Painting.PAINTING_TITLE.desc())
+                .prefetch(Painting.ARTIST.joint())
+                .limit(10)
+                .offset(20);
+        return new DefaultSelectTranslator(select, adapter, entityResolver).getSql();
+    }
+}
@@ -19,6 +19,8 @@
 
 package org.apache.cayenne.cache.invalidation;
 
+import java.util.Objects;
+
 /**
  * Immutable object describing cache group.
  * Used as a result in invalidation function.
@@ -57,4 +59,31 @@ public class CacheGroupDescriptor {
     public Class<?> getValueType() {
         return valueType;
     }
+
+    /**
+     * @since 4.2
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (!(o instanceof CacheGroupDescriptor)) {
+            return false;
+        }
+
+        CacheGroupDescriptor that = (CacheGroupDescriptor) o;
+        return Objects.equals(cacheGroupName, that.cacheGroupName)
+                && Objects.equals(keyType, that.keyType)
+                && Objects.equals(valueType, that.valueType);
+    }
+
+    /**
+     * @since 4.2
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(cacheGroupName, keyType, valueType);
+    }
 }
@@ -0,0 +1,46 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.cache.invalidation;
+
+/**
+ * @since 4.2
+ */
+public interface CacheInvalidationConstants {
+
+    /**
+     * A time window in milliseconds during which invalidated cache groups are collected
+     * and then removed from the cache in one pass on a background thread. Zero (the
+     * default) means that the groups are removed synchronously at the end of each commit.
+     * A positive value bounds the staleness of the cached results to about the window
+     * length after the commit.
+     *
+     * @see CacheInvalidationModuleExtender#asyncInvalidation(long)
+     */
+    String ASYNC_WINDOW_PROPERTY = "cayenne.cache.invalidation.async_window";
+
+    /**
+     * A comma-separated list of cache group names that are always invalidated
+     * synchronously at the end of the commit, even if asynchronous invalidation is
+     * enabled.
+     *
+     * @see CacheInvalidationModuleExtender#addStrictGroup(String)
+     */
+    String STRICT_GROUPS_PROPERTY = "cayenne.cache.invalidation.strict_groups";
+}
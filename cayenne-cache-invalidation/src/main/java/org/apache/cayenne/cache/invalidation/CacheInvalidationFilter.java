@@ -27,17 +27,27 @@ import org.apache.cayenne.annotation.PrePersist;
 import org.apache.cayenne.annotation.PreRemove;
 import org.apache.cayenne.annotation.PreUpdate;
 import org.apache.cayenne.cache.QueryCache;
+import org.apache.cayenne.configuration.RuntimeProperties;
+import org.apache.cayenne.di.BeforeScopeEnd;
 import org.apache.cayenne.di.Inject;
 import org.apache.cayenne.di.Provider;
 import org.apache.cayenne.graph.GraphDiff;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 
 /**
@@ -54,6 +64,13 @@ import java.util.function.Function;
  *              .addModule(CacheInvalidationModuleBuilder.builder().build());
  *     </pre>
  * </p>
+ * <p>
+ * By default cache groups are removed synchronously at the end of each commit. If
+ * {@link CacheInvalidationConstants#ASYNC_WINDOW_PROPERTY} is set, the groups are instead
+ * collected over the window, deduplicated across commits and removed on a background
+ * thread. Groups listed in {@link CacheInvalidationConstants#STRICT_GROUPS_PROPERTY} are
+ * still removed synchronously.
+ * </p>
  *
  * @see CacheInvalidationModuleExtender
  * @see InvalidationHandler
@@ -61,18 +78,64 @@ import java.util.function.Function;
  */
 public class CacheInvalidationFilter implements DataChannelSyncFilter {
 
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationFilter.class);
+
     private final Provider<QueryCache> cacheProvider;
     private final List<InvalidationHandler> handlers;
     private final Map<Class<? extends Persistent>, Function<Persistent, Collection<CacheGroupDescriptor>>> mappedHandlers;
     private final Function<Persistent, Collection<CacheGroupDescriptor>> skipHandler;
     private final ThreadLocal<Set<CacheGroupDescriptor>> groups;
 
+    private final long asyncWindow;
+    private final Set<String> strictGroups;
+    private final Set<CacheGroupDescriptor> pendingGroups;
+    private final AtomicBoolean flushScheduled;
+    private volatile ScheduledExecutorService executor;
+
     public CacheInvalidationFilter(@Inject Provider<QueryCache> cacheProvider, @Inject List<InvalidationHandler> handlers) {
+        this(cacheProvider, handlers, 0, Collections.emptySet());
+    }
+
+    /**
+     * @since 4.2
+     */
+    public CacheInvalidationFilter(@Inject Provider<QueryCache> cacheProvider,
+                                   @Inject List<InvalidationHandler> handlers,
+                                   @Inject RuntimeProperties properties) {
+        this(cacheProvider, handlers,
+                properties.getLong(CacheInvalidationConstants.ASYNC_WINDOW_PROPERTY, 0),
+                parseGroups(properties.get(CacheInvalidationConstants.STRICT_GROUPS_PROPERTY)));
+    }
+
+    /**
+     * @since 4.2
+     */
+    public CacheInvalidationFilter(Provider<QueryCache> cacheProvider, List<InvalidationHandler> handlers,
+                                   long asyncWindow, Set<String> strictGroups) {
         this.mappedHandlers = new ConcurrentHashMap<>();
         this.skipHandler = p -> Collections.emptyList();
         this.groups = new ThreadLocal<>();
         this.cacheProvider = cacheProvider;
         this.handlers = handlers;
+        this.asyncWindow = asyncWindow;
+        this.strictGroups = strictGroups;
+        this.pendingGroups = ConcurrentHashMap.newKeySet();
+        this.flushScheduled = new AtomicBoolean();
+    }
+
+    private static Set<String> parseGroups(String groups) {
+        if (groups == null || groups.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        Set<String> result = new HashSet<>();
+        for (String group : groups.split(",")) {
+            String trimmed = group.trim();
+            if (!trimmed.isEmpty()) {
+                result.add(trimmed);
+            }
+        }
+        return result;
     }
 
     @Override
@@ -83,13 +146,10 @@ public class CacheInvalidationFilter implements DataChannelSyncFilter {
             // no exceptions, flush...
             Collection<CacheGroupDescriptor> groupSet = groups.get();
             if (groupSet != null && !groupSet.isEmpty()) {
-                QueryCache cache = cacheProvider.get();
-                for (CacheGroupDescriptor group : groupSet) {
-                    if (group.getKeyType() != Void.class) {
-                        cache.removeGroup(group.getCacheGroupName(), group.getKeyType(), group.getValueType());
-                    } else {
-                        cache.removeGroup(group.getCacheGroupName());
-                    }
+                if (asyncWindow > 0) {
+                    invalidateAsync(groupSet);
+                } else {
+                    invalidate(cacheProvider.get(), groupSet);
                 }
             }
             return result;
@@ -98,6 +158,98 @@ public class CacheInvalidationFilter implements DataChannelSyncFilter {
         }
     }
 
+    private void invalidate(QueryCache cache, Collection<CacheGroupDescriptor> groupSet) {
+        for (CacheGroupDescriptor group : groupSet) {
+            if (group.getKeyType() != Void.class) {
+                cache.removeGroup(group.getCacheGroupName(), group.getKeyType(), group.getValueType());
+            } else {
+                cache.removeGroup(group.getCacheGroupName());
+            }
+        }
+    }
+
+    private void invalidateAsync(Collection<CacheGroupDescriptor> groupSet) {
+        List<CacheGroupDescriptor> strict = null;
+        for (CacheGroupDescriptor group : groupSet) {
+            if (strictGroups.contains(group.getCacheGroupName())) {
+                if (strict == null) {
+                    strict = new ArrayList<>();
+                }
+                strict.add(group);
+            } else {
+                pendingGroups.add(group);
+            }
+        }
+
+        if (strict != null) {
+            invalidate(cacheProvider.get(), strict);
+        }
+
+        // a single flush is scheduled for all the groups collected within the window
+        if (!pendingGroups.isEmpty() && flushScheduled.compareAndSet(false, true)) {
+            getExecutor().schedule(this::flushPendingGroups, asyncWindow, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Removes all cache groups collected since the last flush.
+     */
+    void flushPendingGroups() {
+        // reset the flag first, so that groups added during the flush schedule a new one
+        flushScheduled.set(false);
+
+        if (pendingGroups.isEmpty()) {
+            return;
+        }
+
+        List<CacheGroupDescriptor> flushed = new ArrayList<>(pendingGroups.size());
+        Iterator<CacheGroupDescriptor> it = pendingGroups.iterator();
+        while (it.hasNext()) {
+            flushed.add(it.next());
+            it.remove();
+        }
+
+        try {
+            invalidate(cacheProvider.get(), flushed);
+        } catch (Exception e) {
+            logger.warn("Error invalidating cache groups " + flushed, e);
+        }
+    }
+
+    private ScheduledExecutorService getExecutor() {
+        if (executor == null) {
+            synchronized (this) {
+                if (executor == null) {
+                    ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+                        Thread thread = new Thread(r, "cayenne-cache-invalidation");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    executor.setRemoveOnCancelPolicy(true);
+                    this.executor = executor;
+                }
+            }
+        }
+
+        return executor;
+    }
+
+    /**
+     * Invalidates the pending cache groups and stops the background thread.
+     *
+     * @since 4.2
+     */
+    @BeforeScopeEnd
+    public void shutdown() {
+        ScheduledExecutorService executor = this.executor;
+        if (executor != null) {
+            executor.shutdownNow();
+            this.executor = null;
+        }
+
+        flushPendingGroups();
+    }
+
     /**
      * A callback method that records cache group to flush at the end of the commit.
      */
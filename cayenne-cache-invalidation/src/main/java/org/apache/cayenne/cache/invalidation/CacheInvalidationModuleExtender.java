@@ -20,12 +20,14 @@
 package org.apache.cayenne.cache.invalidation;
 
 import org.apache.cayenne.Persistent;
+import org.apache.cayenne.configuration.server.ServerModule;
 import org.apache.cayenne.di.Binder;
 import org.apache.cayenne.di.ListBuilder;
 import org.apache.cayenne.di.Module;
 
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.function.Function;
 
 /**
@@ -36,10 +38,13 @@ public class CacheInvalidationModuleExtender {
     private Collection<Class<? extends InvalidationHandler>> handlerTypes;
     private Collection<InvalidationHandler> handlerInstances;
     private boolean noCacheGroupsHandler;
+    private long asyncWindow;
+    private Collection<String> strictGroups;
 
     CacheInvalidationModuleExtender() {
         this.handlerTypes = new HashSet<>();
         this.handlerInstances = new HashSet<>();
+        this.strictGroups = new LinkedHashSet<>();
     }
 
     /**
@@ -61,9 +66,44 @@ public class CacheInvalidationModuleExtender {
         return this;
     }
 
+    /**
+     * Enables asynchronous invalidation: cache groups invalidated by the commits made
+     * within the time window are removed from the cache in one pass on a background
+     * thread, so that commits don't wait for the cache.
+     *
+     * @param windowMs max time in milliseconds between a commit and invalidation of its
+     *                 cache groups.
+     * @since 4.2
+     */
+    public CacheInvalidationModuleExtender asyncInvalidation(long windowMs) {
+        this.asyncWindow = windowMs;
+        return this;
+    }
+
+    /**
+     * Marks a cache group that must be invalidated synchronously at the end of the commit,
+     * even if asynchronous invalidation is enabled.
+     *
+     * @since 4.2
+     */
+    public CacheInvalidationModuleExtender addStrictGroup(String cacheGroupName) {
+        strictGroups.add(cacheGroupName);
+        return this;
+    }
+
     public Module module() {
         return binder -> {
 
+            if (asyncWindow > 0) {
+                ServerModule.contributeProperties(binder)
+                        .put(CacheInvalidationConstants.ASYNC_WINDOW_PROPERTY, Long.toString(asyncWindow));
+            }
+
+            if (!strictGroups.isEmpty()) {
+                ServerModule.contributeProperties(binder)
+                        .put(CacheInvalidationConstants.STRICT_GROUPS_PROPERTY, String.join(",", strictGroups));
+            }
+
             if (noCacheGroupsHandler) {
                 // replace CacheGroupsHandler with a dummy no op handler
                 binder.bind(CacheGroupsHandler.class).toInstance(new CacheGroupsHandler() {
@@ -0,0 +1,81 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.cache.invalidation;
+
+import org.apache.cayenne.ObjectContext;
+import org.apache.cayenne.Persistent;
+import org.apache.cayenne.cache.invalidation.db.E1;
+import org.apache.cayenne.di.Module;
+import org.apache.cayenne.query.ObjectSelect;
+import org.apache.cayenne.test.parallel.ParallelTestContainer;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+
+public class CacheInvalidationAsyncIT extends CacheInvalidationCase {
+
+    @Override
+    protected Module extendInvalidationModule() {
+        return CacheInvalidationModule.extend()
+                .noCacheGroupsHandler()
+                .addHandler(G1G2InvalidationHandler.class)
+                .asyncInvalidation(100)
+                .addStrictGroup("g2")
+                .module();
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+        ObjectContext context = runtime.newContext();
+
+        ObjectSelect<E1> g1 = ObjectSelect.query(E1.class).localCache("g1");
+        ObjectSelect<E1> g2 = ObjectSelect.query(E1.class).localCache("g2");
+
+        assertEquals(0, g1.selectCount(context));
+        assertEquals(0, g2.selectCount(context));
+
+        e1.insert(1).insert(2);
+
+        context.newObject(E1.class);
+        context.commitChanges();
+
+        // strict group is refreshed right after the commit
+        assertEquals(3, g2.selectCount(context));
+
+        // others are refreshed within the window
+        new ParallelTestContainer() {
+            @Override
+            protected void assertResult() {
+                assertEquals(3, g1.selectCount(context));
+            }
+        }.runTest(5000);
+    }
+
+    public static class G1G2InvalidationHandler implements InvalidationHandler {
+        @Override
+        public Function<Persistent, Collection<CacheGroupDescriptor>> canHandle(Class<? extends Persistent> type) {
+            return p -> Arrays.asList(new CacheGroupDescriptor("g1"), new CacheGroupDescriptor("g2"));
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.cache.invalidation;
+
+import org.apache.cayenne.Persistent;
+import org.apache.cayenne.cache.MapQueryCache;
+import org.apache.cayenne.cache.invalidation.db.E1;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CacheInvalidationFilterTest {
+
+    private static final InvalidationHandler HANDLER = new InvalidationHandler() {
+        @Override
+        public Function<Persistent, Collection<CacheGroupDescriptor>> canHandle(Class<? extends Persistent> type) {
+            return p -> Arrays.asList(new CacheGroupDescriptor("g1"), new CacheGroupDescriptor("strict"));
+        }
+    };
+
+    private static void commit(CacheInvalidationFilter filter) {
+        filter.onSync(null, null, 0, (context, changes, syncType) -> {
+            filter.preCommit(new E1());
+            filter.preCommit(new E1());
+            return null;
+        });
+    }
+
+    @Test
+    public void testSyncInvalidation() {
+        RecordingQueryCache cache = new RecordingQueryCache();
+        CacheInvalidationFilter filter = new CacheInvalidationFilter(
+                () -> cache, Collections.singletonList(HANDLER));
+
+        commit(filter);
+
+        assertEquals(2, cache.removedGroups.size());
+        assertTrue(cache.removedGroups.containsAll(Arrays.asList("g1", "strict")));
+    }
+
+    @Test
+    public void testAsyncInvalidation() {
+        RecordingQueryCache cache = new RecordingQueryCache();
+        CacheInvalidationFilter filter = new CacheInvalidationFilter(
+                () -> cache, Collections.singletonList(HANDLER), 3_600_000L, Collections.singleton("strict"));
+
+        try {
+            commit(filter);
+            commit(filter);
+
+            // strict group is invalidated by each commit, others are deferred
+            assertEquals(Arrays.asList("strict", "strict"), cache.removedGroups);
+
+            filter.flushPendingGroups();
+            assertEquals(Arrays.asList("strict", "strict", "g1"), cache.removedGroups);
+
+            filter.flushPendingGroups();
+            assertEquals(3, cache.removedGroups.size());
+        } finally {
+            filter.shutdown();
+        }
+    }
+
+    @Test
+    public void testShutdownFlushesPendingGroups() {
+        RecordingQueryCache cache = new RecordingQueryCache();
+        CacheInvalidationFilter filter = new CacheInvalidationFilter(
+                () -> cache, Collections.singletonList(HANDLER), 3_600_000L, Collections.emptySet());
+
+        commit(filter);
+        assertEquals(0, cache.removedGroups.size());
+
+        filter.shutdown();
+        assertEquals(2, cache.removedGroups.size());
+    }
+
+    static class RecordingQueryCache extends MapQueryCache {
+
+        final List<String> removedGroups = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void removeGroup(String groupKey) {
+            removedGroups.add(groupKey);
+            super.removeGroup(groupKey);
+        }
+    }
+}
@@ -272,6 +272,29 @@ public class EntityUtils {
         return objEntity.getAttributeForDbAttribute(pkAttribute) != null;
     }
 
+    /**
+     * Returns the first numeric property slot used by the properties declared in the entity,
+     * i.e. the number of properties inherited from the super entity. Slots are assigned to
+     * inherited properties first, then to declared attributes and then to declared
+     * relationships, the same way they are assigned by the runtime class descriptors.
+     *
+     * @since 4.2
+     */
+    public int getPropertySlotOffset() {
+        ObjEntity superEntity = objEntity.getSuperEntity();
+        if (superEntity == null) {
+            return 0;
+        }
+
+        int offset = superEntity.getAttributes().size();
+        for (ObjRelationship relationship : superEntity.getRelationships()) {
+            if (!relationship.isRuntime()) {
+                offset++;
+            }
+        }
+        return offset;
+    }
+
     /**
      * @return the list of all callback names registered for the entity.
      * @since 3.0
@@ -21,6 +21,7 @@ package org.apache.cayenne.gen;
 
 import org.apache.cayenne.exp.property.EntityProperty;
 import org.apache.cayenne.exp.property.NumericProperty;
+import org.apache.cayenne.map.DataMap;
 import org.apache.cayenne.map.ObjAttribute;
 import org.apache.cayenne.map.ObjEntity;
 import org.apache.cayenne.map.ObjRelationship;
@@ -121,4 +122,35 @@ public class SuperClassGenerationTest extends ClassGenerationCase {
         assertTrue(res.contains(EntityProperty.class.getName()));
     }
 
+    @Test
+    public void testPropertySlots() throws Exception {
+        DataMap dataMap = new DataMap("map");
+
+        ObjEntity superEntity = new ObjEntity("SUPER");
+        superEntity.addAttribute(new ObjAttribute("superAttr", "java.lang.String", superEntity));
+        dataMap.addObjEntity(superEntity);
+
+        ObjEntity objEntity = new ObjEntity("TEST1");
+        objEntity.setSuperEntityName("SUPER");
+        objEntity.addAttribute(new ObjAttribute("attr", "java.lang.String", objEntity));
+        objEntity.addRelationship(new ObjRelationship("rel"));
+        dataMap.addObjEntity(objEntity);
+
+        VelocityContext context = new VelocityContext();
+        ImportUtils importUtils = new ImportUtils();
+        context.put(Artifact.OBJECT_KEY, objEntity);
+        context.put(Artifact.IMPORT_UTILS_KEY, importUtils);
+        context.put(Artifact.STRING_UTILS_KEY, StringUtils.getInstance());
+        context.put(EntityArtifact.ENTITY_UTILS_KEY, new EntityUtils(dataMap, objEntity, "Super", "_Test1", "Test1"));
+        context.put(Artifact.PROPERTY_UTILS_KEY,
+                getInjector().getInstance(ToolsUtilsFactory.class)
+                        .createPropertyUtils(logger, importUtils));
+
+        String res = renderTemplate(ClassGenerationAction.SUPERCLASS_TEMPLATE, context);
+        assertTrue(res.contains("public Object readPropertyDirectly(int slot)"));
+        assertTrue(res.contains("case 1:\n                return this.attr;"));
+        assertTrue(res.contains("case 2:\n                return this.rel;"));
+        assertTrue(res.contains("case 1:\n                this.attr = (String)val;"));
+        assertFalse(res.contains("case 0:"));
+    }
 }
@@ -44,6 +44,22 @@ public abstract class _ObjEntity extends BaseDataObject {
         }
     }
 
+    @Override
+    public Object readPropertyDirectly(int slot) {
+        switch(slot) {
+            default:
+                return super.readPropertyDirectly(slot);
+        }
+    }
+
+    @Override
+    public void writePropertyDirectly(int slot, Object val) {
+        switch(slot) {
+            default:
+                super.writePropertyDirectly(slot, val);
+        }
+    }
+
     private void writeObject(ObjectOutputStream out) throws IOException {
         writeSerialized(out);
     }
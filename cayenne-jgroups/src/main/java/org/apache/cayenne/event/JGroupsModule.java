@@ -48,6 +48,26 @@ public class JGroupsModule implements Module {
         contributeProperties(binder).put(JavaGroupsBridge.JGROUPS_CONFIG_URL_PROPERTY, config);
     }
 
+    /**
+     * Sets an {@link EventCodec} used to encode messages sent between the bridges. All
+     * nodes of the cluster must use the same codec.
+     *
+     * @since 4.2
+     */
+    public static void contributeEventCodec(Binder binder, Class<? extends EventCodec> codecType) {
+        contributeProperties(binder).put(EventBridge.EVENT_CODEC_PROPERTY, codecType.getName());
+    }
+
+    /**
+     * Sets a time window in milliseconds during which local events are collected and then
+     * sent together. Events are combined in a single message if an event codec is set.
+     *
+     * @since 4.2
+     */
+    public static void contributeCoalescingWindow(Binder binder, long millis) {
+        contributeProperties(binder).put(EventBridge.COALESCING_WINDOW_PROPERTY, Long.toString(millis));
+    }
+
     private static MapBuilder<String> contributeProperties(Binder binder) {
         return binder.bindMap(String.class, JAVA_GROUPS_BRIDGE_PROPERTIES_MAP);
     }
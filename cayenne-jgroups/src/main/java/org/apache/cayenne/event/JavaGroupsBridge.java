@@ -27,6 +27,8 @@ import org.jgroups.blocks.PullPushAdapter;
 
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -76,7 +78,7 @@ public class JavaGroupsBridge extends EventBridge implements MessageListener {
      * @since 4.0
      */
     public JavaGroupsBridge(Collection<EventSubject> localSubjects, String externalSubject, Map<String, String> properties) {
-        super(localSubjects, externalSubject);
+        super(localSubjects, externalSubject, properties);
 
         // configure properties
         String multicastAddress = properties.get(MCAST_ADDRESS_PROPERTY);
@@ -125,6 +127,13 @@ public class JavaGroupsBridge extends EventBridge implements MessageListener {
      */
     public void receive(Message message) {
         try {
+            if (eventCodec != null) {
+                for (CayenneEvent event : eventCodec.decode(message.getBuffer())) {
+                    onExternalEvent(event);
+                }
+                return;
+            }
+
             CayenneEvent event = messageObjectToEvent((Serializable) message.getObject());
             if (event != null) {
 
@@ -208,10 +217,31 @@ public class JavaGroupsBridge extends EventBridge implements MessageListener {
 
     @Override
     protected void sendExternalEvent(CayenneEvent localEvent) throws Exception {
+        if (eventCodec != null) {
+            sendExternalEvents(Collections.singletonList(localEvent));
+            return;
+        }
+
         Message message = new Message(null, null, eventToMessageObject(localEvent));
         channel.send(message);
     }
 
+    /**
+     * Sends all events in a single message if an event codec is configured.
+     *
+     * @since 4.2
+     */
+    @Override
+    protected void sendExternalEvents(List<CayenneEvent> localEvents) throws Exception {
+        if (eventCodec == null) {
+            super.sendExternalEvents(localEvents);
+            return;
+        }
+
+        Message message = new Message(null, null, eventCodec.encode(localEvents));
+        channel.send(message);
+    }
+
     /**
      * Converts CayenneEvent to a serializable object that will be sent via JMS. Default
      * implementation simply returns the event, but subclasses can customize this
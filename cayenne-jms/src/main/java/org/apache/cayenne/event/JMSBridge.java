@@ -21,6 +21,7 @@ package org.apache.cayenne.event;
 
 import org.apache.cayenne.util.IDUtil;
 
+import javax.jms.BytesMessage;
 import javax.jms.Message;
 import javax.jms.MessageFormatException;
 import javax.jms.MessageListener;
@@ -38,6 +39,8 @@ import javax.naming.NameNotFoundException;
 import javax.naming.NamingException;
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -81,7 +84,7 @@ public class JMSBridge extends EventBridge implements MessageListener {
      * @since 4.0
      */
     public JMSBridge(Collection<EventSubject> localSubjects, String externalSubject, Map<String, String> properties) {
-        super(localSubjects, externalSubject);
+        super(localSubjects, externalSubject, properties);
 
         // configure properties
         String topicConnectionFactory = properties
@@ -104,6 +107,17 @@ public class JMSBridge extends EventBridge implements MessageListener {
                 return;
             }
 
+            if (eventCodec != null && message instanceof BytesMessage) {
+                BytesMessage bytesMessage = (BytesMessage) message;
+                byte[] bytes = new byte[(int) bytesMessage.getBodyLength()];
+                bytesMessage.readBytes(bytes);
+
+                for (CayenneEvent event : eventCodec.decode(bytes)) {
+                    onExternalEvent(event);
+                }
+                return;
+            }
+
             if (!(message instanceof ObjectMessage)) {
                 return;
             }
@@ -254,12 +268,35 @@ public class JMSBridge extends EventBridge implements MessageListener {
 
     @Override
     protected void sendExternalEvent(CayenneEvent localEvent) throws Exception {
+        if (eventCodec != null) {
+            sendExternalEvents(Collections.singletonList(localEvent));
+            return;
+        }
+
         ObjectMessage message = sendSession
                 .createObjectMessage(eventToMessageObject(localEvent));
         message.setObjectProperty(JMSBridge.VM_ID_PROPERTY, JMSBridge.VM_ID);
         publisher.publish(message);
     }
 
+    /**
+     * Sends all events in a single message if an event codec is configured.
+     *
+     * @since 4.2
+     */
+    @Override
+    protected void sendExternalEvents(List<CayenneEvent> localEvents) throws Exception {
+        if (eventCodec == null) {
+            super.sendExternalEvents(localEvents);
+            return;
+        }
+
+        BytesMessage message = sendSession.createBytesMessage();
+        message.writeBytes(eventCodec.encode(localEvents));
+        message.setObjectProperty(JMSBridge.VM_ID_PROPERTY, JMSBridge.VM_ID);
+        publisher.publish(message);
+    }
+
     /**
      * Converts CayenneEvent to a serializable object that will be sent via JMS. Default
      * implementation simply returns the event, but subclasses can customize this
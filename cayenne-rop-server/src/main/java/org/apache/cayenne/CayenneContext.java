@@ -270,6 +270,17 @@ public class CayenneContext extends BaseContext {
         registerNewObject((Persistent) object, entity.getName(), descriptor);
     }
 
+    /**
+     * Upsert is not supported by the client contexts, as the commit is sent to the
+     * server as a plain graph diff. Throws CayenneRuntimeException.
+     *
+     * @since 4.2
+     */
+    @Override
+    public void registerForUpsert(Persistent object) {
+        throw new CayenneRuntimeException("Upsert is not supported by %s", getClass().getSimpleName());
+    }
+
     /**
      * Runs a query, returning result as list.
      */
@@ -18,6 +18,7 @@
  ****************************************************************/
 package org.apache.cayenne;
 
+import org.apache.cayenne.access.AsyncQueryExecutor;
 import org.apache.cayenne.cache.NestedQueryCache;
 import org.apache.cayenne.cache.QueryCache;
 import org.apache.cayenne.configuration.CayenneRuntime;
@@ -48,7 +49,9 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
  * A common base superclass for Cayenne ObjectContext implementors.
@@ -100,6 +103,11 @@ public abstract class BaseContext implements ObjectContext {
 	protected transient QueryCache queryCache;
 	protected transient EntityResolver entityResolver;
 
+	/**
+	 * @since 4.2
+	 */
+	protected transient AsyncQueryExecutor asyncQueryExecutor;
+
 	protected boolean validatingObjectsOnCommit = true;
 
 	/**
@@ -481,6 +489,60 @@ public abstract class BaseContext implements ObjectContext {
 		this.queryCache = queryCache;
 	}
 
+	/**
+	 * @since 4.2
+	 */
+	public AsyncQueryExecutor getAsyncQueryExecutor() {
+		return asyncQueryExecutor;
+	}
+
+	/**
+	 * Sets an executor for the "*Async" methods. If not set, the methods run
+	 * on the common {@link java.util.concurrent.ForkJoinPool}.
+	 *
+	 * @since 4.2
+	 */
+	public void setAsyncQueryExecutor(AsyncQueryExecutor asyncQueryExecutor) {
+		this.asyncQueryExecutor = asyncQueryExecutor;
+	}
+
+	/**
+	 * @since 4.2
+	 */
+	@Override
+	public <T> CompletableFuture<List<T>> selectAsync(Select<T> query) {
+		return runAsync(() -> select(query));
+	}
+
+	/**
+	 * @since 4.2
+	 */
+	@Override
+	public CompletableFuture<QueryResponse> performGenericQueryAsync(Query query) {
+		return runAsync(() -> performGenericQuery(query));
+	}
+
+	/**
+	 * @since 4.2
+	 */
+	@Override
+	public CompletableFuture<Void> commitChangesAsync() {
+		return runAsync(() -> {
+			commitChanges();
+			return null;
+		});
+	}
+
+	/**
+	 * Runs the task with this context AsyncQueryExecutor.
+	 *
+	 * @since 4.2
+	 */
+	protected <T> CompletableFuture<T> runAsync(Supplier<T> task) {
+		AsyncQueryExecutor executor = getAsyncQueryExecutor();
+		return executor != null ? executor.submit(task) : CompletableFuture.supplyAsync(task);
+	}
+
 	/**
 	 * Returns EventManager associated with the ObjectStore.
 	 * 
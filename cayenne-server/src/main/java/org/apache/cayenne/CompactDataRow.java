@@ -0,0 +1,600 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A compact {@link DataRow} that stores values in a flat array instead of a hash table. Column
+ * names are resolved via an {@link Index} shared by all the rows read with the same row descriptor.
+ * Keys that are not in the index are still accepted and are kept in a separate small map.
+ * <p>
+ * The row stays a fully functional {@link Map}, although the storage inherited from the
+ * {@link HashMap} is never used. On serialization it is replaced with a regular {@link DataRow}.
+ *
+ * @since 4.2
+ */
+public class CompactDataRow extends DataRow {
+
+    private static final long serialVersionUID = -2357154003826453390L;
+
+    // marks slots that have no value, as null is a valid value
+    private static final Object NO_VALUE = new Object();
+
+    protected final Index index;
+    protected final Object[] values;
+    protected int valuesCount;
+
+    // keys missing in the index
+    protected Map<String, Object> extraValues;
+
+    public CompactDataRow(Index index) {
+        super(0);
+        this.index = index;
+        this.values = new Object[index.size()];
+        Arrays.fill(values, NO_VALUE);
+    }
+
+    protected CompactDataRow(CompactDataRow row) {
+        super(0);
+        this.index = row.index;
+        this.values = row.values.clone();
+        this.valuesCount = row.valuesCount;
+        if (row.extraValues != null) {
+            this.extraValues = new LinkedHashMap<>(row.extraValues);
+        }
+        this.entityName = row.entityName;
+    }
+
+    /**
+     * Sets a value at the given position of the index.
+     */
+    public void set(int position, Object value) {
+        if (values[position] == NO_VALUE) {
+            valuesCount++;
+        }
+        values[position] = value;
+    }
+
+    public Index getIndex() {
+        return index;
+    }
+
+    @Override
+    public DataRow applyDiff(DataRow diff) {
+        CompactDataRow merged = new CompactDataRow(this);
+        for (Map.Entry<String, Object> entry : diff.entrySet()) {
+            merged.put(entry.getKey(), entry.getValue());
+        }
+        return merged;
+    }
+
+    @Override
+    public int size() {
+        return valuesCount + (extraValues != null ? extraValues.size() : 0);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public Object get(Object key) {
+        int position = index.position(key);
+        if (position >= 0) {
+            Object value = values[position];
+            return value != NO_VALUE ? value : null;
+        }
+        return extraValues != null ? extraValues.get(key) : null;
+    }
+
+    @Override
+    public Object getOrDefault(Object key, Object defaultValue) {
+        int position = index.position(key);
+        if (position >= 0) {
+            Object value = values[position];
+            return value != NO_VALUE ? value : defaultValue;
+        }
+        return extraValues != null ? extraValues.getOrDefault(key, defaultValue) : defaultValue;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        int position = index.position(key);
+        if (position >= 0) {
+            return values[position] != NO_VALUE;
+        }
+        return extraValues != null && extraValues.containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        for (Object next : values) {
+            if (next != NO_VALUE && Objects.equals(next, value)) {
+                return true;
+            }
+        }
+        return extraValues != null && extraValues.containsValue(value);
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        int position = index.position(key);
+        if (position >= 0) {
+            Object old = values[position];
+            values[position] = value;
+            if (old == NO_VALUE) {
+                valuesCount++;
+                return null;
+            }
+            return old;
+        }
+
+        if (extraValues == null) {
+            extraValues = new LinkedHashMap<>(4);
+        }
+        return extraValues.put(key, value);
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ?> map) {
+        for (Map.Entry<? extends String, ?> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public Object remove(Object key) {
+        int position = index.position(key);
+        if (position >= 0) {
+            Object old = values[position];
+            if (old == NO_VALUE) {
+                return null;
+            }
+            values[position] = NO_VALUE;
+            valuesCount--;
+            return old;
+        }
+        return extraValues != null ? extraValues.remove(key) : null;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(values, NO_VALUE);
+        valuesCount = 0;
+        extraValues = null;
+    }
+
+    @Override
+    public Object putIfAbsent(String key, Object value) {
+        Object old = get(key);
+        if (old == null) {
+            old = put(key, value);
+        }
+        return old;
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        if (containsKey(key) && Objects.equals(get(key), value)) {
+            remove(key);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean replace(String key, Object oldValue, Object newValue) {
+        if (containsKey(key) && Objects.equals(get(key), oldValue)) {
+            put(key, newValue);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public Object replace(String key, Object value) {
+        return containsKey(key) ? put(key, value) : null;
+    }
+
+    @Override
+    public Object computeIfAbsent(String key, Function<? super String, ?> mappingFunction) {
+        Object value = get(key);
+        if (value == null) {
+            value = mappingFunction.apply(key);
+            if (value != null) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public Object computeIfPresent(String key, BiFunction<? super String, ? super Object, ?> remappingFunction) {
+        Object oldValue = get(key);
+        if (oldValue == null) {
+            return null;
+        }
+
+        Object value = remappingFunction.apply(key, oldValue);
+        if (value != null) {
+            put(key, value);
+        } else {
+            remove(key);
+        }
+        return value;
+    }
+
+    @Override
+    public Object compute(String key, BiFunction<? super String, ? super Object, ?> remappingFunction) {
+        Object value = remappingFunction.apply(key, get(key));
+        if (value != null) {
+            put(key, value);
+        } else {
+            remove(key);
+        }
+        return value;
+    }
+
+    @Override
+    public Object merge(String key, Object value, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+        Object oldValue = get(key);
+        Object newValue = oldValue == null ? value : remappingFunction.apply(oldValue, value);
+        if (newValue != null) {
+            put(key, newValue);
+        } else {
+            remove(key);
+        }
+        return newValue;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super Object> action) {
+        String[] keys = index.keys;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != NO_VALUE) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+        if (extraValues != null) {
+            extraValues.forEach(action);
+        }
+    }
+
+    @Override
+    public void replaceAll(BiFunction<? super String, ? super Object, ?> function) {
+        String[] keys = index.keys;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != NO_VALUE) {
+                values[i] = function.apply(keys[i], values[i]);
+            }
+        }
+        if (extraValues != null) {
+            extraValues.replaceAll(function);
+        }
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return new AbstractSet<String>() {
+            @Override
+            public Iterator<String> iterator() {
+                EntryIterator it = new EntryIterator();
+                return new Iterator<String>() {
+                    @Override
+                    public boolean hasNext() {
+                        return it.hasNext();
+                    }
+
+                    @Override
+                    public String next() {
+                        return it.next().getKey();
+                    }
+
+                    @Override
+                    public void remove() {
+                        it.remove();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return CompactDataRow.this.size();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return containsKey(o);
+            }
+
+            @Override
+            public boolean remove(Object o) {
+                if (containsKey(o)) {
+                    CompactDataRow.this.remove(o);
+                    return true;
+                }
+                return false;
+            }
+
+            @Override
+            public void clear() {
+                CompactDataRow.this.clear();
+            }
+        };
+    }
+
+    @Override
+    public Collection<Object> values() {
+        return new AbstractCollection<Object>() {
+            @Override
+            public Iterator<Object> iterator() {
+                EntryIterator it = new EntryIterator();
+                return new Iterator<Object>() {
+                    @Override
+                    public boolean hasNext() {
+                        return it.hasNext();
+                    }
+
+                    @Override
+                    public Object next() {
+                        return it.next().getValue();
+                    }
+
+                    @Override
+                    public void remove() {
+                        it.remove();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return CompactDataRow.this.size();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return containsValue(o);
+            }
+
+            @Override
+            public void clear() {
+                CompactDataRow.this.clear();
+            }
+        };
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        return new AbstractSet<Map.Entry<String, Object>>() {
+            @Override
+            public Iterator<Map.Entry<String, Object>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return CompactDataRow.this.size();
+            }
+
+            @Override
+            public void clear() {
+                CompactDataRow.this.clear();
+            }
+        };
+    }
+
+    @Override
+    public Object clone() {
+        CompactDataRow clone = new CompactDataRow(this);
+        clone.version = version;
+        clone.replacesVersion = replacesVersion;
+        return clone;
+    }
+
+    /**
+     * Replaces this row with a regular {@link DataRow} on serialization, as values are not stored
+     * in the inherited {@link HashMap}.
+     */
+    protected Object writeReplace() {
+        DataRow row = new DataRow(this);
+        row.version = version;
+        row.replacesVersion = replacesVersion;
+        row.entityName = entityName;
+        return row;
+    }
+
+    /**
+     * Iterates over array values followed by the extra values.
+     */
+    private class EntryIterator implements Iterator<Map.Entry<String, Object>> {
+
+        private int next = -1;
+        private int current = -1;
+        private Iterator<Map.Entry<String, Object>> extraIterator;
+        private boolean currentIsExtra;
+
+        EntryIterator() {
+            advance();
+        }
+
+        private void advance() {
+            next++;
+            while (next < values.length && values[next] == NO_VALUE) {
+                next++;
+            }
+            if (next >= values.length && extraIterator == null && extraValues != null) {
+                extraIterator = extraValues.entrySet().iterator();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < values.length || (extraIterator != null && extraIterator.hasNext());
+        }
+
+        @Override
+        public Map.Entry<String, Object> next() {
+            if (next < values.length) {
+                current = next;
+                currentIsExtra = false;
+                advance();
+                return new ValueEntry(current);
+            }
+
+            if (extraIterator != null) {
+                currentIsExtra = true;
+                current = -1;
+                return extraIterator.next();
+            }
+
+            throw new NoSuchElementException();
+        }
+
+        @Override
+        public void remove() {
+            if (currentIsExtra) {
+                extraIterator.remove();
+                currentIsExtra = false;
+                return;
+            }
+
+            if (current < 0) {
+                throw new IllegalStateException();
+            }
+
+            values[current] = NO_VALUE;
+            valuesCount--;
+            current = -1;
+        }
+    }
+
+    private class ValueEntry implements Map.Entry<String, Object> {
+
+        private final int position;
+
+        ValueEntry(int position) {
+            this.position = position;
+        }
+
+        @Override
+        public String getKey() {
+            return index.keys[position];
+        }
+
+        @Override
+        public Object getValue() {
+            Object value = values[position];
+            return value != NO_VALUE ? value : null;
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            Object old = getValue();
+            values[position] = value;
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            return Objects.equals(getKey(), e.getKey()) && Objects.equals(getValue(), e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+
+    /**
+     * An immutable mapping of DataRow keys to positions in the values array, shared by all rows
+     * produced from the same row descriptor.
+     */
+    public static final class Index {
+
+        private final String[] keys;
+        private final Map<String, Integer> positions;
+
+        /**
+         * Creates an index over unique keys.
+         */
+        public Index(String... keys) {
+            this.keys = keys;
+            this.positions = new HashMap<>((int) Math.ceil(keys.length / 0.75));
+            for (int i = 0; i < keys.length; i++) {
+                if (positions.put(keys[i], i) != null) {
+                    throw new IllegalArgumentException("Duplicate DataRow key: " + keys[i]);
+                }
+            }
+        }
+
+        /**
+         * Creates an index over a set of keys that may contain duplicates, filling
+         * the "positions" array with a position of each key.
+         */
+        public static Index forLabels(String[] labels, int[] positions) {
+            Map<String, Integer> unique = new LinkedHashMap<>();
+            for (int i = 0; i < labels.length; i++) {
+                Integer position = unique.get(labels[i]);
+                if (position == null) {
+                    position = unique.size();
+                    unique.put(labels[i], position);
+                }
+                positions[i] = position;
+            }
+            return new Index(unique.keySet().toArray(new String[0]));
+        }
+
+        public int size() {
+            return keys.length;
+        }
+
+        /**
+         * Returns a position of the key in this index or -1 if it is not indexed.
+         */
+        public int position(Object key) {
+            Integer position = positions.get(key);
+            return position != null ? position : -1;
+        }
+    }
+}
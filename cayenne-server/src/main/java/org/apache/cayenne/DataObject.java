@@ -41,6 +41,30 @@ public interface DataObject extends Persistent {
      */
     public Object readPropertyDirectly(String propertyName);
 
+    /**
+     * Modifies a value of a property identified by its numeric slot without altering the
+     * object state. Slots are assigned to entity properties in a stable order: inherited
+     * properties first, followed by declared attributes and declared relationships in the
+     * order they appear in the mapping. Generated classes override this method to avoid
+     * property name lookups, others are accessed by property name.
+     *
+     * @since 4.2
+     */
+    default void writePropertyDirectly(int slot, Object val) {
+        throw new IllegalArgumentException("Unknown property slot: " + slot);
+    }
+
+    /**
+     * Returns a value of a property identified by its numeric slot as currently stored in
+     * the DataObject.
+     *
+     * @see #writePropertyDirectly(int, Object)
+     * @since 4.2
+     */
+    default Object readPropertyDirectly(int slot) {
+        throw new IllegalArgumentException("Unknown property slot: " + slot);
+    }
+
     /**
      * Returns a value of the property identified by a property path. Supports reading
      * both mapped and unmapped properties. Unmapped properties are accessed in a manner
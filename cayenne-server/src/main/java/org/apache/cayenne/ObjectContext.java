@@ -27,6 +27,7 @@ import org.apache.cayenne.query.Select;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * A Cayenne object facade to a persistent store. Instances of ObjectContext are
@@ -97,6 +98,29 @@ public interface ObjectContext extends DataChannel, Serializable {
      */
     void registerNewObject(Object object);
 
+    /**
+     * Marks a NEW object of this context to be saved with an "insert or update by
+     * primary key" operation on commit. If the database already has a row with the same
+     * primary key, that row is updated instead of failing the commit with a key
+     * violation, so that externally sourced records can be saved without fetching them
+     * first. Primary key of the object must be set explicitly, either as a meaningful
+     * PK property or via its ObjectId. Requires an adapter that supports upserts.
+     * <p>
+     * The object is saved with all of its attributes, exactly as a regular insert. If
+     * the row already exists, every column mapped to the object is overwritten,
+     * including those of the attributes that were never set, which are written as
+     * NULL. This keeps the committed object state consistent with the database row.
+     * <p>
+     * Only the row of the object's own table is upserted. Entities with flattened
+     * attributes, that are mapped to more than one table, are rejected by this method,
+     * and a commit fails if an upserted object has to insert a row into another table,
+     * e.g. a join table of a new flattened relationship.
+     *
+     * @param object new object registered in this context.
+     * @since 4.2
+     */
+    void registerForUpsert(Persistent object);
+
 	/**
 	 * Schedules deletion of a persistent object.
 	 * 
@@ -250,6 +274,41 @@ public interface ObjectContext extends DataChannel, Serializable {
      */
     QueryResponse performGenericQuery(Query query);
 
+    /**
+     * Executes a selecting query asynchronously. The query is run against this context on a
+     * thread other than the caller's, so the objects in the result are registered in this
+     * context. Implementations serialize registration of fetched objects, so multiple
+     * selects may run concurrently, but the caller must not modify objects of this context
+     * until the returned future is complete. The query does not join a transaction bound
+     * to the calling thread.
+     *
+     * @since 4.2
+     */
+    default <T> CompletableFuture<List<T>> selectAsync(Select<T> query) {
+        return CompletableFuture.supplyAsync(() -> select(query));
+    }
+
+    /**
+     * Executes any kind of query asynchronously, e.g. a
+     * {@link org.apache.cayenne.query.QueryChain}, with the same thread confinement
+     * rules as {@link #selectAsync(Select)}.
+     *
+     * @since 4.2
+     */
+    default CompletableFuture<QueryResponse> performGenericQueryAsync(Query query) {
+        return CompletableFuture.supplyAsync(() -> performGenericQuery(query));
+    }
+
+    /**
+     * Commits changes of this context asynchronously. The caller must not modify objects of
+     * this context until the returned future is complete.
+     *
+     * @since 4.2
+     */
+    default CompletableFuture<Void> commitChangesAsync() {
+        return CompletableFuture.runAsync(this::commitChanges);
+    }
+
     /**
      * Returns GraphManager that manages object graph associated with this
      * context.
@@ -0,0 +1,37 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * A service that runs ObjectContext operations asynchronously, backing "*Async" methods of
+ * {@link org.apache.cayenne.ObjectContext} and query objects.
+ *
+ * @since 4.2
+ */
+public interface AsyncQueryExecutor {
+
+    /**
+     * Runs the task asynchronously, returning a future completed with the task result or
+     * exceptionally with the exception thrown by the task.
+     */
+    <T> CompletableFuture<T> submit(Supplier<T> task);
+}
@@ -0,0 +1,331 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.cayenne.DataRow;
+import org.apache.cayenne.ObjectId;
+import org.apache.cayenne.Persistent;
+import org.apache.cayenne.access.event.SnapshotEvent;
+import org.apache.cayenne.graph.NodeDiff;
+import org.apache.cayenne.query.ObjectIdQuery;
+
+/**
+ * An {@link ObjectStore} that allows multiple threads to read registered objects and to
+ * record changes of different objects concurrently. Unlike the default ObjectStore, it
+ * doesn't synchronize on the whole store when reading objects or registering diffs.
+ * Instead object lookups go to a thread-safe object map, and diff registration is
+ * serialized per object using a fixed set of lock stripes. Operations that change the
+ * store structure (snapshot event merging, rollback, unregistering objects) take an
+ * exclusive lock that only blocks diff registration, but not the readers.
+ * <p>
+ * Note that query result processing and commit still lock the store as a whole, and it
+ * is up to the application to avoid modifying the context objects while it is being
+ * committed.
+ * </p>
+ *
+ * @since 4.2
+ */
+public class ConcurrentObjectStore extends ObjectStore {
+
+    static final int LOCK_STRIPES = 16;
+
+    protected boolean syncWithDataRowStore;
+
+    private transient ReentrantReadWriteLock structureLock;
+    private transient Object[] diffLocks;
+    private transient Object diffIdLock;
+
+    /**
+     * Creates a ConcurrentObjectStore. If the passed object map is not a
+     * {@link ConcurrentMap}, it is wrapped in a synchronized map.
+     *
+     * @param syncWithDataRowStore whether the store should receive snapshot events of
+     *                             the parent {@link DataRowStore}.
+     */
+    public ConcurrentObjectStore(DataRowStore dataRowCache, Map<Object, Persistent> objectMap,
+                                 boolean syncWithDataRowStore) {
+        super(dataRowCache, objectMap);
+
+        this.objectMap = objectMap instanceof ConcurrentMap
+                ? objectMap
+                : Collections.synchronizedMap(objectMap);
+        this.syncWithDataRowStore = syncWithDataRowStore;
+        initLocks();
+
+        // superclass constructor has registered the cache before the sync flag was set
+        if (syncWithDataRowStore) {
+            this.dataRowCache = null;
+            setDataRowCache(dataRowCache);
+        }
+    }
+
+    private void initLocks() {
+        this.structureLock = new ReentrantReadWriteLock();
+        this.diffLocks = new Object[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            diffLocks[i] = new Object();
+        }
+        this.diffIdLock = new Object();
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        initLocks();
+    }
+
+    @Override
+    Map<Object, ObjectDiff> createChangesMap() {
+        return new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns true if this store receives snapshot events of the parent DataRowStore.
+     */
+    public boolean isSyncWithDataRowStore() {
+        return syncWithDataRowStore;
+    }
+
+    @Override
+    public void setDataRowCache(DataRowStore dataRowCache) {
+        if (syncWithDataRowStore) {
+            super.setDataRowCache(dataRowCache);
+        } else {
+            // same as NoSyncObjectStore
+            this.dataRowCache = dataRowCache;
+            dataRowCacheSet = dataRowCache != null;
+        }
+    }
+
+    /**
+     * Registers object change holding a lock stripe of the changed object. Arc changes
+     * may register complimentary changes of the target objects, so they are registered
+     * exclusively.
+     */
+    @Override
+    ObjectDiff registerDiff(Object nodeId, NodeDiff diff) {
+
+        // trigger deferred DataRowStore initialization before taking any locks, as it
+        // synchronizes on the store
+        getDataRowCache();
+
+        // nested call from inside an exclusive registration
+        if (structureLock.isWriteLockedByCurrentThread()) {
+            return registerDiffNoSync(nodeId, diff);
+        }
+
+        // read lock can't be upgraded, so nested arc registrations from inside a shared
+        // one are handled as regular changes
+        if (diff instanceof ObjectDiff.ArcOperation && structureLock.getReadHoldCount() == 0) {
+            structureLock.writeLock().lock();
+            try {
+                return registerDiffNoSync(nodeId, diff);
+            } finally {
+                structureLock.writeLock().unlock();
+            }
+        }
+
+        structureLock.readLock().lock();
+        try {
+            synchronized (diffLock(nodeId)) {
+                return registerDiffNoSync(nodeId, diff);
+            }
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    int nextDiffId() {
+        synchronized (diffIdLock) {
+            return super.nextDiffId();
+        }
+    }
+
+    private Object diffLock(Object nodeId) {
+        int h = nodeId != null ? nodeId.hashCode() : 0;
+        h ^= (h >>> 16);
+        return diffLocks[h & (LOCK_STRIPES - 1)];
+    }
+
+    @Override
+    public void objectsUnregistered(Collection objects) {
+        synchronized (this) {
+            structureLock.writeLock().lock();
+            try {
+                super.objectsUnregistered(objects);
+            } finally {
+                structureLock.writeLock().unlock();
+            }
+        }
+    }
+
+    @Override
+    public void objectsRolledBack() {
+        synchronized (this) {
+            structureLock.writeLock().lock();
+            try {
+                super.objectsRolledBack();
+            } finally {
+                structureLock.writeLock().unlock();
+            }
+        }
+    }
+
+    @Override
+    void processSnapshotEvent(SnapshotEvent event) {
+        synchronized (this) {
+            structureLock.writeLock().lock();
+            try {
+                super.processSnapshotEvent(event);
+            } finally {
+                structureLock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Returns an iterator over a copy of the registered objects. Iterator "remove"
+     * operation removes the object from the store.
+     */
+    @Override
+    public Iterator<Persistent> getObjectIterator() {
+        final Iterator<Map.Entry<Object, Persistent>> it = copyEntries().iterator();
+        return new Iterator<Persistent>() {
+
+            private Map.Entry<Object, Persistent> current;
+
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public Persistent next() {
+                current = it.next();
+                return current.getValue();
+            }
+
+            @Override
+            public void remove() {
+                if (current == null) {
+                    throw new IllegalStateException();
+                }
+
+                objectMap.remove(current.getKey());
+                current = null;
+            }
+        };
+    }
+
+    @Override
+    public boolean hasChanges() {
+        return !changes.isEmpty();
+    }
+
+    @Override
+    public List<Persistent> objectsInState(int state) {
+        List<Persistent> filteredObjects = new ArrayList<>();
+
+        for (Map.Entry<Object, Persistent> entry : copyEntries()) {
+            Persistent object = entry.getValue();
+            if (object != null && object.getPersistenceState() == state) {
+                filteredObjects.add(object);
+            }
+        }
+
+        return filteredObjects;
+    }
+
+    @Override
+    public Object getNode(Object nodeId) {
+        return objectMap.get(nodeId);
+    }
+
+    @Override
+    public Collection<Object> registeredNodes() {
+        List<Object> nodes = new ArrayList<>();
+        for (Map.Entry<Object, Persistent> entry : copyEntries()) {
+            if (entry.getValue() != null) {
+                nodes.add(entry.getValue());
+            }
+        }
+        return nodes;
+    }
+
+    @Override
+    public void registerNode(Object nodeId, Object nodeObject) {
+        objectMap.put(nodeId, (Persistent) nodeObject);
+    }
+
+    @Override
+    public Object unregisterNode(Object nodeId) {
+        Object object = getNode(nodeId);
+        if (object != null) {
+            objectsUnregistered(Collections.singleton(object));
+        }
+
+        return object;
+    }
+
+    /**
+     * Returns a snapshot for ObjectId without locking the store.
+     */
+    @Override
+    public DataRow getSnapshot(ObjectId oid) {
+        if (context != null && context.getChannel() != null) {
+            ObjectIdQuery query = new ObjectIdQuery(oid, true, ObjectIdQuery.CACHE);
+            List<?> results = context.getChannel().onQuery(context, query).firstList();
+            return results.isEmpty() ? null : (DataRow) results.get(0);
+        } else {
+            return null;
+        }
+    }
+
+    private List<Map.Entry<Object, Persistent>> copyEntries() {
+        // synchronized map requires holding its monitor while iterating
+        if (objectMap instanceof ConcurrentMap) {
+            return copyEntries(objectMap);
+        }
+
+        synchronized (objectMap) {
+            return copyEntries(objectMap);
+        }
+    }
+
+    private static List<Map.Entry<Object, Persistent>> copyEntries(Map<Object, Persistent> map) {
+        List<Map.Entry<Object, Persistent>> entries = new ArrayList<>(map.size());
+        for (Map.Entry<Object, Persistent> entry : map.entrySet()) {
+            entries.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue()));
+        }
+        return entries;
+    }
+}
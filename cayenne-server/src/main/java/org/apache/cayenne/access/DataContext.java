@@ -89,6 +89,11 @@ public class DataContext extends BaseContext {
 
     protected transient DataContextMergeHandler mergeHandler;
 
+    /**
+     * @since 4.2
+     */
+    protected int commitChunkSize;
+
     /**
      * Creates a new DataContext that is not attached to the Cayenne stack.
      */
@@ -124,6 +129,7 @@ public class DataContext extends BaseContext {
     protected void attachToRuntime(Injector injector) {
         super.attachToRuntime(injector);
         this.transactionFactory = injector.getInstance(TransactionFactory.class);
+        this.asyncQueryExecutor = injector.getInstance(AsyncQueryExecutor.class);
     }
 
     /**
@@ -457,7 +463,9 @@ public class DataContext extends BaseContext {
     }
 
     /**
-     * Creates and registers a new persistent object.
+     * Creates and registers a new persistent object. May commit the pending
+     * changes first if a commit chunk size is set, see
+     * {@link #setCommitChunkSize(int)}.
      * 
      * @since 1.2
      */
@@ -483,10 +491,15 @@ public class DataContext extends BaseContext {
      * <i>Note: in most cases {@link #newObject(Class)} method should be used,
      * however this method is helpful when generic persistent classes are
      * used.</i>
+     * <p>
+     * May commit the pending changes first if a commit chunk size is set, see
+     * {@link #setCommitChunkSize(int)}.
      * 
      * @since 3.0
      */
     public Persistent newObject(String entityName) {
+        commitChunkIfNeeded();
+
         ClassDescriptor descriptor = getEntityResolver().getClassDescriptor(entityName);
         if (descriptor == null) {
             throw new IllegalArgumentException("Invalid entity name: " + entityName);
@@ -517,6 +530,9 @@ public class DataContext extends BaseContext {
      * <p>
      * <i>Note that since 3.0 this method takes Object as an argument instead of
      * a {@link DataObject}.</i>
+     * <p>
+     * May commit the pending changes first if a commit chunk size is set, see
+     * {@link #setCommitChunkSize(int)}.
      * 
      * @param object
      *            new object that needs to be made persistent.
@@ -548,6 +564,8 @@ public class DataContext extends BaseContext {
             persistent.setObjectId(ObjectId.of(entity.getName()));
         }
 
+        commitChunkIfNeeded();
+
         ClassDescriptor descriptor = getEntityResolver().getClassDescriptor(entity.getName());
         if (descriptor == null) {
             throw new IllegalArgumentException("Invalid entity name: " + entity.getName());
@@ -605,6 +623,37 @@ public class DataContext extends BaseContext {
         });
     }
 
+    /**
+     * @since 4.2
+     */
+    @Override
+    public void registerForUpsert(Persistent object) {
+        if (object.getObjectContext() != this) {
+            throw new CayenneRuntimeException("Object %s is not registered in this context", object);
+        }
+
+        if (object.getPersistenceState() != PersistenceState.NEW) {
+            throw new CayenneRuntimeException("Only NEW objects can be upserted, %s is %s", object,
+                    PersistenceState.persistenceStateName(object.getPersistenceState()));
+        }
+
+        // nested commits are propagated as regular inserts
+        if (getChannel() instanceof DataContext) {
+            throw new CayenneRuntimeException("Upsert is not supported in nested contexts");
+        }
+
+        // columns of secondary tables can't be written in the same statement as the object row
+        ObjEntity entity = getEntityResolver().getObjEntity(object);
+        for (ObjAttribute attribute : entity.getAttributes()) {
+            if (attribute.isFlattened()) {
+                throw new CayenneRuntimeException("Upsert is not supported for entity '%s' mapped to more than one table, "
+                        + "attribute '%s' is flattened", entity.getName(), attribute.getName());
+            }
+        }
+
+        getObjectStore().registerForUpsert(object.getObjectId());
+    }
+
     /**
      * Unregisters a Collection of DataObjects from the DataContext and the
      * underlying ObjectStore. This operation also unsets DataContext for
@@ -686,6 +735,117 @@ public class DataContext extends BaseContext {
         flushToParent(true);
     }
 
+    /**
+     * Runs an operation that creates and modifies objects in this context,
+     * committing the changes in chunks within a single transaction. Once
+     * "chunkSize" objects have uncommitted changes, registering another new
+     * object first commits the pending changes and releases the committed
+     * objects, so that they can be garbage collected unless referenced by the
+     * application. Each chunk is sorted in the dependency order as a regular
+     * commit, so the objects must be fully initialized before the next new
+     * object is created. The remaining changes are committed when the operation
+     * completes.
+     * <p>
+     * Each chunk is flushed as a regular commit, so the commit events are
+     * posted and the shared snapshot cache is updated when the chunk is
+     * flushed, i.e. before the transaction is committed. The committed objects
+     * are only released in this context, turning HOLLOW, and are resolved again
+     * when accessed.
+     * <p>
+     * The transaction is rolled back if the operation throws, however the
+     * objects committed in the previous chunks are left in the COMMITTED or
+     * HOLLOW state and the events of those chunks are not revoked, so the
+     * context should be discarded in this case.
+     *
+     * @see #setCommitChunkSize(int)
+     * @since 4.2
+     */
+    public void commitChangesInChunks(int chunkSize, Runnable operation) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+
+        DataDomain domain = getParentDataDomain();
+        if (domain == null) {
+            throw new CayenneRuntimeException("Cannot commit changes - no DataDomain found.");
+        }
+
+        int oldChunkSize = commitChunkSize;
+        this.commitChunkSize = chunkSize;
+
+        try {
+            domain.getTransactionManager().performInTransaction(() -> {
+                operation.run();
+                commitChunk();
+                return null;
+            });
+        } finally {
+            this.commitChunkSize = oldChunkSize;
+        }
+    }
+
+    /**
+     * Returns the number of changed objects that triggers a commit when a new
+     * object is registered. Zero (the default) means that the changes are only
+     * committed explicitly.
+     *
+     * @since 4.2
+     */
+    public int getCommitChunkSize() {
+        return commitChunkSize;
+    }
+
+    /**
+     * Sets the number of changed objects that triggers a commit when a new
+     * object is registered. Unlike {@link #commitChangesInChunks(int, Runnable)}
+     * this doesn't start a transaction, so each chunk is committed in its own
+     * transaction, unless the caller runs within an external one.
+     * <p>
+     * Note that with a non-zero chunk size {@link #newObject(Class)},
+     * {@link #newObject(String)} and {@link #registerNewObject(Object)} commit
+     * all the pending changes once the chunk size is reached, and throw any
+     * exception thrown by {@link #commitChanges()}. Objects must be fully
+     * initialized, including their mandatory relationships, before the next
+     * object is created, otherwise they are committed half-initialized or the
+     * commit fails with a {@link org.apache.cayenne.validation.ValidationException}.
+     *
+     * @since 4.2
+     */
+    public void setCommitChunkSize(int commitChunkSize) {
+        this.commitChunkSize = commitChunkSize;
+    }
+
+    /**
+     * @since 4.2
+     */
+    @Override
+    public void prepareForAccess(Persistent object, String property, boolean lazyFaulting) {
+        // an object released after a chunk commit is registered again to be resolved in place
+        if (object.getPersistenceState() == PersistenceState.HOLLOW && object.getObjectContext() == this) {
+            synchronized (getObjectStore()) {
+                if (getObjectStore().getNode(object.getObjectId()) == null) {
+                    getObjectStore().registerNode(object.getObjectId(), object);
+                }
+            }
+        }
+
+        super.prepareForAccess(object, property, lazyFaulting);
+    }
+
+    private void commitChunkIfNeeded() {
+        if (commitChunkSize > 0 && objectStore != null && objectStore.changedObjectsCount() >= commitChunkSize) {
+            commitChunk();
+        }
+    }
+
+    private void commitChunk() {
+        List<Persistent> saved = getObjectStore().objectsPendingSave();
+        flushToParent(true);
+
+        // release committed objects locally, the transaction may still be open
+        getObjectStore().objectsReleased(saved);
+    }
+
     @Override
     protected GraphDiff onContextFlush(ObjectContext originatingContext, GraphDiff changes, boolean cascade) {
 
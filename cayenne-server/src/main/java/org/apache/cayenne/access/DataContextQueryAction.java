@@ -105,7 +105,7 @@ class DataContextQueryAction extends ObjectContextQueryAction {
     protected boolean interceptPaginatedQuery() {
         if (metadata.getPageSize() > 0) {
             Integer maxIdQualifierSize = actingDataContext.getParentDataDomain().getMaxIdQualifierSize();
-            List<?> paginatedList;
+            IncrementalFaultList<?> paginatedList;
             List<Object> rsMapping = metadata.getResultSetMapping();
             boolean mixedResults = false;
             if(rsMapping != null) {
@@ -128,6 +128,11 @@ class DataContextQueryAction extends ObjectContextQueryAction {
                 }
             }
 
+            int readAhead = actingDataContext.getParentDataDomain().getPaginatedReadAhead();
+            if (readAhead > 0) {
+                paginatedList.setReadAheadPages(readAhead);
+            }
+
             response = new ListResponse(paginatedList);
             return DONE;
         }
@@ -93,6 +93,21 @@ public class DataDomain implements QueryEngine, DataChannel {
 	 */
 	protected int maxIdQualifierSize;
 
+	/**
+	 * @since 4.2
+	 */
+	protected int paginatedReadAhead;
+
+	/**
+	 * @since 4.2
+	 */
+	protected int prefetchChunkSize;
+
+	/**
+	 * @since 4.2
+	 */
+	protected int prefetchParallelism = 1;
+
 	/**
 	 * @since 3.1
 	 * @deprecated since 4.1 this field is unused
@@ -132,6 +147,11 @@ public class DataDomain implements QueryEngine, DataChannel {
 	protected String name;
 	protected QueryCache queryCache;
 
+	/**
+	 * @since 4.2
+	 */
+	protected AsyncQueryExecutor asyncQueryExecutor;
+
 	// these are initialized from properties...
 	protected boolean sharedCacheEnabled;
 	protected boolean validatingObjectsOnCommit;
@@ -655,6 +675,22 @@ public class DataDomain implements QueryEngine, DataChannel {
 		this.queryCache = queryCache;
 	}
 
+	/**
+	 * Returns an executor used to run parallel query chains.
+	 *
+	 * @since 4.2
+	 */
+	public AsyncQueryExecutor getAsyncQueryExecutor() {
+		return asyncQueryExecutor;
+	}
+
+	/**
+	 * @since 4.2
+	 */
+	public void setAsyncQueryExecutor(AsyncQueryExecutor asyncQueryExecutor) {
+		this.asyncQueryExecutor = asyncQueryExecutor;
+	}
+
 	/**
 	 * @since 4.0
 	 */
@@ -877,6 +913,63 @@ public class DataDomain implements QueryEngine, DataChannel {
 		this.maxIdQualifierSize = maxIdQualifierSize;
 	}
 
+	/**
+	 * Returns the number of pages of a paginated query result resolved in
+	 * background when the result is iterated sequentially. Zero (the default)
+	 * means that pages are only resolved on access. Can be changed via
+	 * {@link Constants#SERVER_PAGINATED_READ_AHEAD_PROPERTY}.
+	 *
+	 * @since 4.2
+	 */
+	public int getPaginatedReadAhead() {
+		return paginatedReadAhead;
+	}
+
+	/**
+	 * @since 4.2
+	 */
+	public void setPaginatedReadAhead(int paginatedReadAhead) {
+		this.paginatedReadAhead = paginatedReadAhead;
+	}
+
+	/**
+	 * Returns a maximum number of parent keys matched by a single
+	 * DISJOINT_BY_ID prefetch query. Zero means that prefetch queries are only
+	 * split according to {@link #getMaxIdQualifierSize()}. Can be changed via
+	 * {@link Constants#SERVER_PREFETCH_CHUNK_SIZE_PROPERTY}.
+	 *
+	 * @since 4.2
+	 */
+	public int getPrefetchChunkSize() {
+		return prefetchChunkSize;
+	}
+
+	/**
+	 * @since 4.2
+	 */
+	public void setPrefetchChunkSize(int prefetchChunkSize) {
+		this.prefetchChunkSize = prefetchChunkSize;
+	}
+
+	/**
+	 * Returns a maximum number of DISJOINT_BY_ID prefetch queries that are
+	 * run concurrently for a single prefetch. Default is 1, i.e. the queries
+	 * are run one after another. Can be changed via
+	 * {@link Constants#SERVER_PREFETCH_PARALLELISM_PROPERTY}.
+	 *
+	 * @since 4.2
+	 */
+	public int getPrefetchParallelism() {
+		return prefetchParallelism;
+	}
+
+	/**
+	 * @since 4.2
+	 */
+	public void setPrefetchParallelism(int prefetchParallelism) {
+		this.prefetchParallelism = prefetchParallelism;
+	}
+
 	TransactionManager getTransactionManager() {
 		return transactionManager;
 	}
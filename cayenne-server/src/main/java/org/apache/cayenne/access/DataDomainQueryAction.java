@@ -27,23 +27,29 @@ import org.apache.cayenne.ObjectId;
 import org.apache.cayenne.Persistent;
 import org.apache.cayenne.QueryResponse;
 import org.apache.cayenne.ResultIterator;
+import org.apache.cayenne.access.event.SnapshotEvent;
 import org.apache.cayenne.cache.QueryCache;
 import org.apache.cayenne.cache.QueryCacheEntryFactory;
 import org.apache.cayenne.di.AdhocObjectFactory;
 import org.apache.cayenne.map.DataMap;
+import org.apache.cayenne.map.DbAttribute;
 import org.apache.cayenne.map.DbEntity;
 import org.apache.cayenne.map.DbRelationship;
 import org.apache.cayenne.map.Embeddable;
 import org.apache.cayenne.map.EntityInheritanceTree;
 import org.apache.cayenne.map.LifecycleEvent;
+import org.apache.cayenne.map.ObjEntity;
 import org.apache.cayenne.map.ObjRelationship;
 import org.apache.cayenne.query.EmbeddableResultSegment;
 import org.apache.cayenne.query.EntityResultSegment;
+import org.apache.cayenne.query.ObjectDelete;
 import org.apache.cayenne.query.ObjectIdQuery;
+import org.apache.cayenne.query.ObjectModifyQuery;
 import org.apache.cayenne.query.PrefetchSelectQuery;
 import org.apache.cayenne.query.PrefetchTreeNode;
 import org.apache.cayenne.query.Query;
 import org.apache.cayenne.query.QueryCacheStrategy;
+import org.apache.cayenne.query.QueryChain;
 import org.apache.cayenne.query.QueryMetadata;
 import org.apache.cayenne.query.QueryRouter;
 import org.apache.cayenne.query.RefreshQuery;
@@ -124,7 +130,9 @@ class DataDomainQueryAction implements QueryRouter, OperationObserver {
                 if (interceptRefreshQuery() != DONE) {
                     if (interceptSharedCache() != DONE) {
                         if (interceptDataDomainQuery() != DONE) {
-                            runQueryInTransaction();
+                            if (interceptObjectModifyQuery() != DONE) {
+                                runQueryInTransaction();
+                            }
                         }
                     }
                 }
@@ -147,6 +155,75 @@ class DataDomainQueryAction implements QueryRouter, OperationObserver {
         return !DONE;
     }
 
+    /**
+     * Runs a set-based modify query that requested snapshot invalidation, selecting
+     * the ids of the affected rows in the same transaction right before the query.
+     */
+    private boolean interceptObjectModifyQuery() {
+        if (!(query instanceof ObjectModifyQuery) || !((ObjectModifyQuery<?>) query).isInvalidatingSnapshots()) {
+            return !DONE;
+        }
+
+        ObjectModifyQuery<?> modifyQuery = (ObjectModifyQuery<?>) query;
+        Collection<ObjectId> ids = domain.getTransactionManager().performInTransaction(() -> {
+            Collection<ObjectId> matchedIds = matchObjectIds(modifyQuery);
+            runQuery();
+            return matchedIds;
+        });
+
+        if (cache != null && !ids.isEmpty()) {
+            Collection<ObjectId> deletedIds = modifyQuery instanceof ObjectDelete ? ids : Collections.emptyList();
+            Collection<ObjectId> invalidatedIds = deletedIds.isEmpty() ? ids : Collections.emptyList();
+            Object postedBy = context != null ? context.getObjectStore() : this;
+
+            cache.processSnapshotChanges(postedBy, Collections.emptyMap(), deletedIds, invalidatedIds,
+                    Collections.emptyList());
+
+            // ObjectStore ignores its own events, so update the objects of the calling context directly
+            if (context != null) {
+                context.getObjectStore().processSnapshotEvent(new SnapshotEvent(cache, postedBy,
+                        Collections.emptyMap(), deletedIds, invalidatedIds, Collections.emptyList()));
+            }
+        }
+
+        return DONE;
+    }
+
+    private Collection<ObjectId> matchObjectIds(ObjectModifyQuery<?> modifyQuery) {
+        DbEntity dbEntity = metadata.getDbEntity();
+
+        // the same row may be cached under the id of any entity mapped to the table
+        List<String> entityNames = new ArrayList<>(1);
+        for (ObjEntity entity : domain.getEntityResolver().getObjEntities()) {
+            if (entity.getDbEntity() == dbEntity) {
+                entityNames.add(entity.getName());
+            }
+        }
+
+        List<String> pkNames = new ArrayList<>(dbEntity.getPrimaryKeys().size());
+        for (DbAttribute pk : dbEntity.getPrimaryKeys()) {
+            pkNames.add(pk.getName());
+        }
+
+        Query idSelect = modifyQuery.createIdSelect(domain.getEntityResolver());
+        List<?> rows = new DataDomainQueryAction(context, domain, idSelect).execute().firstList();
+
+        Collection<ObjectId> ids = new ArrayList<>(rows.size() * entityNames.size());
+        for (Object row : rows) {
+            Object[] values = (Object[]) row;
+            Map<String, Object> idMap = new HashMap<>((int) (values.length / 0.75f) + 1);
+            for (int i = 0; i < values.length; i++) {
+                idMap.put(pkNames.get(i), values[i]);
+            }
+
+            for (String entityName : entityNames) {
+                ids.add(ObjectId.of(entityName, idMap));
+            }
+        }
+
+        return ids;
+    }
+
     private boolean interceptOIDQuery() {
         if (query instanceof ObjectIdQuery) {
 
@@ -440,12 +517,25 @@ class DataDomainQueryAction implements QueryRouter, OperationObserver {
      * Gets response from the underlying DataNodes.
      */
     void runQueryInTransaction() {
+        if (ParallelQueryChainAction.canRunInParallel(domain, query)) {
+            runParallelQueryChain();
+            return;
+        }
+
         domain.getTransactionManager().performInTransaction(() -> {
             runQuery();
             return null;
         });
     }
 
+    private void runParallelQueryChain() {
+        this.fullResponse = new ParallelQueryChainAction(domain, this, (QueryChain) query).execute();
+        this.response = this.fullResponse;
+        this.queriesByNode = null;
+        this.queriesByExecutedQueries = null;
+        this.prefetchResultsByPath = null;
+    }
+
     private void runQuery() {
         // reset
         this.fullResponse = new GenericResponse();
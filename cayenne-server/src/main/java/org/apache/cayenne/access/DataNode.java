@@ -77,6 +77,8 @@ public class DataNode implements QueryEngine {
 	private BatchTranslatorFactory batchTranslatorFactory;
 	private SelectTranslatorFactory selectTranslatorFactory;
 	private SQLTemplateProcessor sqlTemplateProcessor;
+	private int maxBatchSize;
+	private AsyncQueryExecutor batchPipelineExecutor;
 
 	TransactionDataSource readThroughDataSource;
 
@@ -408,6 +410,41 @@ public class DataNode implements QueryEngine {
 		this.selectTranslatorFactory = selectTranslatorFactory;
 	}
 
+	/**
+	 * Returns max number of rows sent to the database with a single JDBC
+	 * "executeBatch" call. Zero or negative value means no limit.
+	 *
+	 * @since 4.2
+	 */
+	public int getMaxBatchSize() {
+		return maxBatchSize;
+	}
+
+	/**
+	 * @since 4.2
+	 */
+	public void setMaxBatchSize(int maxBatchSize) {
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * Returns an executor used to run JDBC batch chunks in the background, while
+	 * the next chunk is being bound. Null means that chunks are executed
+	 * sequentially.
+	 *
+	 * @since 4.2
+	 */
+	public AsyncQueryExecutor getBatchPipelineExecutor() {
+		return batchPipelineExecutor;
+	}
+
+	/**
+	 * @since 4.2
+	 */
+	public void setBatchPipelineExecutor(AsyncQueryExecutor batchPipelineExecutor) {
+		this.batchPipelineExecutor = batchPipelineExecutor;
+	}
+
     // a read-through DataSource that ensures returning the same connection
     // within
     // transaction.
@@ -31,7 +31,6 @@ import org.apache.cayenne.configuration.RuntimeProperties;
 import org.apache.cayenne.event.EventBridge;
 import org.apache.cayenne.event.EventManager;
 import org.apache.cayenne.event.EventSubject;
-import org.apache.cayenne.util.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -61,8 +60,21 @@ public class DataRowStore implements Serializable {
 
     protected String name;
     private int maxSize;
+
+    /**
+     * The map of snapshots of the default on-heap storage. Null if a different
+     * {@link SnapshotStorage} is used.
+     *
+     * @deprecated since 4.2 snapshots are kept in a {@link #snapshotStorage}.
+     */
+    @Deprecated
     protected ConcurrentMap<ObjectId, DataRow> snapshots;
 
+    /**
+     * @since 4.2
+     */
+    protected SnapshotStorage snapshotStorage;
+
     protected transient EventManager eventManager;
     protected transient EventBridge remoteNotificationsHandler;
 
@@ -93,6 +105,31 @@ public class DataRowStore implements Serializable {
         initWithProperties(properties);
     }
 
+    /**
+     * Creates new DataRowStore with a specified name, a set of properties and a storage
+     * for the cached snapshots.
+     *
+     * @param name         DataRowStore name. Used to identify this DataRowStore in events, etc.
+     *                     Can't be null.
+     * @param properties   Properties map used to configure DataRowStore parameters.
+     * @param eventManager EventManager that should be used for posting and receiving
+     *                     events.
+     * @param storage      Storage of snapshots. If null, an on-heap storage bounded by
+     *                     {@link Constants#SNAPSHOT_CACHE_SIZE_PROPERTY} is used.
+     * @since 4.2
+     */
+    public DataRowStore(String name, RuntimeProperties properties, EventManager eventManager, SnapshotStorage storage) {
+        if (name == null) {
+            throw new IllegalArgumentException("DataRowStore name can't be null.");
+        }
+
+        this.name = name;
+        this.eventSubject = createSubject();
+        this.eventManager = eventManager;
+        this.snapshotStorage = storage;
+        initWithProperties(properties);
+    }
+
     private EventSubject createSubject() {
         return EventSubject.getSubject(this.getClass(), name);
     }
@@ -106,9 +143,13 @@ public class DataRowStore implements Serializable {
             logger.debug("DataRowStore property " + Constants.SNAPSHOT_CACHE_SIZE_PROPERTY + " = " + maxSize);
         }
 
-        this.snapshots = new ConcurrentLinkedHashMap.Builder<ObjectId, DataRow>()
-                .maximumWeightedCapacity(maxSize)
-                .build();
+        if (snapshotStorage == null) {
+            this.snapshotStorage = new HeapSnapshotStorage(maxSize);
+        }
+
+        if (snapshotStorage instanceof HeapSnapshotStorage) {
+            this.snapshots = ((HeapSnapshotStorage) snapshotStorage).snapshots;
+        }
     }
 
     protected void setEventBridge(EventBridge eventBridge) {
@@ -159,7 +200,7 @@ public class DataRowStore implements Serializable {
             // add snapshots if refresh is forced, or if a snapshot is
             // missing
 
-            DataRow cachedSnapshot = this.snapshots.get(oid);
+            DataRow cachedSnapshot = snapshotStorage.get(oid);
             if (refresh || cachedSnapshot == null) {
 
                 DataRow newSnapshot = snapshots.get(i);
@@ -198,11 +239,12 @@ public class DataRowStore implements Serializable {
      * Returns current cache size.
      */
     public int size() {
-        return snapshots.size();
+        return snapshotStorage.size();
     }
 
     /**
-     * Returns maximum allowed cache size.
+     * Returns maximum allowed cache size. Only enforced by the default on-heap snapshot
+     * storage, other storages may use their own limits.
      */
     public int maximumSize() {
         return maxSize;
@@ -259,7 +301,7 @@ public class DataRowStore implements Serializable {
      * ObjectId.
      */
     public DataRow getCachedSnapshot(ObjectId oid) {
-        return snapshots.get(oid);
+        return snapshotStorage.get(oid);
     }
 
     /**
@@ -273,14 +315,23 @@ public class DataRowStore implements Serializable {
      * Expires and removes all stored snapshots without sending any notification events.
      */
     public void clear() {
-        snapshots.clear();
+        snapshotStorage.clear();
+    }
+
+    /**
+     * Returns the storage of the cached snapshots.
+     *
+     * @since 4.2
+     */
+    public SnapshotStorage getSnapshotStorage() {
+        return snapshotStorage;
     }
 
     /**
      * Evicts a snapshot from cache without generating any SnapshotEvents.
      */
     public void forgetSnapshot(ObjectId id) {
-        snapshots.remove(id);
+        snapshotStorage.remove(id);
     }
 
     /**
@@ -356,7 +407,7 @@ public class DataRowStore implements Serializable {
         // DELETED: evict deleted snapshots
         if (!deletedSnapshotIDs.isEmpty()) {
             for (ObjectId deletedSnapshotID : deletedSnapshotIDs) {
-                snapshots.remove(deletedSnapshotID);
+                snapshotStorage.remove(deletedSnapshotID);
             }
         }
     }
@@ -365,7 +416,7 @@ public class DataRowStore implements Serializable {
         // INVALIDATED: forget snapshot, treat as expired from cache
         if (!invalidatedSnapshotIds.isEmpty()) {
             for (ObjectId invalidatedSnapshotId : invalidatedSnapshotIds) {
-                snapshots.remove(invalidatedSnapshotId);
+                snapshotStorage.remove(invalidatedSnapshotId);
             }
         }
     }
@@ -378,7 +429,7 @@ public class DataRowStore implements Serializable {
             for (Map.Entry<ObjectId, DataRow> entry : updatedSnapshots.entrySet()) {
                 ObjectId key = entry.getKey();
                 DataRow newSnapshot = entry.getValue();
-                DataRow oldSnapshot = snapshots.put(key, newSnapshot);
+                DataRow oldSnapshot = snapshotStorage.put(key, newSnapshot);
 
                 // generate diff for the updated event, if this not a new
                 // snapshot
@@ -438,14 +489,14 @@ public class DataRowStore implements Serializable {
         if (!diffs.isEmpty()) {
             for (Map.Entry<ObjectId, DataRow> entry : diffs.entrySet()) {
                 ObjectId key = entry.getKey();
-                DataRow oldSnapshot = snapshots.remove(key);
+                DataRow oldSnapshot = snapshotStorage.remove(key);
 
                 if (oldSnapshot == null) {
                     continue;
                 }
 
                 DataRow newSnapshot = oldSnapshot.applyDiff(entry.getValue());
-                snapshots.put(key, newSnapshot);
+                snapshotStorage.put(key, newSnapshot);
             }
         }
     }
@@ -0,0 +1,103 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.apache.cayenne.configuration.Constants;
+import org.apache.cayenne.configuration.RuntimeProperties;
+import org.apache.cayenne.di.BeforeScopeEnd;
+import org.apache.cayenne.di.Inject;
+
+/**
+ * Default {@link AsyncQueryExecutor} that runs tasks on a bounded thread pool, size of the
+ * pool is controlled by the {@link Constants#SERVER_ASYNC_THREADS_PROPERTY} property.
+ * Alternatively it can wrap any user-provided {@link Executor}, e.g. a virtual-thread-per-task
+ * executor on JDK 21+:
+ * <pre>
+ * binder.bind(AsyncQueryExecutor.class)
+ *      .toInstance(new DefaultAsyncQueryExecutor(Executors.newVirtualThreadPerTaskExecutor()));
+ * </pre>
+ *
+ * @since 4.2
+ */
+public class DefaultAsyncQueryExecutor implements AsyncQueryExecutor {
+
+    static final int DEFAULT_ASYNC_THREADS = 8;
+
+    private final Executor executor;
+    private final boolean ownsExecutor;
+
+    public DefaultAsyncQueryExecutor(@Inject RuntimeProperties properties) {
+        int threads = properties.getInt(Constants.SERVER_ASYNC_THREADS_PROPERTY, DEFAULT_ASYNC_THREADS);
+        this.executor = createExecutor(Math.max(1, threads));
+        this.ownsExecutor = true;
+    }
+
+    /**
+     * Creates an AsyncQueryExecutor running tasks on the provided executor. The executor
+     * lifecycle is managed by the caller.
+     */
+    public DefaultAsyncQueryExecutor(Executor executor) {
+        this.executor = executor;
+        this.ownsExecutor = false;
+    }
+
+    @Override
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, executor);
+    }
+
+    /**
+     * Stops the threads if the executor was created by this object.
+     */
+    @BeforeScopeEnd
+    public void shutdown() {
+        if (ownsExecutor) {
+            ((ExecutorService) executor).shutdownNow();
+        }
+    }
+
+    protected ExecutorService createExecutor(int threads) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads,
+                60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new AsyncThreadFactory());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    static class AsyncThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "cayenne-async-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
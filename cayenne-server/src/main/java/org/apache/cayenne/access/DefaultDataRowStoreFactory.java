@@ -20,6 +20,7 @@
 package org.apache.cayenne.access;
 
 import org.apache.cayenne.CayenneRuntimeException;
+import org.apache.cayenne.configuration.Constants;
 import org.apache.cayenne.configuration.RuntimeProperties;
 import org.apache.cayenne.di.DIRuntimeException;
 import org.apache.cayenne.di.Inject;
@@ -51,11 +52,31 @@ public class DefaultDataRowStoreFactory implements DataRowStoreFactory {
 
     @Override
     public DataRowStore createDataRowStore(String name) throws DIRuntimeException {
-        DataRowStore store = new DataRowStore(name, properties, eventManager);
+        DataRowStore store = new DataRowStore(name, properties, eventManager, createSnapshotStorage(name));
         setUpEventBridge(store);
         return store;
     }
 
+    /**
+     * Creates a storage for the snapshots of a new DataRowStore. Returns
+     * {@link OffHeapSnapshotStorage} if {@link Constants#SNAPSHOT_CACHE_OFF_HEAP_SIZE_PROPERTY}
+     * is set to a positive number of bytes, and {@link HeapSnapshotStorage} bounded by
+     * {@link Constants#SNAPSHOT_CACHE_SIZE_PROPERTY} otherwise. Subclasses may override
+     * this method to provide a custom storage.
+     *
+     * @since 4.2
+     */
+    protected SnapshotStorage createSnapshotStorage(String name) {
+        long offHeapSize = properties.getLong(Constants.SNAPSHOT_CACHE_OFF_HEAP_SIZE_PROPERTY, 0);
+        if (offHeapSize > 0) {
+            return new OffHeapSnapshotStorage(offHeapSize);
+        }
+
+        return new HeapSnapshotStorage(properties.getInt(
+                Constants.SNAPSHOT_CACHE_SIZE_PROPERTY,
+                DataRowStore.SNAPSHOT_CACHE_SIZE_DEFAULT));
+    }
+
     private void setUpEventBridge(DataRowStore store) {
         try {
             EventBridge eventBridge = eventBridgeProvider.get();
@@ -26,6 +26,7 @@ import org.apache.cayenne.Persistent;
 import org.apache.cayenne.configuration.Constants;
 import org.apache.cayenne.configuration.RuntimeProperties;
 import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.util.LruObjectMap;
 import org.apache.cayenne.util.SoftValueMap;
 import org.apache.cayenne.util.WeakValueMap;
 
@@ -39,6 +40,12 @@ public class DefaultObjectMapRetainStrategy implements ObjectMapRetainStrategy {
     private static final String WEAK_RETAIN_STRATEGY = "weak";
     private static final String SOFT_RETAIN_STRATEGY = "soft";
     private static final String HARD_RETAIN_STRATEGY = "hard";
+    private static final String LRU_RETAIN_STRATEGY = "lru";
+
+    /**
+     * @since 4.2
+     */
+    public static final int DEFAULT_RETAIN_CAPACITY = 10000;
 
     protected RuntimeProperties runtimeProperties;
 
@@ -55,6 +62,13 @@ public class DefaultObjectMapRetainStrategy implements ObjectMapRetainStrategy {
             return new SoftValueMap<>();
         } else if (HARD_RETAIN_STRATEGY.equals(strategy)) {
             return new HashMap<>();
+        } else if (LRU_RETAIN_STRATEGY.equals(strategy)) {
+            int capacity = runtimeProperties.getInt(Constants.SERVER_OBJECT_RETAIN_CAPACITY_PROPERTY,
+                    DEFAULT_RETAIN_CAPACITY);
+            if (capacity <= 0) {
+                throw new CayenneRuntimeException("Invalid object retain capacity %s", capacity);
+            }
+            return new LruObjectMap<>(capacity);
         } else {
             throw new CayenneRuntimeException("Unsupported retain strategy %s", strategy);
         }
@@ -0,0 +1,70 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.access;
+
+import org.apache.cayenne.DataRow;
+import org.apache.cayenne.ObjectId;
+import org.apache.cayenne.util.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A {@link SnapshotStorage} that keeps snapshots on heap in a LRU map bounded by the
+ * number of entries.
+ *
+ * @since 4.2
+ */
+public class HeapSnapshotStorage implements SnapshotStorage {
+
+    private static final long serialVersionUID = 2651846239465474263L;
+
+    protected ConcurrentMap<ObjectId, DataRow> snapshots;
+
+    public HeapSnapshotStorage(int maxSize) {
+        this.snapshots = new ConcurrentLinkedHashMap.Builder<ObjectId, DataRow>()
+                .maximumWeightedCapacity(maxSize)
+                .build();
+    }
+
+    @Override
+    public DataRow get(ObjectId id) {
+        return snapshots.get(id);
+    }
+
+    @Override
+    public DataRow put(ObjectId id, DataRow snapshot) {
+        return snapshots.put(id, snapshot);
+    }
+
+    @Override
+    public DataRow remove(ObjectId id) {
+        return snapshots.remove(id);
+    }
+
+    @Override
+    public int size() {
+        return snapshots.size();
+    }
+
+    @Override
+    public void clear() {
+        snapshots.clear();
+    }
+}
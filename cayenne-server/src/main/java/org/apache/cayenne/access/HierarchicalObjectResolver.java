@@ -32,12 +32,21 @@ import org.apache.cayenne.query.PrefetchSelectQuery;
 import org.apache.cayenne.query.PrefetchTreeNode;
 import org.apache.cayenne.query.QueryMetadata;
 import org.apache.cayenne.reflect.ClassDescriptor;
+import org.apache.cayenne.tx.BaseTransaction;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.RandomAccess;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Processes a number of DataRow sets corresponding to a given prefetch tree, resolving
@@ -46,6 +55,12 @@ import java.util.Set;
  */
 class HierarchicalObjectResolver {
 
+    /**
+     * Min number of parent keys per DISJOINT_BY_ID prefetch query when splitting a prefetch
+     * between parallel workers.
+     */
+    static final int MIN_PARALLEL_CHUNK_SIZE = 100;
+
     DataContext context;
     QueryMetadata queryMetadata;
     DataRowStore cache;
@@ -142,40 +157,21 @@ class HierarchicalObjectResolver {
                 parentDataRows = parentProcessorNode.getDataRows();
             }
 
-            int maxIdQualifierSize = context.getParentDataDomain().getMaxIdQualifierSize();
+            DataDomain domain = context.getParentDataDomain();
             List<DbJoin> joins = lastDbRelationship.getJoins();
 
-            List<PrefetchSelectQuery<DataRow>> queries = new ArrayList<>();
-            PrefetchSelectQuery<DataRow> currentQuery = null;
-            int qualifiersCount = 0;
-            Set<List<Object>> values = new HashSet<>();
-
+            Set<List<Object>> values = new LinkedHashSet<>();
             for (DataRow dataRow : parentDataRows) {
-                // handling too big qualifiers
-                if (currentQuery == null
-                        || (maxIdQualifierSize > 0 && qualifiersCount + joins.size() > maxIdQualifierSize)) {
-
-                    createDisjointByIdPrefetchQualifier(pathPrefix, currentQuery, joins, values);
-
-                    currentQuery = new PrefetchSelectQuery<>(node.getPath(), relationship);
-                    currentQuery.fetchDataRows();
-                    queries.add(currentQuery);
-                    qualifiersCount = 0;
-                    values = new HashSet<>();
-                }
-
                 List<Object> joinValues = new ArrayList<>(joins.size());
                 for (DbJoin join : joins) {
                     Object targetValue = dataRow.get(join.getSourceName());
                     joinValues.add(targetValue);
                 }
-
-                if(values.add(joinValues)) {
-                    qualifiersCount += joins.size();
-                }
+                values.add(joinValues);
             }
-            // add final part of values
-            createDisjointByIdPrefetchQualifier(pathPrefix, currentQuery, joins, values);
+
+            int parallelism = canRunInParallel() ? domain.getPrefetchParallelism() : 1;
+            int chunkSize = prefetchChunkSize(domain, joins.size(), values.size(), parallelism);
 
             PrefetchTreeNode jointSubtree = node.cloneJointSubtree();
 
@@ -184,23 +180,145 @@ class HierarchicalObjectResolver {
                 reversePath = "db:" + relationship.getReverseDbRelationshipPath();
             }
 
-            List<DataRow> dataRows = new ArrayList<>();
-            for (PrefetchSelectQuery<DataRow> query : queries) {
-                // need to pass the remaining tree to make joint prefetches work
-                if (jointSubtree.hasChildren()) {
-                    query.setPrefetchTree(jointSubtree);
+            List<PrefetchSelectQuery<DataRow>> queries = new ArrayList<>();
+            Set<List<Object>> chunk = new HashSet<>();
+            Iterator<List<Object>> it = values.iterator();
+            while (it.hasNext()) {
+                chunk.add(it.next());
+
+                if (!it.hasNext() || chunk.size() >= chunkSize) {
+                    PrefetchSelectQuery<DataRow> query = new PrefetchSelectQuery<>(node.getPath(), relationship);
+                    query.fetchDataRows();
+                    createDisjointByIdPrefetchQualifier(pathPrefix, query, joins, chunk);
+
+                    // need to pass the remaining tree to make joint prefetches work
+                    if (jointSubtree.hasChildren()) {
+                        query.setPrefetchTree(jointSubtree);
+                    }
+
+                    if (reversePath != null) {
+                        // setup extra result columns to be able to relate result rows to the parent result objects.
+                        query.addResultPath(reversePath);
+                    }
+
+                    queries.add(query);
+                    chunk = new HashSet<>();
                 }
+            }
+
+            processorNode.setDataRows(parallelism > 1 && queries.size() > 1
+                    ? selectParallel(queries, parallelism)
+                    : selectSequential(queries));
+
+            return true;
+        }
+
+        /**
+         * Calculates the max number of distinct parent keys matched by a single prefetch query.
+         */
+        private int prefetchChunkSize(DataDomain domain, int joinsCount, int keysCount, int parallelism) {
+            int chunkSize = Integer.MAX_VALUE;
+
+            int maxIdQualifierSize = domain.getMaxIdQualifierSize();
+            if (maxIdQualifierSize > 0) {
+                chunkSize = Math.max(1, maxIdQualifierSize / joinsCount);
+            }
+
+            if (domain.getPrefetchChunkSize() > 0) {
+                chunkSize = Math.min(chunkSize, domain.getPrefetchChunkSize());
+            }
+
+            // split the keys between the workers, unless the chunks get too small to pay off
+            if (parallelism > 1) {
+                int perWorker = (keysCount + parallelism - 1) / parallelism;
+                chunkSize = Math.min(chunkSize, Math.max(perWorker, MIN_PARALLEL_CHUNK_SIZE));
+            }
+
+            return chunkSize;
+        }
+
+        /**
+         * Prefetch queries can only run in parallel if there's an executor to run them and the
+         * current thread is not bound to a transaction, as each parallel query gets its own
+         * connection.
+         */
+        private boolean canRunInParallel() {
+            return context.getAsyncQueryExecutor() != null && BaseTransaction.getThreadTransaction() == null;
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<DataRow> selectSequential(List<PrefetchSelectQuery<DataRow>> queries) {
+            if (queries.isEmpty()) {
+                return new ArrayList<>();
+            }
+
+            if (queries.size() == 1) {
+                return queries.get(0).select(context);
+            }
 
-                if (reversePath != null) {
-                    // setup extra result columns to be able to relate result rows to the parent result objects.
-                    query.addResultPath(reversePath);
+            List<DataRow>[] results = new List[queries.size()];
+            for (int i = 0; i < results.length; i++) {
+                results[i] = queries.get(i).select(context);
+            }
+            return new ChunkedDataRowList(results);
+        }
+
+        /**
+         * Runs prefetch queries using up to "parallelism" threads, including the calling thread.
+         * Queries are claimed by the workers one by one, so the calling thread never waits for a
+         * query that hasn't been started yet, even if the executor is saturated.
+         */
+        @SuppressWarnings("unchecked")
+        private List<DataRow> selectParallel(List<PrefetchSelectQuery<DataRow>> queries, int parallelism) {
+            int size = queries.size();
+            List<DataRow>[] results = new List[size];
+            AtomicInteger nextQuery = new AtomicInteger();
+            CountDownLatch done = new CountDownLatch(size);
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+
+            Runnable worker = () -> {
+                int i;
+                while ((i = nextQuery.getAndIncrement()) < size) {
+                    try {
+                        if (failure.get() == null) {
+                            results[i] = queries.get(i).select(context);
+                        }
+                    } catch (Throwable th) {
+                        // must be rethrown on the calling thread, or the result would be left unfilled
+                        failure.compareAndSet(null, th);
+                    } finally {
+                        done.countDown();
+                    }
                 }
+            };
+
+            AsyncQueryExecutor executor = context.getAsyncQueryExecutor();
+            for (int i = 1; i < Math.min(parallelism, size); i++) {
+                executor.submit(() -> {
+                    worker.run();
+                    return null;
+                });
+            }
 
-                dataRows.addAll(query.select(context));
+            worker.run();
+
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CayenneRuntimeException("Interrupted while waiting for prefetch queries", e);
             }
-            processorNode.setDataRows(dataRows);
 
-            return true;
+            Throwable th = failure.get();
+            if (th instanceof RuntimeException) {
+                throw (RuntimeException) th;
+            } else if (th instanceof Error) {
+                throw (Error) th;
+            } else if (th != null) {
+                throw new CayenneRuntimeException("Error running prefetch query", th);
+            }
+
+            return new ChunkedDataRowList(results);
         }
 
         private void createDisjointByIdPrefetchQualifier(String pathPrefix, PrefetchSelectQuery<?> currentQuery,
@@ -480,4 +598,51 @@ class HierarchicalObjectResolver {
             throw new CayenneRuntimeException("Unknown prefetch node: %s", node);
         }
     }
+
+    /**
+     * A read-only list over the results of chunked prefetch queries, that doesn't copy the
+     * chunks into a single list.
+     */
+    static final class ChunkedDataRowList extends AbstractList<DataRow> implements RandomAccess {
+
+        private final List<DataRow>[] chunks;
+        private final int[] offsets;
+        private final int size;
+
+        ChunkedDataRowList(List<DataRow>[] chunks) {
+            this.chunks = chunks;
+            this.offsets = new int[chunks.length];
+
+            int size = 0;
+            for (int i = 0; i < chunks.length; i++) {
+                offsets[i] = size;
+                size += chunks[i].size();
+            }
+            this.size = size;
+        }
+
+        @Override
+        public DataRow get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+
+            int chunk = Arrays.binarySearch(offsets, index);
+            if (chunk < 0) {
+                chunk = -chunk - 2;
+            } else {
+                // skip empty chunks starting at the same offset
+                while (chunks[chunk].isEmpty()) {
+                    chunk++;
+                }
+            }
+
+            return chunks[chunk].get(index - offsets[chunk]);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
 }
@@ -39,6 +39,11 @@ import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 /**
  * A synchronized list that serves as a container of DataObjects. It is returned
@@ -55,6 +60,12 @@ import java.util.NoSuchElementException;
  * Performance note: certain operations like <code>toArray</code> would trigger
  * full list fetch.
  * </p>
+ * <p>
+ * Optionally the list can read ahead: when elements are accessed page after
+ * page, the next few pages are resolved in background using the DataContext
+ * async executor, and database round trips are done without holding the list
+ * lock. Read-ahead is turned off once the list is modified.
+ * </p>
  */
 public class IncrementalFaultList<E> implements List<E>, Serializable {
 
@@ -89,6 +100,19 @@ public class IncrementalFaultList<E> implements List<E>, Serializable {
 	// limit of
 	// 10,000 nested expressions.
 
+	static final int PAGE_UNRESOLVED = 0;
+	static final int PAGE_RESOLVED = 1;
+
+	/**
+	 * Number of pages to resolve in background during sequential access.
+	 */
+	protected transient int readAheadPages;
+
+	// read-ahead state, null if read-ahead is off
+	transient volatile AtomicIntegerArray pageStates;
+	transient ConcurrentMap<Integer, CompletableFuture<Void>> pageLoads;
+	transient volatile int lastAccessedPage;
+
 	/**
 	 * Creates a new IncrementalFaultList using a given DataContext and query.
 	 * 
@@ -211,41 +235,218 @@ public class IncrementalFaultList<E> implements List<E>, Serializable {
 				toIndex = elements.size();
 			}
 
-			List<Expression> quals = new ArrayList<>(pageSize);
-			List<Object> ids = new ArrayList<>(pageSize);
-			for (int i = fromIndex; i < toIndex; i++) {
-				Object object = elements.get(i);
-				if (getHelper().unresolvedSuspect(object)) {
-					quals.add(buildIdQualifier(object));
-					ids.add(object);
-				}
+			List<Object> ids = unresolvedIds(fromIndex, toIndex);
+			if (ids.isEmpty()) {
+				return;
 			}
 
-			int qualsSize = quals.size();
-			if (qualsSize == 0) {
+			List<Object> objects = fetchObjects(ids);
+
+			// sanity check - database data may have changed
+			checkPageResultConsistency(objects, ids);
+
+			// replace ids in the list with objects
+			updatePageWithResults(objects, fromIndex, toIndex);
+		}
+	}
+
+	List<Object> unresolvedIds(int fromIndex, int toIndex) {
+		List<Object> ids = new ArrayList<>(toIndex - fromIndex);
+		for (int i = fromIndex; i < toIndex; i++) {
+			Object object = elements.get(i);
+			if (getHelper().unresolvedSuspect(object)) {
+				ids.add(object);
+			}
+		}
+
+		return ids;
+	}
+
+	/**
+	 * Fetches objects for the ids in fetchSize chunks.
+	 */
+	List<Object> fetchObjects(List<Object> ids) {
+		List<Expression> quals = new ArrayList<>(ids.size());
+		for (Object id : ids) {
+			quals.add(buildIdQualifier(id));
+		}
+
+		int qualsSize = quals.size();
+		List<Object> objects = new ArrayList<>(qualsSize);
+
+		int fetchSize = maxFetchSize > 0 ? maxFetchSize : Integer.MAX_VALUE;
+
+		int fetchEnd = Math.min(qualsSize, fetchSize);
+		int fetchBegin = 0;
+		while (fetchBegin < qualsSize) {
+			ObjectSelect<Persistent> query = createSelectQuery(quals.subList(fetchBegin, fetchEnd));
+			objects.addAll(dataContext.performQuery(query));
+			fetchBegin = fetchEnd;
+			fetchEnd += Math.min(fetchSize, qualsSize - fetchEnd);
+		}
+
+		return objects;
+	}
+
+	/**
+	 * Returns the number of pages resolved in background when the list is
+	 * accessed page after page. Zero means that read-ahead is off.
+	 *
+	 * @since 4.2
+	 */
+	public int getReadAheadPages() {
+		return readAheadPages;
+	}
+
+	/**
+	 * Sets the number of pages to resolve in background when the list is
+	 * accessed page after page. Background fetches are run with the
+	 * DataContext {@link AsyncQueryExecutor}. Zero turns read-ahead off.
+	 *
+	 * @since 4.2
+	 */
+	public void setReadAheadPages(int readAheadPages) {
+		synchronized (elements) {
+			if (readAheadPages > 0 && dataContext.getAsyncQueryExecutor() != null) {
+				this.readAheadPages = readAheadPages;
+				this.pageLoads = new ConcurrentHashMap<>();
+				this.lastAccessedPage = -1;
+				this.pageStates = new AtomicIntegerArray((elements.size() + pageSize - 1) / pageSize);
+			} else {
+				this.readAheadPages = 0;
+				this.pageStates = null;
+			}
+		}
+	}
+
+	/**
+	 * Turns read-ahead off after a modification of the list, as page
+	 * boundaries no longer match the page states. Must be called while holding
+	 * the list lock.
+	 */
+	void listModified() {
+		pageStates = null;
+	}
+
+	/**
+	 * Resolves a page, either in the current thread or by waiting for a
+	 * background fetch of the same page.
+	 */
+	void loadPage(int page, AtomicIntegerArray states) {
+		while (states.get(page) != PAGE_RESOLVED && pageStates == states) {
+			CompletableFuture<Void> load = new CompletableFuture<>();
+			CompletableFuture<Void> existing = pageLoads.putIfAbsent(page, load);
+			if (existing == null) {
+				runPageLoad(page, states, load);
 				return;
 			}
 
-			// fetch the range of objects in fetchSize chunks
-			List<Object> objects = new ArrayList<>(qualsSize);
+			try {
+				existing.join();
+			} catch (CompletionException e) {
+				// background fetch failed, retry in this thread to report the error
+			}
+		}
+	}
+
+	/**
+	 * Starts background fetches for the pages following the current page if
+	 * the list is accessed sequentially.
+	 */
+	void readAhead(int page, AtomicIntegerArray states) {
+		int previous = lastAccessedPage;
+		if (page == previous) {
+			return;
+		}
+
+		lastAccessedPage = page;
+		if (page != previous + 1) {
+			return;
+		}
 
-			int fetchSize = maxFetchSize > 0 ? maxFetchSize : Integer.MAX_VALUE;
+		AsyncQueryExecutor executor = dataContext.getAsyncQueryExecutor();
+		int last = Math.min(states.length() - 1, page + readAheadPages);
+		for (int nextPage = page + 1; nextPage <= last; nextPage++) {
+			if (states.get(nextPage) == PAGE_RESOLVED) {
+				continue;
+			}
 
-			int fetchEnd = Math.min(qualsSize, fetchSize);
-			int fetchBegin = 0;
-			while (fetchBegin < qualsSize) {
-				ObjectSelect<Persistent> query = createSelectQuery(quals.subList(fetchBegin, fetchEnd));
-				objects.addAll(dataContext.performQuery(query));
-				fetchBegin = fetchEnd;
-				fetchEnd += Math.min(fetchSize, qualsSize - fetchEnd);
+			CompletableFuture<Void> load = new CompletableFuture<>();
+			if (pageLoads.putIfAbsent(nextPage, load) == null) {
+				int pageToLoad = nextPage;
+				try {
+					executor.submit(() -> {
+						runPageLoad(pageToLoad, states, load);
+						return null;
+					});
+				} catch (RuntimeException e) {
+					pageLoads.remove(pageToLoad, load);
+					load.completeExceptionally(e);
+				}
 			}
+		}
+	}
 
-			// sanity check - database data may have changed
-			checkPageResultConsistency(objects, ids);
+	void runPageLoad(int page, AtomicIntegerArray states, CompletableFuture<Void> load) {
+		try {
+			resolvePage(page, states);
+		} catch (RuntimeException e) {
+			pageLoads.remove(page, load);
+			load.completeExceptionally(e);
+			throw e;
+		}
 
-			// replace ids in the list with objects
-			updatePageWithResults(objects, fromIndex, toIndex);
+		pageLoads.remove(page, load);
+		load.complete(null);
+	}
+
+	/**
+	 * Resolves a single page without holding the list lock while fetching the
+	 * objects. The results are discarded if the list was modified in the
+	 * meantime.
+	 */
+	void resolvePage(int page, AtomicIntegerArray states) {
+		int fromIndex = page * pageSize;
+		int toIndex;
+		List<Object> ids;
+
+		synchronized (elements) {
+			if (pageStates != states) {
+				return;
+			}
+
+			toIndex = Math.min(fromIndex + pageSize, elements.size());
+			ids = unresolvedIds(fromIndex, toIndex);
+		}
+
+		if (!ids.isEmpty()) {
+			List<Object> objects = fetchObjects(ids);
+
+			synchronized (elements) {
+				if (pageStates != states) {
+					return;
+				}
+
+				checkPageResultConsistency(objects, ids);
+
+				// some of the ids may have been resolved by a regular fetch
+				// of an overlapping range, so only replace what's still there
+				int replaced = 0;
+				for (Object object : objects) {
+					for (int i = fromIndex; i < toIndex; i++) {
+						if (getHelper().replacesObject(object, elements.get(i))) {
+							elements.set(i, object);
+							replaced++;
+							break;
+						}
+					}
+				}
+
+				unfetchedObjects -= replaced;
+			}
 		}
+
+		states.set(page, PAGE_RESOLVED);
 	}
 
 	void updatePageWithResults(List<Object> objects, int fromIndex, int toIndex) {
@@ -437,6 +638,7 @@ public class IncrementalFaultList<E> implements List<E>, Serializable {
 		validateListObject(element);
 
 		synchronized (elements) {
+			listModified();
 			elements.add(index, element);
 		}
 	}
@@ -448,6 +650,7 @@ public class IncrementalFaultList<E> implements List<E>, Serializable {
 		validateListObject(o);
 
 		synchronized (elements) {
+			listModified();
 			return elements.add(o);
 		}
 	}
@@ -457,6 +660,7 @@ public class IncrementalFaultList<E> implements List<E>, Serializable {
 	 */
 	public boolean addAll(Collection<? extends E> c) {
 		synchronized (elements) {
+			listModified();
 			return elements.addAll(c);
 		}
 	}
@@ -466,6 +670,7 @@ public class IncrementalFaultList<E> implements List<E>, Serializable {
 	 */
 	public boolean addAll(int index, Collection<? extends E> c) {
 		synchronized (elements) {
+			listModified();
 			return elements.addAll(index, c);
 		}
 	}
@@ -475,6 +680,7 @@ public class IncrementalFaultList<E> implements List<E>, Serializable {
 	 */
 	public void clear() {
 		synchronized (elements) {
+			listModified();
 			elements.clear();
 		}
 	}
@@ -498,6 +704,20 @@ public class IncrementalFaultList<E> implements List<E>, Serializable {
 	}
 
 	public E get(int index) {
+		AtomicIntegerArray states = pageStates;
+
+		// a background page load needs the list lock to publish its results,
+		// so it can't be awaited by a caller holding the lock (e.g. a mutator
+		// reading the element). Such callers resolve the page inline below.
+		if (states != null && index >= 0 && index < states.length() * pageSize && !Thread.holdsLock(elements)) {
+			int page = index / pageSize;
+			if (states.get(page) != PAGE_RESOLVED) {
+				loadPage(page, states);
+			}
+
+			readAhead(page, states);
+		}
+
 		synchronized (elements) {
 			Object o = elements.get(index);
 
@@ -537,6 +757,7 @@ public class IncrementalFaultList<E> implements List<E>, Serializable {
 		synchronized (elements) {
 			// have to resolve the page to return correct object
 			E object = get(index);
+			listModified();
 			elements.remove(index);
 			return object;
 		}
@@ -544,18 +765,21 @@ public class IncrementalFaultList<E> implements List<E>, Serializable {
 
 	public boolean remove(Object o) {
 		synchronized (elements) {
+			listModified();
 			return elements.remove(o);
 		}
 	}
 
 	public boolean removeAll(Collection<?> c) {
 		synchronized (elements) {
+			listModified();
 			return elements.removeAll(c);
 		}
 	}
 
 	public boolean retainAll(Collection<?> c) {
 		synchronized (elements) {
+			listModified();
 			return elements.retainAll(c);
 		}
 	}
@@ -567,6 +791,7 @@ public class IncrementalFaultList<E> implements List<E>, Serializable {
 		validateListObject(element);
 
 		synchronized (elements) {
+			listModified();
 			return (E) elements.set(index, element);
 		}
 	}
@@ -131,6 +131,12 @@ public class LegacyDataDomainFlushAction implements org.apache.cayenne.access.fl
             throw new IllegalArgumentException("Expected 'ObjectStoreGraphDiff', got: " + changes.getClass().getName());
         }
 
+        // upsert is only implemented by the default flush action, don't run it as a plain insert
+        if (context.getObjectStore().hasObjectsRegisteredForUpsert()) {
+            throw new CayenneRuntimeException("Upsert is not supported by the legacy flush action, "
+                    + "switch to the default DataDomainFlushActionFactory");
+        }
+
         this.context = context;
 
         // ObjectStoreGraphDiff contains changes already categorized by objectId...
@@ -24,6 +24,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 import org.apache.cayenne.Persistent;
 import org.apache.cayenne.ResultIterator;
@@ -110,6 +111,20 @@ class MixedResultIncrementalFaultList<E> extends IncrementalFaultList<E> {
         unfetchedObjects = elementsList.size();
     }
 
+    @Override
+    void resolvePage(int page, AtomicIntegerArray states) {
+        // rows with multiple objects are resolved under the list lock, same as regular page access
+        synchronized (elements) {
+            if (pageStates != states) {
+                return;
+            }
+
+            resolveInterval(page * pageSize, (page + 1) * pageSize);
+        }
+
+        states.set(page, PAGE_RESOLVED);
+    }
+
     @Override
     protected void resolveInterval(int fromIndex, int toIndex) {
         if (fromIndex >= toIndex || scalarResult) {
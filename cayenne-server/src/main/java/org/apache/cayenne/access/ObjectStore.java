@@ -76,6 +76,12 @@ public class ObjectStore implements Serializable, SnapshotEventListener, GraphMa
      */
     protected Map<Object, Map<String, ObjectId>> trackedFlattenedPaths;
 
+    /**
+     * Ids of the NEW objects that should be saved with "insert or update" operation.
+     * @since 4.2
+     */
+    protected Set<Object> upsertIds;
+
     // a sequential id used to tag GraphDiffs so that they can later be sorted in the
     // original creation order
     int currentDiffId;
@@ -115,7 +121,16 @@ public class ObjectStore implements Serializable, SnapshotEventListener, GraphMa
         else {
             throw new CayenneRuntimeException("Object map is null.");
         }
-        this.changes = new HashMap<>();
+        this.changes = createChangesMap();
+    }
+
+    /**
+     * Creates an empty map to store object changes.
+     *
+     * @since 4.2
+     */
+    Map<Object, ObjectDiff> createChangesMap() {
+        return new HashMap<>();
     }
 
     /**
@@ -157,9 +172,18 @@ public class ObjectStore implements Serializable, SnapshotEventListener, GraphMa
      * @since 1.2
      */
     synchronized ObjectDiff registerDiff(Object nodeId, NodeDiff diff) {
+        return registerDiffNoSync(nodeId, diff);
+    }
+
+    /**
+     * Registers object change. Requires external synchronization.
+     *
+     * @since 4.2
+     */
+    ObjectDiff registerDiffNoSync(Object nodeId, NodeDiff diff) {
 
         if (diff != null) {
-            diff.setDiffId(++currentDiffId);
+            diff.setDiffId(nextDiffId());
         }
 
         ObjectDiff objectDiff = changes.get(nodeId);
@@ -202,7 +226,7 @@ public class ObjectStore implements Serializable, SnapshotEventListener, GraphMa
             }
 
             objectDiff = new ObjectDiff(object);
-            objectDiff.setDiffId(++currentDiffId);
+            objectDiff.setDiffId(nextDiffId());
             changes.put(nodeId, objectDiff);
         }
 
@@ -213,6 +237,15 @@ public class ObjectStore implements Serializable, SnapshotEventListener, GraphMa
         return objectDiff;
     }
 
+    /**
+     * Returns a sequential id used to tag GraphDiffs.
+     *
+     * @since 4.2
+     */
+    int nextDiffId() {
+        return ++currentDiffId;
+    }
+
     /**
      * Returns a number of objects currently registered with this ObjectStore.
      * 
@@ -306,6 +339,9 @@ public class ObjectStore implements Serializable, SnapshotEventListener, GraphMa
             if(id != null && trackedFlattenedPaths != null) {
                 trackedFlattenedPaths.remove(id);
             }
+            if(id != null && upsertIds != null) {
+                upsertIds.remove(id);
+            }
             ids.add(id);
 
             object.setObjectContext(null);
@@ -326,6 +362,21 @@ public class ObjectStore implements Serializable, SnapshotEventListener, GraphMa
         }
     }
 
+    /**
+     * Turns committed objects HOLLOW and removes them from this store, so that they can
+     * be garbage collected. Unlike {@link #objectsUnregistered(Collection)} the objects
+     * keep their context and the shared snapshot cache is left alone, the objects are
+     * registered again when accessed.
+     *
+     * @since 4.2
+     */
+    synchronized void objectsReleased(Collection<? extends Persistent> objects) {
+        for (Persistent object : objects) {
+            objectMap.remove(object.getObjectId());
+            object.setPersistenceState(PersistenceState.HOLLOW);
+        }
+    }
+
     /**
      * Reverts changes to all stored uncomitted objects.
      * 
@@ -361,9 +412,10 @@ public class ObjectStore implements Serializable, SnapshotEventListener, GraphMa
             }
         }
 
-        // reset changes ... using new HashMap to allow event listeners to analyze the
+        // reset changes ... using new map to allow event listeners to analyze the
         // original changes map after the rollback
-        this.changes = new HashMap<>();
+        this.changes = createChangesMap();
+        this.upsertIds = null;
     }
 
     /**
@@ -463,7 +515,8 @@ public class ObjectStore implements Serializable, SnapshotEventListener, GraphMa
 
         // create new instance of changes map so that event listeners who stored the
         // original diff don't get affected
-        this.changes = new HashMap<>();
+        this.changes = createChangesMap();
+        this.upsertIds = null;
     }
 
     /**
@@ -522,6 +575,35 @@ public class ObjectStore implements Serializable, SnapshotEventListener, GraphMa
         return !changes.isEmpty();
     }
 
+    /**
+     * Returns the number of registered objects that have uncommitted changes.
+     *
+     * @since 4.2
+     */
+    synchronized int changedObjectsCount() {
+        return changes.size();
+    }
+
+    /**
+     * Returns NEW and MODIFIED objects, i.e. the objects that will be saved by the next
+     * commit. Collection is returned by copy.
+     *
+     * @since 4.2
+     */
+    synchronized List<Persistent> objectsPendingSave() {
+        List<Persistent> filteredObjects = new ArrayList<>(changes.size());
+
+        for (Object id : changes.keySet()) {
+            Persistent object = objectMap.get(id);
+            if (object != null && (object.getPersistenceState() == PersistenceState.NEW
+                    || object.getPersistenceState() == PersistenceState.MODIFIED)) {
+                filteredObjects.add(object);
+            }
+        }
+
+        return filteredObjects;
+    }
+
     /**
      * Return a subset of registered objects that are in a certain persistence state.
      * Collection is returned by copy.
@@ -1037,6 +1119,38 @@ public class ObjectStore implements Serializable, SnapshotEventListener, GraphMa
                 .put(path, id);
     }
 
+    /**
+     * Marks a NEW object with the given id to be saved with "insert or update"
+     * operation on commit.
+     *
+     * @since 4.2
+     */
+    public void registerForUpsert(ObjectId objectId) {
+        if(upsertIds == null) {
+            upsertIds = ConcurrentHashMap.newKeySet();
+        }
+        upsertIds.add(objectId);
+    }
+
+    /**
+     * Returns whether an object with the given id should be saved with "insert or
+     * update" operation on commit.
+     *
+     * @since 4.2
+     */
+    public boolean isRegisteredForUpsert(ObjectId objectId) {
+        return upsertIds != null && upsertIds.contains(objectId);
+    }
+
+    /**
+     * Returns true if any of the objects of this store are registered for upsert.
+     *
+     * @since 4.2
+     */
+    boolean hasObjectsRegisteredForUpsert() {
+        return upsertIds != null && !upsertIds.isEmpty();
+    }
+
     // an ObjectIdQuery optimized for retrieval of multiple snapshots - it can be reset
     // with the new id
     final class CachedSnapshotQuery extends ObjectIdQuery {
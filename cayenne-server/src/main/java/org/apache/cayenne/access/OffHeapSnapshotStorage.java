@@ -0,0 +1,450 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.access;
+
+import org.apache.cayenne.CayenneRuntimeException;
+import org.apache.cayenne.DataRow;
+import org.apache.cayenne.ObjectId;
+import org.apache.cayenne.event.BinaryEventCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A {@link SnapshotStorage} that keeps encoded snapshots outside of the Java heap, in
+ * direct {@link ByteBuffer} slabs, and decodes them on every read. The storage is bounded
+ * by the total size of the slabs in bytes rather than by the number of entries. Only the
+ * index of ObjectIds and a shared dictionary of entity and column names remain on heap.
+ * <p>
+ * Slabs are filled one after another. When all of them are full, the next slab in turn
+ * is reclaimed using a "clock" policy: entries read since the slab was last reclaimed are
+ * compacted and kept, all others are evicted. Values are encoded in the
+ * {@link BinaryEventCodec} format; a snapshot that can't be encoded is not cached.
+ *
+ * @since 4.2
+ */
+public class OffHeapSnapshotStorage implements SnapshotStorage {
+
+    private static final long serialVersionUID = -4417936373735462510L;
+
+    private static final Logger logger = LoggerFactory.getLogger(OffHeapSnapshotStorage.class);
+
+    public static final int DEFAULT_SLAB_SIZE = 4 * 1024 * 1024;
+
+    private final long capacity;
+    private final int slabSize;
+
+    private transient ConcurrentMap<ObjectId, Entry> index;
+    private transient ReadWriteLock lock;
+    private transient Slab[] slabs;
+    private transient int currentSlab;
+
+    private transient ConcurrentMap<String, Integer> nameIds;
+    private transient volatile String[] names;
+    private transient int namesCount;
+
+    /**
+     * Creates a storage bounded by the specified number of bytes, split into slabs of
+     * {@link #DEFAULT_SLAB_SIZE}.
+     */
+    public OffHeapSnapshotStorage(long capacity) {
+        this(capacity, DEFAULT_SLAB_SIZE);
+    }
+
+    /**
+     * Creates a storage bounded by the specified number of bytes, split into slabs of the
+     * specified size. A snapshot larger than a single slab is never cached.
+     */
+    public OffHeapSnapshotStorage(long capacity, int slabSize) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+
+        if (slabSize <= 0) {
+            throw new IllegalArgumentException("Slab size must be positive: " + slabSize);
+        }
+
+        this.capacity = capacity;
+        this.slabSize = (int) Math.min(slabSize, capacity);
+        init();
+    }
+
+    private void init() {
+        long slabsCount = Math.max(1, capacity / slabSize);
+        if (slabsCount > Integer.MAX_VALUE) {
+            throw new CayenneRuntimeException("Too many slabs for capacity %s, increase slab size", capacity);
+        }
+
+        this.index = new ConcurrentHashMap<>();
+        this.lock = new ReentrantReadWriteLock();
+        this.slabs = new Slab[(int) slabsCount];
+        this.currentSlab = 0;
+
+        this.nameIds = new ConcurrentHashMap<>();
+        this.names = new String[64];
+        this.namesCount = 0;
+    }
+
+    /**
+     * Returns max total size of the stored snapshots in bytes.
+     */
+    public long getCapacity() {
+        return capacity;
+    }
+
+    public int getSlabSize() {
+        return slabSize;
+    }
+
+    @Override
+    public DataRow get(ObjectId id) {
+        Entry entry = index.get(id);
+        if (entry == null) {
+            return null;
+        }
+
+        byte[] data;
+        lock.readLock().lock();
+        try {
+            data = read(entry);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (data == null) {
+            return null;
+        }
+
+        entry.referenced = true;
+        return decode(data);
+    }
+
+    @Override
+    public DataRow put(ObjectId id, DataRow snapshot) {
+        byte[] data;
+        try {
+            data = encode(snapshot);
+        } catch (IOException e) {
+            logger.debug("Can't encode snapshot for " + id + ", skipping it.", e);
+            data = null;
+        }
+
+        byte[] previous;
+        lock.writeLock().lock();
+        try {
+            previous = release(id);
+
+            if (data != null && data.length <= slabSize) {
+                Entry entry = allocate(id, data.length);
+                ByteBuffer buffer = entry.slab.buffer.duplicate();
+                buffer.position(entry.offset);
+                buffer.put(data);
+                index.put(id, entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        return previous != null ? decode(previous) : null;
+    }
+
+    @Override
+    public DataRow remove(ObjectId id) {
+        byte[] previous;
+        lock.writeLock().lock();
+        try {
+            previous = release(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        return previous != null ? decode(previous) : null;
+    }
+
+    @Override
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Removes all snapshots and releases the slabs, so that their memory can be
+     * reclaimed by the garbage collector.
+     */
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            for (Entry entry : index.values()) {
+                entry.slab = null;
+            }
+
+            index.clear();
+            slabs = new Slab[slabs.length];
+            currentSlab = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Copies entry bytes from its slab. Must be called while holding the lock.
+     */
+    private byte[] read(Entry entry) {
+        Slab slab = entry.slab;
+        if (slab == null) {
+            return null;
+        }
+
+        byte[] data = new byte[entry.length];
+        ByteBuffer buffer = slab.buffer.duplicate();
+        buffer.position(entry.offset);
+        buffer.get(data);
+        return data;
+    }
+
+    /**
+     * Removes an entry from the index, returning its bytes. Must be called while holding
+     * the write lock. Slab space used by the entry is reused when the slab is reclaimed.
+     */
+    private byte[] release(ObjectId id) {
+        Entry entry = index.remove(id);
+        if (entry == null) {
+            return null;
+        }
+
+        byte[] data = read(entry);
+        entry.slab = null;
+        return data;
+    }
+
+    /**
+     * Finds space for the entry of the specified length, evicting other entries if
+     * needed. Must be called while holding the write lock.
+     */
+    private Entry allocate(ObjectId id, int length) {
+        Slab slab = slab(currentSlab);
+
+        // each reclaimed slab gives a second chance to the entries read since the last
+        // pass, so after two passes over all slabs there's guaranteed to be space
+        for (int i = 0; slab.position + length > slabSize; i++) {
+            if (i > 2 * slabs.length) {
+                throw new CayenneRuntimeException("Can't allocate %s bytes for snapshot %s", length, id);
+            }
+
+            currentSlab = (currentSlab + 1) % slabs.length;
+            slab = slab(currentSlab);
+            reclaim(slab);
+        }
+
+        Entry entry = new Entry(id, slab, slab.position, length);
+        slab.entries.add(entry);
+        slab.position += length;
+        return entry;
+    }
+
+    private Slab slab(int i) {
+        Slab slab = slabs[i];
+        if (slab == null) {
+            slab = new Slab(ByteBuffer.allocateDirect(slabSize));
+            slabs[i] = slab;
+        }
+
+        return slab;
+    }
+
+    /**
+     * Evicts entries of the slab that were not read since the last time the slab was
+     * reclaimed, compacting the rest at the beginning of the slab.
+     */
+    private void reclaim(Slab slab) {
+        List<Entry> survivors = new ArrayList<>();
+        int position = 0;
+
+        for (Entry entry : slab.entries) {
+            if (entry.slab != slab) {
+                // already removed
+                continue;
+            }
+
+            if (entry.referenced) {
+                entry.referenced = false;
+
+                if (entry.offset != position) {
+                    ByteBuffer source = slab.buffer.duplicate();
+                    source.position(entry.offset);
+                    source.limit(entry.offset + entry.length);
+
+                    // overlapping regions are safe to copy within the same buffer
+                    ByteBuffer target = slab.buffer.duplicate();
+                    target.position(position);
+                    target.put(source);
+                    entry.offset = position;
+                }
+
+                position += entry.length;
+                survivors.add(entry);
+            } else {
+                entry.slab = null;
+                index.remove(entry.id, entry);
+            }
+        }
+
+        slab.entries = survivors;
+        slab.position = position;
+    }
+
+    byte[] encode(DataRow snapshot) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 * (snapshot.size() + 1));
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        String entityName = snapshot.getEntityName();
+        BinaryEventCodec.writeSize(out, entityName != null ? nameId(entityName) + 1 : 0);
+        out.writeLong(snapshot.getVersion());
+        out.writeLong(snapshot.getReplacesVersion());
+
+        BinaryEventCodec.writeSize(out, snapshot.size());
+        for (Map.Entry<String, Object> entry : snapshot.entrySet()) {
+            BinaryEventCodec.writeSize(out, nameId(entry.getKey()));
+            BinaryEventCodec.writeValue(out, entry.getValue());
+        }
+
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    DataRow decode(byte[] data) {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        String[] names = this.names;
+
+        try {
+            int entityNameId = BinaryEventCodec.readSize(in);
+            long version = in.readLong();
+            long replacesVersion = in.readLong();
+            int size = BinaryEventCodec.readSize(in);
+
+            DataRow snapshot = new StoredDataRow((int) Math.ceil(size / 0.75), version);
+            snapshot.setReplacesVersion(replacesVersion);
+            if (entityNameId > 0) {
+                snapshot.setEntityName(names[entityNameId - 1]);
+            }
+
+            for (int i = 0; i < size; i++) {
+                String key = names[BinaryEventCodec.readSize(in)];
+                snapshot.put(key, BinaryEventCodec.readValue(in));
+            }
+
+            return snapshot;
+        } catch (IOException e) {
+            throw new CayenneRuntimeException("Error decoding a cached snapshot", e);
+        }
+    }
+
+    /**
+     * Returns an id of the entity or column name in the dictionary shared by all stored
+     * snapshots, adding the name if it is not there yet.
+     */
+    private int nameId(String name) {
+        Integer id = nameIds.get(name);
+        if (id != null) {
+            return id;
+        }
+
+        synchronized (nameIds) {
+            id = nameIds.get(name);
+            if (id == null) {
+                String[] names = this.names;
+                if (namesCount == names.length) {
+                    names = Arrays.copyOf(names, names.length * 2);
+                }
+
+                id = namesCount++;
+                names[id] = name;
+
+                // publish the name before any snapshot referencing it is stored
+                this.names = names;
+                nameIds.put(name, id);
+            }
+
+            return id;
+        }
+    }
+
+    // deserialization support, the contents are not serialized
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        init();
+    }
+
+    static final class Slab {
+
+        final ByteBuffer buffer;
+        List<Entry> entries;
+        int position;
+
+        Slab(ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.entries = new ArrayList<>();
+        }
+    }
+
+    static final class Entry {
+
+        final ObjectId id;
+        Slab slab;
+        int offset;
+        final int length;
+        volatile boolean referenced;
+
+        Entry(ObjectId id, Slab slab, int offset, int length) {
+            this.id = id;
+            this.slab = slab;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    /**
+     * A DataRow restored from the storage, preserving the version of the stored snapshot.
+     */
+    static final class StoredDataRow extends DataRow {
+
+        private static final long serialVersionUID = 6148092585366235917L;
+
+        StoredDataRow(int initialCapacity, long version) {
+            super(initialCapacity);
+            this.version = version;
+        }
+    }
+}
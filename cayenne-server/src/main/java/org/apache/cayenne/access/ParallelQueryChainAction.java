@@ -0,0 +1,251 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.cayenne.CayenneRuntimeException;
+import org.apache.cayenne.ObjectId;
+import org.apache.cayenne.QueryResponse;
+import org.apache.cayenne.ResultIterator;
+import org.apache.cayenne.map.DataMap;
+import org.apache.cayenne.query.Query;
+import org.apache.cayenne.query.QueryChain;
+import org.apache.cayenne.query.QueryRouter;
+import org.apache.cayenne.query.Select;
+import org.apache.cayenne.tx.BaseTransaction;
+import org.apache.cayenne.util.GenericResponse;
+import org.apache.cayenne.util.Util;
+
+/**
+ * Runs the queries of a {@link QueryChain} concurrently, each in its own transaction, merging
+ * their results in the chain order.
+ *
+ * @since 4.2
+ */
+class ParallelQueryChainAction {
+
+    private final DataDomain domain;
+    private final QueryRouter engineLookup;
+    private final Collection<Query> queries;
+
+    ParallelQueryChainAction(DataDomain domain, QueryRouter engineLookup, QueryChain chain) {
+        this.domain = domain;
+        this.engineLookup = engineLookup;
+        this.queries = chain.getQueries();
+    }
+
+    /**
+     * Returns whether the chain can be executed in parallel, i.e. it contains more than one
+     * query, all of them are selects and there's no transaction on the calling thread.
+     */
+    static boolean canRunInParallel(DataDomain domain, Query query) {
+        if (!(query instanceof QueryChain) || !((QueryChain) query).isParallel()) {
+            return false;
+        }
+
+        if (domain.getAsyncQueryExecutor() == null || BaseTransaction.getThreadTransaction() != null) {
+            return false;
+        }
+
+        Collection<Query> queries = ((QueryChain) query).getQueries();
+        if (queries.size() < 2) {
+            return false;
+        }
+
+        for (Query q : queries) {
+            if (!(q instanceof Select)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    GenericResponse execute() {
+
+        List<ChainMember> members = new ArrayList<>(queries.size());
+        for (Query query : queries) {
+            members.add(new ChainMember(query));
+        }
+
+        // the first query will be run on the calling thread anyway
+        AsyncQueryExecutor executor = domain.getAsyncQueryExecutor();
+        for (int i = 1; i < members.size(); i++) {
+            ChainMember member = members.get(i);
+            executor.submit(() -> {
+                member.run();
+                return null;
+            });
+        }
+
+        // run members that are not yet picked by the executor on the calling thread, so that
+        // a busy executor can't block the chain
+        for (ChainMember member : members) {
+            member.run();
+        }
+
+        GenericResponse response = new GenericResponse();
+        for (ChainMember member : members) {
+            QueryResponse memberResponse = member.getResponse();
+            for (memberResponse.reset(); memberResponse.next(); ) {
+                if (memberResponse.isList()) {
+                    response.addResultList(memberResponse.currentList());
+                } else {
+                    response.addBatchUpdateCount(memberResponse.currentUpdateCount());
+                }
+            }
+        }
+
+        return response;
+    }
+
+    GenericResponse runQuery(Query query) {
+
+        Map<QueryEngine, Collection<Query>> queriesByNode = new LinkedHashMap<>();
+        query.route(new QueryRouter() {
+
+            @Override
+            public void route(QueryEngine engine, Query query, Query substitutedQuery) {
+                queriesByNode.computeIfAbsent(engine, e -> new ArrayList<>(2)).add(query);
+            }
+
+            @Override
+            public QueryEngine engineForDataMap(DataMap map) {
+                return engineLookup.engineForDataMap(map);
+            }
+
+            @Override
+            public QueryEngine engineForName(String name) {
+                return engineLookup.engineForName(name);
+            }
+        }, domain.getEntityResolver(), null);
+
+        ResponseObserver observer = new ResponseObserver();
+        domain.getTransactionManager().performInTransaction(() -> {
+            for (Map.Entry<QueryEngine, Collection<Query>> entry : queriesByNode.entrySet()) {
+                entry.getKey().performQueries(entry.getValue(), observer);
+            }
+            return null;
+        });
+
+        return observer.response;
+    }
+
+    class ChainMember {
+
+        final Query query;
+        final AtomicBoolean started;
+        final CompletableFuture<GenericResponse> result;
+
+        ChainMember(Query query) {
+            this.query = query;
+            this.started = new AtomicBoolean();
+            this.result = new CompletableFuture<>();
+        }
+
+        void run() {
+            if (started.compareAndSet(false, true)) {
+                try {
+                    result.complete(runQuery(query));
+                } catch (Throwable th) {
+                    result.completeExceptionally(th);
+                }
+            }
+        }
+
+        GenericResponse getResponse() {
+            try {
+                return result.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CayenneRuntimeException("Interrupted while waiting for a query in the chain.", e);
+            } catch (ExecutionException | CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                if (cause instanceof CayenneRuntimeException) {
+                    throw (CayenneRuntimeException) cause;
+                }
+                throw new CayenneRuntimeException("Error running a query in the chain.", Util.unwindException(cause));
+            }
+        }
+    }
+
+    /**
+     * Collects results of a single chain query, same as DataDomainQueryAction does for a
+     * sequential chain.
+     */
+    static class ResponseObserver implements OperationObserver {
+
+        final GenericResponse response = new GenericResponse();
+
+        @Override
+        public void nextCount(Query query, int resultCount) {
+            response.addUpdateCount(resultCount);
+        }
+
+        @Override
+        public void nextBatchCount(Query query, int[] resultCount) {
+            response.addBatchUpdateCount(resultCount);
+        }
+
+        @Override
+        public void nextRows(Query query, List<?> dataRows) {
+            response.addResultList(dataRows);
+        }
+
+        @Override
+        public void nextRows(Query q, ResultIterator<?> it) {
+            throw new CayenneRuntimeException("Invalid attempt to fetch a cursor.");
+        }
+
+        @Override
+        public void nextGeneratedRows(Query query, ResultIterator<?> keys, List<ObjectId> idsToUpdate) {
+            if (keys != null) {
+                try {
+                    nextRows(query, keys.allRows());
+                } finally {
+                    keys.close();
+                }
+            }
+        }
+
+        @Override
+        public void nextQueryException(Query query, Exception ex) {
+            throw new CayenneRuntimeException("Query exception.", Util.unwindException(ex));
+        }
+
+        @Override
+        public void nextGlobalException(Exception e) {
+            throw new CayenneRuntimeException("Global exception.", Util.unwindException(e));
+        }
+
+        @Override
+        public boolean isIteratedResult() {
+            return false;
+        }
+    }
+}
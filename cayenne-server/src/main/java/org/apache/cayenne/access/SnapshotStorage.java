@@ -0,0 +1,57 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.access;
+
+import java.io.Serializable;
+
+import org.apache.cayenne.DataRow;
+import org.apache.cayenne.ObjectId;
+
+/**
+ * A storage of snapshots cached by {@link DataRowStore}. Implementations must be thread
+ * safe and are free to evict any entries to stay within their capacity.
+ *
+ * @see DefaultDataRowStoreFactory#createSnapshotStorage(String)
+ * @since 4.2
+ */
+public interface SnapshotStorage extends Serializable {
+
+    /**
+     * Returns a snapshot stored for the id or null if there's no such snapshot.
+     */
+    DataRow get(ObjectId id);
+
+    /**
+     * Stores a snapshot, returning a snapshot previously stored for the same id, if any.
+     */
+    DataRow put(ObjectId id, DataRow snapshot);
+
+    /**
+     * Removes a snapshot, returning it if it was stored.
+     */
+    DataRow remove(ObjectId id);
+
+    /**
+     * Returns the number of stored snapshots.
+     */
+    int size();
+
+    void clear();
+}
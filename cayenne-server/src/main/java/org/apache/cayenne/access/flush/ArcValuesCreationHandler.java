@@ -21,6 +21,7 @@ package org.apache.cayenne.access.flush;
 
 import java.util.Iterator;
 
+import org.apache.cayenne.CayenneRuntimeException;
 import org.apache.cayenne.ObjectId;
 import org.apache.cayenne.access.flush.operation.DbRowOp;
 import org.apache.cayenne.access.flush.operation.DbRowOpType;
@@ -88,6 +89,13 @@ class ArcValuesCreationHandler implements GraphChangeHandler {
         }
 
         if(objRelationship.isFlattened()) {
+            // only the object row itself is upserted, a plain insert of a join row could fail on an existing key,
+            // this is checked for both sides as the arc may be processed from either of them
+            if(created && (factory.getStore().isRegisteredForUpsert(arcTarget.getSourceId())
+                    || factory.getStore().isRegisteredForUpsert(arcTarget.getTargetId()))) {
+                throw new CayenneRuntimeException("Upsert is not supported for flattened relationship '%s.%s'",
+                        entity.getName(), objRelationship.getName());
+            }
             processFlattenedPath(arcTarget.getSourceId(), arcTarget.getTargetId(), entity.getDbEntity(),
                     objRelationship.getDbRelationshipPath(), created);
         } else {
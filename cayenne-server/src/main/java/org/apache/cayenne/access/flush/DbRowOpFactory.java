@@ -35,6 +35,7 @@ import org.apache.cayenne.access.flush.operation.DbRowOpType;
 import org.apache.cayenne.access.flush.operation.DeleteDbRowOp;
 import org.apache.cayenne.access.flush.operation.InsertDbRowOp;
 import org.apache.cayenne.access.flush.operation.UpdateDbRowOp;
+import org.apache.cayenne.access.flush.operation.UpsertDbRowOp;
 import org.apache.cayenne.exp.parser.ASTDbPath;
 import org.apache.cayenne.map.DbEntity;
 import org.apache.cayenne.map.EntityResolver;
@@ -77,7 +78,11 @@ class DbRowOpFactory {
     Collection<? extends DbRowOp> createRows(ObjectDiff diff) {
         updateDiff(diff);
         DbEntity rootEntity = descriptor.getEntity().getDbEntity();
-        DbRowOp row = getOrCreate(rootEntity, object.getObjectId(), DbRowOpType.forObject(object));
+        DbRowOpType type = DbRowOpType.forObject(object);
+        if(type == DbRowOpType.INSERT && store.isRegisteredForUpsert(object.getObjectId())) {
+            type = DbRowOpType.UPSERT;
+        }
+        DbRowOp row = getOrCreate(rootEntity, object.getObjectId(), type);
         rootRowOpProcessor.setDiff(diff);
         row.accept(rootRowOpProcessor);
         return dbRows.values();
@@ -101,6 +106,8 @@ class DbRowOpFactory {
                 return new UpdateDbRowOp(object, entity, id);
             case DELETE:
                 return new DeleteDbRowOp(object, entity, id);
+            case UPSERT:
+                return new UpsertDbRowOp(object, entity, id);
         }
         throw new CayenneRuntimeException("Unknown DbRowType '%s'", type);
     }
@@ -119,8 +119,9 @@ public class DefaultDataDomainFlushAction implements DataDomainFlushAction {
      * @param dbRowOps collection of {@link DbRowOp}
      */
     protected void updateObjectIds(Collection<DbRowOp> dbRowOps) {
-        DbRowOpVisitor<Void> permIdVisitor = new PermanentObjectIdVisitor(dataDomain);
+        PermanentObjectIdVisitor permIdVisitor = new PermanentObjectIdVisitor(dataDomain);
         dbRowOps.forEach(row -> row.accept(permIdVisitor));
+        permIdVisitor.generatePendingPks();
     }
 
     /**
@@ -0,0 +1,216 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access.flush;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import org.apache.cayenne.CayenneRuntimeException;
+import org.apache.cayenne.access.DataDomain;
+import org.apache.cayenne.access.DataNode;
+import org.apache.cayenne.access.flush.operation.DbRowOpSorter;
+import org.apache.cayenne.log.JdbcEventLogger;
+import org.apache.cayenne.map.DbAttribute;
+import org.apache.cayenne.map.DbEntity;
+import org.apache.cayenne.map.DbRelationship;
+import org.apache.cayenne.map.EntityResolver;
+import org.apache.cayenne.query.BatchQuery;
+import org.apache.cayenne.query.InsertBatchQuery;
+import org.apache.cayenne.query.Query;
+import org.apache.cayenne.tx.BaseTransaction;
+import org.apache.cayenne.tx.Transaction;
+import org.apache.cayenne.util.Util;
+
+/**
+ * Flush action that runs queries for each {@link DataNode} concurrently. Queries of a single
+ * node are executed in their original order, and all nodes share the calling thread
+ * {@link Transaction}.
+ * <p>
+ * If a DB-generated primary key of one node is referenced by a relationship from an entity
+ * of another node, this action falls back to the sequential execution, as values of such keys
+ * are only known after the insert.
+ *
+ * @since 4.2
+ */
+public class ParallelDataDomainFlushAction extends DefaultDataDomainFlushAction {
+
+    protected final ExecutorService executor;
+
+    protected ParallelDataDomainFlushAction(DataDomain dataDomain, DbRowOpSorter dbRowOpSorter,
+                                            JdbcEventLogger jdbcEventLogger, ExecutorService executor) {
+        super(dataDomain, dbRowOpSorter, jdbcEventLogger);
+        this.executor = executor;
+    }
+
+    @Override
+    protected void executeQueries(List<? extends Query> queries) {
+        EntityResolver entityResolver = dataDomain.getEntityResolver();
+        Map<DataNode, List<Query>> queriesByNode = queries.stream()
+                .map(Query.class::cast)
+                .collect(Collectors.groupingBy(query
+                        -> dataDomain.lookupDataNode(query.getMetaData(entityResolver).getDataMap()),
+                        LinkedHashMap::new,
+                        Collectors.toList()));
+
+        if (queriesByNode.size() < 2 || hasCrossNodeGeneratedKeys(queriesByNode)) {
+            queriesByNode.forEach((node, nodeQueries) -> node.performQueries(nodeQueries, observer));
+            return;
+        }
+
+        Transaction transaction = BaseTransaction.getThreadTransaction();
+        if (transaction != null) {
+            openConnections(queriesByNode.keySet());
+        }
+
+        Iterator<Map.Entry<DataNode, List<Query>>> it = queriesByNode.entrySet().iterator();
+        Map.Entry<DataNode, List<Query>> first = it.next();
+
+        List<Future<?>> futures = new ArrayList<>(queriesByNode.size() - 1);
+        while (it.hasNext()) {
+            Map.Entry<DataNode, List<Query>> entry = it.next();
+            futures.add(executor.submit(() -> performQueries(transaction, entry.getKey(), entry.getValue())));
+        }
+
+        // run the first node in the calling thread, then wait for the rest of them,
+        // even if some fail, so that no thread is using the transaction after we return
+        RuntimeException failure = null;
+        try {
+            first.getKey().performQueries(first.getValue(), observer);
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+
+        boolean interrupted = false;
+        for (Future<?> future : futures) {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        Throwable cause = e.getCause();
+                        failure = cause instanceof RuntimeException
+                                ? (RuntimeException) cause
+                                : new CayenneRuntimeException("Error flushing changes", Util.unwindException(cause));
+                    }
+                    break;
+                }
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Opens transaction connections for all the nodes in the calling thread, as {@link Transaction}
+     * is not thread-safe. Flush threads would only read them.
+     */
+    protected void openConnections(Iterable<DataNode> nodes) {
+        for (DataNode node : nodes) {
+            // closing the transaction connection is a no-op, it stays attached to the transaction
+            try {
+                node.getDataSource().getConnection().close();
+            } catch (Exception e) {
+                observer.nextGlobalException(e);
+            }
+        }
+    }
+
+    protected void performQueries(Transaction transaction, DataNode node, List<Query> queries) {
+        Transaction previous = BaseTransaction.getThreadTransaction();
+        BaseTransaction.bindThreadTransaction(transaction);
+        try {
+            node.performQueries(queries, observer);
+        } finally {
+            BaseTransaction.bindThreadTransaction(previous);
+        }
+    }
+
+    /**
+     * Checks whether any DB-generated primary key inserted into one node is related to
+     * an entity flushed to another node.
+     */
+    protected boolean hasCrossNodeGeneratedKeys(Map<DataNode, List<Query>> queriesByNode) {
+        Map<DbEntity, DataNode> entityNodes = new HashMap<>();
+        List<DbEntity> generatedKeyEntities = new ArrayList<>();
+        queriesByNode.forEach((node, queries) -> {
+            for (Query query : queries) {
+                if (query instanceof BatchQuery) {
+                    DbEntity entity = ((BatchQuery) query).getDbEntity();
+                    entityNodes.put(entity, node);
+                    if (query instanceof InsertBatchQuery && hasGeneratedPk(entity)) {
+                        generatedKeyEntities.add(entity);
+                    }
+                }
+            }
+        });
+
+        if (generatedKeyEntities.isEmpty()) {
+            return false;
+        }
+
+        for (DbEntity entity : generatedKeyEntities) {
+            DataNode node = entityNodes.get(entity);
+            for (Map.Entry<DbEntity, DataNode> entry : entityNodes.entrySet()) {
+                if (entry.getValue() == node) {
+                    continue;
+                }
+                if (isRelated(entity, entry.getKey()) || isRelated(entry.getKey(), entity)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasGeneratedPk(DbEntity entity) {
+        for (DbAttribute attribute : entity.getGeneratedAttributes()) {
+            if (attribute.isPrimaryKey()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isRelated(DbEntity source, DbEntity target) {
+        // compare by name, as target entity may be outside of the source DataMap namespace
+        for (DbRelationship relationship : source.getRelationships()) {
+            if (target.getName().equals(relationship.getTargetEntityName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
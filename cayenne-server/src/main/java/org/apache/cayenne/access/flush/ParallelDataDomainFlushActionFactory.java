@@ -0,0 +1,96 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access.flush;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.cayenne.access.DataDomain;
+import org.apache.cayenne.access.flush.operation.DbRowOpSorter;
+import org.apache.cayenne.configuration.Constants;
+import org.apache.cayenne.configuration.RuntimeProperties;
+import org.apache.cayenne.di.BeforeScopeEnd;
+import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.log.JdbcEventLogger;
+
+/**
+ * Factory that produces {@link ParallelDataDomainFlushAction}. All produced actions share
+ * a bounded thread pool, size of the pool is controlled by the
+ * {@link Constants#SERVER_FLUSH_THREADS_PROPERTY} property.
+ * <p>
+ * To enable, bind it in the runtime:
+ * <pre>
+ * binder.bind(DataDomainFlushActionFactory.class).to(ParallelDataDomainFlushActionFactory.class);
+ * </pre>
+ *
+ * @since 4.2
+ */
+public class ParallelDataDomainFlushActionFactory implements DataDomainFlushActionFactory {
+
+    static final int DEFAULT_FLUSH_THREADS = 4;
+
+    @Inject
+    private DbRowOpSorter operationSorter;
+
+    @Inject
+    private JdbcEventLogger jdbcEventLogger;
+
+    private final ExecutorService executor;
+
+    public ParallelDataDomainFlushActionFactory(@Inject RuntimeProperties properties) {
+        int threads = properties.getInt(Constants.SERVER_FLUSH_THREADS_PROPERTY, DEFAULT_FLUSH_THREADS);
+        this.executor = createExecutor(Math.max(1, threads));
+    }
+
+    @Override
+    public DataDomainFlushAction createFlushAction(DataDomain dataDomain) {
+        return new ParallelDataDomainFlushAction(dataDomain, operationSorter, jdbcEventLogger, executor);
+    }
+
+    /**
+     * Stops flush threads.
+     */
+    @BeforeScopeEnd
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    protected ExecutorService createExecutor(int threads) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads,
+                60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new FlushThreadFactory());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    static class FlushThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "cayenne-flush-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -19,6 +19,9 @@
 
 package org.apache.cayenne.access.flush;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.cayenne.CayenneRuntimeException;
@@ -28,6 +31,7 @@ import org.apache.cayenne.access.DataNode;
 import org.apache.cayenne.access.flush.operation.DbRowOpVisitor;
 import org.apache.cayenne.access.flush.operation.DeleteDbRowOp;
 import org.apache.cayenne.access.flush.operation.InsertDbRowOp;
+import org.apache.cayenne.access.flush.operation.UpsertDbRowOp;
 import org.apache.cayenne.dba.PkGenerator;
 import org.apache.cayenne.exp.parser.ASTDbPath;
 import org.apache.cayenne.map.DbAttribute;
@@ -38,7 +42,9 @@ import org.apache.cayenne.map.ObjEntity;
 import org.apache.cayenne.reflect.ClassDescriptor;
 
 /**
- * Visitor that fills replacement map of {@link ObjectId}s of inserted objects.
+ * Visitor that fills replacement map of {@link ObjectId}s of inserted objects. Keys generated
+ * with {@link PkGenerator} are requested in bulk per PK attribute by {@link #generatePendingPks()}
+ * after all the rows are visited.
  *
  * @since 4.2
  */
@@ -53,6 +59,8 @@ class PermanentObjectIdVisitor implements DbRowOpVisitor<Void> {
     private DataNode lastNode;
     private String lastEntityName;
 
+    private final Map<DbAttribute, PendingPks> pendingPks = new LinkedHashMap<>();
+
     PermanentObjectIdVisitor(DataDomain dataDomain) {
         this.dataDomain = dataDomain;
         this.resolver = dataDomain.getEntityResolver();
@@ -96,7 +104,6 @@ class PermanentObjectIdVisitor implements DbRowOpVisitor<Void> {
     private void createPermanentId(InsertDbRowOp dbRow) {
         ObjectId id = dbRow.getChangeId();
         boolean supportsGeneratedKeys = lastNode.getAdapter().supportsGeneratedKeys();
-        PkGenerator pkGenerator = lastNode.getAdapter().getPkGenerator();
 
         // modify replacement id directly...
         Map<String, Object> idMap = id.getReplacementIdMap();
@@ -126,6 +133,12 @@ class PermanentObjectIdVisitor implements DbRowOpVisitor<Void> {
                 }
             }
 
+            // upsert is matched by the key, so it must be known upfront
+            if (dbRow instanceof UpsertDbRowOp) {
+                throw new CayenneRuntimeException("Can't upsert %s object, no value for primary key column '%s'",
+                        id.getEntityName(), dbAttrName);
+            }
+
             // skip db-generated
             if (supportsGeneratedKeys && dbAttr.isGenerated()) {
                 // mark that this attribute should be generated at insert time
@@ -138,15 +151,50 @@ class PermanentObjectIdVisitor implements DbRowOpVisitor<Void> {
                 throw new CayenneRuntimeException("Primary Key autogeneration only works for a single attribute.");
             }
 
-            // finally, use database generation mechanism
+            // finally, use database generation mechanism, deferring it until all rows are visited
+            pendingPks.computeIfAbsent(dbAttr, attr -> new PendingPks(lastNode)).idMaps.add(idMap);
+            autoPkDone = true;
+        }
+    }
+
+    /**
+     * Generates keys requested by the visited rows, fetching all keys of a PK attribute
+     * at once.
+     */
+    void generatePendingPks() {
+        for (Map.Entry<DbAttribute, PendingPks> entry : pendingPks.entrySet()) {
+            DbAttribute dbAttr = entry.getKey();
+            PendingPks pending = entry.getValue();
+            PkGenerator pkGenerator = pending.node.getAdapter().getPkGenerator();
+
+            List<Object> pkValues;
             try {
-                Object pkValue = pkGenerator.generatePk(lastNode, dbAttr);
-                idMap.put(dbAttrName, pkValue);
-                autoPkDone = true;
+                pkValues = pkGenerator.generatePks(pending.node, dbAttr, pending.idMaps.size());
             } catch (Exception ex) {
                 throw new CayenneRuntimeException("Error generating PK: %s", ex,  ex.getMessage());
             }
+
+            if (pkValues.size() != pending.idMaps.size()) {
+                throw new CayenneRuntimeException("Error generating PK: expected %d keys for %s, got %d",
+                        pending.idMaps.size(), dbAttr.getEntity().getName(), pkValues.size());
+            }
+
+            for (int i = 0; i < pkValues.size(); i++) {
+                pending.idMaps.get(i).put(dbAttr.getName(), pkValues.get(i));
+            }
         }
+
+        pendingPks.clear();
     }
 
+    private static class PendingPks {
+
+        final DataNode node;
+        final List<Map<String, Object>> idMaps;
+
+        PendingPks(DataNode node) {
+            this.node = node;
+            this.idMaps = new ArrayList<>();
+        }
+    }
 }
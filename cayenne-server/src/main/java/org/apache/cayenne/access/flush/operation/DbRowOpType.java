@@ -29,7 +29,8 @@ import org.apache.cayenne.Persistent;
 public enum DbRowOpType implements Comparable<DbRowOpType> {
     INSERT,
     UPDATE,
-    DELETE;
+    DELETE,
+    UPSERT;
 
     public static DbRowOpType forObject(Persistent object) {
         switch (object.getPersistenceState()) {
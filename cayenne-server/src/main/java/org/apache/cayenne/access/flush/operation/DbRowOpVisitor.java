@@ -28,6 +28,10 @@ public interface DbRowOpVisitor<T> {
         return null;
     }
 
+    default T visitUpsert(UpsertDbRowOp dbRow) {
+        return visitInsert(dbRow);
+    }
+
     default T visitUpdate(UpdateDbRowOp dbRow) {
         return null;
     }
@@ -58,7 +58,8 @@ public class InsertDbRowOp extends BaseDbRowOp implements DbRowOpWithValues {
 
     @Override
     public boolean isSameBatch(DbRowOp rowOp) {
-        if(!(rowOp instanceof InsertDbRowOp)) {
+        // inserts and upserts are never batched together
+        if(rowOp.getClass() != getClass()) {
             return false;
         }
         return rowOp.getEntity().getName().equals(getEntity().getName());
@@ -0,0 +1,47 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.access.flush.operation;
+
+import org.apache.cayenne.ObjectId;
+import org.apache.cayenne.Persistent;
+import org.apache.cayenne.map.DbEntity;
+
+/**
+ * Insert of the row, that updates the existing row with the same primary key instead.
+ * Visitors that don't care about this difference process it as a regular insert.
+ *
+ * @since 4.2
+ */
+public class UpsertDbRowOp extends InsertDbRowOp {
+
+    public UpsertDbRowOp(Persistent object, DbEntity entity, ObjectId id) {
+        super(object, entity, id);
+    }
+
+    @Override
+    public <T> T accept(DbRowOpVisitor<T> visitor) {
+        return visitor.visitUpsert(this);
+    }
+
+    @Override
+    public String toString() {
+        return "upsert " + entity.getName() + " " + changeId;
+    }
+}
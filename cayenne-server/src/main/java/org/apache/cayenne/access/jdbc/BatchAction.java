@@ -21,12 +21,14 @@ package org.apache.cayenne.access.jdbc;
 
 import org.apache.cayenne.ObjectId;
 import org.apache.cayenne.ResultIterator;
+import org.apache.cayenne.access.AsyncQueryExecutor;
 import org.apache.cayenne.access.DataNode;
 import org.apache.cayenne.access.OperationObserver;
 import org.apache.cayenne.access.OptimisticLockException;
 import org.apache.cayenne.access.jdbc.reader.RowReader;
 import org.apache.cayenne.access.translator.DbAttributeBinding;
 import org.apache.cayenne.access.translator.batch.BatchTranslator;
+import org.apache.cayenne.access.translator.batch.MultiRowBatchTranslator;
 import org.apache.cayenne.dba.DbAdapter;
 import org.apache.cayenne.dba.TypesMapping;
 import org.apache.cayenne.log.JdbcEventLogger;
@@ -44,6 +46,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * @since 1.2
@@ -84,6 +87,16 @@ public class BatchAction extends BaseSQLAction {
 	public void performAction(Connection connection, OperationObserver observer) throws SQLException, Exception {
 
 		BatchTranslator translator = createTranslator();
+
+		if (translator instanceof MultiRowBatchTranslator && query.getRows().size() > 1) {
+			boolean generatesKeys = hasGeneratedKeys() && dataNode.getAdapter().supportsGeneratedKeys();
+
+			// multi-row statement can't be used if we generate keys but can't read them all back
+			if (!generatesKeys || supportsGeneratedKeys(true)) {
+				runAsMultiRowStatements(connection, (MultiRowBatchTranslator) translator, observer, generatesKeys);
+				return;
+			}
+		}
 		
 		boolean isBatch = runningAsBatch && query.getRows().size() > 1;
 		if (isBatch && hasGeneratedKeys() && !supportsGeneratedKeys(isBatch)) {
@@ -106,49 +119,120 @@ public class BatchAction extends BaseSQLAction {
 
 		String sql = translator.getSql();
 		JdbcEventLogger logger = dataNode.getJdbcEventLogger();
-		boolean isLoggable = logger.isLoggable();
 
 		// log batch SQL execution
 		logger.log(sql);
 
-		// run batch
+		// run batch, splitting it into chunks if it is larger than allowed by the node
 
 		DbAdapter adapter = dataNode.getAdapter();
+		List<BatchQueryRow> rows = query.getRows();
+		int chunkSize = dataNode.getMaxBatchSize() > 0 ? dataNode.getMaxBatchSize() : rows.size();
 
-		try (PreparedStatement statement = prepareStatement(con, sql, adapter, generatesKeys)) {
-			for (BatchQueryRow row : query.getRows()) {
+		AsyncQueryExecutor executor = dataNode.getBatchPipelineExecutor();
+		if (executor != null && rows.size() > chunkSize) {
+			runAsPipelinedBatch(con, translator, sql, delegate, generatesKeys, executor, chunkSize);
+			return;
+		}
 
-				DbAttributeBinding[] bindings = translator.updateBindings(row);
-				logger.logQueryParameters("batch bind", bindings);
-				bind(adapter, statement, bindings);
+		try (PreparedStatement statement = prepareStatement(con, sql, adapter, generatesKeys)) {
+			for (int i = 0; i < rows.size(); i += chunkSize) {
+				List<BatchQueryRow> chunk = rows.subList(i, Math.min(i + chunkSize, rows.size()));
 
-				statement.addBatch();
+				bindBatch(adapter, statement, translator, chunk);
+				int[] results = statement.executeBatch();
+				processBatchResults(statement, delegate, chunk, results, generatesKeys);
 			}
+		}
+	}
+
+	/**
+	 * Executes batch in chunks over two alternating prepared statements, binding
+	 * the next chunk while the previous one is executed by the provided executor.
+	 *
+	 * @since 4.2
+	 */
+	protected void runAsPipelinedBatch(Connection con, BatchTranslator translator, String sql,
+			OperationObserver delegate, boolean generatesKeys, AsyncQueryExecutor executor, int chunkSize)
+			throws SQLException, Exception {
 
-			// execute the whole batch
-			int[] results = statement.executeBatch();
-			delegate.nextBatchCount(query, results);
+		DbAdapter adapter = dataNode.getAdapter();
+		List<BatchQueryRow> rows = query.getRows();
 
-			if (generatesKeys) {
-				processGeneratedKeys(statement, delegate, query.getRows());
-			}
-			
-			if (isLoggable) {
-				int totalUpdateCount = 0;
-				for (int result : results) {
-
-					// this means Statement.SUCCESS_NO_INFO or
-					// Statement.EXECUTE_FAILED
-					if (result < 0) {
-						totalUpdateCount = Statement.SUCCESS_NO_INFO;
-						break;
+		try (PreparedStatement first = prepareStatement(con, sql, adapter, generatesKeys);
+				PreparedStatement second = prepareStatement(con, sql, adapter, generatesKeys)) {
+
+			PreparedStatement[] statements = { first, second };
+			BatchChunk pending = null;
+
+			try {
+				for (int i = 0, n = 0; i < rows.size(); i += chunkSize, n++) {
+					List<BatchQueryRow> chunk = rows.subList(i, Math.min(i + chunkSize, rows.size()));
+					PreparedStatement statement = statements[n % 2];
+
+					// bind while the previous chunk is still running on the other statement
+					bindBatch(adapter, statement, translator, chunk);
+
+					if (pending != null) {
+						int[] results = pending.join();
+						processBatchResults(pending.statement, delegate, pending.rows, results, generatesKeys);
 					}
 
-					totalUpdateCount += result;
+					pending = new BatchChunk(statement, chunk);
+					executor.submit(pending);
+				}
+
+				int[] results = pending.join();
+				processBatchResults(pending.statement, delegate, pending.rows, results, generatesKeys);
+				pending = null;
+			} finally {
+				// statements can't be closed while a chunk is still running
+				if (pending != null) {
+					pending.abandon();
+				}
+			}
+		}
+	}
+
+	private void bindBatch(DbAdapter adapter, PreparedStatement statement, BatchTranslator translator,
+			List<BatchQueryRow> rows) throws SQLException, Exception {
+
+		JdbcEventLogger logger = dataNode.getJdbcEventLogger();
+
+		for (BatchQueryRow row : rows) {
+			DbAttributeBinding[] bindings = translator.updateBindings(row);
+			logger.logQueryParameters("batch bind", bindings);
+			bind(adapter, statement, bindings);
+
+			statement.addBatch();
+		}
+	}
+
+	private void processBatchResults(Statement statement, OperationObserver delegate, List<BatchQueryRow> rows,
+			int[] results, boolean generatesKeys) throws SQLException {
+
+		delegate.nextBatchCount(query, results);
+
+		if (generatesKeys) {
+			processGeneratedKeys(statement, delegate, rows);
+		}
+
+		JdbcEventLogger logger = dataNode.getJdbcEventLogger();
+		if (logger.isLoggable()) {
+			int totalUpdateCount = 0;
+			for (int result : results) {
+
+				// this means Statement.SUCCESS_NO_INFO or
+				// Statement.EXECUTE_FAILED
+				if (result < 0) {
+					totalUpdateCount = Statement.SUCCESS_NO_INFO;
+					break;
 				}
 
-				logger.logUpdateCount(totalUpdateCount);
+				totalUpdateCount += result;
 			}
+
+			logger.logUpdateCount(totalUpdateCount);
 		}
 	}
 
@@ -199,6 +283,57 @@ public class BatchAction extends BaseSQLAction {
 		}
 	}
 
+	/**
+	 * Executes batch as a series of statements, each inserting a chunk of rows.
+	 *
+	 * @since 4.2
+	 */
+	protected void runAsMultiRowStatements(Connection connection, MultiRowBatchTranslator translator,
+			OperationObserver delegate, boolean generatesKeys) throws SQLException, Exception {
+
+		List<BatchQueryRow> rows = query.getRows();
+		int rowsPerStatement = Math.min(translator.getMaxRowsPerStatement(), rows.size());
+		int fullChunksSize = rows.size() - rows.size() % rowsPerStatement;
+
+		// all full chunks share the same SQL, and the tail (if any) gets its own statement
+		runMultiRowChunks(connection, translator, delegate, generatesKeys, rows.subList(0, fullChunksSize),
+				rowsPerStatement);
+		if (fullChunksSize < rows.size()) {
+			runMultiRowChunks(connection, translator, delegate, generatesKeys,
+					rows.subList(fullChunksSize, rows.size()), rows.size() - fullChunksSize);
+		}
+	}
+
+	private void runMultiRowChunks(Connection connection, MultiRowBatchTranslator translator,
+			OperationObserver delegate, boolean generatesKeys, List<BatchQueryRow> rows, int rowsPerStatement)
+			throws SQLException, Exception {
+
+		JdbcEventLogger logger = dataNode.getJdbcEventLogger();
+		DbAdapter adapter = dataNode.getAdapter();
+
+		String queryStr = translator.getSql(rowsPerStatement);
+		logger.log(queryStr);
+
+		try (PreparedStatement statement = prepareStatement(connection, queryStr, adapter, generatesKeys)) {
+			for (int i = 0; i < rows.size(); i += rowsPerStatement) {
+				List<BatchQueryRow> chunk = rows.subList(i, i + rowsPerStatement);
+
+				DbAttributeBinding[] bindings = translator.updateBindings(chunk);
+				logger.logQueryParameters("bind", bindings);
+				bind(adapter, statement, bindings);
+
+				int updated = statement.executeUpdate();
+				delegate.nextCount(query, updated);
+
+				if (generatesKeys) {
+					processGeneratedKeys(statement, delegate, chunk);
+				}
+
+				logger.logUpdateCount(updated);
+			}
+		}
+	}
+
 	protected PreparedStatement prepareStatement(Connection connection,	String queryStr,
 												 DbAdapter adapter,	boolean generatedKeys) throws SQLException {
 		return (generatedKeys)
@@ -291,4 +426,95 @@ public class BatchAction extends BaseSQLAction {
 		}
 		observer.nextGeneratedRows(query, iterator, objectIds);
 	}
+
+	/**
+	 * A chunk of a pipelined batch. Can be executed either by a background thread
+	 * or by the caller thread if the background thread didn't get to it yet.
+	 */
+	private static class BatchChunk implements Supplier<Void> {
+
+		final PreparedStatement statement;
+		final List<BatchQueryRow> rows;
+
+		private boolean started;
+		private boolean done;
+		private int[] results;
+		private Throwable error;
+
+		BatchChunk(PreparedStatement statement, List<BatchQueryRow> rows) {
+			this.statement = statement;
+			this.rows = rows;
+		}
+
+		@Override
+		public Void get() {
+			if (claim()) {
+				execute();
+			}
+			return null;
+		}
+
+		int[] join() throws Exception {
+			if (claim()) {
+				execute();
+			} else {
+				awaitDone();
+			}
+
+			if (error instanceof Exception) {
+				throw (Exception) error;
+			} else if (error != null) {
+				throw (Error) error;
+			}
+
+			return results;
+		}
+
+		/**
+		 * Prevents the chunk from starting, or waits for it to finish if it is
+		 * already running.
+		 */
+		void abandon() {
+			if (!claim()) {
+				awaitDone();
+			}
+		}
+
+		private synchronized boolean claim() {
+			if (started) {
+				return false;
+			}
+
+			started = true;
+			return true;
+		}
+
+		private void execute() {
+			try {
+				results = statement.executeBatch();
+			} catch (Throwable th) {
+				error = th;
+			}
+
+			synchronized (this) {
+				done = true;
+				notifyAll();
+			}
+		}
+
+		private synchronized void awaitDone() {
+			boolean interrupted = false;
+			while (!done) {
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
 }
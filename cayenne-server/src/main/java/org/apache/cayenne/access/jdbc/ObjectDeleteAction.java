@@ -0,0 +1,45 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.access.jdbc;
+
+import java.util.List;
+
+import org.apache.cayenne.access.DataNode;
+import org.apache.cayenne.access.translator.DbAttributeBinding;
+import org.apache.cayenne.map.ObjEntity;
+import org.apache.cayenne.query.ObjectDelete;
+
+/**
+ * An action running {@link ObjectDelete} as a single "DELETE" statement.
+ *
+ * @since 4.2
+ */
+public class ObjectDeleteAction extends ObjectModifyAction {
+
+    public ObjectDeleteAction(ObjectDelete<?> query, DataNode dataNode) {
+        super(query, dataNode);
+    }
+
+    @Override
+    protected void appendStatement(StringBuilder sql, ObjEntity entity, List<DbAttributeBinding> bindings) {
+        sql.append("DELETE FROM ")
+                .append(dataNode.getAdapter().getQuotingStrategy().quotedFullyQualifiedName(entity.getDbEntity()));
+    }
+}
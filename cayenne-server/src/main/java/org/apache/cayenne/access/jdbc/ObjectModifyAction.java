@@ -0,0 +1,146 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.access.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.cayenne.access.DataNode;
+import org.apache.cayenne.access.OperationObserver;
+import org.apache.cayenne.access.translator.DbAttributeBinding;
+import org.apache.cayenne.access.translator.select.SelectTranslator;
+import org.apache.cayenne.dba.DbAdapter;
+import org.apache.cayenne.dba.QuotingStrategy;
+import org.apache.cayenne.log.JdbcEventLogger;
+import org.apache.cayenne.map.DbAttribute;
+import org.apache.cayenne.map.ObjEntity;
+import org.apache.cayenne.query.ObjectModifyQuery;
+
+/**
+ * A superclass of the actions running set-based {@link ObjectModifyQuery} queries. The
+ * query qualifier is translated as a select of the matching primary keys, and the rows
+ * are modified with a single statement of the form
+ * <code>... WHERE PK IN (SELECT * FROM (&lt;select&gt;) ids)</code>. Wrapping the
+ * select in a derived table allows the qualifier to reference the modified table itself,
+ * which is otherwise rejected by some databases (e.g. MySQL).
+ *
+ * @since 4.2
+ */
+public abstract class ObjectModifyAction extends BaseSQLAction {
+
+    protected ObjectModifyQuery<?> query;
+
+    public ObjectModifyAction(ObjectModifyQuery<?> query, DataNode dataNode) {
+        super(dataNode);
+        this.query = query;
+    }
+
+    /**
+     * Appends the statement start up to the "WHERE" clause, adding bindings of the
+     * values it references.
+     */
+    protected abstract void appendStatement(StringBuilder sql, ObjEntity entity, List<DbAttributeBinding> bindings);
+
+    @Override
+    public void performAction(Connection connection, OperationObserver observer) throws Exception {
+
+        ObjEntity entity = dataNode.getEntityResolver().getObjEntity(query.getEntityType());
+        List<DbAttributeBinding> bindingList = new ArrayList<>();
+        StringBuilder buffer = new StringBuilder();
+
+        appendStatement(buffer, entity, bindingList);
+        appendWhere(buffer, entity, bindingList);
+
+        String sql = buffer.toString();
+        DbAttributeBinding[] bindings = bindingList.toArray(new DbAttributeBinding[0]);
+
+        JdbcEventLogger logger = dataNode.getJdbcEventLogger();
+        logger.logQuery(sql, bindings);
+
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            bind(dataNode.getAdapter(), statement, bindings);
+
+            int updated = statement.executeUpdate();
+            logger.logUpdateCount(updated);
+            observer.nextCount(query, updated);
+        }
+    }
+
+    protected void appendWhere(StringBuilder sql, ObjEntity entity, List<DbAttributeBinding> bindings)
+            throws Exception {
+
+        // no qualifier, nothing to translate
+        if (query.getWhere() == null && entity.getDeclaredQualifier() == null) {
+            return;
+        }
+
+        SelectTranslator translator = dataNode.selectTranslator(query.createIdSelect(dataNode.getEntityResolver()));
+        String select = translator.getSql();
+
+        QuotingStrategy strategy = dataNode.getAdapter().getQuotingStrategy();
+        Collection<DbAttribute> pks = entity.getDbEntity().getPrimaryKeys();
+
+        sql.append(" WHERE ");
+        if (pks.size() > 1) {
+            sql.append('(');
+        }
+
+        boolean first = true;
+        for (DbAttribute pk : pks) {
+            if (!first) {
+                sql.append(", ");
+            }
+            sql.append(strategy.quotedName(pk));
+            first = false;
+        }
+
+        if (pks.size() > 1) {
+            sql.append(')');
+        }
+
+        sql.append(" IN (SELECT * FROM (").append(select).append(") ids)");
+
+        // select parameters follow the ones already in the statement
+        int offset = bindings.size();
+        for (DbAttributeBinding binding : translator.getBindings()) {
+            if (!binding.isExcluded()) {
+                binding.setStatementPosition(binding.getStatementPosition() + offset);
+                bindings.add(binding);
+            }
+        }
+    }
+
+    private static void bind(DbAdapter adapter, PreparedStatement statement, DbAttributeBinding[] bindings)
+            throws Exception {
+
+        for (DbAttributeBinding b : bindings) {
+
+            // qualifier parameters not mapped to a DbAttribute, see SelectAction
+            if (b.getAttribute() == null) {
+                statement.setObject(b.getStatementPosition(), b.getValue());
+            } else {
+                adapter.bindParameter(statement, b);
+            }
+        }
+    }
+}
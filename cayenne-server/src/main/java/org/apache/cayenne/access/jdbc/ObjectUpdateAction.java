@@ -0,0 +1,88 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.access.jdbc;
+
+import java.util.List;
+import java.util.Map;
+
+import org.apache.cayenne.CayenneRuntimeException;
+import org.apache.cayenne.access.DataNode;
+import org.apache.cayenne.access.translator.DbAttributeBinding;
+import org.apache.cayenne.access.types.ExtendedTypeMap;
+import org.apache.cayenne.dba.QuotingStrategy;
+import org.apache.cayenne.exp.Expression;
+import org.apache.cayenne.map.DbAttribute;
+import org.apache.cayenne.map.ObjEntity;
+import org.apache.cayenne.query.ObjectUpdate;
+
+/**
+ * An action running {@link ObjectUpdate} as a single "UPDATE" statement.
+ *
+ * @since 4.2
+ */
+public class ObjectUpdateAction extends ObjectModifyAction {
+
+    public ObjectUpdateAction(ObjectUpdate<?> query, DataNode dataNode) {
+        super(query, dataNode);
+    }
+
+    @Override
+    protected void appendStatement(StringBuilder sql, ObjEntity entity, List<DbAttributeBinding> bindings) {
+
+        Map<Expression, Object> values = ((ObjectUpdate<?>) query).getValues();
+        if (values.isEmpty()) {
+            throw new CayenneRuntimeException("No values to update in %s", entity.getName());
+        }
+
+        QuotingStrategy strategy = dataNode.getAdapter().getQuotingStrategy();
+        ExtendedTypeMap types = dataNode.getAdapter().getExtendedTypes();
+
+        sql.append("UPDATE ").append(strategy.quotedFullyQualifiedName(entity.getDbEntity())).append(" SET ");
+
+        for (Map.Entry<Expression, Object> entry : values.entrySet()) {
+            DbAttribute attribute = toDbAttribute(entity, entry.getKey());
+            Object value = entry.getValue();
+
+            if (!bindings.isEmpty()) {
+                sql.append(", ");
+            }
+            sql.append(strategy.quotedName(attribute)).append(" = ?");
+
+            DbAttributeBinding binding = new DbAttributeBinding(attribute);
+            binding.include(bindings.size() + 1, value, value != null
+                    ? types.getRegisteredType(value.getClass())
+                    : types.getDefaultType());
+            bindings.add(binding);
+        }
+    }
+
+    private DbAttribute toDbAttribute(ObjEntity entity, Expression path) {
+        Expression dbPath = entity.translateToDbPath(path);
+        String column = dbPath.getType() == Expression.DB_PATH ? (String) dbPath.getOperand(0) : null;
+
+        DbAttribute attribute = column != null ? entity.getDbEntity().getAttribute(column) : null;
+        if (attribute == null) {
+            throw new CayenneRuntimeException("Can't update '%s', it is not a column of %s table",
+                    path, entity.getDbEntityName());
+        }
+
+        return attribute;
+    }
+}
@@ -21,6 +21,7 @@ package org.apache.cayenne.access.jdbc.reader;
 import java.sql.ResultSet;
 
 import org.apache.cayenne.CayenneRuntimeException;
+import org.apache.cayenne.CompactDataRow;
 import org.apache.cayenne.DataRow;
 import org.apache.cayenne.access.jdbc.ColumnDescriptor;
 import org.apache.cayenne.access.jdbc.RowDescriptor;
@@ -39,7 +40,8 @@ class EntityRowReader implements RowReader<DataRow> {
     private int[] types;
 
     String entityName;
-    private int mapCapacity;
+    private CompactDataRow.Index index;
+    private int[] positions;
     private int startIndex;
 
     DataRowPostProcessor postProcessor;
@@ -77,21 +79,22 @@ class EntityRowReader implements RowReader<DataRow> {
                 labels[i] = segmentMetadata.getColumnPath(columns[startIndex + i].getDataRowKey());
             }
         }
-        this.mapCapacity = (int) Math.ceil(segmentWidth / 0.75);
+        this.positions = new int[segmentWidth];
+        this.index = CompactDataRow.Index.forLabels(labels, positions);
     }
 
     @Override
     public DataRow readRow(ResultSet resultSet) {
 
         try {
-            DataRow row = new DataRow(mapCapacity);
+            CompactDataRow row = new CompactDataRow(index);
             int len = converters.length;
 
             for (int i = 0; i < len; i++) {
 
                 // note: jdbc column indexes start from 1, not 0 as in arrays
                 Object val = converters[i].materializeObject(resultSet, startIndex + i + 1, types[i]);
-                row.put(labels[i], val);
+                row.set(positions[i], val);
             }
 
             postprocessRow(resultSet, row);
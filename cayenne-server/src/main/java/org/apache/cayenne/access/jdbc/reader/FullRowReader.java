@@ -21,6 +21,7 @@ package org.apache.cayenne.access.jdbc.reader;
 import java.sql.ResultSet;
 
 import org.apache.cayenne.CayenneRuntimeException;
+import org.apache.cayenne.CompactDataRow;
 import org.apache.cayenne.DataRow;
 import org.apache.cayenne.access.jdbc.RowDescriptor;
 import org.apache.cayenne.query.QueryMetadata;
@@ -31,17 +32,19 @@ import org.apache.cayenne.util.Util;
  */
 class FullRowReader extends BaseRowReader<DataRow> {
 
-    int mapCapacity;
+    CompactDataRow.Index index;
+    int[] positions;
 
     FullRowReader(RowDescriptor descriptor, QueryMetadata queryMetadata, DataRowPostProcessor postProcessor) {
         super(descriptor, queryMetadata, postProcessor);
-        this.mapCapacity = (int) Math.ceil((descriptor.getWidth()) / 0.75);
+        this.positions = new int[labels.length];
+        this.index = CompactDataRow.Index.forLabels(labels, positions);
     }
 
     @Override
     public DataRow readRow(ResultSet resultSet) {
         try {
-            DataRow dataRow = new DataRow(mapCapacity);
+            CompactDataRow dataRow = new CompactDataRow(index);
 
             int resultWidth = labels.length;
 
@@ -50,7 +53,7 @@ class FullRowReader extends BaseRowReader<DataRow> {
                 // note: jdbc column indexes start from 1, not 0 unlike
                 // everywhere else
                 Object val = converters[i].materializeObject(resultSet, i + 1, types[i]);
-                dataRow.put(labels[i], val);
+                dataRow.set(positions[i], val);
             }
 
             postprocessRow(resultSet, dataRow);
@@ -19,8 +19,11 @@
 
 package org.apache.cayenne.access.sqlbuilder;
 
+import org.apache.cayenne.access.sqlbuilder.sqltree.EmptyNode;
 import org.apache.cayenne.access.sqlbuilder.sqltree.InsertColumnsNode;
 import org.apache.cayenne.access.sqlbuilder.sqltree.InsertNode;
+import org.apache.cayenne.access.sqlbuilder.sqltree.InsertValuesRowNode;
+import org.apache.cayenne.access.sqlbuilder.sqltree.Node;
 import org.apache.cayenne.access.sqlbuilder.sqltree.TableNode;
 import org.apache.cayenne.access.sqlbuilder.sqltree.InsertValuesNode;
 import org.apache.cayenne.map.DbEntity;
@@ -37,14 +40,17 @@ public class InsertBuilder extends BaseBuilder {
     private static final int TABLE_NODE   = 0;
     private static final int COLUMNS_NODE = 1;
     private static final int VALUES_NODE  = 2;
+    private static final int ROWS_NODE    = 3;
+
+    private Node currentRow;
 
     public InsertBuilder(String table) {
-        super(new InsertNode(), VALUES_NODE + 1);
+        super(new InsertNode(), ROWS_NODE + 1);
         node(TABLE_NODE, () -> new TableNode(table, null));
     }
 
     public InsertBuilder(DbEntity table) {
-        super(new InsertNode(), VALUES_NODE + 1);
+        super(new InsertNode(), ROWS_NODE + 1);
         node(TABLE_NODE, () -> new TableNode(table, null));
     }
 
@@ -54,7 +60,23 @@ public class InsertBuilder extends BaseBuilder {
     }
 
     public InsertBuilder value(ValueNodeBuilder valueNode) {
-        node(VALUES_NODE, InsertValuesNode::new).addChild(valueNode.build());
+        Node values = currentRow != null ? currentRow : node(VALUES_NODE, InsertValuesNode::new);
+        values.addChild(valueNode.build());
+        return this;
+    }
+
+    /**
+     * Starts a new row of values, all subsequent {@link #value(ValueNodeBuilder)} calls will go to this row.
+     * Used to build multi-row "INSERT INTO t (...) VALUES (...), (...)" statement.
+     */
+    public InsertBuilder row() {
+        if(nodes[VALUES_NODE] == null) {
+            // the first row is the plain VALUES node
+            node(VALUES_NODE, InsertValuesNode::new);
+            return this;
+        }
+        currentRow = new InsertValuesRowNode();
+        node(ROWS_NODE, EmptyNode::new).addChild(currentRow);
         return this;
     }
 }
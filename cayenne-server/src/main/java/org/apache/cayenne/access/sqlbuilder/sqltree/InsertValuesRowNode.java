@@ -0,0 +1,59 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access.sqlbuilder.sqltree;
+
+import org.apache.cayenne.access.sqlbuilder.QuotingAppendable;
+
+/**
+ * Additional row of values in a multi-row "INSERT ... VALUES (...), (...)" statement,
+ * follows the first row rendered by {@link InsertValuesNode}.
+ *
+ * @since 4.2
+ */
+public class InsertValuesRowNode extends Node {
+
+    public InsertValuesRowNode() {
+        super(NodeType.INSERT_VALUES);
+    }
+
+    @Override
+    public Node copy() {
+        return new InsertValuesRowNode();
+    }
+
+    @Override
+    public QuotingAppendable append(QuotingAppendable buffer) {
+        return buffer.append(',');
+    }
+
+    @Override
+    public void appendChildrenStart(QuotingAppendable buffer) {
+        buffer.append('(');
+    }
+
+    @Override
+    public void appendChildrenSeparator(QuotingAppendable buffer, int childInd) {
+        buffer.append(',');
+    }
+
+    @Override
+    public void appendChildrenEnd(QuotingAppendable buffer) {
+        buffer.append(')');
+    }
+}
@@ -24,6 +24,7 @@ import org.apache.cayenne.query.BatchQuery;
 import org.apache.cayenne.query.DeleteBatchQuery;
 import org.apache.cayenne.query.InsertBatchQuery;
 import org.apache.cayenne.query.UpdateBatchQuery;
+import org.apache.cayenne.query.UpsertBatchQuery;
 
 /**
  * Default implementation of {@link BatchTranslatorFactory}.
@@ -40,6 +41,8 @@ public class DefaultBatchTranslatorFactory implements BatchTranslatorFactory {
             return updateTranslator((UpdateBatchQuery) query, adapter);
         } else if (query instanceof DeleteBatchQuery) {
             return deleteTranslator((DeleteBatchQuery) query, adapter);
+        } else if (query instanceof UpsertBatchQuery) {
+            return upsertTranslator((UpsertBatchQuery) query, adapter);
         } else {
             throw new CayenneRuntimeException("Unsupported batch query: %s", query);
         }
@@ -57,4 +60,12 @@ public class DefaultBatchTranslatorFactory implements BatchTranslatorFactory {
         return new UpdateBatchTranslator(query, adapter);
     }
 
+    protected BatchTranslator upsertTranslator(UpsertBatchQuery query, DbAdapter adapter) {
+        BatchTranslator translator = adapter.getUpsertTranslator(query);
+        if (translator == null) {
+            throw new CayenneRuntimeException("Upsert is not supported by %s", adapter.getClass().getSimpleName());
+        }
+        return translator;
+    }
+
 }
@@ -59,9 +59,19 @@ public class InsertBatchTranslator extends BaseBatchTranslator<InsertBatchQuery>
 
     @Override
     public DbAttributeBinding[] updateBindings(BatchQueryRow row) {
+        updateBindings(row, 0);
+        return bindings;
+    }
+
+    /**
+     * Updates bindings starting at the given offset with the values of the row.
+     *
+     * @return offset of the first binding after this row
+     */
+    protected int updateBindings(BatchQueryRow row, int offset) {
         InsertBatchQuery query = context.getQuery();
         int i=0;
-        int j=0;
+        int j=offset;
         for(DbAttribute attribute : query.getDbAttributes()) {
             if(excludeInBatch(attribute)) {
                 i++;
@@ -74,7 +84,7 @@ public class InsertBatchTranslator extends BaseBatchTranslator<InsertBatchQuery>
                     : context.getAdapter().getExtendedTypes().getDefaultType();
             bindings[j].include(++j, value, extendedType);
         }
-        return bindings;
+        return j;
     }
 
     protected boolean excludeInBatch(DbAttribute attribute) {
@@ -0,0 +1,50 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access.translator.batch;
+
+import java.util.List;
+
+import org.apache.cayenne.access.translator.DbAttributeBinding;
+import org.apache.cayenne.query.BatchQueryRow;
+
+/**
+ * Batch translator that is able to put multiple rows of a batch into a single
+ * SQL statement.
+ *
+ * @since 4.2
+ */
+public interface MultiRowBatchTranslator extends BatchTranslator {
+
+    /**
+     * Returns the max number of rows that can be put into a single statement.
+     */
+    int getMaxRowsPerStatement();
+
+    /**
+     * Returns SQL String for a statement covering exactly "rowCount" rows. Resets
+     * internal bindings to match the returned SQL.
+     */
+    String getSql(int rowCount);
+
+    /**
+     * Updates internal bindings to be used with a given list of rows. Size of
+     * the list must match the "rowCount" of the last {@link #getSql(int)} call.
+     */
+    DbAttributeBinding[] updateBindings(List<BatchQueryRow> rows);
+}
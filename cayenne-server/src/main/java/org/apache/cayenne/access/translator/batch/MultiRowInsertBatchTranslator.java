@@ -0,0 +1,113 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access.translator.batch;
+
+import java.util.List;
+
+import org.apache.cayenne.access.sqlbuilder.InsertBuilder;
+import org.apache.cayenne.access.sqlbuilder.SQLBuilder;
+import org.apache.cayenne.access.translator.DbAttributeBinding;
+import org.apache.cayenne.dba.DbAdapter;
+import org.apache.cayenne.map.DbAttribute;
+import org.apache.cayenne.query.BatchQueryRow;
+import org.apache.cayenne.query.InsertBatchQuery;
+
+/**
+ * Insert translator that renders a single "INSERT INTO t (...) VALUES (...), (...), ..."
+ * statement for a chunk of batch rows.
+ *
+ * @since 4.2
+ */
+public class MultiRowInsertBatchTranslator extends InsertBatchTranslator implements MultiRowBatchTranslator {
+
+    protected final int rowsPerStatement;
+
+    public MultiRowInsertBatchTranslator(InsertBatchQuery query, DbAdapter adapter, int rowsPerStatement) {
+        super(query, adapter);
+        this.rowsPerStatement = rowsPerStatement;
+    }
+
+    @Override
+    public int getMaxRowsPerStatement() {
+        int maxRows = rowsPerStatement;
+
+        int maxRowsPerInsert = context.getAdapter().getMaxRowsPerInsert();
+        if(maxRowsPerInsert > 0) {
+            maxRows = Math.min(maxRows, maxRowsPerInsert);
+        }
+
+        int maxParameters = context.getAdapter().getMaxBindParameters();
+        int parametersPerRow = getParametersPerRow();
+        if(maxParameters > 0 && parametersPerRow > 0) {
+            maxRows = Math.min(maxRows, maxParameters / parametersPerRow);
+        }
+
+        return Math.max(1, maxRows);
+    }
+
+    @Override
+    public String getSql() {
+        return getSql(1);
+    }
+
+    @Override
+    public String getSql(int rowCount) {
+        InsertBatchQuery query = context.getQuery();
+        InsertBuilder insertBuilder = SQLBuilder.insert(context.getRootDbEntity());
+
+        for(DbAttribute attribute : query.getDbAttributes()) {
+            if(!excludeInBatch(attribute)) {
+                insertBuilder.column(SQLBuilder.column(attribute.getName()).attribute(attribute));
+            }
+        }
+
+        for(int i = 0; i < rowCount; i++) {
+            insertBuilder.row();
+            for(DbAttribute attribute : query.getDbAttributes()) {
+                if(!excludeInBatch(attribute)) {
+                    // any non-null value will do here, actual value is set at updateBindings() call
+                    insertBuilder.value(SQLBuilder.value(1).attribute(attribute));
+                }
+            }
+        }
+
+        // bindings are accumulated in the context, drop ones left from the previous call
+        context.getBindings().clear();
+        return doTranslate(insertBuilder);
+    }
+
+    @Override
+    public DbAttributeBinding[] updateBindings(List<BatchQueryRow> rows) {
+        int offset = 0;
+        for(BatchQueryRow row : rows) {
+            offset = updateBindings(row, offset);
+        }
+        return bindings;
+    }
+
+    protected int getParametersPerRow() {
+        int count = 0;
+        for(DbAttribute attribute : context.getQuery().getDbAttributes()) {
+            if(!excludeInBatch(attribute)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
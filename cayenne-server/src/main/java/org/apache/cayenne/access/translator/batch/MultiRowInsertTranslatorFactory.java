@@ -0,0 +1,74 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access.translator.batch;
+
+import org.apache.cayenne.CayenneRuntimeException;
+import org.apache.cayenne.dba.DbAdapter;
+import org.apache.cayenne.query.InsertBatchQuery;
+
+/**
+ * Implementation of {@link BatchTranslatorFactory} that translates insert batches
+ * into multi-row "INSERT INTO t (...) VALUES (...), (...), ..." statements, each
+ * covering up to {@link #getRowsPerStatement()} rows. The number of rows per statement
+ * is further limited by the {@link DbAdapter#getMaxBindParameters()} and
+ * {@link DbAdapter#getMaxRowsPerInsert()}. Adapters that
+ * don't support such statements fall back to the default translation.
+ * <p>
+ * To enable, bind it in the runtime:
+ * <pre>
+ * binder.bind(BatchTranslatorFactory.class).toInstance(new MultiRowInsertTranslatorFactory(500));
+ * </pre>
+ * Note that SQL Server accepts at most 1000 rows in a single VALUES clause.
+ *
+ * @since 4.2
+ */
+public class MultiRowInsertTranslatorFactory extends DefaultBatchTranslatorFactory {
+
+    /**
+     * Default max number of rows in a single statement
+     */
+    public static final int DEFAULT_ROWS_PER_STATEMENT = 100;
+
+    private final int rowsPerStatement;
+
+    public MultiRowInsertTranslatorFactory() {
+        this(DEFAULT_ROWS_PER_STATEMENT);
+    }
+
+    public MultiRowInsertTranslatorFactory(int rowsPerStatement) {
+        if(rowsPerStatement < 1) {
+            throw new CayenneRuntimeException("Rows per statement must be positive (%d).", rowsPerStatement);
+        }
+        this.rowsPerStatement = rowsPerStatement;
+    }
+
+    @Override
+    protected BatchTranslator insertTranslator(InsertBatchQuery query, DbAdapter adapter) {
+        return adapter.supportsMultiRowInsert()
+                ? new MultiRowInsertBatchTranslator(query, adapter, rowsPerStatement)
+                : super.insertTranslator(query, adapter);
+    }
+
+    /**
+     * @return max number of rows in a single statement
+     */
+    public int getRowsPerStatement() {
+        return rowsPerStatement;
+    }
+}
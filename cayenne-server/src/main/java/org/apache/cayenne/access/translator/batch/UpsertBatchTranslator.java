@@ -0,0 +1,134 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.access.translator.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.cayenne.CayenneRuntimeException;
+import org.apache.cayenne.access.translator.DbAttributeBinding;
+import org.apache.cayenne.access.types.ExtendedType;
+import org.apache.cayenne.dba.DbAdapter;
+import org.apache.cayenne.dba.QuotingStrategy;
+import org.apache.cayenne.map.DbAttribute;
+import org.apache.cayenne.query.BatchQueryRow;
+import org.apache.cayenne.query.UpsertBatchQuery;
+
+/**
+ * Base translator of the {@link UpsertBatchQuery}. Binds the values of all the query
+ * attributes exactly once and in the attribute order, leaving it to the subclasses to
+ * render the statement in a native "insert or update" syntax of the database.
+ *
+ * @since 4.2
+ */
+public abstract class UpsertBatchTranslator extends BaseBatchTranslator<UpsertBatchQuery> implements BatchTranslator {
+
+    public UpsertBatchTranslator(UpsertBatchQuery query, DbAdapter adapter) {
+        super(query, adapter);
+    }
+
+    @Override
+    public String getSql() {
+        UpsertBatchQuery query = context.getQuery();
+        QuotingStrategy strategy = context.getAdapter().getQuotingStrategy();
+
+        List<DbAttribute> attributes = query.getDbAttributes();
+        List<String> columns = new ArrayList<>(attributes.size());
+        List<String> keyColumns = new ArrayList<>(2);
+        List<String> updateColumns = new ArrayList<>(attributes.size());
+
+        bindings = new DbAttributeBinding[attributes.size()];
+        for (int i = 0; i < bindings.length; i++) {
+            DbAttribute attribute = attributes.get(i);
+            String column = strategy.quotedName(attribute);
+
+            bindings[i] = new DbAttributeBinding(attribute);
+            columns.add(column);
+            if (attribute.isPrimaryKey()) {
+                keyColumns.add(column);
+            } else {
+                updateColumns.add(column);
+            }
+        }
+
+        if (keyColumns.isEmpty()) {
+            throw new CayenneRuntimeException("Can't upsert into %s, it has no primary key", query.getDbEntity().getName());
+        }
+
+        return createSql(strategy.quotedFullyQualifiedName(query.getDbEntity()), columns, keyColumns, updateColumns);
+    }
+
+    /**
+     * Renders an "insert or update" statement with one parameter placeholder per
+     * column, placed in the order of the columns list.
+     *
+     * @param table         quoted table name
+     * @param columns       quoted names of all columns
+     * @param keyColumns    quoted names of the primary key columns
+     * @param updateColumns quoted names of the columns to update in the existing rows, may be empty
+     */
+    protected abstract String createSql(String table, List<String> columns, List<String> keyColumns,
+                                        List<String> updateColumns);
+
+    @Override
+    public DbAttributeBinding[] updateBindings(BatchQueryRow row) {
+        for (int i = 0; i < bindings.length; i++) {
+            Object value = row.getValue(i);
+            ExtendedType<?> extendedType = value != null
+                    ? context.getAdapter().getExtendedTypes().getRegisteredType(value.getClass())
+                    : context.getAdapter().getExtendedTypes().getDefaultType();
+            bindings[i].include(i + 1, value, extendedType);
+        }
+        return bindings;
+    }
+
+    @Override
+    protected boolean isNullAttribute(DbAttribute attribute) {
+        return false;
+    }
+
+    /**
+     * Appends comma separated values, each produced by the format with the "%s"
+     * placeholder substituted by the value.
+     */
+    protected static void appendList(StringBuilder buffer, List<String> values, String format) {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                buffer.append(", ");
+            }
+            buffer.append(String.format(format, values.get(i)));
+        }
+    }
+
+    /**
+     * Appends "target.k1 = source.k1 AND ..." condition matching the rows by the
+     * key columns.
+     */
+    protected static void appendKeyCondition(StringBuilder buffer, List<String> keyColumns,
+                                             String targetAlias, String sourceAlias) {
+        for (int i = 0; i < keyColumns.size(); i++) {
+            if (i > 0) {
+                buffer.append(" AND ");
+            }
+            buffer.append(targetAlias).append('.').append(keyColumns.get(i))
+                    .append(" = ").append(sourceAlias).append('.').append(keyColumns.get(i));
+        }
+    }
+}
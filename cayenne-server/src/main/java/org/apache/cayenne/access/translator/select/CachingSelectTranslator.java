@@ -0,0 +1,123 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access.translator.select;
+
+import java.util.Map;
+
+import org.apache.cayenne.CayenneRuntimeException;
+import org.apache.cayenne.access.jdbc.ColumnDescriptor;
+import org.apache.cayenne.access.translator.DbAttributeBinding;
+import org.apache.cayenne.dba.DbAdapter;
+import org.apache.cayenne.map.EntityResolver;
+import org.apache.cayenne.map.ObjAttribute;
+import org.apache.cayenne.query.QueryMetadata;
+
+/**
+ * A {@link SelectTranslator} that reuses a cached translation plan when available and falls
+ * back to a full translation otherwise.
+ *
+ * @see CachingSelectTranslatorFactory
+ * @since 4.2
+ */
+class CachingSelectTranslator implements SelectTranslator {
+
+    private final CachingSelectTranslatorFactory factory;
+    private final TranslatableQueryWrapper query;
+    private final DbAdapter adapter;
+    private final EntityResolver resolver;
+
+    private SelectTranslationPlan plan;
+    private DbAttributeBinding[] bindings;
+    private SelectTranslator translator;
+
+    CachingSelectTranslator(CachingSelectTranslatorFactory factory, TranslatableQueryWrapper query,
+                            DbAdapter adapter, EntityResolver resolver) {
+        this.factory = factory;
+        this.query = query;
+        this.adapter = adapter;
+        this.resolver = resolver;
+    }
+
+    @Override
+    public String getSql() throws Exception {
+        QueryMetadata metadata = query.getMetaData(resolver);
+        SelectQueryFingerprint fingerprint = SelectQueryFingerprint.of(query, metadata);
+        CachingSelectTranslatorFactory.PlanKey key = null;
+
+        if (fingerprint != null) {
+            key = new CachingSelectTranslatorFactory.PlanKey(adapter, resolver, fingerprint.getKey());
+            SelectTranslationPlan cached = factory.getPlan(key);
+            if (cached != null) {
+                this.plan = cached;
+                this.bindings = cached.bind(fingerprint.getLiterals());
+                cached.updateMetadata(metadata);
+                return cached.getSql();
+            }
+        }
+
+        this.translator = factory.delegateTranslator(query, adapter, resolver);
+        String sql = translator.getSql();
+
+        if (key != null) {
+            factory.translated(key, fingerprint, sql, translator, query, resolver);
+        }
+
+        return sql;
+    }
+
+    private void ensureTranslated() {
+        if (plan == null && translator == null) {
+            try {
+                getSql();
+            } catch (Exception e) {
+                throw new CayenneRuntimeException("Error translating query", e);
+            }
+        }
+    }
+
+    @Override
+    public DbAttributeBinding[] getBindings() {
+        ensureTranslated();
+        return plan != null ? bindings : translator.getBindings();
+    }
+
+    @Override
+    public Map<ObjAttribute, ColumnDescriptor> getAttributeOverrides() {
+        ensureTranslated();
+        return plan != null ? plan.getAttributeOverrides() : translator.getAttributeOverrides();
+    }
+
+    @Override
+    public ColumnDescriptor[] getResultColumns() {
+        ensureTranslated();
+        return plan != null ? plan.getResultColumns() : translator.getResultColumns();
+    }
+
+    @Override
+    public boolean isSuppressingDistinct() {
+        ensureTranslated();
+        return plan != null ? plan.isSuppressingDistinct() : translator.isSuppressingDistinct();
+    }
+
+    @Override
+    public boolean hasJoins() {
+        ensureTranslated();
+        return plan != null ? plan.hasJoins() : translator.hasJoins();
+    }
+}
@@ -0,0 +1,192 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access.translator.select;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.cayenne.configuration.Constants;
+import org.apache.cayenne.configuration.RuntimeProperties;
+import org.apache.cayenne.dba.DbAdapter;
+import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.map.EntityResolver;
+import org.apache.cayenne.query.FluentSelect;
+import org.apache.cayenne.query.Select;
+import org.apache.cayenne.query.SelectQuery;
+import org.apache.cayenne.util.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+
+/**
+ * A {@link SelectTranslatorFactory} that caches translation plans of select queries, so that
+ * structurally identical queries that only differ in parameter values skip the translation and
+ * reuse SQL and result columns of a previously translated query, rebinding the new values.
+ * Queries are matched by a structural fingerprint that includes root entity, qualifier and
+ * having structure with literals abstracted, columns, orderings, prefetches and limit/offset.
+ * Queries that can't be fingerprinted reliably (e.g. with subqueries) are always translated.
+ * <p>
+ * The size of the cache is controlled by the {@link Constants#SELECT_PLAN_CACHE_SIZE_PROPERTY}
+ * property, zero disables caching. Cached plans assume that the mapping doesn't change at
+ * runtime, call {@link #clear()} if it does.
+ *
+ * @since 4.2
+ */
+public class CachingSelectTranslatorFactory implements SelectTranslatorFactory {
+
+    static final int DEFAULT_CACHE_SIZE = 1000;
+
+    protected final SelectTranslatorFactory delegate;
+    protected final ConcurrentMap<PlanKey, Object> plans;
+
+    protected final LongAdder hits;
+    protected final LongAdder misses;
+
+    public CachingSelectTranslatorFactory(@Inject RuntimeProperties properties) {
+        this(new DefaultSelectTranslatorFactory(),
+                properties.getInt(Constants.SELECT_PLAN_CACHE_SIZE_PROPERTY, DEFAULT_CACHE_SIZE));
+    }
+
+    public CachingSelectTranslatorFactory(SelectTranslatorFactory delegate, int maxSize) {
+        this.delegate = delegate;
+        this.plans = maxSize > 0
+                ? new ConcurrentLinkedHashMap.Builder<PlanKey, Object>().maximumWeightedCapacity(maxSize).build()
+                : null;
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+    }
+
+    @Override
+    public SelectTranslator translator(Select<?> query, DbAdapter adapter, EntityResolver entityResolver) {
+        if (plans != null) {
+            if (query instanceof SelectQuery) {
+                return new CachingSelectTranslator(this, new SelectQueryWrapper((SelectQuery<?>) query),
+                        adapter, entityResolver);
+            } else if (query instanceof FluentSelect) {
+                return new CachingSelectTranslator(this, new FluentSelectWrapper((FluentSelect<?>) query),
+                        adapter, entityResolver);
+            }
+        }
+
+        return delegate.translator(query, adapter, entityResolver);
+    }
+
+    /**
+     * Returns the number of translations served from the cache.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of translations that had to run the full translator.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of cached plans, including plans that are not yet verified.
+     */
+    public int size() {
+        return plans != null ? plans.size() : 0;
+    }
+
+    /**
+     * Removes all cached plans.
+     */
+    public void clear() {
+        if (plans != null) {
+            plans.clear();
+        }
+    }
+
+    SelectTranslator delegateTranslator(TranslatableQueryWrapper query, DbAdapter adapter, EntityResolver resolver) {
+        return delegate.translator(query.unwrap(), adapter, resolver);
+    }
+
+    SelectTranslationPlan getPlan(PlanKey key) {
+        Object plan = plans.get(key);
+        if (plan instanceof SelectTranslationPlan && ((SelectTranslationPlan) plan).isVerified()) {
+            hits.increment();
+            return (SelectTranslationPlan) plan;
+        }
+
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Updates the cache after a full translation of a query with the given fingerprint.
+     */
+    void translated(PlanKey key, SelectQueryFingerprint fingerprint, String sql,
+                    SelectTranslator translator, TranslatableQueryWrapper query, EntityResolver resolver) {
+        Object existing = plans.get(key);
+        if (existing == NotCacheable.INSTANCE) {
+            return;
+        }
+
+        if (existing == null) {
+            SelectTranslationPlan candidate = SelectTranslationPlan
+                    .capture(sql, translator, fingerprint, query.getMetaData(resolver));
+            plans.putIfAbsent(key, candidate != null ? candidate : NotCacheable.INSTANCE);
+            return;
+        }
+
+        SelectTranslationPlan plan = ((SelectTranslationPlan) existing).verify(sql, translator, fingerprint);
+        if (plan != existing) {
+            plans.replace(key, existing, plan != null ? plan : NotCacheable.INSTANCE);
+        }
+    }
+
+    // a marker of query structures that can't be cached
+    private enum NotCacheable {
+        INSTANCE
+    }
+
+    static final class PlanKey {
+
+        private final DbAdapter adapter;
+        private final EntityResolver resolver;
+        private final String fingerprint;
+        private final int hashCode;
+
+        PlanKey(DbAdapter adapter, EntityResolver resolver, String fingerprint) {
+            this.adapter = adapter;
+            this.resolver = resolver;
+            this.fingerprint = fingerprint;
+            this.hashCode = 31 * (31 * System.identityHashCode(adapter) + System.identityHashCode(resolver))
+                    + fingerprint.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PlanKey)) {
+                return false;
+            }
+            PlanKey key = (PlanKey) o;
+            return adapter == key.adapter && resolver == key.resolver && fingerprint.equals(key.fingerprint);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
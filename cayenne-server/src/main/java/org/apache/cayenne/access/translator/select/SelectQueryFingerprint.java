@@ -0,0 +1,232 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access.translator.select;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.apache.cayenne.ObjectId;
+import org.apache.cayenne.Persistent;
+import org.apache.cayenne.exp.Expression;
+import org.apache.cayenne.exp.ExpressionParameter;
+import org.apache.cayenne.exp.TraversalHelper;
+import org.apache.cayenne.exp.parser.ASTCustomOperator;
+import org.apache.cayenne.exp.parser.ASTFunctionCall;
+import org.apache.cayenne.exp.parser.ASTNamedParameter;
+import org.apache.cayenne.exp.parser.ASTPath;
+import org.apache.cayenne.exp.parser.ASTSubquery;
+import org.apache.cayenne.exp.parser.PatternMatchNode;
+import org.apache.cayenne.exp.property.Property;
+import org.apache.cayenne.query.Ordering;
+import org.apache.cayenne.query.PrefetchSelectQuery;
+import org.apache.cayenne.query.PrefetchTreeNode;
+import org.apache.cayenne.query.QueryMetadata;
+
+/**
+ * A structural fingerprint of a select query. Two queries with the same fingerprint key differ
+ * only in the values of their literals, that are collected in the order the translator would
+ * encounter them, with persistent objects and ids flattened to their id values.
+ *
+ * @since 4.2
+ */
+final class SelectQueryFingerprint {
+
+    private final String key;
+    private final List<Object> literals;
+
+    private SelectQueryFingerprint(String key, List<Object> literals) {
+        this.key = key;
+        this.literals = literals;
+    }
+
+    /**
+     * Returns a fingerprint of the query or null if the query structure can't be reliably
+     * captured (e.g. it has subqueries, unresolved parameters or lazily evaluated values).
+     */
+    static SelectQueryFingerprint of(TranslatableQueryWrapper query, QueryMetadata metadata) {
+        if (query.unwrap() instanceof PrefetchSelectQuery) {
+            return null;
+        }
+
+        Builder builder = new Builder();
+        StringBuilder out = builder.out;
+
+        out.append(query.unwrap().getClass().getName())
+                .append('|').append(metadata.getObjEntity() != null ? metadata.getObjEntity().getName() : null)
+                .append('|').append(metadata.getDbEntity() != null ? metadata.getDbEntity().getName() : null)
+                .append('|').append(metadata.isFetchingDataRows())
+                .append('|').append(query.isDistinct())
+                .append('|').append(metadata.isSuppressingDistinct())
+                .append('|').append(metadata.getPageSize() > 0)
+                // adapters render limit and offset as literals, so the actual values are part of the structure
+                .append('|').append(metadata.getFetchLimit())
+                .append('|').append(metadata.getFetchOffset())
+                .append('|').append(metadata.getPathSplitAliases());
+
+        out.append("|P:");
+        if (metadata.getPrefetchTree() != null) {
+            appendPrefetch(out, metadata.getPrefetchTree());
+        }
+
+        out.append("|C:");
+        Collection<Property<?>> columns = query.getColumns();
+        if (columns != null) {
+            for (Property<?> column : columns) {
+                out.append(column.getAlias()).append(':')
+                        .append(column.getType() != null ? column.getType().getName() : null).append('=');
+                builder.append(column.getExpression());
+                out.append(',');
+            }
+        }
+
+        out.append("|W:");
+        builder.append(query.getQualifier());
+
+        out.append("|H:");
+        builder.append(query.getHavingQualifier());
+
+        out.append("|O:");
+        Collection<Ordering> orderings = query.getOrderings();
+        if (orderings != null) {
+            for (Ordering ordering : orderings) {
+                out.append(ordering.getSortOrder()).append(ordering.isNullSortedFirst() ? "+" : "-");
+                builder.append(ordering.getSortSpec());
+                out.append(',');
+            }
+        }
+
+        return builder.cacheable ? new SelectQueryFingerprint(out.toString(), builder.literals) : null;
+    }
+
+    private static void appendPrefetch(StringBuilder out, PrefetchTreeNode node) {
+        out.append(node.getName()).append(':').append(node.getSemantics()).append(node.isPhantom() ? "p" : "");
+        Collection<PrefetchTreeNode> children = node.getChildren();
+        if (!children.isEmpty()) {
+            out.append('(');
+            for (PrefetchTreeNode child : children) {
+                appendPrefetch(out, child);
+                out.append(',');
+            }
+            out.append(')');
+        }
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    /**
+     * Returns non-null literal values of the query in traversal order.
+     */
+    List<Object> getLiterals() {
+        return literals;
+    }
+
+    private static final class Builder extends TraversalHelper {
+
+        final StringBuilder out = new StringBuilder(128);
+        final List<Object> literals = new ArrayList<>();
+        boolean cacheable = true;
+
+        void append(Expression expression) {
+            if (expression != null) {
+                expression.traverse(this);
+            }
+        }
+
+        @Override
+        public void startNode(Expression node, Expression parentNode) {
+            if (node instanceof ASTSubquery || node instanceof ASTNamedParameter) {
+                cacheable = false;
+            }
+
+            out.append(node.getClass().getSimpleName()).append('(');
+
+            if (node instanceof ASTPath) {
+                ASTPath path = (ASTPath) node;
+                out.append(path.getPath());
+                Map<String, String> aliases = path.getPathAliases();
+                if (!aliases.isEmpty()) {
+                    out.append(aliases);
+                }
+            } else if (node instanceof ASTFunctionCall) {
+                out.append(((ASTFunctionCall) node).getFunctionName());
+            } else if (node instanceof ASTCustomOperator) {
+                out.append(((ASTCustomOperator) node).getOperator());
+            } else if (node instanceof PatternMatchNode) {
+                PatternMatchNode patternNode = (PatternMatchNode) node;
+                out.append(patternNode.isIgnoringCase()).append(patternNode.getEscapeChar());
+            }
+        }
+
+        @Override
+        public void endNode(Expression node, Expression parentNode) {
+            out.append(')');
+        }
+
+        @Override
+        public void finishedChild(Expression node, int childIndex, boolean hasMoreChildren) {
+            out.append(',');
+        }
+
+        @Override
+        public void objectNode(Object leaf, Expression parentNode) {
+            // path strings are already a part of the node description
+            if (parentNode instanceof ASTPath) {
+                return;
+            }
+
+            // mirrors values expansion done by the translator
+            if (parentNode.getType() == Expression.LIST && leaf instanceof Object[]) {
+                Object[] values = (Object[]) leaf;
+                out.append('[').append(values.length);
+                for (Object value : values) {
+                    out.append(',');
+                    appendLiteral(value);
+                }
+                out.append(']');
+            } else {
+                appendLiteral(leaf);
+            }
+        }
+
+        private void appendLiteral(Object value) {
+            if (value == null) {
+                out.append("null");
+            } else if (value instanceof Persistent) {
+                appendLiteral(((Persistent) value).getObjectId());
+            } else if (value instanceof ObjectId) {
+                ObjectId id = (ObjectId) value;
+                Map<String, Object> snapshot = id.getIdSnapshot();
+                out.append("id:").append(id.getEntityName()).append(snapshot.keySet());
+                for (Object idValue : snapshot.values()) {
+                    appendLiteral(idValue);
+                }
+            } else if (value instanceof Supplier || value instanceof ExpressionParameter) {
+                cacheable = false;
+            } else {
+                out.append('?').append(value.getClass().getName());
+                literals.add(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,238 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access.translator.select;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.cayenne.access.jdbc.ColumnDescriptor;
+import org.apache.cayenne.access.translator.DbAttributeBinding;
+import org.apache.cayenne.map.ObjAttribute;
+import org.apache.cayenne.query.PrefetchTreeNode;
+import org.apache.cayenne.query.QueryMetadata;
+
+/**
+ * A reusable result of a select query translation: the SQL string, result columns and a
+ * description of each binding slot. A slot either refers to a query literal by its index in
+ * {@link SelectQueryFingerprint#getLiterals()} or holds a constant value not coming from the
+ * query (e.g. an entity qualifier value).
+ * <p>
+ * A plan is first captured from a full translation by matching binding values with query
+ * literals by identity. Such a plan is only a candidate, as an unrelated constant may happen to
+ * be the same object as a literal (e.g. a cached Integer). It becomes verified once a
+ * translation of a query with different literal values produces exactly the bindings predicted
+ * by the plan.
+ *
+ * @since 4.2
+ */
+final class SelectTranslationPlan {
+
+    private final String sql;
+    private final DbAttributeBinding[] bindings;
+    private final int[] literalIndexes;
+    private final List<Object> capturedLiterals;
+    private final ColumnDescriptor[] resultColumns;
+    private final Map<ObjAttribute, ColumnDescriptor> attributeOverrides;
+    private final boolean suppressingDistinct;
+    private final boolean hasJoins;
+    private final List<Object> resultSetMapping;
+    private final boolean verified;
+
+    private SelectTranslationPlan(SelectTranslationPlan candidate) {
+        this.sql = candidate.sql;
+        this.bindings = candidate.bindings;
+        this.literalIndexes = candidate.literalIndexes;
+        this.capturedLiterals = candidate.capturedLiterals;
+        this.resultColumns = candidate.resultColumns;
+        this.attributeOverrides = candidate.attributeOverrides;
+        this.suppressingDistinct = candidate.suppressingDistinct;
+        this.hasJoins = candidate.hasJoins;
+        this.resultSetMapping = candidate.resultSetMapping;
+        this.verified = true;
+    }
+
+    private SelectTranslationPlan(String sql, SelectTranslator translator, int[] literalIndexes,
+                                  List<Object> literals, QueryMetadata metadata) {
+        this.sql = sql;
+        this.bindings = translator.getBindings();
+        this.literalIndexes = literalIndexes;
+        this.capturedLiterals = literals;
+        this.resultColumns = copy(translator.getResultColumns());
+        this.attributeOverrides = translator.getAttributeOverrides();
+        this.suppressingDistinct = translator.isSuppressingDistinct();
+        this.hasJoins = translator.hasJoins();
+        this.resultSetMapping = metadata.getResultSetMapping();
+        this.verified = false;
+    }
+
+    /**
+     * Creates a candidate plan from a translator that has already produced its SQL. Returns null
+     * if some query literal doesn't show up in the bindings, i.e. it was either transformed or
+     * rendered directly into the SQL.
+     */
+    static SelectTranslationPlan capture(String sql, SelectTranslator translator,
+                                         SelectQueryFingerprint fingerprint, QueryMetadata metadata) {
+        List<Object> literals = fingerprint.getLiterals();
+        DbAttributeBinding[] bindings = translator.getBindings();
+        int[] literalIndexes = new int[bindings.length];
+        boolean[] matched = new boolean[literals.size()];
+
+        for (int i = 0; i < bindings.length; i++) {
+            literalIndexes[i] = matchLiteral(bindings[i].getValue(), literals, matched);
+        }
+
+        for (boolean literalMatched : matched) {
+            if (!literalMatched) {
+                return null;
+            }
+        }
+
+        return new SelectTranslationPlan(sql, translator, literalIndexes, literals, metadata);
+    }
+
+    // matching repeated objects in order, relying on the verification to catch reordering
+    private static int matchLiteral(Object value, List<Object> literals, boolean[] matched) {
+        int firstMatch = -1;
+        for (int i = 0; i < literals.size(); i++) {
+            if (literals.get(i) == value) {
+                if (!matched[i]) {
+                    matched[i] = true;
+                    return i;
+                }
+
+                if (firstMatch < 0) {
+                    firstMatch = i;
+                }
+            }
+        }
+
+        return firstMatch;
+    }
+
+    /**
+     * Checks that a full translation of a query with the same fingerprint produced exactly the
+     * result predicted by this plan. Returns a verified copy of the plan if it did and the query
+     * had different literal values, this plan if the check was inconclusive, or null if the plan
+     * turned out to be wrong.
+     */
+    SelectTranslationPlan verify(String sql, SelectTranslator translator, SelectQueryFingerprint fingerprint) {
+        if (!this.sql.equals(sql)
+                || suppressingDistinct != translator.isSuppressingDistinct()
+                || hasJoins != translator.hasJoins()
+                || resultColumns.length != translator.getResultColumns().length) {
+            return null;
+        }
+
+        DbAttributeBinding[] actual = translator.getBindings();
+        if (actual.length != bindings.length) {
+            return null;
+        }
+
+        List<Object> literals = fingerprint.getLiterals();
+        boolean literalsChanged = true;
+        for (int i = 0; i < bindings.length; i++) {
+            DbAttributeBinding expected = bindings[i];
+            if (expected.getAttribute() != actual[i].getAttribute()
+                    || expected.getExtendedType() != actual[i].getExtendedType()
+                    || expected.getStatementPosition() != actual[i].getStatementPosition()) {
+                return null;
+            }
+
+            int literal = literalIndexes[i];
+            if (literal >= 0) {
+                if (literals.get(literal) != actual[i].getValue()) {
+                    return null;
+                }
+
+                if (Objects.equals(capturedLiterals.get(literal), literals.get(literal))) {
+                    literalsChanged = false;
+                }
+            } else if (!Objects.equals(expected.getValue(), actual[i].getValue())) {
+                return null;
+            }
+        }
+
+        return literalsChanged ? new SelectTranslationPlan(this) : this;
+    }
+
+    boolean isVerified() {
+        return verified;
+    }
+
+    String getSql() {
+        return sql;
+    }
+
+    /**
+     * Creates bindings for the literal values of a query with the same fingerprint.
+     */
+    DbAttributeBinding[] bind(List<Object> literals) {
+        DbAttributeBinding[] result = new DbAttributeBinding[bindings.length];
+        for (int i = 0; i < bindings.length; i++) {
+            DbAttributeBinding template = bindings[i];
+            DbAttributeBinding binding = new DbAttributeBinding(template.getAttribute());
+            binding.setStatementPosition(template.getStatementPosition());
+            binding.setExtendedType(template.getExtendedType());
+            binding.setValue(literalIndexes[i] >= 0 ? literals.get(literalIndexes[i]) : template.getValue());
+            result[i] = binding;
+        }
+        return result;
+    }
+
+    ColumnDescriptor[] getResultColumns() {
+        return copy(resultColumns);
+    }
+
+    Map<ObjAttribute, ColumnDescriptor> getAttributeOverrides() {
+        return attributeOverrides;
+    }
+
+    boolean isSuppressingDistinct() {
+        return suppressingDistinct;
+    }
+
+    boolean hasJoins() {
+        return hasJoins;
+    }
+
+    /**
+     * Reproduces query metadata changes done by the translation.
+     */
+    void updateMetadata(QueryMetadata metadata) {
+        if (resultSetMapping != null) {
+            metadata.setResultSetMapping(resultSetMapping);
+        }
+
+        PrefetchTreeNode prefetchTree = metadata.getPrefetchTree();
+        if (prefetchTree != null && metadata.getObjEntity() != null) {
+            for (PrefetchTreeNode prefetch : prefetchTree.getChildren()) {
+                prefetch.setEntityName(metadata.getObjEntity().getName());
+            }
+        }
+    }
+
+    private static ColumnDescriptor[] copy(ColumnDescriptor[] columns) {
+        ColumnDescriptor[] copy = new ColumnDescriptor[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            copy[i] = new ColumnDescriptor(columns[i]);
+        }
+        return copy;
+    }
+}
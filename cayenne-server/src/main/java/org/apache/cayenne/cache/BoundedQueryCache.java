@@ -0,0 +1,414 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.cache;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+import org.apache.cayenne.CayenneRuntimeException;
+import org.apache.cayenne.DataRow;
+import org.apache.cayenne.Persistent;
+import org.apache.cayenne.query.QueryMetadata;
+import org.apache.cayenne.util.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+
+/**
+ * A {@link QueryCache} that keeps all cache groups in a single concurrent LRU map. The cache is
+ * bounded by the total number of entries and optionally by an approximate weight of the cached
+ * lists in bytes. Entries may expire after a time-to-live configured per cache group. Unlike
+ * {@link MapQueryCache}, no operation takes a monitor on a cache group.
+ * <p>
+ * Hit, miss, eviction and expiration counters are collected and can be read via the
+ * corresponding getters.
+ *
+ * @since 4.2
+ */
+public class BoundedQueryCache implements QueryCache {
+
+    // rough estimates of the memory taken by the cached objects, used by "weigh" method
+    static final int LIST_WEIGHT = 40;
+    static final int REFERENCE_WEIGHT = 8;
+    static final int MAP_ENTRY_WEIGHT = 48;
+    static final int ARRAY_WEIGHT = 16;
+    static final int PERSISTENT_WEIGHT = 128;
+    static final int VALUE_WEIGHT = 24;
+
+    protected final ConcurrentLinkedHashMap<GroupKey, CacheEntry> entries;
+    protected final Map<String, Set<GroupKey>> groups;
+    protected final Map<String, Long> groupTimeToLive;
+    protected final ToLongFunction<String> timeToLiveResolver;
+    protected final long maxWeight;
+
+    protected final AtomicLong weight;
+    protected final LongAdder hits;
+    protected final LongAdder misses;
+    protected final LongAdder evictions;
+    protected final LongAdder expirations;
+
+    public BoundedQueryCache(int maxSize) {
+        this(maxSize, 0, group -> 0L);
+    }
+
+    /**
+     * Creates a cache with the specified bounds.
+     *
+     * @param maxSize            maximum number of entries across all cache groups.
+     * @param maxWeight          maximum approximate size of all cached lists in bytes. Zero or a
+     *                           negative number means that cache weight is not bounded.
+     * @param timeToLiveResolver a function returning time-to-live in milliseconds for a given cache
+     *                           group name. Zero or negative TTL means that the group never expires.
+     */
+    public BoundedQueryCache(int maxSize, long maxWeight, ToLongFunction<String> timeToLiveResolver) {
+        if (maxSize <= 0) {
+            throw new CayenneRuntimeException("Query cache size must be positive: %d", maxSize);
+        }
+
+        this.maxWeight = maxWeight;
+        this.timeToLiveResolver = Objects.requireNonNull(timeToLiveResolver);
+        this.groups = new ConcurrentHashMap<>();
+        this.groupTimeToLive = new ConcurrentHashMap<>();
+        this.weight = new AtomicLong();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+        this.expirations = new LongAdder();
+        this.entries = new ConcurrentLinkedHashMap.Builder<GroupKey, CacheEntry>()
+                .maximumWeightedCapacity(maxSize)
+                .listener((key, entry) -> {
+                    evictions.increment();
+                    onRemoved(key, entry);
+                })
+                .build();
+    }
+
+    @SuppressWarnings("rawtypes")
+    @Override
+    public List get(QueryMetadata metadata) {
+        String key = metadata.getCacheKey();
+        if (key == null) {
+            return null;
+        }
+
+        GroupKey groupKey = new GroupKey(cacheName(metadata), key);
+        CacheEntry entry = entries.get(groupKey);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+
+        if (entry.isExpired(currentTimeMillis())) {
+            if (entries.remove(groupKey, entry)) {
+                expirations.increment();
+                onRemoved(groupKey, entry);
+            }
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        return entry.list;
+    }
+
+    /**
+     * Returns a non-null cached value. If it is not present in the cache, it is obtained
+     * by calling {@link QueryCacheEntryFactory#createObject()} without blocking the cache. As
+     * a result there is a potential of multiple threads to be updating cache in parallel -
+     * this wouldn't lead to corruption of the cache, but can be suboptimal.
+     */
+    @SuppressWarnings("rawtypes")
+    @Override
+    public List get(QueryMetadata metadata, QueryCacheEntryFactory factory) {
+        List result = get(metadata);
+        if (result == null) {
+            List newObject = factory.createObject();
+            if (newObject == null) {
+                throw new CayenneRuntimeException("Null on cache rebuilding: %s", metadata.getCacheKey());
+            }
+
+            result = newObject;
+            put(metadata, result);
+        }
+
+        return result;
+    }
+
+    @SuppressWarnings("rawtypes")
+    @Override
+    public void put(QueryMetadata metadata, List results) {
+        String key = metadata.getCacheKey();
+        if (key == null) {
+            return;
+        }
+
+        String cacheName = cacheName(metadata);
+        long ttl = groupTimeToLive.computeIfAbsent(cacheName, timeToLiveResolver::applyAsLong);
+        long expiresAt = ttl > 0 ? currentTimeMillis() + ttl : 0;
+        long entryWeight = maxWeight > 0 ? weigh(results) : 0;
+
+        GroupKey groupKey = new GroupKey(cacheName, key);
+        Set<GroupKey> keys = groups.computeIfAbsent(cacheName, name -> ConcurrentHashMap.newKeySet());
+        keys.add(groupKey);
+
+        CacheEntry entry = new CacheEntry(results, entryWeight, expiresAt);
+        weight.addAndGet(entryWeight);
+        CacheEntry old = entries.put(groupKey, entry);
+        if (old != null) {
+            weight.addAndGet(-old.weight);
+        }
+
+        // a stale entry removed concurrently may have untracked the key in the meantime
+        keys.add(groupKey);
+
+        // the group may have been removed after the key was registered, but before the entry was
+        // stored. In that case the entry is no longer reachable by group invalidation and must go
+        if (groups.get(cacheName) != keys) {
+            if (entries.remove(groupKey, entry)) {
+                weight.addAndGet(-entry.weight);
+            }
+            return;
+        }
+
+        evictOverweight();
+    }
+
+    @Override
+    public void remove(String key) {
+        if (key == null) {
+            return;
+        }
+
+        for (String cacheName : groups.keySet()) {
+            removeEntry(new GroupKey(cacheName, key));
+        }
+    }
+
+    @Override
+    public void removeGroup(String groupKey) {
+        if (groupKey == null) {
+            return;
+        }
+
+        Set<GroupKey> keys = groups.remove(groupKey);
+        if (keys != null) {
+            // the group is already detached, so only drop the entries and the weight
+            for (GroupKey key : keys) {
+                CacheEntry entry = entries.remove(key);
+                if (entry != null) {
+                    weight.addAndGet(-entry.weight);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void removeGroup(String groupKey, Class<?> keyType, Class<?> valueType) {
+        removeGroup(groupKey);
+    }
+
+    @Override
+    public void clear() {
+        for (String cacheName : groups.keySet()) {
+            removeGroup(cacheName);
+        }
+    }
+
+    /**
+     * Returns the number of entries currently stored in the cache.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns an approximate size in bytes of all lists stored in the cache. Always returns zero
+     * if the cache weight is not bounded.
+     */
+    public long getWeight() {
+        return weight.get();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns a number of entries removed from the cache to stay within its size or weight bounds.
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Returns a number of entries removed from the cache as their time-to-live has passed.
+     */
+    public long getExpirationCount() {
+        return expirations.sum();
+    }
+
+    protected void removeEntry(GroupKey key) {
+        CacheEntry entry = entries.remove(key);
+        if (entry != null) {
+            onRemoved(key, entry);
+        }
+    }
+
+    protected void onRemoved(GroupKey key, CacheEntry entry) {
+        weight.addAndGet(-entry.weight);
+
+        Set<GroupKey> keys = groups.get(key.cacheName);
+        if (keys != null) {
+            keys.remove(key);
+
+            // a new entry may have been stored for the same key after this one was removed, it
+            // must stay reachable by the group invalidation
+            if (entries.containsKey(key)) {
+                keys.add(key);
+            }
+        }
+    }
+
+    protected void evictOverweight() {
+        while (maxWeight > 0 && weight.get() > maxWeight) {
+            Set<GroupKey> coldest = entries.ascendingKeySetWithLimit(16);
+            if (coldest.isEmpty()) {
+                return;
+            }
+
+            for (GroupKey key : coldest) {
+                CacheEntry entry = entries.remove(key);
+                if (entry != null) {
+                    evictions.increment();
+                    onRemoved(key, entry);
+                }
+
+                if (weight.get() <= maxWeight) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns an approximate size of the query result in bytes.
+     */
+    protected long weigh(List<?> list) {
+        long total = LIST_WEIGHT;
+        for (Object object : list) {
+            total += REFERENCE_WEIGHT + weighObject(object);
+        }
+        return total;
+    }
+
+    protected long weighObject(Object object) {
+        if (object == null) {
+            return 0;
+        }
+
+        if (object instanceof Persistent) {
+            return PERSISTENT_WEIGHT;
+        }
+
+        if (object instanceof DataRow || object instanceof Map) {
+            return LIST_WEIGHT + ((Map<?, ?>) object).size() * (long) (MAP_ENTRY_WEIGHT + VALUE_WEIGHT);
+        }
+
+        if (object instanceof Object[]) {
+            Object[] array = (Object[]) object;
+            long total = ARRAY_WEIGHT;
+            for (Object element : array) {
+                total += REFERENCE_WEIGHT + (element instanceof Persistent ? PERSISTENT_WEIGHT : VALUE_WEIGHT);
+            }
+            return total;
+        }
+
+        if (object instanceof CharSequence) {
+            return VALUE_WEIGHT + 2L * ((CharSequence) object).length();
+        }
+
+        if (object instanceof Collection) {
+            return LIST_WEIGHT + ((Collection<?>) object).size() * (long) (REFERENCE_WEIGHT + VALUE_WEIGHT);
+        }
+
+        return VALUE_WEIGHT;
+    }
+
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    protected String cacheName(QueryMetadata metadata) {
+        String cacheGroup = metadata.getCacheGroup();
+        return cacheGroup != null ? cacheGroup : MapQueryCache.DEFAULT_CACHE_NAME;
+    }
+
+    protected static final class GroupKey {
+
+        final String cacheName;
+        final String key;
+
+        GroupKey(String cacheName, String key) {
+            this.cacheName = cacheName;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof GroupKey)) {
+                return false;
+            }
+            GroupKey that = (GroupKey) o;
+            return key.equals(that.key) && cacheName.equals(that.cacheName);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * cacheName.hashCode() + key.hashCode();
+        }
+    }
+
+    protected static final class CacheEntry {
+
+        final List<?> list;
+        final long weight;
+        final long expiresAt;
+
+        CacheEntry(List<?> list, long weight, long expiresAt) {
+            this.list = list;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return expiresAt > 0 && now >= expiresAt;
+        }
+    }
+}
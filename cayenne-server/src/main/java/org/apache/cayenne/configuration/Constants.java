@@ -133,6 +133,15 @@ public interface Constants {
      */
     String JDBC_VALIDATION_QUERY_PROPERTY = "cayenne.jdbc.validation_query";
 
+    /**
+     * An integer property defining the maximum number of idle prepared
+     * statements cached per pooled connection. Zero (the default) disables
+     * statement caching.
+     *
+     * @since 4.2
+     */
+    String JDBC_STATEMENT_CACHE_SIZE_PROPERTY = "cayenne.jdbc.statement_cache_size";
+
     /**
      * An integer property defining the maximum number of entries in the query
      * cache. Note that not all QueryCache providers may respect this property.
@@ -141,6 +150,25 @@ public interface Constants {
      */
     String QUERY_CACHE_SIZE_PROPERTY = "cayenne.querycache.size";
 
+    /**
+     * A long property defining an approximate maximum size of all query cache
+     * entries in bytes. Zero (the default) means that only the number of
+     * entries is bounded. Used by BoundedQueryCache.
+     *
+     * @since 4.2
+     */
+    String QUERY_CACHE_WEIGHT_PROPERTY = "cayenne.querycache.weight";
+
+    /**
+     * A long property defining the default time-to-live of query cache entries
+     * in milliseconds. Zero (the default) means that entries never expire. TTL
+     * of a specific cache group can be set with a property named
+     * "cayenne.querycache.ttl.&lt;group_name&gt;". Used by BoundedQueryCache.
+     *
+     * @since 4.2
+     */
+    String QUERY_CACHE_TTL_PROPERTY = "cayenne.querycache.ttl";
+
     /**
      * An optional name of the runtime DataDomain. If not specified (which is
      * normally the case), the name is inferred from the configuration name.
@@ -157,10 +185,47 @@ public interface Constants {
 
     /**
      * A String property that defines how ObjectContexts should retain cached
-     * committed objects. Possible values are "weak", "soft", "hard".
+     * committed objects. Possible values are "weak", "soft", "hard", "lru".
      */
     String SERVER_OBJECT_RETAIN_STRATEGY_PROPERTY = "cayenne.server.object_retain_strategy";
 
+    /**
+     * An integer property that defines max number of committed objects retained by
+     * each ObjectContext when "lru" retain strategy is used. Default is 10000.
+     *
+     * @since 4.2
+     */
+    String SERVER_OBJECT_RETAIN_CAPACITY_PROPERTY = "cayenne.server.object_retain_capacity";
+
+    /**
+     * A boolean property defining whether ObjectContexts should use
+     * {@link org.apache.cayenne.access.ConcurrentObjectStore} that allows
+     * concurrent reads and diff registration without locking the whole store.
+     * Default is "false".
+     *
+     * @since 4.2
+     */
+    String SERVER_CONCURRENT_OBJECT_STORE_PROPERTY = "cayenne.server.concurrent_object_store";
+
+    /**
+     * An integer property defining max number of rows sent to the database with a
+     * single JDBC batch. Larger batches are split into chunks. Default is 0, meaning no
+     * limit.
+     *
+     * @since 4.2
+     */
+    String SERVER_MAX_BATCH_SIZE_PROPERTY = "cayenne.server.max_batch_size";
+
+    /**
+     * A boolean property defining whether chunks of a JDBC batch should be executed in
+     * the background, while the next chunk is being bound. Only makes sense together with
+     * {@link #SERVER_MAX_BATCH_SIZE_PROPERTY} and with JDBC drivers that allow using
+     * two statements of a connection from different threads. Default is "false".
+     *
+     * @since 4.2
+     */
+    String SERVER_BATCH_PIPELINING_PROPERTY = "cayenne.server.batch_pipelining";
+
     /**
      * A boolean property that defines whether runtime should use external
      * transactions. Possible values are "true" or "false".
@@ -185,6 +250,64 @@ public interface Constants {
      */
     String SERVER_MAX_ID_QUALIFIER_SIZE_PROPERTY = "cayenne.server.max_id_qualifier_size";
 
+    /**
+     * An integer property that defines the max number of threads used by
+     * {@link org.apache.cayenne.access.flush.ParallelDataDomainFlushActionFactory}
+     * to flush changes to multiple DataNodes concurrently. Defaults to 4.
+     *
+     * @since 4.2
+     */
+    String SERVER_FLUSH_THREADS_PROPERTY = "cayenne.server.flush_threads";
+
+    /**
+     * An integer property that defines the max number of threads used by
+     * {@link org.apache.cayenne.access.DefaultAsyncQueryExecutor} to run
+     * asynchronous queries and commits. Defaults to 8.
+     *
+     * @since 4.2
+     */
+    String SERVER_ASYNC_THREADS_PROPERTY = "cayenne.server.async_threads";
+
+    /**
+     * An integer property that defines the max number of select translation
+     * plans cached by
+     * {@link org.apache.cayenne.access.translator.select.CachingSelectTranslatorFactory}.
+     * Zero disables the cache. Defaults to 1000.
+     *
+     * @since 4.2
+     */
+    String SELECT_PLAN_CACHE_SIZE_PROPERTY = "cayenne.server.select_plan_cache_size";
+
+    /**
+     * An integer property that defines how many pages of a paginated query
+     * result are resolved in background when the result list is iterated
+     * sequentially. Defaults to 0, meaning that pages are resolved only on
+     * access.
+     *
+     * @since 4.2
+     */
+    String SERVER_PAGINATED_READ_AHEAD_PROPERTY = "cayenne.server.paginated_read_ahead";
+
+    /**
+     * An integer property that defines a maximum number of parent keys matched
+     * by a single DISJOINT_BY_ID prefetch query. Zero (the default) means that
+     * queries are only split by {@link #SERVER_MAX_ID_QUALIFIER_SIZE_PROPERTY}.
+     *
+     * @since 4.2
+     */
+    String SERVER_PREFETCH_CHUNK_SIZE_PROPERTY = "cayenne.server.prefetch_chunk_size";
+
+    /**
+     * An integer property that defines how many DISJOINT_BY_ID prefetch
+     * queries for a single prefetch can run concurrently. Each concurrent query
+     * takes its own connection, so the value should stay well below the
+     * connection pool size. Defaults to 1, meaning that prefetch queries are
+     * run one after another.
+     *
+     * @since 4.2
+     */
+    String SERVER_PREFETCH_PARALLELISM_PROPERTY = "cayenne.server.prefetch_parallelism";
+
     /**
      * Defines a maximum time in milliseconds that a connection request could
      * wait in the connection queue. After this period expires, an exception
@@ -219,4 +342,14 @@ public interface Constants {
      */
     String SNAPSHOT_CACHE_SIZE_PROPERTY = "cayenne.DataRowStore.snapshot.size";
 
+    /**
+     * Max size of the snapshot cache in bytes. If set to a positive value, snapshots are
+     * stored off heap and {@link #SNAPSHOT_CACHE_SIZE_PROPERTY} is ignored.
+     *
+     * @see org.apache.cayenne.configuration.server.ServerModule#setSnapshotCacheOffHeapSize(Binder, long)
+     * @see org.apache.cayenne.access.OffHeapSnapshotStorage
+     * @since 4.2
+     */
+    String SNAPSHOT_CACHE_OFF_HEAP_SIZE_PROPERTY = "cayenne.DataRowStore.snapshot.offheap_size";
+
 }
@@ -18,6 +18,7 @@
  ****************************************************************/
 package org.apache.cayenne.configuration;
 
+import org.apache.cayenne.access.ConcurrentObjectStore;
 import org.apache.cayenne.access.DataRowStore;
 import org.apache.cayenne.access.NoSyncObjectStore;
 import org.apache.cayenne.access.ObjectMapRetainStrategy;
@@ -41,6 +42,10 @@ public class DefaultObjectStoreFactory implements ObjectStoreFactory {
     
     public ObjectStore createObjectStore(DataRowStore dataRowCache) {
         boolean sync = runtimeProperties.getBoolean(Constants.SERVER_CONTEXTS_SYNC_PROPERTY, false);
+
+        if (runtimeProperties.getBoolean(Constants.SERVER_CONCURRENT_OBJECT_STORE_PROPERTY, false)) {
+            return new ConcurrentObjectStore(dataRowCache, retainStrategy.createObjectMap(), sync);
+        }
         
         return sync ? new ObjectStore(dataRowCache, retainStrategy.createObjectMap()) 
                 : new NoSyncObjectStore(dataRowCache, retainStrategy.createObjectMap());
@@ -20,6 +20,7 @@ package org.apache.cayenne.configuration.server;
 
 import org.apache.cayenne.DataChannel;
 import org.apache.cayenne.ObjectContext;
+import org.apache.cayenne.access.AsyncQueryExecutor;
 import org.apache.cayenne.access.DataContext;
 import org.apache.cayenne.access.DataDomain;
 import org.apache.cayenne.access.DataRowStore;
@@ -56,6 +57,12 @@ public class DataContextFactory implements ObjectContextFactory {
     @Inject
     protected TransactionFactory transactionFactory;
 
+    /**
+     * @since 4.2
+     */
+    @Inject
+    protected AsyncQueryExecutor asyncQueryExecutor;
+
     @Override
     public ObjectContext createContext() {
         return createdFromDataDomain(dataDomain);
@@ -88,6 +95,7 @@ public class DataContextFactory implements ObjectContextFactory {
                 parent, objectStoreFactory.createObjectStore(snapshotCache));
         context.setValidatingObjectsOnCommit(dataDomain.isValidatingObjectsOnCommit());
         context.setQueryCache(new NestedQueryCache(queryCache));
+        context.setAsyncQueryExecutor(asyncQueryExecutor);
         return context;
     }
 
@@ -101,6 +109,7 @@ public class DataContextFactory implements ObjectContextFactory {
         context.setValidatingObjectsOnCommit(parent.isValidatingObjectsOnCommit());
         context.setUsingSharedSnapshotCache(parent.isUsingSharedSnapshotCache());
         context.setQueryCache(new NestedQueryCache(queryCache));
+        context.setAsyncQueryExecutor(asyncQueryExecutor);
         context.setTransactionFactory(transactionFactory);
 
         return context;
@@ -118,6 +127,7 @@ public class DataContextFactory implements ObjectContextFactory {
                 parent, objectStoreFactory.createObjectStore(snapshotCache));
         context.setValidatingObjectsOnCommit(parent.isValidatingObjectsOnCommit());
         context.setQueryCache(new NestedQueryCache(queryCache));
+        context.setAsyncQueryExecutor(asyncQueryExecutor);
         context.setTransactionFactory(transactionFactory);
         return context;
     }
@@ -23,6 +23,7 @@ import org.apache.cayenne.DataChannel;
 import org.apache.cayenne.DataChannelFilter;
 import org.apache.cayenne.DataChannelQueryFilter;
 import org.apache.cayenne.DataChannelSyncFilter;
+import org.apache.cayenne.access.AsyncQueryExecutor;
 import org.apache.cayenne.access.DataDomain;
 import org.apache.cayenne.access.DataNode;
 import org.apache.cayenne.access.DataRowStoreFactory;
@@ -143,11 +144,15 @@ public class DataDomainProvider implements Provider<DataDomain> {
 		DataDomain dataDomain = createDataDomain(descriptor.getName());
 
 		dataDomain.setMaxIdQualifierSize(runtimeProperties.getInt(Constants.SERVER_MAX_ID_QUALIFIER_SIZE_PROPERTY, -1));
+		dataDomain.setPaginatedReadAhead(runtimeProperties.getInt(Constants.SERVER_PAGINATED_READ_AHEAD_PROPERTY, 0));
+		dataDomain.setPrefetchChunkSize(runtimeProperties.getInt(Constants.SERVER_PREFETCH_CHUNK_SIZE_PROPERTY, 0));
+		dataDomain.setPrefetchParallelism(runtimeProperties.getInt(Constants.SERVER_PREFETCH_PARALLELISM_PROPERTY, 1));
 
 		dataDomain.setQueryCache(new NestedQueryCache(queryCache));
 		dataDomain.setEntitySorter(injector.getInstance(EntitySorter.class));
 		dataDomain.setEventManager(injector.getInstance(EventManager.class));
 		dataDomain.setDataRowStoreFactory(injector.getInstance(DataRowStoreFactory.class));
+		dataDomain.setAsyncQueryExecutor(injector.getInstance(AsyncQueryExecutor.class));
 
 		dataDomain.initWithProperties(descriptor.getProperties());
 
@@ -223,6 +228,11 @@ public class DataDomainProvider implements Provider<DataDomain> {
 	protected DataNode addDataNode(DataDomain dataDomain, DataNodeDescriptor nodeDescriptor) throws Exception {
 		DataNode dataNode = dataNodeFactory.createDataNode(nodeDescriptor);
 
+		dataNode.setMaxBatchSize(runtimeProperties.getInt(Constants.SERVER_MAX_BATCH_SIZE_PROPERTY, 0));
+		if (runtimeProperties.getBoolean(Constants.SERVER_BATCH_PIPELINING_PROPERTY, false)) {
+			dataNode.setBatchPipelineExecutor(dataDomain.getAsyncQueryExecutor());
+		}
+
 		// DataMaps
 		for (String dataMapName : nodeDescriptor.getDataMapNames()) {
 			dataNode.addDataMap(dataDomain.getDataMap(dataMapName));
@@ -137,7 +137,8 @@ public class DelegatingDataSourceFactory implements DataSourceFactory {
         String[] verifiableProperties = new String[] {
                 Constants.JDBC_USERNAME_PROPERTY, Constants.JDBC_PASSWORD_PROPERTY,
                 Constants.JDBC_MAX_CONNECTIONS_PROPERTY, Constants.JDBC_MIN_CONNECTIONS_PROPERTY,
-                Constants.JDBC_MAX_QUEUE_WAIT_TIME, Constants.JDBC_VALIDATION_QUERY_PROPERTY
+                Constants.JDBC_MAX_QUEUE_WAIT_TIME, Constants.JDBC_VALIDATION_QUERY_PROPERTY,
+                Constants.JDBC_STATEMENT_CACHE_SIZE_PROPERTY
         };
         for (String propertyConstant : verifiableProperties) {
             String property = properties.get(getDataNodePropertyName(nodeDescriptor, propertyConstant));
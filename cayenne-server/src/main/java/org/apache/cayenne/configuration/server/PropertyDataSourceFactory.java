@@ -70,11 +70,12 @@ public class PropertyDataSourceFactory implements DataSourceFactory {
 		long maxQueueWaitTime = properties.getLong(Constants.JDBC_MAX_QUEUE_WAIT_TIME,
 				UnmanagedPoolingDataSource.MAX_QUEUE_WAIT_DEFAULT);
 		String validationQuery = properties.get(Constants.JDBC_VALIDATION_QUERY_PROPERTY);
+		int statementCacheSize = properties.getInt(Constants.JDBC_STATEMENT_CACHE_SIZE_PROPERTY, 0);
 
 		Driver driver = (Driver)objectFactory.getJavaClass(driverClass).newInstance();
 		return DataSourceBuilder.url(url).driver(driver).userName(username).password(password)
 				.pool(minConnections, maxConnections).maxQueueWaitTime(maxQueueWaitTime)
-				.validationQuery(validationQuery).build();
+				.validationQuery(validationQuery).statementCacheSize(statementCacheSize).build();
 	}
 
 	protected int getIntProperty(String propertyName, String suffix, int defaultValue) {
@@ -25,8 +25,10 @@ import org.apache.cayenne.DataChannel;
 import org.apache.cayenne.DataChannelFilter;
 import org.apache.cayenne.DataChannelQueryFilter;
 import org.apache.cayenne.DataChannelSyncFilter;
+import org.apache.cayenne.access.AsyncQueryExecutor;
 import org.apache.cayenne.access.DataDomain;
 import org.apache.cayenne.access.DataRowStoreFactory;
+import org.apache.cayenne.access.DefaultAsyncQueryExecutor;
 import org.apache.cayenne.access.DefaultDataRowStoreFactory;
 import org.apache.cayenne.access.DefaultObjectMapRetainStrategy;
 import org.apache.cayenne.access.ObjectMapRetainStrategy;
@@ -41,7 +43,7 @@ import org.apache.cayenne.access.jdbc.reader.DefaultRowReaderFactory;
 import org.apache.cayenne.access.jdbc.reader.RowReaderFactory;
 import org.apache.cayenne.access.translator.batch.BatchTranslatorFactory;
 import org.apache.cayenne.access.translator.batch.DefaultBatchTranslatorFactory;
-import org.apache.cayenne.access.translator.select.DefaultSelectTranslatorFactory;
+import org.apache.cayenne.access.translator.select.CachingSelectTranslatorFactory;
 import org.apache.cayenne.access.translator.select.SelectTranslatorFactory;
 import org.apache.cayenne.access.types.BigDecimalType;
 import org.apache.cayenne.access.types.BigDecimalValueType;
@@ -77,7 +79,7 @@ import org.apache.cayenne.access.types.ValueObjectTypeRegistry;
 import org.apache.cayenne.access.types.VoidType;
 import org.apache.cayenne.access.types.WktType;
 import org.apache.cayenne.ashwood.AshwoodEntitySorter;
-import org.apache.cayenne.cache.MapQueryCacheProvider;
+import org.apache.cayenne.cache.BoundedQueryCacheProvider;
 import org.apache.cayenne.cache.QueryCache;
 import org.apache.cayenne.configuration.ConfigurationNameMapper;
 import org.apache.cayenne.configuration.Constants;
@@ -198,6 +200,157 @@ public class ServerModule implements Module {
         contributeProperties(binder).put(Constants.SNAPSHOT_CACHE_SIZE_PROPERTY, Integer.toString(size));
     }
 
+    /**
+     * Enables off-heap storage of the snapshot cache, bounded by the specified number of
+     * bytes instead of the number of snapshots.
+     *
+     * @see org.apache.cayenne.access.OffHeapSnapshotStorage
+     *
+     * @param binder DI binder passed to the module during injector startup.
+     * @param bytes  max size of snapshot cache in bytes
+     * @since 4.2
+     */
+    public static void setSnapshotCacheOffHeapSize(Binder binder, long bytes) {
+        contributeProperties(binder).put(Constants.SNAPSHOT_CACHE_OFF_HEAP_SIZE_PROPERTY, Long.toString(bytes));
+    }
+
+    /**
+     * Sets an approximate maximum size of the query cache in bytes.
+     *
+     * @param binder DI binder passed to the module during injector startup.
+     * @param bytes  max weight of the query cache, zero means unbounded.
+     * @since 4.2
+     */
+    public static void setQueryCacheWeight(Binder binder, long bytes) {
+        contributeProperties(binder).put(Constants.QUERY_CACHE_WEIGHT_PROPERTY, Long.toString(bytes));
+    }
+
+    /**
+     * Sets the default time-to-live of query cache entries.
+     *
+     * @param binder DI binder passed to the module during injector startup.
+     * @param ttlMs  time-to-live in milliseconds, zero means entries never expire.
+     * @since 4.2
+     */
+    public static void setQueryCacheTimeToLive(Binder binder, long ttlMs) {
+        contributeProperties(binder).put(Constants.QUERY_CACHE_TTL_PROPERTY, Long.toString(ttlMs));
+    }
+
+    /**
+     * Sets time-to-live of query cache entries for a single cache group.
+     *
+     * @param binder     DI binder passed to the module during injector startup.
+     * @param cacheGroup name of the cache group.
+     * @param ttlMs      time-to-live in milliseconds, zero means entries never expire.
+     * @since 4.2
+     */
+    public static void setQueryCacheTimeToLive(Binder binder, String cacheGroup, long ttlMs) {
+        contributeProperties(binder).put(Constants.QUERY_CACHE_TTL_PROPERTY + "." + cacheGroup, Long.toString(ttlMs));
+    }
+
+    /**
+     * Sets the max number of threads used to run asynchronous queries and commits.
+     *
+     * @param binder  DI binder passed to the module during injector startup.
+     * @param threads size of the async thread pool.
+     * @since 4.2
+     */
+    public static void setAsyncThreads(Binder binder, int threads) {
+        contributeProperties(binder).put(Constants.SERVER_ASYNC_THREADS_PROPERTY, Integer.toString(threads));
+    }
+
+    /**
+     * Sets the max number of cached select translation plans.
+     *
+     * @param binder DI binder passed to the module during injector startup.
+     * @param size   max number of cached plans, zero disables plan caching.
+     * @since 4.2
+     */
+    public static void setSelectPlanCacheSize(Binder binder, int size) {
+        contributeProperties(binder).put(Constants.SELECT_PLAN_CACHE_SIZE_PROPERTY, Integer.toString(size));
+    }
+
+    /**
+     * Sets the number of pages of a paginated result list resolved in background during
+     * sequential iteration.
+     *
+     * @param binder DI binder passed to the module during injector startup.
+     * @param pages  number of pages to read ahead, zero disables read-ahead.
+     * @since 4.2
+     */
+    public static void setPaginatedReadAhead(Binder binder, int pages) {
+        contributeProperties(binder).put(Constants.SERVER_PAGINATED_READ_AHEAD_PROPERTY, Integer.toString(pages));
+    }
+
+    /**
+     * Sets the max number of parent keys matched by a single DISJOINT_BY_ID prefetch query.
+     *
+     * @param binder DI binder passed to the module during injector startup.
+     * @param size   max number of keys per prefetch query, zero means no limit besides the
+     *               max id qualifier size.
+     * @since 4.2
+     */
+    public static void setPrefetchChunkSize(Binder binder, int size) {
+        contributeProperties(binder).put(Constants.SERVER_PREFETCH_CHUNK_SIZE_PROPERTY, Integer.toString(size));
+    }
+
+    /**
+     * Sets the max number of DISJOINT_BY_ID prefetch queries run concurrently for a single
+     * prefetch.
+     *
+     * @param binder      DI binder passed to the module during injector startup.
+     * @param parallelism max number of concurrent prefetch queries, should be smaller than
+     *                    the connection pool size.
+     * @since 4.2
+     */
+    public static void setPrefetchParallelism(Binder binder, int parallelism) {
+        contributeProperties(binder).put(Constants.SERVER_PREFETCH_PARALLELISM_PROPERTY, Integer.toString(parallelism));
+    }
+
+    /**
+     * Sets whether ObjectContexts should use
+     * {@link org.apache.cayenne.access.ConcurrentObjectStore} that doesn't lock the whole
+     * store on object reads and diff registration.
+     *
+     * @param binder     DI binder passed to the module during injector startup.
+     * @param concurrent whether to use concurrent ObjectStore.
+     * @since 4.2
+     */
+    public static void setConcurrentObjectStore(Binder binder, boolean concurrent) {
+        contributeProperties(binder).put(Constants.SERVER_CONCURRENT_OBJECT_STORE_PROPERTY, Boolean.toString(concurrent));
+    }
+
+    /**
+     * Configures ObjectContexts to retain at most the given number of committed objects
+     * using "lru" retain strategy. Least recently used objects over the capacity are
+     * turned into hollow faults that are only weakly referenced by the context.
+     *
+     * @param binder   DI binder passed to the module during injector startup.
+     * @param capacity max number of committed objects retained by each context.
+     * @since 4.2
+     */
+    public static void setObjectRetainCapacity(Binder binder, int capacity) {
+        contributeProperties(binder)
+                .put(Constants.SERVER_OBJECT_RETAIN_STRATEGY_PROPERTY, "lru")
+                .put(Constants.SERVER_OBJECT_RETAIN_CAPACITY_PROPERTY, Integer.toString(capacity));
+    }
+
+    /**
+     * Sets max number of rows sent to the database with a single JDBC batch.
+     *
+     * @param binder       DI binder passed to the module during injector startup.
+     * @param maxBatchSize max rows per JDBC batch, zero or negative means no limit.
+     * @param pipelining   whether to bind the next batch chunk while the previous one is
+     *                     executed. Requires a JDBC driver that allows concurrent use of
+     *                     two statements of the same connection.
+     * @since 4.2
+     */
+    public static void setMaxBatchSize(Binder binder, int maxBatchSize, boolean pipelining) {
+        contributeProperties(binder)
+                .put(Constants.SERVER_MAX_BATCH_SIZE_PROPERTY, Integer.toString(maxBatchSize))
+                .put(Constants.SERVER_BATCH_PIPELINING_PROPERTY, Boolean.toString(pipelining));
+    }
+
     /**
      * Provides access to a DI collection builder for String locations that allows downstream modules to
      * "contribute" their own Cayenne project locations.
@@ -457,7 +610,7 @@ public class ServerModule implements Module {
 
         binder.bind(EventManager.class).toProvider(EventManagerProvider.class);
 
-        binder.bind(QueryCache.class).toProvider(MapQueryCacheProvider.class);
+        binder.bind(QueryCache.class).toProvider(BoundedQueryCacheProvider.class);
 
         binder.bind(EventBridge.class).toProvider(NoopEventBridgeProvider.class);
 
@@ -475,6 +628,9 @@ public class ServerModule implements Module {
 
         binder.bind(TransactionFactory.class).to(DefaultTransactionFactory.class);
 
+        // executor of async ObjectContext operations
+        binder.bind(AsyncQueryExecutor.class).to(DefaultAsyncQueryExecutor.class);
+
         // a service to load project XML descriptors
         binder.bind(DataChannelDescriptorLoader.class).to(XMLDataChannelDescriptorLoader.class);
         binder.bind(DataChannelDescriptorMerger.class).to(DefaultDataChannelDescriptorMerger.class);
@@ -504,7 +660,7 @@ public class ServerModule implements Module {
         binder.bind(EntitySorter.class).to(AshwoodEntitySorter.class).withoutScope();
 
         binder.bind(BatchTranslatorFactory.class).to(DefaultBatchTranslatorFactory.class);
-        binder.bind(SelectTranslatorFactory.class).to(DefaultSelectTranslatorFactory.class);
+        binder.bind(SelectTranslatorFactory.class).to(CachingSelectTranslatorFactory.class);
 
         // a default ObjectMapRetainStrategy used to create objects map for
         // ObjectStore
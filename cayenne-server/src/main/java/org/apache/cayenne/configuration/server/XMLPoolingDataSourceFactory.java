@@ -66,13 +66,14 @@ public class XMLPoolingDataSourceFactory implements DataSourceFactory {
 
 		long maxQueueWaitTime = properties.getLong(Constants.JDBC_MAX_QUEUE_WAIT_TIME,
 				UnmanagedPoolingDataSource.MAX_QUEUE_WAIT_DEFAULT);
+		int statementCacheSize = properties.getInt(Constants.JDBC_STATEMENT_CACHE_SIZE_PROPERTY, 0);
 
 		Driver driver = (Driver)objectFactory.getJavaClass(descriptor.getJdbcDriver()).newInstance();
 
 		return DataSourceBuilder.url(descriptor.getDataSourceUrl()).driver(driver).userName(descriptor.getUserName())
 				.password(descriptor.getPassword())
 				.pool(descriptor.getMinConnections(), descriptor.getMaxConnections())
-				.maxQueueWaitTime(maxQueueWaitTime).build();
+				.maxQueueWaitTime(maxQueueWaitTime).statementCacheSize(statementCacheSize).build();
 	}
 
 }
@@ -0,0 +1,61 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.datasource;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A storage of idle connections of a connection pool. Connections taken from
+ * the storage are considered "unchecked" and are returned back via
+ * {@link #offer(PoolAwareConnection)} when the caller closes them.
+ * 
+ * @since 4.2
+ */
+interface AvailableConnections {
+
+	/**
+	 * Returns a connection to the storage. Returns false if the storage is
+	 * full and the connection must be retired.
+	 */
+	boolean offer(PoolAwareConnection connection);
+
+	/**
+	 * Takes an idle connection from the storage without waiting, returning
+	 * null if there are no idle connections.
+	 */
+	PoolAwareConnection poll();
+
+	/**
+	 * Takes an idle connection from the storage, waiting up to the specified
+	 * time for one to become available.
+	 */
+	PoolAwareConnection poll(long timeout, TimeUnit unit) throws InterruptedException;
+
+	/**
+	 * Forgets a connection that is being retired from the pool.
+	 */
+	void remove(PoolAwareConnection connection);
+
+	/**
+	 * Returns the number of idle connections.
+	 */
+	int size();
+
+	void clear();
+}
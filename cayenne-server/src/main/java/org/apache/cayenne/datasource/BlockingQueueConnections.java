@@ -0,0 +1,68 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.datasource;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The default {@link AvailableConnections} storage based on a bounded FIFO
+ * queue.
+ * 
+ * @since 4.2
+ */
+class BlockingQueueConnections implements AvailableConnections {
+
+	private BlockingQueue<PoolAwareConnection> queue;
+
+	BlockingQueueConnections(int capacity) {
+		this.queue = new ArrayBlockingQueue<>(capacity);
+	}
+
+	@Override
+	public boolean offer(PoolAwareConnection connection) {
+		return queue.offer(connection);
+	}
+
+	@Override
+	public PoolAwareConnection poll() {
+		return queue.poll();
+	}
+
+	@Override
+	public PoolAwareConnection poll(long timeout, TimeUnit unit) throws InterruptedException {
+		return queue.poll(timeout, unit);
+	}
+
+	@Override
+	public void remove(PoolAwareConnection connection) {
+		queue.remove(connection);
+	}
+
+	@Override
+	public int size() {
+		return queue.size();
+	}
+
+	@Override
+	public void clear() {
+		queue.clear();
+	}
+}
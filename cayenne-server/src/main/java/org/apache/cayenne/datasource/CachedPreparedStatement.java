@@ -0,0 +1,673 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.datasource;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+
+/**
+ * A {@link PreparedStatement} wrapper returned by {@link PoolAwareConnection}
+ * when statement caching is enabled. Instead of closing the underlying
+ * statement, {@link #close()} resets its state and returns it to the
+ * connection statement cache.
+ * 
+ * @since 4.2
+ */
+class CachedPreparedStatement implements PreparedStatement {
+
+	private PoolAwareConnection parent;
+	private Connection connection;
+	private PreparedStatementCache.Key key;
+	private PreparedStatement delegate;
+	private boolean closed;
+	private boolean reusable;
+
+	// result sets that must be closed before the statement can be reused
+	private ResultSet resultSet;
+	private ResultSet generatedKeys;
+
+	// original values of statement properties changed by the caller, that
+	// must be restored before the statement can be reused
+	private Integer fetchSize;
+	private Integer fetchDirection;
+	private Integer maxRows;
+	private Integer maxFieldSize;
+	private Integer queryTimeout;
+	private Boolean poolable;
+
+	CachedPreparedStatement(PoolAwareConnection parent, Connection connection, PreparedStatementCache.Key key,
+			PreparedStatement delegate) {
+		this.parent = parent;
+		this.connection = connection;
+		this.key = key;
+		this.delegate = delegate;
+		this.reusable = true;
+	}
+
+	PreparedStatement getDelegate() {
+		return delegate;
+	}
+
+	PreparedStatementCache.Key getKey() {
+		return key;
+	}
+
+	/**
+	 * Returns a physical connection that was used to prepare this statement.
+	 */
+	Connection getPhysicalConnection() {
+		return connection;
+	}
+
+	boolean isReusable() {
+		return reusable;
+	}
+
+	/**
+	 * Restores the statement to the state it had when it was prepared.
+	 */
+	void resetState() throws SQLException {
+
+		if (resultSet != null) {
+			resultSet.close();
+			resultSet = null;
+		}
+
+		if (generatedKeys != null) {
+			generatedKeys.close();
+			generatedKeys = null;
+		}
+
+		delegate.clearParameters();
+		delegate.clearBatch();
+		delegate.clearWarnings();
+
+		if (fetchSize != null) {
+			delegate.setFetchSize(fetchSize);
+			fetchSize = null;
+		}
+
+		if (fetchDirection != null) {
+			delegate.setFetchDirection(fetchDirection);
+			fetchDirection = null;
+		}
+
+		if (maxRows != null) {
+			delegate.setMaxRows(maxRows);
+			maxRows = null;
+		}
+
+		if (maxFieldSize != null) {
+			delegate.setMaxFieldSize(maxFieldSize);
+			maxFieldSize = null;
+		}
+
+		if (queryTimeout != null) {
+			delegate.setQueryTimeout(queryTimeout);
+			queryTimeout = null;
+		}
+
+		if (poolable != null) {
+			delegate.setPoolable(poolable);
+			poolable = null;
+		}
+	}
+
+	@Override
+	public void close() throws SQLException {
+		if (!closed) {
+			closed = true;
+			parent.reclaimStatement(this);
+		}
+	}
+
+	@Override
+	public boolean isClosed() throws SQLException {
+		return closed || delegate.isClosed();
+	}
+
+	@Override
+	public void closeOnCompletion() throws SQLException {
+		// the driver will close the statement behind our back, so it can't be
+		// reused
+		reusable = false;
+		delegate.closeOnCompletion();
+	}
+
+	@Override
+	public boolean isCloseOnCompletion() throws SQLException {
+		return delegate.isCloseOnCompletion();
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return parent;
+	}
+
+	@Override
+	public ResultSet executeQuery() throws SQLException {
+		return resultSet = delegate.executeQuery();
+	}
+
+	@Override
+	public ResultSet executeQuery(String sql) throws SQLException {
+		return resultSet = delegate.executeQuery(sql);
+	}
+
+	@Override
+	public ResultSet getResultSet() throws SQLException {
+		return resultSet = delegate.getResultSet();
+	}
+
+	@Override
+	public ResultSet getGeneratedKeys() throws SQLException {
+		return generatedKeys = delegate.getGeneratedKeys();
+	}
+
+	@Override
+	public void setFetchSize(int rows) throws SQLException {
+		if (fetchSize == null) {
+			fetchSize = delegate.getFetchSize();
+		}
+		delegate.setFetchSize(rows);
+	}
+
+	@Override
+	public void setFetchDirection(int direction) throws SQLException {
+		if (fetchDirection == null) {
+			fetchDirection = delegate.getFetchDirection();
+		}
+		delegate.setFetchDirection(direction);
+	}
+
+	@Override
+	public void setMaxRows(int max) throws SQLException {
+		if (maxRows == null) {
+			maxRows = delegate.getMaxRows();
+		}
+		delegate.setMaxRows(max);
+	}
+
+	@Override
+	public void setMaxFieldSize(int max) throws SQLException {
+		if (maxFieldSize == null) {
+			maxFieldSize = delegate.getMaxFieldSize();
+		}
+		delegate.setMaxFieldSize(max);
+	}
+
+	@Override
+	public void setQueryTimeout(int seconds) throws SQLException {
+		if (queryTimeout == null) {
+			queryTimeout = delegate.getQueryTimeout();
+		}
+		delegate.setQueryTimeout(seconds);
+	}
+
+	@Override
+	public void setPoolable(boolean value) throws SQLException {
+		if (poolable == null) {
+			poolable = delegate.isPoolable();
+		}
+		delegate.setPoolable(value);
+	}
+
+	@Override
+	public void setEscapeProcessing(boolean enable) throws SQLException {
+		// there's no getter for this property, so we can't restore it
+		reusable = false;
+		delegate.setEscapeProcessing(enable);
+	}
+
+	@Override
+	public boolean isWrapperFor(Class<?> iface) throws SQLException {
+		return CachedPreparedStatement.class.equals(iface) ? true : delegate.isWrapperFor(iface);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> T unwrap(Class<T> iface) throws SQLException {
+		return CachedPreparedStatement.class.equals(iface) ? (T) this : delegate.unwrap(iface);
+	}
+
+	@Override
+	public void addBatch() throws SQLException {
+		delegate.addBatch();
+	}
+
+	@Override
+	public void clearParameters() throws SQLException {
+		delegate.clearParameters();
+	}
+
+	@Override
+	public boolean execute() throws SQLException {
+		return delegate.execute();
+	}
+
+	@Override
+	public int executeUpdate() throws SQLException {
+		return delegate.executeUpdate();
+	}
+
+	@Override
+	public ResultSetMetaData getMetaData() throws SQLException {
+		return delegate.getMetaData();
+	}
+
+	@Override
+	public ParameterMetaData getParameterMetaData() throws SQLException {
+		return delegate.getParameterMetaData();
+	}
+
+	@Override
+	public void setArray(int parameterIndex, Array x) throws SQLException {
+		delegate.setArray(parameterIndex, x);
+	}
+
+	@Override
+	public void setAsciiStream(int parameterIndex, InputStream x, int length) throws SQLException {
+		delegate.setAsciiStream(parameterIndex, x, length);
+	}
+
+	@Override
+	public void setAsciiStream(int parameterIndex, InputStream x, long length) throws SQLException {
+		delegate.setAsciiStream(parameterIndex, x, length);
+	}
+
+	@Override
+	public void setAsciiStream(int parameterIndex, InputStream x) throws SQLException {
+		delegate.setAsciiStream(parameterIndex, x);
+	}
+
+	@Override
+	public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
+		delegate.setBigDecimal(parameterIndex, x);
+	}
+
+	@Override
+	public void setBinaryStream(int parameterIndex, InputStream x, int length) throws SQLException {
+		delegate.setBinaryStream(parameterIndex, x, length);
+	}
+
+	@Override
+	public void setBinaryStream(int parameterIndex, InputStream x, long length) throws SQLException {
+		delegate.setBinaryStream(parameterIndex, x, length);
+	}
+
+	@Override
+	public void setBinaryStream(int parameterIndex, InputStream x) throws SQLException {
+		delegate.setBinaryStream(parameterIndex, x);
+	}
+
+	@Override
+	public void setBlob(int parameterIndex, InputStream x, long length) throws SQLException {
+		delegate.setBlob(parameterIndex, x, length);
+	}
+
+	@Override
+	public void setBlob(int parameterIndex, InputStream x) throws SQLException {
+		delegate.setBlob(parameterIndex, x);
+	}
+
+	@Override
+	public void setBlob(int parameterIndex, Blob x) throws SQLException {
+		delegate.setBlob(parameterIndex, x);
+	}
+
+	@Override
+	public void setBoolean(int parameterIndex, boolean x) throws SQLException {
+		delegate.setBoolean(parameterIndex, x);
+	}
+
+	@Override
+	public void setByte(int parameterIndex, byte x) throws SQLException {
+		delegate.setByte(parameterIndex, x);
+	}
+
+	@Override
+	public void setBytes(int parameterIndex, byte[] x) throws SQLException {
+		delegate.setBytes(parameterIndex, x);
+	}
+
+	@Override
+	public void setCharacterStream(int parameterIndex, Reader x, int length) throws SQLException {
+		delegate.setCharacterStream(parameterIndex, x, length);
+	}
+
+	@Override
+	public void setCharacterStream(int parameterIndex, Reader x, long length) throws SQLException {
+		delegate.setCharacterStream(parameterIndex, x, length);
+	}
+
+	@Override
+	public void setCharacterStream(int parameterIndex, Reader x) throws SQLException {
+		delegate.setCharacterStream(parameterIndex, x);
+	}
+
+	@Override
+	public void setClob(int parameterIndex, Reader x, long length) throws SQLException {
+		delegate.setClob(parameterIndex, x, length);
+	}
+
+	@Override
+	public void setClob(int parameterIndex, Reader x) throws SQLException {
+		delegate.setClob(parameterIndex, x);
+	}
+
+	@Override
+	public void setClob(int parameterIndex, Clob x) throws SQLException {
+		delegate.setClob(parameterIndex, x);
+	}
+
+	@Override
+	public void setDate(int parameterIndex, Date x, Calendar cal) throws SQLException {
+		delegate.setDate(parameterIndex, x, cal);
+	}
+
+	@Override
+	public void setDate(int parameterIndex, Date x) throws SQLException {
+		delegate.setDate(parameterIndex, x);
+	}
+
+	@Override
+	public void setDouble(int parameterIndex, double x) throws SQLException {
+		delegate.setDouble(parameterIndex, x);
+	}
+
+	@Override
+	public void setFloat(int parameterIndex, float x) throws SQLException {
+		delegate.setFloat(parameterIndex, x);
+	}
+
+	@Override
+	public void setInt(int parameterIndex, int x) throws SQLException {
+		delegate.setInt(parameterIndex, x);
+	}
+
+	@Override
+	public void setLong(int parameterIndex, long x) throws SQLException {
+		delegate.setLong(parameterIndex, x);
+	}
+
+	@Override
+	public void setNCharacterStream(int parameterIndex, Reader x, long length) throws SQLException {
+		delegate.setNCharacterStream(parameterIndex, x, length);
+	}
+
+	@Override
+	public void setNCharacterStream(int parameterIndex, Reader x) throws SQLException {
+		delegate.setNCharacterStream(parameterIndex, x);
+	}
+
+	@Override
+	public void setNClob(int parameterIndex, Reader x, long length) throws SQLException {
+		delegate.setNClob(parameterIndex, x, length);
+	}
+
+	@Override
+	public void setNClob(int parameterIndex, Reader x) throws SQLException {
+		delegate.setNClob(parameterIndex, x);
+	}
+
+	@Override
+	public void setNClob(int parameterIndex, NClob x) throws SQLException {
+		delegate.setNClob(parameterIndex, x);
+	}
+
+	@Override
+	public void setNString(int parameterIndex, String x) throws SQLException {
+		delegate.setNString(parameterIndex, x);
+	}
+
+	@Override
+	public void setNull(int parameterIndex, int sqlType, String typeName) throws SQLException {
+		delegate.setNull(parameterIndex, sqlType, typeName);
+	}
+
+	@Override
+	public void setNull(int parameterIndex, int sqlType) throws SQLException {
+		delegate.setNull(parameterIndex, sqlType);
+	}
+
+	@Override
+	public void setObject(int parameterIndex, Object x, int targetSqlType, int scaleOrLength) throws SQLException {
+		delegate.setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+	}
+
+	@Override
+	public void setObject(int parameterIndex, Object x, int targetSqlType) throws SQLException {
+		delegate.setObject(parameterIndex, x, targetSqlType);
+	}
+
+	@Override
+	public void setObject(int parameterIndex, Object x) throws SQLException {
+		delegate.setObject(parameterIndex, x);
+	}
+
+	@Override
+	public void setRef(int parameterIndex, Ref x) throws SQLException {
+		delegate.setRef(parameterIndex, x);
+	}
+
+	@Override
+	public void setRowId(int parameterIndex, RowId x) throws SQLException {
+		delegate.setRowId(parameterIndex, x);
+	}
+
+	@Override
+	public void setSQLXML(int parameterIndex, SQLXML x) throws SQLException {
+		delegate.setSQLXML(parameterIndex, x);
+	}
+
+	@Override
+	public void setShort(int parameterIndex, short x) throws SQLException {
+		delegate.setShort(parameterIndex, x);
+	}
+
+	@Override
+	public void setString(int parameterIndex, String x) throws SQLException {
+		delegate.setString(parameterIndex, x);
+	}
+
+	@Override
+	public void setTime(int parameterIndex, Time x, Calendar cal) throws SQLException {
+		delegate.setTime(parameterIndex, x, cal);
+	}
+
+	@Override
+	public void setTime(int parameterIndex, Time x) throws SQLException {
+		delegate.setTime(parameterIndex, x);
+	}
+
+	@Override
+	public void setTimestamp(int parameterIndex, Timestamp x, Calendar cal) throws SQLException {
+		delegate.setTimestamp(parameterIndex, x, cal);
+	}
+
+	@Override
+	public void setTimestamp(int parameterIndex, Timestamp x) throws SQLException {
+		delegate.setTimestamp(parameterIndex, x);
+	}
+
+	@Override
+	public void setURL(int parameterIndex, URL x) throws SQLException {
+		delegate.setURL(parameterIndex, x);
+	}
+
+	@Override
+	public void setUnicodeStream(int parameterIndex, InputStream x, int length) throws SQLException {
+		delegate.setUnicodeStream(parameterIndex, x, length);
+	}
+
+	@Override
+	public void addBatch(String sql) throws SQLException {
+		delegate.addBatch(sql);
+	}
+
+	@Override
+	public void cancel() throws SQLException {
+		delegate.cancel();
+	}
+
+	@Override
+	public void clearBatch() throws SQLException {
+		delegate.clearBatch();
+	}
+
+	@Override
+	public void clearWarnings() throws SQLException {
+		delegate.clearWarnings();
+	}
+
+	@Override
+	public boolean execute(String sql, int[] columnIndexes) throws SQLException {
+		return delegate.execute(sql, columnIndexes);
+	}
+
+	@Override
+	public boolean execute(String sql, String[] columnNames) throws SQLException {
+		return delegate.execute(sql, columnNames);
+	}
+
+	@Override
+	public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
+		return delegate.execute(sql, autoGeneratedKeys);
+	}
+
+	@Override
+	public boolean execute(String sql) throws SQLException {
+		return delegate.execute(sql);
+	}
+
+	@Override
+	public int[] executeBatch() throws SQLException {
+		return delegate.executeBatch();
+	}
+
+	@Override
+	public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
+		return delegate.executeUpdate(sql, columnIndexes);
+	}
+
+	@Override
+	public int executeUpdate(String sql, String[] columnNames) throws SQLException {
+		return delegate.executeUpdate(sql, columnNames);
+	}
+
+	@Override
+	public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+		return delegate.executeUpdate(sql, autoGeneratedKeys);
+	}
+
+	@Override
+	public int executeUpdate(String sql) throws SQLException {
+		return delegate.executeUpdate(sql);
+	}
+
+	@Override
+	public int getFetchDirection() throws SQLException {
+		return delegate.getFetchDirection();
+	}
+
+	@Override
+	public int getFetchSize() throws SQLException {
+		return delegate.getFetchSize();
+	}
+
+	@Override
+	public int getMaxFieldSize() throws SQLException {
+		return delegate.getMaxFieldSize();
+	}
+
+	@Override
+	public int getMaxRows() throws SQLException {
+		return delegate.getMaxRows();
+	}
+
+	@Override
+	public boolean getMoreResults() throws SQLException {
+		return delegate.getMoreResults();
+	}
+
+	@Override
+	public boolean getMoreResults(int current) throws SQLException {
+		return delegate.getMoreResults(current);
+	}
+
+	@Override
+	public int getQueryTimeout() throws SQLException {
+		return delegate.getQueryTimeout();
+	}
+
+	@Override
+	public int getResultSetConcurrency() throws SQLException {
+		return delegate.getResultSetConcurrency();
+	}
+
+	@Override
+	public int getResultSetHoldability() throws SQLException {
+		return delegate.getResultSetHoldability();
+	}
+
+	@Override
+	public int getResultSetType() throws SQLException {
+		return delegate.getResultSetType();
+	}
+
+	@Override
+	public int getUpdateCount() throws SQLException {
+		return delegate.getUpdateCount();
+	}
+
+	@Override
+	public SQLWarning getWarnings() throws SQLException {
+		return delegate.getWarnings();
+	}
+
+	@Override
+	public boolean isPoolable() throws SQLException {
+		return delegate.isPoolable();
+	}
+
+	@Override
+	public void setCursorName(String name) throws SQLException {
+		delegate.setCursorName(name);
+	}
+}
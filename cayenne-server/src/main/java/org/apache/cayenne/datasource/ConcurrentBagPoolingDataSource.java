@@ -0,0 +1,39 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.datasource;
+
+import javax.sql.DataSource;
+
+/**
+ * A variant of {@link UnmanagedPoolingDataSource} that keeps idle connections
+ * in a lock-free bag instead of a blocking queue. A thread calling
+ * {@link #getConnection()} first tries to reclaim the connection it used last,
+ * and then scans the shared list of connections, so an uncontended checkout
+ * avoids any global lock. This improves throughput on machines with many cores
+ * and many concurrent request threads. Can be enabled via
+ * {@link PoolingDataSourceBuilder#concurrentBag()}.
+ * 
+ * @since 4.2
+ */
+public class ConcurrentBagPoolingDataSource extends UnmanagedPoolingDataSource {
+
+	public ConcurrentBagPoolingDataSource(DataSource nonPoolingDataSource, PoolingDataSourceParameters parameters) {
+		super(nonPoolingDataSource, parameters, maxConnections -> new ConcurrentConnectionBag());
+	}
+}
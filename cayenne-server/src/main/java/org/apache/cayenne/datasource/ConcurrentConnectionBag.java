@@ -0,0 +1,180 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.datasource;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A lock-free {@link AvailableConnections} storage. Each pooled connection
+ * stays in a shared list for its entire life, and is claimed by flipping its
+ * state with a CAS. Each thread remembers the connection it used last and
+ * tries to claim it first, so an uncontended checkout never touches any shared
+ * lock. Threads that have to wait for a connection receive it via a direct
+ * hand-off from the thread that returns one.
+ * 
+ * @since 4.2
+ */
+class ConcurrentConnectionBag implements AvailableConnections {
+
+	private static final int REMOVED = -1;
+	private static final int IDLE = 0;
+	private static final int IN_USE = 1;
+
+	private CopyOnWriteArrayList<Entry> shared;
+	private Map<PoolAwareConnection, Entry> entries;
+	private ThreadLocal<Entry> lastUsed;
+	private SynchronousQueue<Entry> handoff;
+	private AtomicInteger waiters;
+
+	ConcurrentConnectionBag() {
+		this.shared = new CopyOnWriteArrayList<>();
+		this.entries = new ConcurrentHashMap<>();
+		this.lastUsed = new ThreadLocal<>();
+		this.handoff = new SynchronousQueue<>(true);
+		this.waiters = new AtomicInteger();
+	}
+
+	@Override
+	public boolean offer(PoolAwareConnection connection) {
+
+		Entry entry = entries.get(connection);
+
+		// a brand new connection joins the bag
+		if (entry == null) {
+			entry = new Entry(connection);
+			entries.put(connection, entry);
+			shared.add(entry);
+		}
+
+		entry.state.set(IDLE);
+		lastUsed.set(entry);
+
+		// pass the connection directly to a waiting thread if there is one,
+		// unless some other thread has already claimed it
+		while (waiters.get() > 0) {
+			if (entry.state.get() != IDLE || handoff.offer(entry)) {
+				break;
+			}
+
+			Thread.yield();
+		}
+
+		return true;
+	}
+
+	@Override
+	public PoolAwareConnection poll() {
+
+		// fast path - the connection last used by the current thread
+		Entry entry = lastUsed.get();
+		if (entry != null && entry.claim()) {
+			return entry.connection;
+		}
+
+		for (Entry e : shared) {
+			if (e.claim()) {
+				return e.connection;
+			}
+		}
+
+		return null;
+	}
+
+	@Override
+	public PoolAwareConnection poll(long timeout, TimeUnit unit) throws InterruptedException {
+
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+		// register as a waiter before scanning, so that a connection returned
+		// during the scan is either seen by the scan or handed off to us
+		waiters.incrementAndGet();
+		try {
+			while (true) {
+
+				PoolAwareConnection connection = poll();
+				if (connection != null) {
+					return connection;
+				}
+
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0) {
+					return null;
+				}
+
+				Entry entry = handoff.poll(remaining, TimeUnit.NANOSECONDS);
+				if (entry != null && entry.claim()) {
+					return entry.connection;
+				}
+			}
+		} finally {
+			waiters.decrementAndGet();
+		}
+	}
+
+	@Override
+	public void remove(PoolAwareConnection connection) {
+		Entry entry = entries.remove(connection);
+		if (entry != null) {
+			entry.state.set(REMOVED);
+			shared.remove(entry);
+		}
+	}
+
+	@Override
+	public int size() {
+		int size = 0;
+		for (Entry e : shared) {
+			if (e.state.get() == IDLE) {
+				size++;
+			}
+		}
+
+		return size;
+	}
+
+	@Override
+	public void clear() {
+		for (Entry e : shared) {
+			e.state.set(REMOVED);
+		}
+
+		shared.clear();
+		entries.clear();
+	}
+
+	static final class Entry {
+
+		final PoolAwareConnection connection;
+		final AtomicInteger state;
+
+		Entry(PoolAwareConnection connection) {
+			this.connection = connection;
+			this.state = new AtomicInteger(IN_USE);
+		}
+
+		boolean claim() {
+			return state.get() == IDLE && state.compareAndSet(IDLE, IN_USE);
+		}
+	}
+}
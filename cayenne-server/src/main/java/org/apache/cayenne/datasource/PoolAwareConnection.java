@@ -50,17 +50,105 @@ public class PoolAwareConnection implements Connection {
 	private UnmanagedPoolingDataSource parent;
 	private Connection connection;
 	private String validationQuery;
+	private PreparedStatementCache statementCache;
 
 	public PoolAwareConnection(UnmanagedPoolingDataSource parent, Connection connection, String validationQuery) {
+		this(parent, connection, validationQuery, null);
+	}
+
+	/**
+	 * Creates a connection wrapper with an optional cache of prepared
+	 * statements. If the cache is null, every prepareStatement call is passed
+	 * to the underlying connection.
+	 * 
+	 * @since 4.2
+	 */
+	PoolAwareConnection(UnmanagedPoolingDataSource parent, Connection connection, String validationQuery,
+			PreparedStatementCache statementCache) {
 		this.parent = parent;
 		this.connection = connection;
 		this.validationQuery = validationQuery;
+		this.statementCache = statementCache;
 	}
 
 	Connection getConnection() {
 		return connection;
 	}
 
+	PreparedStatementCache getStatementCache() {
+		return statementCache;
+	}
+
+	/**
+	 * Closes all idle cached statements. Called when the connection is retired
+	 * from the pool or when the underlying connection is replaced.
+	 * 
+	 * @since 4.2
+	 */
+	void clearStatementCache() {
+		if (statementCache != null) {
+			statementCache.clear();
+		}
+	}
+
+	/**
+	 * Returns a statement closed by the caller to the statement cache, or
+	 * closes it if it can not be reused.
+	 * 
+	 * @since 4.2
+	 */
+	void reclaimStatement(CachedPreparedStatement statement) throws SQLException {
+
+		PreparedStatement delegate = statement.getDelegate();
+
+		// statements prepared on a connection that was since replaced can't be
+		// reused
+		if (statement.isReusable() && statement.getPhysicalConnection() == connection) {
+
+			boolean reset;
+			try {
+				statement.resetState();
+				reset = true;
+			} catch (SQLException e) {
+				reset = false;
+			}
+
+			if (reset && statementCache.checkin(statement.getKey(), delegate)) {
+				return;
+			}
+		}
+
+		delegate.close();
+	}
+
+	private PreparedStatement prepareCached(PreparedStatementCache.Key key) throws SQLException {
+
+		PreparedStatement statement = statementCache.checkout(key);
+		if (statement == null) {
+			try {
+				statement = prepareUncached(key);
+			} catch (SQLException sqlEx) {
+				recover(sqlEx);
+				statement = prepareUncached(key);
+			}
+		}
+
+		return new CachedPreparedStatement(this, connection, key, statement);
+	}
+
+	private PreparedStatement prepareUncached(PreparedStatementCache.Key key) throws SQLException {
+		if (key.getAutoGeneratedKeys() != Statement.NO_GENERATED_KEYS) {
+			return connection.prepareStatement(key.getSql(), key.getAutoGeneratedKeys());
+		}
+
+		if (key.getResultSetType() != ResultSet.TYPE_FORWARD_ONLY
+				|| key.getResultSetConcurrency() != ResultSet.CONCUR_READ_ONLY) {
+			return connection.prepareStatement(key.getSql(), key.getResultSetType(), key.getResultSetConcurrency());
+		}
+
+		return connection.prepareStatement(key.getSql());
+	}
+
 	boolean validate() {
 
 		if (validationQuery == null) {
@@ -87,6 +175,9 @@ public class PoolAwareConnection implements Connection {
 
 	void recover(SQLException reconnectCause) throws SQLException {
 
+		// statements of the broken connection are useless now
+		clearStatementCache();
+
 		try {
 			connection.close();
 		} catch (SQLException e) {
@@ -253,6 +344,12 @@ public class PoolAwareConnection implements Connection {
 
 	@Override
 	public PreparedStatement prepareStatement(String sql) throws SQLException {
+
+		if (statementCache != null) {
+			return prepareCached(new PreparedStatementCache.Key(sql, ResultSet.TYPE_FORWARD_ONLY,
+					ResultSet.CONCUR_READ_ONLY, Statement.NO_GENERATED_KEYS));
+		}
+
 		try {
 			return connection.prepareStatement(sql);
 		} catch (SQLException sqlEx) {
@@ -264,6 +361,12 @@ public class PoolAwareConnection implements Connection {
 	@Override
 	public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency)
 			throws SQLException {
+
+		if (statementCache != null) {
+			return prepareCached(new PreparedStatementCache.Key(sql, resultSetType, resultSetConcurrency,
+					Statement.NO_GENERATED_KEYS));
+		}
+
 		try {
 			return connection.prepareStatement(sql, resultSetType, resultSetConcurrency);
 		} catch (SQLException sqlEx) {
@@ -405,6 +508,11 @@ public class PoolAwareConnection implements Connection {
 	@Override
 	public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
 
+		if (statementCache != null) {
+			return prepareCached(new PreparedStatementCache.Key(sql, ResultSet.TYPE_FORWARD_ONLY,
+					ResultSet.CONCUR_READ_ONLY, autoGeneratedKeys));
+		}
+
 		try {
 			return connection.prepareStatement(sql, autoGeneratedKeys);
 		} catch (SQLException e) {
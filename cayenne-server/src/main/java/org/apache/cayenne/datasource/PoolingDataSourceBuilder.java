@@ -33,6 +33,7 @@ public class PoolingDataSourceBuilder {
 
 	private DataSourceBuilder nonPoolingBuilder;
 	private PoolingDataSourceParameters poolParameters;
+	private boolean concurrentBag;
 
 	public PoolingDataSourceBuilder(DataSourceBuilder nonPoolingBuilder) {
 		this.nonPoolingBuilder = nonPoolingBuilder;
@@ -63,6 +64,30 @@ public class PoolingDataSourceBuilder {
 		return this;
 	}
 
+	/**
+	 * Enables per-connection caching of prepared statements, keeping up to the
+	 * specified number of idle statements for each pooled connection. Zero
+	 * (the default) disables caching.
+	 * 
+	 * @since 4.2
+	 */
+	public PoolingDataSourceBuilder statementCacheSize(int statementCacheSize) {
+		poolParameters.setStatementCacheSize(statementCacheSize);
+		return this;
+	}
+
+	/**
+	 * Switches the pool implementation to {@link ConcurrentBagPoolingDataSource}
+	 * that checks out connections without taking any global locks. Recommended
+	 * for pools serving many concurrent threads.
+	 * 
+	 * @since 4.2
+	 */
+	public PoolingDataSourceBuilder concurrentBag() {
+		this.concurrentBag = true;
+		return this;
+	}
+
 	/**
 	 * Builds a pooling DataSource that needs to be explicitly closed by the
 	 * caller when no longer in use.
@@ -84,12 +109,19 @@ public class PoolingDataSourceBuilder {
 			throw new CayenneRuntimeException("Minimum number of connections can not be bigger then maximum.");
 		}
 
+		if (poolParameters.getStatementCacheSize() < 0) {
+			throw new CayenneRuntimeException("Statement cache size can not be negative (%d)"
+					, poolParameters.getStatementCacheSize());
+		}
+
 		DataSource nonPooling = nonPoolingBuilder.build();
 		return buildManaged(buildPooling(nonPooling));
 	}
 
 	private UnmanagedPoolingDataSource buildPooling(DataSource nonPoolingDataSource) {
-		return new UnmanagedPoolingDataSource(nonPoolingDataSource, poolParameters);
+		return concurrentBag
+				? new ConcurrentBagPoolingDataSource(nonPoolingDataSource, poolParameters)
+				: new UnmanagedPoolingDataSource(nonPoolingDataSource, poolParameters);
 	}
 
 	private PoolingDataSource buildManaged(UnmanagedPoolingDataSource dataSource) {
@@ -29,6 +29,7 @@ public class PoolingDataSourceParameters {
 	private int minConnections;
 	private int maxConnections;
 	private long maxQueueWaitTime;
+	private int statementCacheSize;
 
 	public int getMinConnections() {
 		return minConnections;
@@ -61,4 +62,21 @@ public class PoolingDataSourceParameters {
 	public void setValidationQuery(String validationQuery) {
 		this.validationQuery = validationQuery;
 	}
+
+	/**
+	 * @since 4.2
+	 */
+	public int getStatementCacheSize() {
+		return statementCacheSize;
+	}
+
+	/**
+	 * Sets the maximum number of idle prepared statements cached per pooled
+	 * connection. Zero (the default) disables statement caching.
+	 * 
+	 * @since 4.2
+	 */
+	public void setStatementCacheSize(int statementCacheSize) {
+		this.statementCacheSize = statementCacheSize;
+	}
 }
@@ -0,0 +1,194 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.datasource;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+
+/**
+ * A per-connection LRU cache of idle {@link PreparedStatement}s. A statement is
+ * removed from the cache while it is in use and is returned back when the
+ * caller closes it, so two callers never share the same statement.
+ * 
+ * @since 4.2
+ */
+class PreparedStatementCache {
+
+	private final int size;
+	private final StatementCacheStatistics statistics;
+	private final LinkedHashMap<Key, PreparedStatement> idle;
+
+	PreparedStatementCache(int size, StatementCacheStatistics statistics) {
+		this.size = size;
+		this.statistics = statistics;
+
+		// access-ordered map, so that the eldest entry is the least recently
+		// used statement
+		this.idle = new LinkedHashMap<>((int) (size / 0.75) + 1, 0.75f, true);
+	}
+
+	/**
+	 * Removes an idle statement matching the key from the cache, returning
+	 * null if there's no such statement.
+	 */
+	synchronized PreparedStatement checkout(Key key) {
+		PreparedStatement statement = idle.remove(key);
+		if (statement != null) {
+			statistics.hit();
+		} else {
+			statistics.miss();
+		}
+
+		return statement;
+	}
+
+	/**
+	 * Returns a no longer used statement back to the cache. Returns false if
+	 * the statement can not be cached and must be closed by the caller.
+	 */
+	boolean checkin(Key key, PreparedStatement statement) {
+
+		PreparedStatement evicted = null;
+
+		synchronized (this) {
+
+			// another statement with the same SQL may have been returned
+			// already
+			if (idle.containsKey(key)) {
+				return false;
+			}
+
+			idle.put(key, statement);
+
+			if (idle.size() > size) {
+				Iterator<PreparedStatement> it = idle.values().iterator();
+				evicted = it.next();
+				it.remove();
+			}
+		}
+
+		if (evicted != null) {
+			statistics.evicted();
+			closeQuietly(evicted);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Closes all idle statements and empties the cache.
+	 */
+	void clear() {
+
+		Collection<PreparedStatement> statements;
+
+		synchronized (this) {
+			statements = new ArrayList<>(idle.values());
+			idle.clear();
+		}
+
+		for (PreparedStatement statement : statements) {
+			closeQuietly(statement);
+		}
+	}
+
+	synchronized int size() {
+		return idle.size();
+	}
+
+	int getMaxSize() {
+		return size;
+	}
+
+	private static void closeQuietly(PreparedStatement statement) {
+		try {
+			statement.close();
+		} catch (SQLException e) {
+			// ignore, the statement is discarded anyways
+		}
+	}
+
+	/**
+	 * A cache key that includes all the parameters passed to the connection
+	 * when the statement was prepared.
+	 */
+	static final class Key {
+
+		private final String sql;
+		private final int resultSetType;
+		private final int resultSetConcurrency;
+		private final int autoGeneratedKeys;
+		private final int hashCode;
+
+		Key(String sql, int resultSetType, int resultSetConcurrency, int autoGeneratedKeys) {
+			this.sql = Objects.requireNonNull(sql);
+			this.resultSetType = resultSetType;
+			this.resultSetConcurrency = resultSetConcurrency;
+			this.autoGeneratedKeys = autoGeneratedKeys;
+
+			int hashCode = sql.hashCode();
+			hashCode = 31 * hashCode + resultSetType;
+			hashCode = 31 * hashCode + resultSetConcurrency;
+			hashCode = 31 * hashCode + autoGeneratedKeys;
+			this.hashCode = hashCode;
+		}
+
+		String getSql() {
+			return sql;
+		}
+
+		int getResultSetType() {
+			return resultSetType;
+		}
+
+		int getResultSetConcurrency() {
+			return resultSetConcurrency;
+		}
+
+		int getAutoGeneratedKeys() {
+			return autoGeneratedKeys;
+		}
+
+		@Override
+		public boolean equals(Object object) {
+			if (this == object) {
+				return true;
+			}
+
+			if (!(object instanceof Key)) {
+				return false;
+			}
+
+			Key key = (Key) object;
+			return hashCode == key.hashCode && resultSetType == key.resultSetType
+					&& resultSetConcurrency == key.resultSetConcurrency
+					&& autoGeneratedKeys == key.autoGeneratedKeys && sql.equals(key.sql);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+}
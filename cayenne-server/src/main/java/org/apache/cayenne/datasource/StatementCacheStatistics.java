@@ -0,0 +1,82 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.datasource;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cumulative counters of the prepared statement caches of all connections in a
+ * single pool.
+ * 
+ * @since 4.2
+ */
+public class StatementCacheStatistics {
+
+	private final LongAdder hits;
+	private final LongAdder misses;
+	private final LongAdder evictions;
+
+	public StatementCacheStatistics() {
+		this.hits = new LongAdder();
+		this.misses = new LongAdder();
+		this.evictions = new LongAdder();
+	}
+
+	void hit() {
+		hits.increment();
+	}
+
+	void miss() {
+		misses.increment();
+	}
+
+	void evicted() {
+		evictions.increment();
+	}
+
+	/**
+	 * Returns how many times a statement was taken from the cache instead of
+	 * being prepared by the driver.
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * Returns how many times a statement had to be prepared by the driver,
+	 * because there was no idle cached statement for a given SQL.
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * Returns how many cached statements were closed to make room for the more
+	 * recently used ones.
+	 */
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	@Override
+	public String toString() {
+		return "StatementCacheStatistics[hits=" + getHits() + ", misses=" + getMisses() + ", evictions="
+				+ getEvictions() + "]";
+	}
+}
@@ -24,11 +24,10 @@ import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
 import java.util.Collections;
 import java.util.Map;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
 
 import javax.sql.DataSource;
 
@@ -95,18 +94,31 @@ public class UnmanagedPoolingDataSource implements PoolingDataSource {
 
 	private Map<PoolAwareConnection, Object> pool;
 	private Semaphore poolCap;
-	private BlockingQueue<PoolAwareConnection> available;
+	private AvailableConnections available;
 
 	private int maxIdleConnections;
 	private int minConnections;
 	private int maxConnections;
 	private String validationQuery;
+	private int statementCacheSize;
+	private StatementCacheStatistics statementCacheStatistics;
 
 	static int maxIdleConnections(int min, int max) {
 		return min == max ? min : min + (int) Math.ceil((max - min) / 2d);
 	}
 
 	public UnmanagedPoolingDataSource(DataSource nonPoolingDataSource, PoolingDataSourceParameters parameters) {
+		this(nonPoolingDataSource, parameters, BlockingQueueConnections::new);
+	}
+
+	/**
+	 * Creates a pool that keeps idle connections in a custom storage, created
+	 * by the provided factory based on the maximum number of connections.
+	 * 
+	 * @since 4.2
+	 */
+	UnmanagedPoolingDataSource(DataSource nonPoolingDataSource, PoolingDataSourceParameters parameters,
+			IntFunction<AvailableConnections> availableFactory) {
 
 		int minConnections = parameters.getMinConnections();
 		int maxConnections = parameters.getMaxConnections();
@@ -128,10 +140,12 @@ public class UnmanagedPoolingDataSource implements PoolingDataSource {
 		this.nonPoolingDataSource = nonPoolingDataSource;
 		this.maxQueueWaitTime = parameters.getMaxQueueWaitTime();
 		this.validationQuery = parameters.getValidationQuery();
+		this.statementCacheSize = parameters.getStatementCacheSize();
+		this.statementCacheStatistics = new StatementCacheStatistics();
 		this.minConnections = minConnections;
 		this.maxConnections = maxConnections;
 		this.pool = new ConcurrentHashMap<PoolAwareConnection, Object>((int) (maxConnections / 0.75));
-		this.available = new ArrayBlockingQueue<PoolAwareConnection>(maxConnections);
+		this.available = availableFactory.apply(maxConnections);
 		this.poolCap = new Semaphore(maxConnections);
 		this.maxIdleConnections = maxIdleConnections(minConnections, maxConnections);
 
@@ -208,9 +222,12 @@ public class UnmanagedPoolingDataSource implements PoolingDataSource {
 	 */
 	void retire(PoolAwareConnection connection) {
 		pool.remove(connection);
+		available.remove(connection);
 
 		poolCap.release();
 
+		connection.clearStatementCache();
+
 		try {
 			connection.getConnection().close();
 		} catch (SQLException e) {
@@ -289,7 +306,10 @@ public class UnmanagedPoolingDataSource implements PoolingDataSource {
 	}
 
 	PoolAwareConnection createWrapped() throws SQLException {
-		return new PoolAwareConnection(this, createUnwrapped(), validationQuery);
+		PreparedStatementCache statementCache = statementCacheSize > 0
+				? new PreparedStatementCache(statementCacheSize, statementCacheStatistics)
+				: null;
+		return new PoolAwareConnection(this, createUnwrapped(), validationQuery, statementCache);
 	}
 
 	/**
@@ -393,6 +413,21 @@ public class UnmanagedPoolingDataSource implements PoolingDataSource {
 		return nonPoolingDataSource.getParentLogger();
 	}
 
+	/**
+	 * Returns cumulative hit/miss counters of the prepared statement caches of
+	 * all connections in this pool. The counters stay at zero if statement
+	 * caching is disabled.
+	 * 
+	 * @since 4.2
+	 */
+	public StatementCacheStatistics getStatementCacheStatistics() {
+		return statementCacheStatistics;
+	}
+
+	int getStatementCacheSize() {
+		return statementCacheSize;
+	}
+
 	String getValidationQuery() {
 		return validationQuery;
 	}
@@ -29,6 +29,7 @@ import org.apache.cayenne.access.DataNode;
 import org.apache.cayenne.access.sqlbuilder.sqltree.SQLTreeProcessor;
 import org.apache.cayenne.access.translator.ParameterBinding;
 import org.apache.cayenne.access.translator.ejbql.EJBQLTranslatorFactory;
+import org.apache.cayenne.access.translator.batch.UpsertBatchTranslator;
 import org.apache.cayenne.access.translator.select.SelectTranslator;
 import org.apache.cayenne.access.types.ExtendedTypeMap;
 import org.apache.cayenne.di.Provider;
@@ -41,6 +42,7 @@ import org.apache.cayenne.query.FluentSelect;
 import org.apache.cayenne.query.Query;
 import org.apache.cayenne.query.SQLAction;
 import org.apache.cayenne.query.SelectQuery;
+import org.apache.cayenne.query.UpsertBatchQuery;
 
 /**
  * A DbAdapter that automatically detects the kind of database it is running on
@@ -158,6 +160,38 @@ public class AutoAdapter implements DbAdapter {
 		return getAdapter().supportsBatchUpdates();
 	}
 
+	/**
+	 * @since 4.2
+	 */
+	@Override
+	public boolean supportsMultiRowInsert() {
+		return getAdapter().supportsMultiRowInsert();
+	}
+
+	/**
+	 * @since 4.2
+	 */
+	@Override
+	public UpsertBatchTranslator getUpsertTranslator(UpsertBatchQuery query) {
+		return getAdapter().getUpsertTranslator(query);
+	}
+
+	/**
+	 * @since 4.2
+	 */
+	@Override
+	public int getMaxBindParameters() {
+		return getAdapter().getMaxBindParameters();
+	}
+
+	/**
+	 * @since 4.2
+	 */
+	@Override
+	public int getMaxRowsPerInsert() {
+		return getAdapter().getMaxRowsPerInsert();
+	}
+
 	@Override
 	public boolean typeSupportsLength(int type) {
 		return getAdapter().typeSupportsLength(type);
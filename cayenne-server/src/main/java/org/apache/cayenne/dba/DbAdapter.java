@@ -27,6 +27,7 @@ import org.apache.cayenne.access.DataNode;
 import org.apache.cayenne.access.sqlbuilder.sqltree.SQLTreeProcessor;
 import org.apache.cayenne.access.translator.ParameterBinding;
 import org.apache.cayenne.access.translator.ejbql.EJBQLTranslatorFactory;
+import org.apache.cayenne.access.translator.batch.UpsertBatchTranslator;
 import org.apache.cayenne.access.translator.select.SelectTranslator;
 import org.apache.cayenne.access.types.ExtendedTypeMap;
 import org.apache.cayenne.map.DbAttribute;
@@ -37,6 +38,7 @@ import org.apache.cayenne.query.FluentSelect;
 import org.apache.cayenne.query.Query;
 import org.apache.cayenne.query.SQLAction;
 import org.apache.cayenne.query.SelectQuery;
+import org.apache.cayenne.query.UpsertBatchQuery;
 
 /**
  * A Cayenne extension point that abstracts the differences between specifics of
@@ -119,6 +121,49 @@ public interface DbAdapter {
 	 */
 	boolean supportsBatchUpdates();
 
+	/**
+	 * Returns <code>true</code> if the target database supports multi-row
+	 * "INSERT INTO t (...) VALUES (...), (...)" statements.
+	 *
+	 * @since 4.2
+	 */
+	default boolean supportsMultiRowInsert() {
+		return false;
+	}
+
+	/**
+	 * Returns the max number of bind parameters that the target database (or
+	 * its JDBC driver) accepts in a single statement, or 0 if there is no known
+	 * limit.
+	 *
+	 * @since 4.2
+	 */
+	default int getMaxBindParameters() {
+		return 0;
+	}
+
+	/**
+	 * Returns the max number of rows that the target database accepts in a
+	 * single multi-row "INSERT INTO t (...) VALUES (...), (...)" statement, or
+	 * 0 if there is no known limit.
+	 *
+	 * @since 4.2
+	 */
+	default int getMaxRowsPerInsert() {
+		return 0;
+	}
+
+	/**
+	 * Returns a translator rendering the "insert or update" batch in the native
+	 * syntax of the target database, or null if the database doesn't support
+	 * such statements.
+	 *
+	 * @since 4.2
+	 */
+	default UpsertBatchTranslator getUpsertTranslator(UpsertBatchQuery query) {
+		return null;
+	}
+
 	boolean typeSupportsLength(int type);
 
 	/**
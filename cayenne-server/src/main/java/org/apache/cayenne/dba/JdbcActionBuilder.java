@@ -22,12 +22,16 @@ package org.apache.cayenne.dba;
 import org.apache.cayenne.access.DataNode;
 import org.apache.cayenne.access.jdbc.BatchAction;
 import org.apache.cayenne.access.jdbc.EJBQLAction;
+import org.apache.cayenne.access.jdbc.ObjectDeleteAction;
+import org.apache.cayenne.access.jdbc.ObjectUpdateAction;
 import org.apache.cayenne.access.jdbc.ProcedureAction;
 import org.apache.cayenne.access.jdbc.SQLTemplateAction;
 import org.apache.cayenne.access.jdbc.SelectAction;
 import org.apache.cayenne.query.BatchQuery;
 import org.apache.cayenne.query.EJBQLQuery;
 import org.apache.cayenne.query.FluentSelect;
+import org.apache.cayenne.query.ObjectDelete;
+import org.apache.cayenne.query.ObjectUpdate;
 import org.apache.cayenne.query.ProcedureQuery;
 import org.apache.cayenne.query.SQLAction;
 import org.apache.cayenne.query.SQLActionVisitor;
@@ -92,4 +96,20 @@ public class JdbcActionBuilder implements SQLActionVisitor {
     public SQLAction ejbqlAction(EJBQLQuery query) {
         return new EJBQLAction(query, this, dataNode);
     }
+
+    /**
+     * @since 4.2
+     */
+    @Override
+    public SQLAction objectUpdateAction(ObjectUpdate<?> query) {
+        return new ObjectUpdateAction(query, dataNode);
+    }
+
+    /**
+     * @since 4.2
+     */
+    @Override
+    public SQLAction objectDeleteAction(ObjectDelete<?> query) {
+        return new ObjectDeleteAction(query, dataNode);
+    }
 }
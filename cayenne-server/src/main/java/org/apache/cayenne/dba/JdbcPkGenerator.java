@@ -59,6 +59,9 @@ public class JdbcPkGenerator implements PkGenerator {
     protected int pkCacheSize = DEFAULT_PK_CACHE_SIZE;
     protected long pkStartValue = DEFAULT_PK_START_VALUE;
 
+    private volatile Boolean usesAutoPkSupport;
+    private volatile Boolean usesCustomGeneratePk;
+
     /**
      * @since 4.1
      */
@@ -149,7 +152,14 @@ public class JdbcPkGenerator implements PkGenerator {
     }
 
     protected String pkUpdateString(String entName) {
-        return "UPDATE AUTO_PK_SUPPORT SET NEXT_ID = NEXT_ID + " + pkCacheSize + " WHERE TABLE_NAME = '" + entName + '\'';
+        return pkUpdateString(entName, pkCacheSize);
+    }
+
+    /**
+     * @since 4.2
+     */
+    protected String pkUpdateString(String entName, long increment) {
+        return "UPDATE AUTO_PK_SUPPORT SET NEXT_ID = NEXT_ID + " + increment + " WHERE TABLE_NAME = '" + entName + '\'';
     }
 
     protected String dropAutoPkString() {
@@ -205,13 +215,7 @@ public class JdbcPkGenerator implements PkGenerator {
                 return IDUtil.pseudoUniqueSecureByteSequence(pk.getMaxLength());
         }
 
-        DbKeyGenerator pkGenerator = entity.getPrimaryKeyGenerator();
-        long cacheSize;
-        if (pkGenerator != null && pkGenerator.getKeyCacheSize() != null) {
-            cacheSize = pkGenerator.getKeyCacheSize();
-        } else {
-            cacheSize = getPkCacheSize();
-        }
+        long cacheSize = keyCacheSize(entity);
 
         Long value;
 
@@ -219,16 +223,7 @@ public class JdbcPkGenerator implements PkGenerator {
         if (cacheSize <= 1) {
             value = longPkFromDatabase(node, entity);
         } else {
-            Queue<Long> pks = pkCache.get(entity.getName());
-
-            if (pks == null) {
-                // created exhausted LongPkRange
-                pks = new ConcurrentLinkedQueue<>();
-                Queue<Long> previousPks = pkCache.putIfAbsent(entity.getName(), pks);
-                if (previousPks != null) {
-                    pks = previousPks;
-                }
-            }
+            Queue<Long> pks = cachedPks(entity);
 
             value = pks.poll();
             if (value == null) {
@@ -239,11 +234,93 @@ public class JdbcPkGenerator implements PkGenerator {
             }
         }
 
+        return toPkValue(pk, value);
+    }
+
+    /**
+     * Generates a list of unique primary keys for specified PK attribute. Cached keys
+     * are used first, and the rest of the keys are reserved via
+     * {@link #longPksFromDatabase(DataNode, DbEntity, int)} in as many ranges of
+     * "pkCacheSize" keys as needed. Unused keys of the last range are cached. If a
+     * subclass overrides {@link #generatePk(DataNode, DbAttribute)}, keys are generated
+     * one by one with that method.
+     *
+     * @since 4.2
+     */
+    @Override
+    public List<Object> generatePks(DataNode node, DbAttribute pk, int count) throws Exception {
+
+        if (count == 1 || usesCustomGeneratePk()) {
+            return PkGenerator.super.generatePks(node, pk, count);
+        }
+
+        switch (pk.getType()) {
+            case Types.BINARY:
+            case Types.VARBINARY:
+                return PkGenerator.super.generatePks(node, pk, count);
+        }
+
+        DbEntity entity = pk.getEntity();
+        List<Object> result = new ArrayList<>(count);
+
+        long cacheSize = Math.max(keyCacheSize(entity), 1);
+        Queue<Long> pks = cacheSize > 1 ? cachedPks(entity) : null;
+
+        while (pks != null && result.size() < count) {
+            Long value = pks.poll();
+            if (value == null) {
+                break;
+            }
+            result.add(toPkValue(pk, value));
+        }
+
+        int remaining = count - result.size();
+        if (remaining > 0) {
+            int ranges = (int) ((remaining + cacheSize - 1) / cacheSize);
+            for (long start : longPksFromDatabase(node, entity, ranges)) {
+                for (long i = start; i < start + cacheSize; i++) {
+                    if (result.size() < count) {
+                        result.add(toPkValue(pk, i));
+                    } else {
+                        pks.add(i);
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private long keyCacheSize(DbEntity entity) {
+        DbKeyGenerator pkGenerator = entity.getPrimaryKeyGenerator();
+        if (pkGenerator != null && pkGenerator.getKeyCacheSize() != null) {
+            return pkGenerator.getKeyCacheSize();
+        } else {
+            return getPkCacheSize();
+        }
+    }
+
+    private Queue<Long> cachedPks(DbEntity entity) {
+        Queue<Long> pks = pkCache.get(entity.getName());
+
+        if (pks == null) {
+            // created exhausted LongPkRange
+            pks = new ConcurrentLinkedQueue<>();
+            Queue<Long> previousPks = pkCache.putIfAbsent(entity.getName(), pks);
+            if (previousPks != null) {
+                pks = previousPks;
+            }
+        }
+
+        return pks;
+    }
+
+    private static Object toPkValue(DbAttribute pk, long value) {
         if (pk.getType() == Types.BIGINT) {
             return value;
         } else {
             // leaving it up to the user to ensure that PK does not exceed max int...
-            return value.intValue();
+            return (int) value;
         }
     }
 
@@ -278,6 +355,83 @@ public class JdbcPkGenerator implements PkGenerator {
         return observer.getId();
     }
 
+    /**
+     * Performs primary key generation ignoring cache, reserving "count" ranges of
+     * primary keys of the entity key cache size each. Returns the first key of each range.
+     * <p>
+     * This implementation reserves all the ranges with a single AUTO_PK_SUPPORT update.
+     * If a subclass overrides {@link #longPkFromDatabase(DataNode, DbEntity)} to use a
+     * different key source, ranges are reserved by calling that method for each range,
+     * unless this method is overridden as well.
+     * </p>
+     *
+     * @since 4.2
+     */
+    protected long[] longPksFromDatabase(DataNode node, DbEntity entity, int count) throws Exception {
+        long[] pks = new long[count];
+
+        if (count == 1 || !usesAutoPkSupport()) {
+            for (int i = 0; i < count; i++) {
+                pks[i] = longPkFromDatabase(node, entity);
+            }
+            return pks;
+        }
+
+        long rangeSize = Math.max(keyCacheSize(entity), 1);
+        String select = "SELECT #result('NEXT_ID' 'long' 'NEXT_ID') FROM AUTO_PK_SUPPORT "
+                + "WHERE TABLE_NAME = '" + entity.getName() + '\'';
+
+        // run queries via DataNode to utilize its transactional behavior
+        List<Query> queries = new ArrayList<>(2);
+        queries.add(new SQLTemplate(entity, select));
+        queries.add(new SQLTemplate(entity, pkUpdateString(entity.getName(), count * rangeSize)));
+
+        PkRetrieveProcessor observer = new PkRetrieveProcessor(entity.getName());
+        node.performQueries(queries, observer);
+
+        long start = observer.getId();
+        for (int i = 0; i < count; i++) {
+            pks[i] = start + i * rangeSize;
+        }
+        return pks;
+    }
+
+    /**
+     * Returns true if keys are generated by {@link #longPkFromDatabase(DataNode, DbEntity)}
+     * of this class, i.e. with the AUTO_PK_SUPPORT table.
+     */
+    private boolean usesAutoPkSupport() {
+        Boolean uses = usesAutoPkSupport;
+        if (uses == null) {
+            usesAutoPkSupport = uses = !isOverridden("longPkFromDatabase", DataNode.class, DbEntity.class);
+        }
+        return uses;
+    }
+
+    /**
+     * Returns true if a subclass replaces {@link #generatePk(DataNode, DbAttribute)}, so
+     * bulk generation must go through it as well.
+     */
+    private boolean usesCustomGeneratePk() {
+        Boolean uses = usesCustomGeneratePk;
+        if (uses == null) {
+            usesCustomGeneratePk = uses = isOverridden("generatePk", DataNode.class, DbAttribute.class);
+        }
+        return uses;
+    }
+
+    private boolean isOverridden(String method, Class<?>... parameterTypes) {
+        for (Class<?> type = getClass(); type != JdbcPkGenerator.class; type = type.getSuperclass()) {
+            try {
+                type.getDeclaredMethod(method, parameterTypes);
+                return true;
+            } catch (NoSuchMethodException e) {
+                // not overridden here, check superclass
+            }
+        }
+        return false;
+    }
+
     /**
      * Returns a size of the entity primary key cache. Default value is 20. If
      * cache size is set to a value less or equals than "one", no primary key
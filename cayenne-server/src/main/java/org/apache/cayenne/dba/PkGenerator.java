@@ -19,6 +19,7 @@
 
 package org.apache.cayenne.dba;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.cayenne.access.DataNode;
@@ -70,6 +71,22 @@ public interface PkGenerator {
      */
     Object generatePk(DataNode dataNode, DbAttribute pk) throws Exception;
 
+    /**
+     * Generates a list of unique and non-repeating primary keys for specified PK
+     * attribute. Implementations may reserve the whole range of keys with a single
+     * database operation. Default implementation calls
+     * {@link #generatePk(DataNode, DbAttribute)} for each key.
+     *
+     * @since 4.2
+     */
+    default List<Object> generatePks(DataNode dataNode, DbAttribute pk, int count) throws Exception {
+        List<Object> pks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            pks.add(generatePk(dataNode, pk));
+        }
+        return pks;
+    }
+
     /**
      * Install the adapter associated with current PkGenerator
      *
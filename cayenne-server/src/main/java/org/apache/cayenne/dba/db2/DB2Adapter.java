@@ -194,6 +194,14 @@ public class DB2Adapter extends JdbcAdapter {
         }
     }
 
+    /**
+     * @since 4.2
+     */
+    @Override
+    public boolean supportsMultiRowInsert() {
+        return true;
+    }
+
     final class DB2BooleanType extends BooleanType {
         @Override
         public void setJdbcObject(PreparedStatement st, Boolean val, int pos, int type, int precision) throws Exception {
@@ -56,6 +56,16 @@ public class DB2PkGenerator extends OraclePkGenerator {
         return "SELECT NEXTVAL FOR " + pkGeneratingSequenceName + " FROM SYSIBM.SYSDUMMY1";
     }
 
+    /**
+     * Returns null, as sequence values are fetched one at a time.
+     *
+     * @since 4.2
+     */
+    @Override
+    protected String selectNextValsQuery(String pkGeneratingSequenceName, int count) {
+        return null;
+    }
+
     @Override
     protected String selectAllSequencesQuery() {
         return "SELECT SEQNAME FROM SYSCAT.SEQUENCES WHERE SEQNAME LIKE '" + _SEQUENCE_PREFIX + "%'";
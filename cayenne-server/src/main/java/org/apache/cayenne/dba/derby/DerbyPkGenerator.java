@@ -52,6 +52,16 @@ public class DerbyPkGenerator extends OraclePkGenerator {
         return "VALUES (NEXT VALUE FOR " + pkGeneratingSequenceName + ")";
     }
 
+    /**
+     * Returns null, as sequence values are fetched one at a time.
+     *
+     * @since 4.2
+     */
+    @Override
+    protected String selectNextValsQuery(String pkGeneratingSequenceName, int count) {
+        return null;
+    }
+
     @Override
     protected String selectAllSequencesQuery() {
         return "SELECT SEQUENCENAME FROM SYS.SYSSEQUENCES";
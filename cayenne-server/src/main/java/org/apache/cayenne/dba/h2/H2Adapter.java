@@ -21,6 +21,7 @@ package org.apache.cayenne.dba.h2;
 
 import org.apache.cayenne.access.DataNode;
 import org.apache.cayenne.access.sqlbuilder.sqltree.SQLTreeProcessor;
+import org.apache.cayenne.access.translator.batch.UpsertBatchTranslator;
 import org.apache.cayenne.access.types.ExtendedType;
 import org.apache.cayenne.access.types.ExtendedTypeFactory;
 import org.apache.cayenne.access.types.ValueObjectTypeRegistry;
@@ -32,6 +33,7 @@ import org.apache.cayenne.di.Inject;
 import org.apache.cayenne.map.DbAttribute;
 import org.apache.cayenne.query.Query;
 import org.apache.cayenne.query.SQLAction;
+import org.apache.cayenne.query.UpsertBatchQuery;
 import org.apache.cayenne.resource.ResourceLocator;
 
 import java.util.List;
@@ -87,4 +89,20 @@ public class H2Adapter extends JdbcAdapter {
     protected PkGenerator createPkGenerator() {
         return new H2PkGenerator(this);
     }
+
+    /**
+     * @since 4.2
+     */
+    @Override
+    public boolean supportsMultiRowInsert() {
+        return true;
+    }
+
+    /**
+     * @since 4.2
+     */
+    @Override
+    public UpsertBatchTranslator getUpsertTranslator(UpsertBatchQuery query) {
+        return new H2UpsertBatchTranslator(query, this);
+    }
 }
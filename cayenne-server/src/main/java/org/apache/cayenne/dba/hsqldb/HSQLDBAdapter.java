@@ -22,6 +22,7 @@ package org.apache.cayenne.dba.hsqldb;
 import org.apache.cayenne.CayenneRuntimeException;
 import org.apache.cayenne.access.DataNode;
 import org.apache.cayenne.access.sqlbuilder.sqltree.SQLTreeProcessor;
+import org.apache.cayenne.access.translator.batch.UpsertBatchTranslator;
 import org.apache.cayenne.access.translator.ejbql.EJBQLTranslatorFactory;
 import org.apache.cayenne.access.translator.ejbql.JdbcEJBQLTranslatorFactory;
 import org.apache.cayenne.access.types.CharType;
@@ -39,6 +40,7 @@ import org.apache.cayenne.map.DbJoin;
 import org.apache.cayenne.map.DbRelationship;
 import org.apache.cayenne.query.Query;
 import org.apache.cayenne.query.SQLAction;
+import org.apache.cayenne.query.UpsertBatchQuery;
 import org.apache.cayenne.resource.ResourceLocator;
 
 import java.sql.Types;
@@ -256,4 +258,20 @@ public class HSQLDBAdapter extends JdbcAdapter {
 			sqlBuffer.append(" GENERATED BY DEFAULT AS IDENTITY (START WITH 1)");
 		}
 	}
+
+	/**
+	 * @since 4.2
+	 */
+	@Override
+	public boolean supportsMultiRowInsert() {
+		return true;
+	}
+
+	/**
+	 * @since 4.2
+	 */
+	@Override
+	public UpsertBatchTranslator getUpsertTranslator(UpsertBatchQuery query) {
+		return new HSQLDBUpsertBatchTranslator(query, this);
+	}
 }
@@ -46,6 +46,16 @@ public class IngresPkGenerator extends OraclePkGenerator {
         return "SELECT " + sequenceName + ".nextval";
     }
 
+    /**
+     * Returns null, as sequence values are fetched one at a time.
+     *
+     * @since 4.2
+     */
+    @Override
+    protected String selectNextValsQuery(String sequenceName, int count) {
+        return null;
+    }
+
     @Override
     protected String selectAllSequencesQuery() {
         return "SELECT seq_name FROM iisequences WHERE seq_owner != 'DBA'";
@@ -32,6 +32,7 @@ import java.util.List;
 import org.apache.cayenne.access.DataNode;
 import org.apache.cayenne.access.sqlbuilder.sqltree.SQLTreeProcessor;
 import org.apache.cayenne.access.translator.ParameterBinding;
+import org.apache.cayenne.access.translator.batch.UpsertBatchTranslator;
 import org.apache.cayenne.access.translator.ejbql.EJBQLTranslatorFactory;
 import org.apache.cayenne.access.translator.ejbql.JdbcEJBQLTranslatorFactory;
 import org.apache.cayenne.access.types.ByteArrayType;
@@ -57,6 +58,7 @@ import org.apache.cayenne.map.DbAttribute;
 import org.apache.cayenne.map.DbEntity;
 import org.apache.cayenne.query.Query;
 import org.apache.cayenne.query.SQLAction;
+import org.apache.cayenne.query.UpsertBatchQuery;
 import org.apache.cayenne.resource.ResourceLocator;
 
 /**
@@ -382,6 +384,32 @@ public class MySQLAdapter extends JdbcAdapter {
 		this.storageEngine = engine;
 	}
 
+	/**
+	 * @since 4.2
+	 */
+	@Override
+	public boolean supportsMultiRowInsert() {
+		return true;
+	}
+
+	/**
+	 * @since 4.2
+	 */
+	@Override
+	public UpsertBatchTranslator getUpsertTranslator(UpsertBatchQuery query) {
+		return new MySQLUpsertBatchTranslator(query, this);
+	}
+
+	/**
+	 * MySQL prepared statements are limited to 65535 placeholders.
+	 *
+	 * @since 4.2
+	 */
+	@Override
+	public int getMaxBindParameters() {
+		return 65535;
+	}
+
 	static final class PKComparator implements Comparator<DbAttribute> {
 
 		static final PKComparator INSTANCE = new PKComparator();
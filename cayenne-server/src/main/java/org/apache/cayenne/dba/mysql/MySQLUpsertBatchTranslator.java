@@ -0,0 +1,53 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.dba.mysql;
+
+import java.util.List;
+
+import org.apache.cayenne.access.translator.batch.UpsertBatchTranslator;
+import org.apache.cayenne.dba.DbAdapter;
+import org.apache.cayenne.query.UpsertBatchQuery;
+
+/**
+ * Translates upsert batches into "INSERT ... ON DUPLICATE KEY UPDATE" statements.
+ *
+ * @since 4.2
+ */
+class MySQLUpsertBatchTranslator extends UpsertBatchTranslator {
+
+    MySQLUpsertBatchTranslator(UpsertBatchQuery query, DbAdapter adapter) {
+        super(query, adapter);
+    }
+
+    @Override
+    protected String createSql(String table, List<String> columns, List<String> keyColumns,
+                               List<String> updateColumns) {
+        StringBuilder buffer = new StringBuilder("INSERT INTO ").append(table).append(" (");
+        appendList(buffer, columns, "%s");
+        buffer.append(") VALUES (");
+        appendList(buffer, columns, "?");
+        buffer.append(") ON DUPLICATE KEY UPDATE ");
+
+        // MySQL has no "do nothing" clause, key assignment is a no-op update
+        appendList(buffer, updateColumns.isEmpty() ? keyColumns : updateColumns, "%1$s = VALUES(%1$s)");
+
+        return buffer.toString();
+    }
+}
@@ -145,6 +145,16 @@ public class OraclePkGenerator extends JdbcPkGenerator {
         return "SELECT " + pkGeneratingSequenceName + ".nextval FROM DUAL";
     }
 
+    /**
+     * Returns a query that selects "count" next values of the sequence in a single
+     * statement, or null if the database has no such syntax.
+     *
+     * @since 4.2
+     */
+    protected String selectNextValsQuery(String pkGeneratingSequenceName, int count) {
+        return "SELECT " + pkGeneratingSequenceName + ".nextval FROM DUAL CONNECT BY LEVEL <= " + count;
+    }
+
     protected String selectAllSequencesQuery() {
         return "SELECT LOWER(SEQUENCE_NAME) FROM ALL_SEQUENCES";
     }
@@ -162,14 +172,7 @@ public class OraclePkGenerator extends JdbcPkGenerator {
     @Override
     protected long longPkFromDatabase(DataNode node, DbEntity entity) throws Exception {
 
-        DbKeyGenerator pkGenerator = entity.getPrimaryKeyGenerator();
-        String pkGeneratingSequenceName;
-        if (pkGenerator != null && DbKeyGenerator.ORACLE_TYPE.equals(pkGenerator.getGeneratorType())
-                && pkGenerator.getGeneratorName() != null) {
-            pkGeneratingSequenceName = pkGenerator.getGeneratorName();
-        } else {
-            pkGeneratingSequenceName = sequenceName(entity);
-        }
+        String pkGeneratingSequenceName = pkGeneratingSequenceName(entity);
 
         try (Connection con = node.getDataSource().getConnection()) {
             try (Statement st = con.createStatement()) {
@@ -186,6 +189,51 @@ public class OraclePkGenerator extends JdbcPkGenerator {
         }
     }
 
+    /**
+     * Fetches "count" sequence values with a single query returned by
+     * {@link #selectNextValsQuery(String, int)}. Each value starts a range of keys.
+     *
+     * @since 4.2
+     */
+    @Override
+    protected long[] longPksFromDatabase(DataNode node, DbEntity entity, int count) throws Exception {
+
+        String sql = count > 1 ? selectNextValsQuery(pkGeneratingSequenceName(entity), count) : null;
+        if (sql == null) {
+            return super.longPksFromDatabase(node, entity, count);
+        }
+
+        long[] pks = new long[count];
+
+        try (Connection con = node.getDataSource().getConnection()) {
+            try (Statement st = con.createStatement()) {
+                adapter.getJdbcEventLogger().log(sql);
+
+                try (ResultSet rs = st.executeQuery(sql)) {
+                    for (int i = 0; i < count; i++) {
+                        if (!rs.next()) {
+                            throw new CayenneRuntimeException("Error generating pk for DbEntity %s, expected %d keys, got %d"
+                                    , entity.getName(), count, i);
+                        }
+                        pks[i] = rs.getLong(1);
+                    }
+                }
+            }
+        }
+
+        return pks;
+    }
+
+    private String pkGeneratingSequenceName(DbEntity entity) {
+        DbKeyGenerator pkGenerator = entity.getPrimaryKeyGenerator();
+        if (pkGenerator != null && DbKeyGenerator.ORACLE_TYPE.equals(pkGenerator.getGeneratorType())
+                && pkGenerator.getGeneratorName() != null) {
+            return pkGenerator.getGeneratorName();
+        } else {
+            return sequenceName(entity);
+        }
+    }
+
     protected int pkCacheSize(DbEntity entity) {
         // use custom generator if possible
         DbKeyGenerator keyGenerator = entity.getPrimaryKeyGenerator();
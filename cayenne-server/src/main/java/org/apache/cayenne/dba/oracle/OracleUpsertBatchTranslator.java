@@ -0,0 +1,62 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.dba.oracle;
+
+import java.util.List;
+
+import org.apache.cayenne.access.translator.batch.UpsertBatchTranslator;
+import org.apache.cayenne.dba.DbAdapter;
+import org.apache.cayenne.query.UpsertBatchQuery;
+
+/**
+ * Translates upsert batches into "MERGE INTO ... USING (SELECT ... FROM DUAL)" statements.
+ *
+ * @since 4.2
+ */
+class OracleUpsertBatchTranslator extends UpsertBatchTranslator {
+
+    OracleUpsertBatchTranslator(UpsertBatchQuery query, DbAdapter adapter) {
+        super(query, adapter);
+    }
+
+    @Override
+    protected String createSql(String table, List<String> columns, List<String> keyColumns,
+                               List<String> updateColumns) {
+        StringBuilder buffer = new StringBuilder("MERGE INTO ").append(table).append(" t USING (SELECT ");
+        appendList(buffer, columns, "? %s");
+        buffer.append(" FROM DUAL) s ON (");
+        appendKeyCondition(buffer, keyColumns, "t", "s");
+        buffer.append(")");
+
+        // Oracle doesn't allow updating the columns referenced in the ON clause
+        if (!updateColumns.isEmpty()) {
+            buffer.append(" WHEN MATCHED THEN UPDATE SET ");
+            appendList(buffer, updateColumns, "t.%1$s = s.%1$s");
+        }
+
+        buffer.append(" WHEN NOT MATCHED THEN INSERT (");
+        appendList(buffer, columns, "%s");
+        buffer.append(") VALUES (");
+        appendList(buffer, columns, "s.%s");
+        buffer.append(")");
+
+        return buffer.toString();
+    }
+}
@@ -32,6 +32,7 @@ import org.apache.cayenne.CayenneRuntimeException;
 import org.apache.cayenne.access.DataNode;
 import org.apache.cayenne.access.sqlbuilder.sqltree.SQLTreeProcessor;
 import org.apache.cayenne.access.translator.ParameterBinding;
+import org.apache.cayenne.access.translator.batch.UpsertBatchTranslator;
 import org.apache.cayenne.access.types.CharType;
 import org.apache.cayenne.access.types.ExtendedType;
 import org.apache.cayenne.access.types.ExtendedTypeFactory;
@@ -49,6 +50,7 @@ import org.apache.cayenne.map.DbAttribute;
 import org.apache.cayenne.map.DbEntity;
 import org.apache.cayenne.query.Query;
 import org.apache.cayenne.query.SQLAction;
+import org.apache.cayenne.query.UpsertBatchQuery;
 import org.apache.cayenne.resource.ResourceLocator;
 
 /**
@@ -277,4 +279,29 @@ public class PostgresAdapter extends JdbcAdapter {
 		return SYSTEM_SCHEMAS;
 	}
 
+	/**
+	 * @since 4.2
+	 */
+	@Override
+	public boolean supportsMultiRowInsert() {
+		return true;
+	}
+
+	/**
+	 * PostgreSQL JDBC driver sends the number of parameters as a signed 16-bit value.
+	 *
+	 * @since 4.2
+	 */
+	@Override
+	public int getMaxBindParameters() {
+		return 32767;
+	}
+
+	/**
+	 * @since 4.2
+	 */
+	@Override
+	public UpsertBatchTranslator getUpsertTranslator(UpsertBatchQuery query) {
+		return new PostgresUpsertBatchTranslator(query, this);
+	}
 }
@@ -137,4 +137,22 @@ public class SQLiteAdapter extends JdbcAdapter {
 
         super.createTableAppendPKClause(sqlBuffer, entity);
     }
+
+    /**
+     * @since 4.2
+     */
+    @Override
+    public boolean supportsMultiRowInsert() {
+        return true;
+    }
+
+    /**
+     * Default value of SQLITE_MAX_VARIABLE_NUMBER for SQLite versions prior to 3.32.0.
+     *
+     * @since 4.2
+     */
+    @Override
+    public int getMaxBindParameters() {
+        return 999;
+    }
 }
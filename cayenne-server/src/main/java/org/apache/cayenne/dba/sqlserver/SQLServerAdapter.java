@@ -24,6 +24,7 @@ import java.util.List;
 
 import org.apache.cayenne.access.DataNode;
 import org.apache.cayenne.access.sqlbuilder.sqltree.SQLTreeProcessor;
+import org.apache.cayenne.access.translator.batch.UpsertBatchTranslator;
 import org.apache.cayenne.access.types.ExtendedType;
 import org.apache.cayenne.access.types.ExtendedTypeFactory;
 import org.apache.cayenne.access.types.ValueObjectTypeRegistry;
@@ -33,6 +34,7 @@ import org.apache.cayenne.dba.sybase.SybaseAdapter;
 import org.apache.cayenne.di.Inject;
 import org.apache.cayenne.query.Query;
 import org.apache.cayenne.query.SQLAction;
+import org.apache.cayenne.query.UpsertBatchQuery;
 import org.apache.cayenne.resource.ResourceLocator;
 
 /**
@@ -127,4 +129,40 @@ public class SQLServerAdapter extends SybaseAdapter {
 		return SYSTEM_SCHEMAS;
 	}
 
+	/**
+	 * @since 4.2
+	 */
+	@Override
+	public boolean supportsMultiRowInsert() {
+		return true;
+	}
+
+	/**
+	 * SQL Server limits a single request to 2100 parameters, two of which are
+	 * taken by the driver for the RPC call itself.
+	 *
+	 * @since 4.2
+	 */
+	@Override
+	public int getMaxBindParameters() {
+		return 2098;
+	}
+
+	/**
+	 * SQL Server limits a table value constructor to 1000 rows.
+	 *
+	 * @since 4.2
+	 */
+	@Override
+	public int getMaxRowsPerInsert() {
+		return 1000;
+	}
+
+	/**
+	 * @since 4.2
+	 */
+	@Override
+	public UpsertBatchTranslator getUpsertTranslator(UpsertBatchQuery query) {
+		return new SQLServerUpsertBatchTranslator(query, this);
+	}
 }
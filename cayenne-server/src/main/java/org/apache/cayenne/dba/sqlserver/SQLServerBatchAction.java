@@ -29,6 +29,7 @@ import org.apache.cayenne.access.jdbc.BatchAction;
 import org.apache.cayenne.map.DbAttribute;
 import org.apache.cayenne.query.BatchQuery;
 import org.apache.cayenne.query.InsertBatchQuery;
+import org.apache.cayenne.query.UpsertBatchQuery;
 
 /**
  * @since 1.2
@@ -81,12 +82,15 @@ public class SQLServerBatchAction extends BatchAction {
 	 * Returns whether a table has identity columns.
 	 */
 	protected boolean expectsToOverrideIdentityColumns() {
+		// upserts always carry explicit key values
+		boolean isUpsert = query instanceof UpsertBatchQuery;
+
 		// jTDS driver supports identity columns, no need for tricks...
-		if (dataNode.getAdapter().supportsGeneratedKeys()) {
+		if (!isUpsert && dataNode.getAdapter().supportsGeneratedKeys()) {
 			return false;
 		}
 
-		if (!(query instanceof InsertBatchQuery) || query.getDbEntity() == null) {
+		if (!(query instanceof InsertBatchQuery || isUpsert) || query.getDbEntity() == null) {
 			return false;
 		}
 
@@ -76,6 +76,16 @@ public class SQLServerPkGenerator extends OraclePkGenerator {
         return "SELECT NEXT VALUE FOR " + sequenceName;
     }
 
+    /**
+     * Returns null, as sequence values are fetched one at a time.
+     *
+     * @since 4.2
+     */
+    @Override
+    protected String selectNextValsQuery(String sequenceName, int count) {
+        return null;
+    }
+
     @Override
     public List<String> createAutoPkStatements(List<DbEntity> dbEntities) {
         List<String> list = new ArrayList<>(dbEntities.size());
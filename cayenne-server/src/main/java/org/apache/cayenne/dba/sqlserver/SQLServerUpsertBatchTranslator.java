@@ -0,0 +1,67 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.dba.sqlserver;
+
+import java.util.List;
+
+import org.apache.cayenne.access.translator.batch.UpsertBatchTranslator;
+import org.apache.cayenne.dba.DbAdapter;
+import org.apache.cayenne.query.UpsertBatchQuery;
+
+/**
+ * Translates upsert batches into "MERGE INTO ... USING (VALUES ...)" statements. Target
+ * table is read with "HOLDLOCK" hint, so that concurrent upserts of the same key don't
+ * fail with a key violation.
+ *
+ * @since 4.2
+ */
+class SQLServerUpsertBatchTranslator extends UpsertBatchTranslator {
+
+    SQLServerUpsertBatchTranslator(UpsertBatchQuery query, DbAdapter adapter) {
+        super(query, adapter);
+    }
+
+    @Override
+    protected String createSql(String table, List<String> columns, List<String> keyColumns,
+                               List<String> updateColumns) {
+        StringBuilder buffer = new StringBuilder("MERGE INTO ").append(table)
+                .append(" WITH (HOLDLOCK) AS t USING (VALUES (");
+        appendList(buffer, columns, "?");
+        buffer.append(")) AS s (");
+        appendList(buffer, columns, "%s");
+        buffer.append(") ON ");
+        appendKeyCondition(buffer, keyColumns, "t", "s");
+
+        if (!updateColumns.isEmpty()) {
+            buffer.append(" WHEN MATCHED THEN UPDATE SET ");
+            appendList(buffer, updateColumns, "t.%1$s = s.%1$s");
+        }
+
+        buffer.append(" WHEN NOT MATCHED THEN INSERT (");
+        appendList(buffer, columns, "%s");
+        buffer.append(") VALUES (");
+        appendList(buffer, columns, "s.%s");
+
+        // SQL Server requires MERGE to be terminated with a semicolon
+        buffer.append(");");
+
+        return buffer.toString();
+    }
+}
@@ -0,0 +1,557 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.event;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.cayenne.DataRow;
+import org.apache.cayenne.ObjectId;
+import org.apache.cayenne.access.event.SnapshotEvent;
+
+/**
+ * An {@link EventCodec} with a compact binary encoding of {@link SnapshotEvent}s. Object
+ * ids and snapshot diffs are written field by field, with entity names and column names
+ * stored once per message and referenced by index afterwards. Values of common JDBC
+ * types are written in binary form, other values and events of other types fall back to
+ * Java serialization.
+ * <p>
+ * Source, "posted by" and timestamp of the decoded events are not transferred. A bridge
+ * assigns its own source and poster to the events it receives.
+ *
+ * @since 4.2
+ */
+public class BinaryEventCodec implements EventCodec {
+
+    static final int MAGIC = 0xCAE00001;
+
+    static final byte SERIALIZED_EVENT = 0;
+    static final byte SNAPSHOT_EVENT = 1;
+
+    static final byte NULL = 0;
+    static final byte STRING = 1;
+    static final byte INTEGER = 2;
+    static final byte LONG = 3;
+    static final byte SHORT = 4;
+    static final byte BYTE = 5;
+    static final byte TRUE = 6;
+    static final byte FALSE = 7;
+    static final byte DOUBLE = 8;
+    static final byte FLOAT = 9;
+    static final byte BIG_DECIMAL = 10;
+    static final byte BIG_INTEGER = 11;
+    static final byte BYTES = 12;
+    static final byte CHARACTER = 13;
+    static final byte UTIL_DATE = 14;
+    static final byte SQL_DATE = 15;
+    static final byte SQL_TIME = 16;
+    static final byte SQL_TIMESTAMP = 17;
+    static final byte SERIALIZED = 18;
+
+    @Override
+    public byte[] encode(List<? extends CayenneEvent> events) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        Encoder encoder = new Encoder(new DataOutputStream(bytes));
+
+        encoder.out.writeInt(MAGIC);
+        encoder.writeSize(events.size());
+        for (CayenneEvent event : events) {
+            encoder.writeEvent(event);
+        }
+
+        encoder.out.flush();
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public List<CayenneEvent> decode(byte[] message) throws IOException {
+        Decoder decoder = new Decoder(new DataInputStream(new ByteArrayInputStream(message)));
+
+        if (decoder.in.readInt() != MAGIC) {
+            throw new IOException("Not a binary event message");
+        }
+
+        int size = decoder.readSize();
+        List<CayenneEvent> events = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            events.add(decoder.readEvent());
+        }
+
+        return events;
+    }
+
+    static boolean isPermanent(Collection<ObjectId> ids) {
+        for (ObjectId id : ids) {
+            if (id.isTemporary()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    static byte[] serialize(Object object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    static Object deserialize(byte[] data) throws IOException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            return in.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Invalid event message", e);
+        }
+    }
+
+    /**
+     * Writes a value in the binary format used by this codec.
+     */
+    public static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof String) {
+            out.writeByte(STRING);
+            writeString(out, (String) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Short) {
+            out.writeByte(SHORT);
+            out.writeShort((Short) value);
+        } else if (value instanceof Byte) {
+            out.writeByte(BYTE);
+            out.writeByte((Byte) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte((Boolean) value ? TRUE : FALSE);
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Float) {
+            out.writeByte(FLOAT);
+            out.writeFloat((Float) value);
+        } else if (value.getClass() == BigDecimal.class) {
+            BigDecimal decimal = (BigDecimal) value;
+            out.writeByte(BIG_DECIMAL);
+            out.writeInt(decimal.scale());
+            writeBytes(out, decimal.unscaledValue().toByteArray());
+        } else if (value.getClass() == BigInteger.class) {
+            out.writeByte(BIG_INTEGER);
+            writeBytes(out, ((BigInteger) value).toByteArray());
+        } else if (value instanceof byte[]) {
+            out.writeByte(BYTES);
+            writeBytes(out, (byte[]) value);
+        } else if (value instanceof Character) {
+            out.writeByte(CHARACTER);
+            out.writeChar((Character) value);
+        } else if (value.getClass() == java.util.Date.class) {
+            out.writeByte(UTIL_DATE);
+            out.writeLong(((java.util.Date) value).getTime());
+        } else if (value.getClass() == java.sql.Date.class) {
+            out.writeByte(SQL_DATE);
+            out.writeLong(((java.sql.Date) value).getTime());
+        } else if (value.getClass() == java.sql.Time.class) {
+            out.writeByte(SQL_TIME);
+            out.writeLong(((java.sql.Time) value).getTime());
+        } else if (value.getClass() == java.sql.Timestamp.class) {
+            java.sql.Timestamp timestamp = (java.sql.Timestamp) value;
+            out.writeByte(SQL_TIMESTAMP);
+            out.writeLong(timestamp.getTime());
+            out.writeInt(timestamp.getNanos());
+        } else if (value instanceof Serializable) {
+            out.writeByte(SERIALIZED);
+            writeBytes(out, serialize(value));
+        } else {
+            throw new IOException("Can't encode value of type " + value.getClass().getName());
+        }
+    }
+
+    static void writeString(DataOutputStream out, String string) throws IOException {
+        writeBytes(out, string.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        writeSize(out, bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Writes an unsigned variable length int.
+     */
+    public static void writeSize(DataOutputStream out, int size) throws IOException {
+        // unsigned variable length int, 7 bits per byte
+        while ((size & ~0x7F) != 0) {
+            out.writeByte((size & 0x7F) | 0x80);
+            size >>>= 7;
+        }
+
+        out.writeByte(size);
+    }
+
+    /**
+     * Reads a value written by {@link #writeValue(DataOutputStream, Object)}.
+     */
+    public static Object readValue(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case NULL:
+                return null;
+            case STRING:
+                return readString(in);
+            case INTEGER:
+                return in.readInt();
+            case LONG:
+                return in.readLong();
+            case SHORT:
+                return in.readShort();
+            case BYTE:
+                return in.readByte();
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            case DOUBLE:
+                return in.readDouble();
+            case FLOAT:
+                return in.readFloat();
+            case BIG_DECIMAL:
+                int scale = in.readInt();
+                return new BigDecimal(new BigInteger(readBytes(in)), scale);
+            case BIG_INTEGER:
+                return new BigInteger(readBytes(in));
+            case BYTES:
+                return readBytes(in);
+            case CHARACTER:
+                return in.readChar();
+            case UTIL_DATE:
+                return new java.util.Date(in.readLong());
+            case SQL_DATE:
+                return new java.sql.Date(in.readLong());
+            case SQL_TIME:
+                return new java.sql.Time(in.readLong());
+            case SQL_TIMESTAMP:
+                java.sql.Timestamp timestamp = new java.sql.Timestamp(in.readLong());
+                timestamp.setNanos(in.readInt());
+                return timestamp;
+            case SERIALIZED:
+                return deserialize(readBytes(in));
+            default:
+                throw new IOException("Unknown value type: " + type);
+        }
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        return new String(readBytes(in), StandardCharsets.UTF_8);
+    }
+
+    static byte[] readBytes(DataInputStream in) throws IOException {
+        int size = readSize(in);
+        if (size > in.available()) {
+            throw new IOException("Truncated event message");
+        }
+
+        byte[] bytes = new byte[size];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    /**
+     * Reads an unsigned variable length int written by {@link #writeSize(DataOutputStream, int)}.
+     */
+    public static int readSize(DataInputStream in) throws IOException {
+        int size = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            size |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return size;
+            }
+        }
+
+        throw new IOException("Malformed size value");
+    }
+
+    static class Encoder {
+
+        final DataOutputStream out;
+        final Map<String, Integer> names;
+
+        Encoder(DataOutputStream out) {
+            this.out = out;
+            this.names = new HashMap<>();
+        }
+
+        void writeEvent(CayenneEvent event) throws IOException {
+            if (event instanceof SnapshotEvent && event.getClass() == SnapshotEvent.class) {
+                SnapshotEvent snapshotEvent = (SnapshotEvent) event;
+
+                // temporary ids never leave the VM; if one is somehow present, fall back to
+                // serialization that is able to preserve it
+                if (isPermanent(snapshotEvent.getModifiedDiffs().keySet())
+                        && isPermanent(snapshotEvent.getDeletedIds())
+                        && isPermanent(snapshotEvent.getInvalidatedIds())
+                        && isPermanent(snapshotEvent.getIndirectlyModifiedIds())) {
+                    out.writeByte(SNAPSHOT_EVENT);
+                    writeSnapshotEvent(snapshotEvent);
+                    return;
+                }
+            }
+
+            out.writeByte(SERIALIZED_EVENT);
+            writeBytes(serialize(event));
+        }
+
+        void writeSnapshotEvent(SnapshotEvent event) throws IOException {
+            EventSubject subject = event.getSubject();
+            writeName(subject != null ? subject.getSubjectName() : null);
+
+            Map<ObjectId, DataRow> diffs = event.getModifiedDiffs();
+            writeSize(diffs.size());
+            for (Map.Entry<ObjectId, DataRow> entry : diffs.entrySet()) {
+                writeObjectId(entry.getKey());
+                writeDataRow(entry.getValue());
+            }
+
+            writeObjectIds(event.getDeletedIds());
+            writeObjectIds(event.getInvalidatedIds());
+            writeObjectIds(event.getIndirectlyModifiedIds());
+        }
+
+        void writeObjectIds(Collection<ObjectId> ids) throws IOException {
+            writeSize(ids.size());
+            for (ObjectId id : ids) {
+                writeObjectId(id);
+            }
+        }
+
+        void writeObjectId(ObjectId id) throws IOException {
+            writeName(id.getEntityName());
+            writeValues(id.getIdSnapshot());
+        }
+
+        void writeDataRow(DataRow row) throws IOException {
+            writeName(row.getEntityName());
+            out.writeLong(row.getReplacesVersion());
+            writeValues(row);
+        }
+
+        void writeValues(Map<String, Object> values) throws IOException {
+            writeSize(values.size());
+            for (Map.Entry<String, Object> entry : values.entrySet()) {
+                writeName(entry.getKey());
+                writeValue(entry.getValue());
+            }
+        }
+
+        void writeValue(Object value) throws IOException {
+            BinaryEventCodec.writeValue(out, value);
+        }
+
+        /**
+         * Writes a string that is likely to repeat in the message, such as entity or
+         * column name. Each such string is written once and referenced by index later.
+         */
+        void writeName(String name) throws IOException {
+            if (name == null) {
+                writeSize(0);
+                return;
+            }
+
+            Integer index = names.get(name);
+            if (index != null) {
+                writeSize(index);
+            } else {
+                names.put(name, names.size() + 2);
+                writeSize(1);
+                writeString(name);
+            }
+        }
+
+        void writeString(String string) throws IOException {
+            BinaryEventCodec.writeString(out, string);
+        }
+
+        void writeBytes(byte[] bytes) throws IOException {
+            BinaryEventCodec.writeBytes(out, bytes);
+        }
+
+        void writeSize(int size) throws IOException {
+            BinaryEventCodec.writeSize(out, size);
+        }
+    }
+
+    static class Decoder {
+
+        final DataInputStream in;
+        final List<String> names;
+
+        Decoder(DataInputStream in) {
+            this.in = in;
+            this.names = new ArrayList<>();
+        }
+
+        CayenneEvent readEvent() throws IOException {
+            byte type = in.readByte();
+            switch (type) {
+                case SNAPSHOT_EVENT:
+                    return readSnapshotEvent();
+                case SERIALIZED_EVENT:
+                    return (CayenneEvent) deserialize(readBytes());
+                default:
+                    throw new IOException("Unknown event type: " + type);
+            }
+        }
+
+        SnapshotEvent readSnapshotEvent() throws IOException {
+            String subjectName = readName();
+
+            int size = readSize();
+            Map<ObjectId, DataRow> diffs = null;
+            if (size > 0) {
+                diffs = new HashMap<>((int) Math.ceil(size / 0.75));
+                for (int i = 0; i < size; i++) {
+                    ObjectId id = readObjectId();
+                    diffs.put(id, readDataRow());
+                }
+            }
+
+            Collection<ObjectId> deletedIds = readObjectIds();
+            Collection<ObjectId> invalidatedIds = readObjectIds();
+            Collection<ObjectId> indirectlyModifiedIds = readObjectIds();
+
+            // source can't be null, it is replaced by the bridge when the event is posted
+            SnapshotEvent event = new SnapshotEvent(
+                    BinaryEventCodec.class,
+                    null,
+                    diffs,
+                    deletedIds,
+                    invalidatedIds,
+                    indirectlyModifiedIds);
+
+            if (subjectName != null) {
+                event.setSubject(new EventSubject(subjectName));
+            }
+
+            return event;
+        }
+
+        Collection<ObjectId> readObjectIds() throws IOException {
+            int size = readSize();
+            if (size == 0) {
+                return null;
+            }
+
+            List<ObjectId> ids = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                ids.add(readObjectId());
+            }
+
+            return ids;
+        }
+
+        ObjectId readObjectId() throws IOException {
+            String entityName = readName();
+            int size = readSize();
+
+            if (size == 1) {
+                String key = readName();
+                return ObjectId.of(entityName, key, readValue());
+            }
+
+            Map<String, Object> values = new HashMap<>((int) Math.ceil(size / 0.75));
+            for (int i = 0; i < size; i++) {
+                String key = readName();
+                values.put(key, readValue());
+            }
+
+            return ObjectId.of(entityName, values);
+        }
+
+        DataRow readDataRow() throws IOException {
+            String entityName = readName();
+            long replacesVersion = in.readLong();
+            int size = readSize();
+
+            DataRow row = new DataRow((int) Math.ceil(size / 0.75));
+            row.setEntityName(entityName);
+            row.setReplacesVersion(replacesVersion);
+            for (int i = 0; i < size; i++) {
+                String key = readName();
+                row.put(key, readValue());
+            }
+
+            return row;
+        }
+
+        Object readValue() throws IOException {
+            return BinaryEventCodec.readValue(in);
+        }
+
+        String readName() throws IOException {
+            int index = readSize();
+            if (index == 0) {
+                return null;
+            }
+
+            if (index == 1) {
+                String name = readString();
+                names.add(name);
+                return name;
+            }
+
+            if (index - 2 >= names.size()) {
+                throw new IOException("Invalid name reference: " + index);
+            }
+
+            return names.get(index - 2);
+        }
+
+        String readString() throws IOException {
+            return BinaryEventCodec.readString(in);
+        }
+
+        byte[] readBytes() throws IOException {
+            return BinaryEventCodec.readBytes(in);
+        }
+
+        int readSize() throws IOException {
+            return BinaryEventCodec.readSize(in);
+        }
+    }
+}
@@ -29,7 +29,7 @@ import java.util.Map;
  * optional event information.
  * 
  */
-public class CayenneEvent extends EventObject {
+public class CayenneEvent extends EventObject implements Cloneable {
 
     protected Map info;
     protected transient Object postedBy;
@@ -91,4 +91,20 @@ public class CayenneEvent extends EventObject {
     public void setPostedBy(Object postedBy) {
         this.postedBy = postedBy;
     }
+
+    /**
+     * Creates a shallow copy of this event. The copy shares event data with the original,
+     * and can be used to repost the same event with a different subject.
+     *
+     * @since 4.2
+     */
+    @Override
+    protected CayenneEvent clone() {
+        try {
+            return (CayenneEvent) super.clone();
+        } catch (CloneNotSupportedException e) {
+            // never happens, the class is Cloneable
+            throw new IllegalStateException(e);
+        }
+    }
 }
@@ -19,13 +19,18 @@
 
 package org.apache.cayenne.event;
 
-import org.apache.cayenne.util.Util;
+import org.apache.cayenne.CayenneRuntimeException;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EventListener;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * <p>An object that passes events between a local EventManager and some other event dispatch
@@ -60,6 +65,22 @@ public abstract class EventBridge implements EventListener {
     public static final int RECEIVE_EXTERNAL = 2;
     public static final int RECEIVE_LOCAL_EXTERNAL = 3;
 
+    /**
+     * Defines a property for the fully qualified class name of an {@link EventCodec} used
+     * to encode external messages. If not set, events are sent as serialized objects.
+     *
+     * @since 4.2
+     */
+    public static final String EVENT_CODEC_PROPERTY = "cayenne.EventBridge.codec";
+
+    /**
+     * Defines a property for the coalescing window in milliseconds. Local events received
+     * within the window are sent together in a single external message.
+     *
+     * @since 4.2
+     */
+    public static final String COALESCING_WINDOW_PROPERTY = "cayenne.EventBridge.coalescing.window";
+
     protected String externalSubject;
     protected Collection<EventSubject> localSubjects;
     protected EventManager eventManager;
@@ -67,9 +88,24 @@ public abstract class EventBridge implements EventListener {
 
     protected Object externalEventSource;
 
+    /**
+     * @since 4.2
+     */
+    protected EventCodec eventCodec;
+
+    /**
+     * @since 4.2
+     */
+    protected long coalescingWindow;
+
     // keeps all listeners so that they are not deallocated
     Collection<SubjectListener> listeners;
 
+    // events waiting to be sent at the end of the coalescing window
+    final Object pendingEventsLock = new Object();
+    List<CayenneEvent> pendingEvents;
+    ScheduledThreadPoolExecutor coalescingExecutor;
+
     /**
      * A utility method that performs consistent translation from an EventSubject to a
      * String that can be used by external transport as subject for distributed
@@ -104,6 +140,41 @@ public abstract class EventBridge implements EventListener {
         this.externalSubject = externalSubject;
     }
 
+    /**
+     * Creates an EventBridge with multiple local subjects and a single external subject,
+     * configuring event codec and coalescing window from the properties map.
+     *
+     * @see #EVENT_CODEC_PROPERTY
+     * @see #COALESCING_WINDOW_PROPERTY
+     * @since 4.2
+     */
+    public EventBridge(Collection<EventSubject> localSubjects, String externalSubject, Map<String, String> properties) {
+        this(localSubjects, externalSubject);
+
+        String codec = properties.get(EVENT_CODEC_PROPERTY);
+        if (codec != null) {
+            this.eventCodec = createEventCodec(codec);
+        }
+
+        String window = properties.get(COALESCING_WINDOW_PROPERTY);
+        if (window != null) {
+            this.coalescingWindow = Long.parseLong(window.trim());
+        }
+    }
+
+    private static EventCodec createEventCodec(String className) {
+        try {
+            ClassLoader loader = Thread.currentThread().getContextClassLoader();
+            if (loader == null) {
+                loader = EventBridge.class.getClassLoader();
+            }
+
+            return (EventCodec) Class.forName(className, true, loader).getDeclaredConstructor().newInstance();
+        } catch (Exception e) {
+            throw new CayenneRuntimeException("Error creating event codec '%s'", e, className);
+        }
+    }
+
     /**
      * Returns a String subject used to post distributed events.
      */
@@ -150,6 +221,43 @@ public abstract class EventBridge implements EventListener {
         return externalEventSource != null ? externalEventSource : this;
     }
 
+    /**
+     * Returns an EventCodec used to encode external messages. Null means that events are
+     * sent as serialized objects.
+     *
+     * @since 4.2
+     */
+    public EventCodec getEventCodec() {
+        return eventCodec;
+    }
+
+    /**
+     * @since 4.2
+     */
+    public void setEventCodec(EventCodec eventCodec) {
+        this.eventCodec = eventCodec;
+    }
+
+    /**
+     * Returns the time in milliseconds during which local events are collected before
+     * being sent as a single external message. Zero or negative value means that each
+     * event is sent immediately.
+     *
+     * @since 4.2
+     */
+    public long getCoalescingWindow() {
+        return coalescingWindow;
+    }
+
+    /**
+     * Sets the coalescing window in milliseconds. Takes effect on the next startup.
+     *
+     * @since 4.2
+     */
+    public void setCoalescingWindow(long coalescingWindow) {
+        this.coalescingWindow = coalescingWindow;
+    }
+
     /**
      * Returns true if the bridge is configured to receive local events from its internal
      * EventManager.
@@ -227,6 +335,16 @@ public abstract class EventBridge implements EventListener {
 
         if (receivesLocalEvents() && !localSubjects.isEmpty()) {
 
+            if (coalescingWindow > 0) {
+                coalescingExecutor = new ScheduledThreadPoolExecutor(1, r -> {
+                    Thread thread = new Thread(r, "cayenne-eventbridge-" + externalSubject);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                coalescingExecutor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+                pendingEvents = null;
+            }
+
             listeners = new ArrayList<>(localSubjects.size());
 
             for (EventSubject subject : localSubjects) {
@@ -267,6 +385,15 @@ public abstract class EventBridge implements EventListener {
             listeners = null;
         }
 
+        if (coalescingExecutor != null) {
+            coalescingExecutor.shutdown();
+            coalescingExecutor.awaitTermination(1, TimeUnit.SECONDS);
+            coalescingExecutor = null;
+
+            // send whatever is left before closing the transport
+            flushExternalEvents();
+        }
+
         shutdownExternal();
     }
 
@@ -310,6 +437,59 @@ public abstract class EventBridge implements EventListener {
      */
     protected abstract void sendExternalEvent(CayenneEvent localEvent) throws Exception;
 
+    /**
+     * Sends a list of Cayenne events collected during the coalescing window over the
+     * transport supported by this bridge. Default implementation sends events one by one,
+     * subclasses may override it to send all events in a single message.
+     *
+     * @since 4.2
+     */
+    protected void sendExternalEvents(List<CayenneEvent> localEvents) throws Exception {
+        for (CayenneEvent event : localEvents) {
+            sendExternalEvent(event);
+        }
+    }
+
+    void queueExternalEvent(ScheduledThreadPoolExecutor executor, CayenneEvent event) throws Exception {
+        synchronized (pendingEventsLock) {
+            if (pendingEvents != null) {
+                pendingEvents.add(event);
+                return;
+            }
+
+            try {
+                executor.schedule(() -> {
+                    try {
+                        flushExternalEvents();
+                    } catch (Exception e) {
+                        // ignoring exception, same as event manager does for failed dispatches
+                    }
+                }, coalescingWindow, TimeUnit.MILLISECONDS);
+
+                pendingEvents = new ArrayList<>();
+                pendingEvents.add(event);
+                return;
+            } catch (RejectedExecutionException e) {
+                // the bridge was shut down after the event was received, nothing would flush
+                // the queue anymore, so send the event right away
+            }
+        }
+
+        sendExternalEvent(event);
+    }
+
+    void flushExternalEvents() throws Exception {
+        List<CayenneEvent> events;
+        synchronized (pendingEventsLock) {
+            events = pendingEvents;
+            pendingEvents = null;
+        }
+
+        if (events != null) {
+            sendExternalEvents(events);
+        }
+    }
+
     final class SubjectListener {
 
         EventSubject subject;
@@ -324,18 +504,20 @@ public abstract class EventBridge implements EventListener {
             if (event.getSource() != getExternalEventSource()
                     && event.getPostedBy() != EventBridge.this) {
 
-                // make sure external event has the right subject, if not make a clone
+                // make sure external event has the right subject, if not make a copy
                 // with the right one...
                 if (!subject.equals(event.getSubject())) {
-                    CayenneEvent clone = (CayenneEvent) Util.cloneViaSerialization(event);
-                    clone.setSubject(subject);
-                    clone.setPostedBy(event.getPostedBy());
-                    clone.setSource(event.getSource());
-
-                    event = clone;
+                    CayenneEvent copy = event.clone();
+                    copy.setSubject(subject);
+                    event = copy;
                 }
 
-                sendExternalEvent(event);
+                ScheduledThreadPoolExecutor executor = coalescingExecutor;
+                if (executor != null) {
+                    queueExternalEvent(executor, event);
+                } else {
+                    sendExternalEvent(event);
+                }
             }
         }
     }
@@ -0,0 +1,43 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.event;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Converts {@link CayenneEvent} instances to and from a binary message sent by an
+ * {@link EventBridge} over its external transport. A single message may carry multiple
+ * events, so that a bridge can coalesce events posted within a short period of time.
+ *
+ * @since 4.2
+ */
+public interface EventCodec {
+
+    /**
+     * Encodes a list of events into a single message.
+     */
+    byte[] encode(List<? extends CayenneEvent> events) throws IOException;
+
+    /**
+     * Decodes a message created by {@link #encode(List)} into a list of events, preserving
+     * their order.
+     */
+    List<CayenneEvent> decode(byte[] message) throws IOException;
+}
@@ -0,0 +1,65 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.event;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An {@link EventCodec} that relies on standard Java serialization of events. Supports
+ * any serializable event and can be used to coalesce events when a more compact
+ * encoding is not needed.
+ *
+ * @since 4.2
+ */
+public class SerializationEventCodec implements EventCodec {
+
+    @Override
+    public byte[] encode(List<? extends CayenneEvent> events) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeInt(events.size());
+            for (CayenneEvent event : events) {
+                out.writeObject(event);
+            }
+        }
+
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public List<CayenneEvent> decode(byte[] message) throws IOException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(message))) {
+            int size = in.readInt();
+            List<CayenneEvent> events = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                events.add((CayenneEvent) in.readObject());
+            }
+
+            return events;
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Invalid event message", e);
+        }
+    }
+}
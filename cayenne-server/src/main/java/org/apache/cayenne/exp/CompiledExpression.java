@@ -0,0 +1,83 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.exp;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.apache.cayenne.util.ConversionUtil;
+
+/**
+ * An {@link Expression} prepared for repeated in-memory evaluation, created via
+ * {@link Expression#compile(Class)}. Evaluation results are the same as those of the source
+ * expression. Changes made to the source expression after compilation are not reflected in the
+ * compiled one. Instances are thread-safe.
+ *
+ * @since 4.2
+ */
+@FunctionalInterface
+public interface CompiledExpression extends Predicate<Object> {
+
+    /**
+     * Calculates expression value with object as a context for path expressions.
+     */
+    Object evaluate(Object o);
+
+    /**
+     * Calculates expression boolean value with object as a context for path expressions.
+     */
+    default boolean match(Object o) {
+        return ConversionUtil.toBoolean(evaluate(o));
+    }
+
+    @Override
+    default boolean test(Object o) {
+        return match(o);
+    }
+
+    /**
+     * Returns the first object in the list that matches the expression.
+     */
+    default <T> T first(List<T> objects) {
+        for (T o : objects) {
+            if (match(o)) {
+                return o;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns a new list of objects that match the expression.
+     */
+    default <T> List<T> filterObjects(Collection<T> objects) {
+        List<T> result = new ArrayList<>();
+        if (objects != null) {
+            for (T o : objects) {
+                if (match(o)) {
+                    result.add(o);
+                }
+            }
+        }
+        return result;
+    }
+}
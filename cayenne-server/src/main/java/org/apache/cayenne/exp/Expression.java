@@ -467,6 +467,18 @@ public abstract class Expression implements Serializable, XMLSerializable {
 		return ConversionUtil.toBoolean(evaluate(o));
 	}
 
+	/**
+	 * Prepares this expression for repeated in-memory evaluation against
+	 * objects of the given type. Use it instead of {@link #match(Object)} or
+	 * {@link #filterObjects(Collection)} when the same expression is applied to
+	 * many objects.
+	 * 
+	 * @since 4.2
+	 */
+	public CompiledExpression compile(Class<?> rootType) {
+		return this::evaluate;
+	}
+
 	/**
 	 * Returns the first object in the list that matches the expression.
 	 * 
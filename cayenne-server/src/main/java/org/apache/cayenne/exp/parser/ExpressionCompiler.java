@@ -0,0 +1,322 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.exp.parser;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import org.apache.cayenne.DataObject;
+import org.apache.cayenne.exp.CompiledExpression;
+import org.apache.cayenne.exp.ExpressionException;
+import org.apache.cayenne.map.Entity;
+import org.apache.cayenne.reflect.PropertyUtils;
+import org.apache.cayenne.util.ConversionUtil;
+import org.apache.cayenne.util.Util;
+
+/**
+ * Compiles an expression tree to a chain of lambdas. Boolean operators, conditions and object
+ * paths are compiled, so that no tree traversal, path parsing or reflective calls happen during
+ * evaluation. Other nodes (functions, arithmetic, DB paths, etc.) are evaluated by the nodes
+ * themselves.
+ *
+ * @since 4.2
+ */
+class ExpressionCompiler {
+
+	interface Evaluator {
+		Object evaluate(Object o) throws Exception;
+	}
+
+	interface SubNodeEvaluator {
+		Boolean evaluate(Object o, Object[] evaluatedChildren) throws Exception;
+	}
+
+	private final Class<?> rootType;
+
+	ExpressionCompiler(Class<?> rootType) {
+		this.rootType = rootType;
+	}
+
+	CompiledExpression compile(SimpleNode node) {
+		Evaluator evaluator = compileNode(node);
+		return o -> {
+			// same exception processing as in SimpleNode.evaluate()
+			try {
+				return evaluator.evaluate(o);
+			} catch (Throwable th) {
+				String string = node.toString();
+				throw new ExpressionException("Error evaluating expression '%s'", string,
+						Util.unwindException(th), string);
+			}
+		};
+	}
+
+	Evaluator compileNode(Node node) {
+		if (node == null) {
+			return o -> null;
+		}
+
+		Class<?> type = node.getClass();
+		if (type == ASTScalar.class || type == ASTList.class) {
+			Object value = ((SimpleNode) node).evaluate(null);
+			return o -> value;
+		}
+
+		if (type == ASTObjPath.class) {
+			return compilePath((ASTObjPath) node);
+		}
+
+		if (type == ASTAnd.class) {
+			return compileAnd((ASTAnd) node);
+		}
+
+		if (type == ASTOr.class) {
+			return compileOr((ASTOr) node);
+		}
+
+		if (type == ASTNot.class) {
+			return compileNot((ASTNot) node);
+		}
+
+		if (node instanceof ConditionNode) {
+			return compileCondition((ConditionNode) node);
+		}
+
+		return ((SimpleNode) node)::evaluate;
+	}
+
+	Evaluator[] compileChildren(SimpleNode node) {
+		int len = node.jjtGetNumChildren();
+		Evaluator[] children = new Evaluator[len];
+		for (int i = 0; i < len; i++) {
+			children[i] = compileNode(node.jjtGetChild(i));
+		}
+		return children;
+	}
+
+	Evaluator compileAnd(ASTAnd node) {
+		Evaluator[] children = compileChildren(node);
+		if (children.length == 0) {
+			return o -> Boolean.FALSE;
+		}
+
+		return o -> {
+			boolean unknown = false;
+			for (Evaluator child : children) {
+				Object value = child.evaluate(o);
+				if (value == null) {
+					unknown = true;
+				} else if (!ConversionUtil.toBoolean(value)) {
+					return Boolean.FALSE;
+				}
+			}
+			return unknown ? null : Boolean.TRUE;
+		};
+	}
+
+	Evaluator compileOr(ASTOr node) {
+		Evaluator[] children = compileChildren(node);
+		if (children.length == 0) {
+			return o -> Boolean.FALSE;
+		}
+
+		return o -> {
+			boolean unknown = false;
+			for (Evaluator child : children) {
+				Object value = child.evaluate(o);
+				if (value == null) {
+					unknown = true;
+				} else if (ConversionUtil.toBoolean(value)) {
+					return Boolean.TRUE;
+				}
+			}
+			return unknown ? null : Boolean.FALSE;
+		};
+	}
+
+	Evaluator compileNot(ASTNot node) {
+		if (node.jjtGetNumChildren() == 0) {
+			return o -> Boolean.FALSE;
+		}
+
+		Evaluator child = compileNode(node.jjtGetChild(0));
+		return o -> {
+			Object value = child.evaluate(o);
+			if (value == null) {
+				return null;
+			}
+			return ConversionUtil.toBoolean(value) ? Boolean.FALSE : Boolean.TRUE;
+		};
+	}
+
+	/**
+	 * Same logic as ConditionNode.evaluateNode(), but with compiled children.
+	 */
+	@SuppressWarnings("rawtypes")
+	Evaluator compileCondition(ConditionNode node) {
+		int requiredLen = node.getRequiredChildrenCount();
+		if (node.jjtGetNumChildren() != requiredLen) {
+			return o -> Boolean.FALSE;
+		}
+
+		if (requiredLen == 0) {
+			return o -> node.evaluateSubNode(null, null);
+		}
+
+		Evaluator[] children = compileChildren(node);
+		SubNodeEvaluator subNode = compileSubNode(node);
+
+		return o -> {
+			Object[] evaluatedChildren = new Object[requiredLen];
+			for (int i = 0; i < requiredLen; i++) {
+				evaluatedChildren[i] = children[i].evaluate(o);
+			}
+
+			Object firstChild = evaluatedChildren[0];
+			if (firstChild instanceof Map) {
+				firstChild = ((Map) firstChild).values();
+			}
+
+			if (firstChild instanceof Collection) {
+				for (Object c : (Collection) firstChild) {
+					if (subNode.evaluate(c, evaluatedChildren) == Boolean.TRUE) {
+						return Boolean.TRUE;
+					}
+				}
+				return Boolean.FALSE;
+			}
+
+			return subNode.evaluate(firstChild, evaluatedChildren);
+		};
+	}
+
+	SubNodeEvaluator compileSubNode(ConditionNode node) {
+
+		Class<?> type = node.getClass();
+		boolean like = type == ASTLike.class || type == ASTLikeIgnoreCase.class;
+		boolean notLike = type == ASTNotLike.class || type == ASTNotLikeIgnoreCase.class;
+
+		if (like || notLike) {
+			// resolve the pattern once instead of checking it on every match
+			Pattern pattern = ((PatternMatchNode) node).getPattern();
+			if (pattern != null) {
+				return (o, evaluatedChildren) -> {
+					String string = ConversionUtil.toString(o);
+					if (string == null) {
+						return Boolean.FALSE;
+					}
+					return pattern.matcher(string).find() == like ? Boolean.TRUE : Boolean.FALSE;
+				};
+			}
+		}
+
+		return node::evaluateSubNode;
+	}
+
+	Evaluator compilePath(ASTObjPath node) {
+		String path = node.getPath();
+		if (path == null || path.isEmpty() || path.startsWith(".") || path.endsWith(".") || path.contains("..")) {
+			// let the node report invalid path
+			return node::evaluate;
+		}
+
+		String[] names = path.split("\\.");
+		PathSegment[] segments = new PathSegment[names.length];
+		for (int i = 0; i < names.length; i++) {
+			segments[i] = new PathSegment(names[i]);
+		}
+
+		// pre-bind the first segment to the root type, if it is readable
+		if (rootType != null && !DataObject.class.isAssignableFrom(rootType)) {
+			try {
+				segments[0].getter(rootType);
+			} catch (IllegalArgumentException e) {
+				// the property may be declared in a subclass, resolve lazily
+			}
+		}
+
+		return o -> {
+			// same as ASTObjPath.evaluateNode()
+			if (o instanceof DataObject) {
+				return ((DataObject) o).readNestedProperty(path);
+			}
+
+			if (o instanceof Entity) {
+				return node.evaluate(o);
+			}
+
+			Object value = o;
+			for (PathSegment segment : segments) {
+				if (value == null) {
+					return null;
+				}
+				value = segment.read(value);
+			}
+			return value;
+		};
+	}
+
+	/**
+	 * A path segment reader that remembers getters for each class it sees, keeping the last
+	 * one handy, as most collections are of a single type.
+	 */
+	static final class PathSegment {
+
+		private final String name;
+		private final ConcurrentMap<Class<?>, Function<Object, Object>> getters;
+		private Binding lastBinding;
+
+		PathSegment(String name) {
+			// trim outer join component, same as PropertyUtils does
+			this.name = name.endsWith(Entity.OUTER_JOIN_INDICATOR)
+					? name.substring(0, name.length() - 1)
+					: name;
+			this.getters = new ConcurrentHashMap<>(4);
+		}
+
+		Object read(Object object) {
+			Class<?> type = object.getClass();
+			Binding binding = lastBinding;
+			if (binding == null || binding.type != type) {
+				binding = new Binding(type, getter(type));
+				lastBinding = binding;
+			}
+			return binding.getter.apply(object);
+		}
+
+		Function<Object, Object> getter(Class<?> type) {
+			return getters.computeIfAbsent(type, t -> PropertyUtils.getter(t, name));
+		}
+	}
+
+	static final class Binding {
+
+		final Class<?> type;
+		final Function<Object, Object> getter;
+
+		Binding(Class<?> type, Function<Object, Object> getter) {
+			this.type = type;
+			this.getter = getter;
+		}
+	}
+}
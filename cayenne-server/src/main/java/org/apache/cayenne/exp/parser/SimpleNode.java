@@ -30,6 +30,7 @@ import java.util.Map;
 import org.apache.cayenne.CayenneRuntimeException;
 import org.apache.cayenne.ObjectId;
 import org.apache.cayenne.Persistent;
+import org.apache.cayenne.exp.CompiledExpression;
 import org.apache.cayenne.exp.Expression;
 import org.apache.cayenne.exp.ExpressionException;
 import org.apache.cayenne.util.Util;
@@ -409,6 +410,14 @@ public abstract class SimpleNode extends Expression implements Node {
 		}
 	}
 
+	/**
+	 * @since 4.2
+	 */
+	@Override
+	public CompiledExpression compile(Class<?> rootType) {
+		return new ExpressionCompiler(rootType).compile(this);
+	}
+
 	/**
 	 * @since 4.0
 	 */
@@ -22,6 +22,8 @@ package org.apache.cayenne.query;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.apache.cayenne.CayenneRuntimeException;
 import org.apache.cayenne.ObjectContext;
@@ -180,6 +182,34 @@ public abstract class FluentSelect<T> extends AbstractQuery implements Select<T>
         return context.batchIterator(this, size);
     }
 
+    /**
+     * Returns a stream over the query result, backed by an open {@link ResultIterator}. The stream holds
+     * a DB connection (and a transaction, if one was started for this query), so it must be explicitly
+     * closed, normally with a "try-with-resources" block. It is also closed once fully consumed.
+     * Use {@link ObjectSelect#statementFetchSize(int)} to control how many rows the driver fetches at once.
+     *
+     * @since 4.2
+     */
+    public Stream<T> stream(ObjectContext context) {
+        return stream(context, 0);
+    }
+
+    /**
+     * Returns a stream over the query result, same as {@link #stream(ObjectContext)}, but additionally
+     * unregisters consumed objects from the {@link org.apache.cayenne.access.DataContext} every
+     * "unregisterBatchSize" rows, so that the context memory stays constant for the large results. Only
+     * unmodified objects returned by the query are unregistered, so they should not be used after the stream
+     * moves past them. Objects resolved via prefetches or relationships stay registered.
+     *
+     * @param unregisterBatchSize number of consumed rows between unregistering objects, 0 to never unregister
+     * @since 4.2
+     */
+    public Stream<T> stream(ObjectContext context, int unregisterBatchSize) {
+        ResultIteratorSpliterator<T> spliterator
+                = new ResultIteratorSpliterator<>(context.iterator(this), context, unregisterBatchSize);
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+    }
+
     @Override
     public SQLAction createSQLAction(SQLActionVisitor visitor) {
         return visitor.objectSelectAction(this);
@@ -0,0 +1,121 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.query;
+
+import java.util.Arrays;
+
+import org.apache.cayenne.ObjectContext;
+import org.apache.cayenne.exp.Expression;
+import org.apache.cayenne.exp.ExpressionFactory;
+
+/**
+ * A query that deletes all rows of an entity matching a qualifier with a single
+ * "DELETE" statement. Objects are not fetched, and no delete rules or lifecycle
+ * callbacks are applied. E.g.:
+ *
+ * <pre>
+ * int deleted = ObjectDelete.query(Artist.class)
+ *         .where(Artist.DATE_OF_BIRTH.lt(date))
+ *         .invalidateSnapshots()
+ *         .delete(context);
+ * </pre>
+ *
+ * @since 4.2
+ */
+public class ObjectDelete<T> extends ObjectModifyQuery<T> {
+
+    private static final long serialVersionUID = 5196574390543937428L;
+
+    /**
+     * Creates a query deleting rows of the entity mapped to the provided class.
+     */
+    public static <T> ObjectDelete<T> query(Class<T> entityType) {
+        return new ObjectDelete<>(entityType);
+    }
+
+    protected ObjectDelete(Class<T> entityType) {
+        super(entityType);
+    }
+
+    /**
+     * Appends a qualifier expression of this query. An equivalent to
+     * {@link #and(Expression...)}.
+     *
+     * @return this object
+     */
+    public ObjectDelete<T> where(Expression expression) {
+        return and(expression);
+    }
+
+    /**
+     * Appends a qualifier expression of this query, using provided expression
+     * String and an array of position parameters.
+     *
+     * @return this object
+     */
+    public ObjectDelete<T> where(String expressionString, Object... parameters) {
+        return and(ExpressionFactory.exp(expressionString, parameters));
+    }
+
+    /**
+     * AND's provided expressions to the existing qualifier.
+     *
+     * @return this object
+     */
+    public ObjectDelete<T> and(Expression... expressions) {
+        andQualifier(Arrays.asList(expressions));
+        return this;
+    }
+
+    /**
+     * OR's provided expressions to the existing qualifier.
+     *
+     * @return this object
+     */
+    public ObjectDelete<T> or(Expression... expressions) {
+        orQualifier(Arrays.asList(expressions));
+        return this;
+    }
+
+    /**
+     * Requests removal of the snapshots of the deleted rows from the DataRowStore. The
+     * ids of the matching rows are selected before the delete, in the same transaction,
+     * and are posted in a SnapshotEvent as deleted. Note that this requires reading all
+     * the matching ids into memory.
+     *
+     * @return this object
+     */
+    public ObjectDelete<T> invalidateSnapshots() {
+        this.invalidatingSnapshots = true;
+        return this;
+    }
+
+    /**
+     * Executes the query returning the number of deleted rows.
+     */
+    public int delete(ObjectContext context) {
+        return execute(context);
+    }
+
+    @Override
+    public SQLAction createSQLAction(SQLActionVisitor visitor) {
+        return visitor.objectDeleteAction(this);
+    }
+}
@@ -0,0 +1,170 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.cayenne.CayenneRuntimeException;
+import org.apache.cayenne.ObjectContext;
+import org.apache.cayenne.QueryResponse;
+import org.apache.cayenne.exp.Expression;
+import org.apache.cayenne.exp.ExpressionFactory;
+import org.apache.cayenne.exp.property.Property;
+import org.apache.cayenne.exp.property.PropertyFactory;
+import org.apache.cayenne.map.DataMap;
+import org.apache.cayenne.map.DbAttribute;
+import org.apache.cayenne.map.DbEntity;
+import org.apache.cayenne.map.EntityResolver;
+import org.apache.cayenne.map.ObjEntity;
+
+/**
+ * A superclass of set-based queries that modify all rows of an entity matching a
+ * qualifier with a single SQL statement, without fetching the objects into a context.
+ * The qualifier is translated the same way as {@link ObjectSelect} qualifier, so it can
+ * reference related entities.
+ *
+ * @see ObjectUpdate
+ * @see ObjectDelete
+ * @since 4.2
+ */
+public abstract class ObjectModifyQuery<T> implements Query {
+
+    private static final long serialVersionUID = -2735463157361548322L;
+
+    protected Class<T> entityType;
+    protected Expression where;
+    protected boolean invalidatingSnapshots;
+
+    protected ObjectModifyQuery(Class<T> entityType) {
+        this.entityType = entityType;
+    }
+
+    public Class<T> getEntityType() {
+        return entityType;
+    }
+
+    /**
+     * Returns a qualifier of the rows to modify. If null, all rows of the entity are
+     * modified.
+     */
+    public Expression getWhere() {
+        return where;
+    }
+
+    /**
+     * Returns true if the snapshots of the modified rows must be removed from the
+     * DataRowStore after the query is executed.
+     */
+    public boolean isInvalidatingSnapshots() {
+        return invalidatingSnapshots;
+    }
+
+    /**
+     * Executes the query returning the number of the modified rows.
+     */
+    protected int execute(ObjectContext context) {
+        QueryResponse response = context.performGenericQuery(this);
+
+        if (response.size() != 1) {
+            throw new CayenneRuntimeException("Expected a single update result. Got a total of %d", response.size());
+        }
+
+        return response.firstUpdateCount()[0];
+    }
+
+    /**
+     * Creates a query selecting primary key values of all the rows matched by this query.
+     * Primary key columns are selected in the order of {@link DbEntity#getPrimaryKeys()}.
+     */
+    public ColumnSelect<Object[]> createIdSelect(EntityResolver resolver) {
+        ObjEntity entity = getObjEntity(resolver);
+
+        Collection<DbAttribute> pks = entity.getDbEntity().getPrimaryKeys();
+        if (pks.isEmpty()) {
+            throw new CayenneRuntimeException("Entity '%s' has no primary key", entity.getName());
+        }
+
+        List<Property<?>> columns = new ArrayList<>(pks.size());
+        for (DbAttribute pk : pks) {
+            columns.add(PropertyFactory.createBase(ExpressionFactory.dbPathExp(pk.getName()), Object.class));
+        }
+
+        ObjectSelect<T> select = ObjectSelect.query(entityType);
+        if (where != null) {
+            select.where(where);
+        }
+
+        return select.columns(columns.toArray(new Property<?>[0]));
+    }
+
+    protected void andQualifier(Collection<Expression> expressions) {
+        for (Expression expression : expressions) {
+            if (expression != null) {
+                where = where != null ? where.andExp(expression) : expression;
+            }
+        }
+    }
+
+    protected void orQualifier(Collection<Expression> expressions) {
+        for (Expression expression : expressions) {
+            if (expression != null) {
+                where = where != null ? where.orExp(expression) : expression;
+            }
+        }
+    }
+
+    protected ObjEntity getObjEntity(EntityResolver resolver) {
+        ObjEntity entity = resolver.getObjEntity(entityType);
+        if (entity == null) {
+            throw new CayenneRuntimeException("Unmapped entity class: %s", entityType.getName());
+        }
+
+        return entity;
+    }
+
+    @Override
+    public QueryMetadata getMetaData(EntityResolver resolver) {
+        ObjEntity entity = getObjEntity(resolver);
+        return new DefaultQueryMetadata() {
+
+            @Override
+            public DataMap getDataMap() {
+                return entity.getDataMap();
+            }
+
+            @Override
+            public ObjEntity getObjEntity() {
+                return entity;
+            }
+
+            @Override
+            public DbEntity getDbEntity() {
+                return entity.getDbEntity();
+            }
+        };
+    }
+
+    @Override
+    public void route(QueryRouter router, EntityResolver resolver, Query substitutedQuery) {
+        router.route(router.engineForDataMap(getObjEntity(resolver).getDataMap()), this, substitutedQuery);
+    }
+}
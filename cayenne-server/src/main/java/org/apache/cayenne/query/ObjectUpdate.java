@@ -0,0 +1,146 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.query;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.cayenne.ObjectContext;
+import org.apache.cayenne.exp.Expression;
+import org.apache.cayenne.exp.ExpressionFactory;
+import org.apache.cayenne.exp.property.Property;
+
+/**
+ * A query that updates all rows of an entity matching a qualifier with a single
+ * "UPDATE" statement. Objects are not fetched, and no lifecycle callbacks or optimistic
+ * locking checks are applied. Only the attributes stored in the entity root table can be
+ * set. E.g.:
+ *
+ * <pre>
+ * int updated = ObjectUpdate.query(Painting.class)
+ *         .set(Painting.ESTIMATED_PRICE, BigDecimal.ZERO)
+ *         .where(Painting.TO_ARTIST.dot(Artist.ARTIST_NAME).eq("X"))
+ *         .update(context);
+ * </pre>
+ *
+ * @since 4.2
+ */
+public class ObjectUpdate<T> extends ObjectModifyQuery<T> {
+
+    private static final long serialVersionUID = 2683716296578564395L;
+
+    protected Map<Expression, Object> values;
+
+    /**
+     * Creates a query updating rows of the entity mapped to the provided class.
+     */
+    public static <T> ObjectUpdate<T> query(Class<T> entityType) {
+        return new ObjectUpdate<>(entityType);
+    }
+
+    protected ObjectUpdate(Class<T> entityType) {
+        super(entityType);
+        this.values = new LinkedHashMap<>();
+    }
+
+    /**
+     * Returns new values keyed by the property path expressions.
+     */
+    public Map<Expression, Object> getValues() {
+        return values;
+    }
+
+    /**
+     * Sets a new value of an attribute. The property must be either an object attribute
+     * or a "db:" path of a column of the entity root table.
+     *
+     * @return this object
+     */
+    public <V> ObjectUpdate<T> set(Property<V> property, V value) {
+        values.put(property.getExpression(), value);
+        return this;
+    }
+
+    /**
+     * Appends a qualifier expression of this query. An equivalent to
+     * {@link #and(Expression...)}.
+     *
+     * @return this object
+     */
+    public ObjectUpdate<T> where(Expression expression) {
+        return and(expression);
+    }
+
+    /**
+     * Appends a qualifier expression of this query, using provided expression
+     * String and an array of position parameters.
+     *
+     * @return this object
+     */
+    public ObjectUpdate<T> where(String expressionString, Object... parameters) {
+        return and(ExpressionFactory.exp(expressionString, parameters));
+    }
+
+    /**
+     * AND's provided expressions to the existing qualifier.
+     *
+     * @return this object
+     */
+    public ObjectUpdate<T> and(Expression... expressions) {
+        andQualifier(Arrays.asList(expressions));
+        return this;
+    }
+
+    /**
+     * OR's provided expressions to the existing qualifier.
+     *
+     * @return this object
+     */
+    public ObjectUpdate<T> or(Expression... expressions) {
+        orQualifier(Arrays.asList(expressions));
+        return this;
+    }
+
+    /**
+     * Requests invalidation of the snapshots of the updated rows in the DataRowStore.
+     * The ids of the matching rows are selected before the update, in the same
+     * transaction, and are posted in a SnapshotEvent as invalidated. Note that this
+     * requires reading all the matching ids into memory.
+     *
+     * @return this object
+     */
+    public ObjectUpdate<T> invalidateSnapshots() {
+        this.invalidatingSnapshots = true;
+        return this;
+    }
+
+    /**
+     * Executes the query returning the number of updated rows.
+     */
+    public int update(ObjectContext context) {
+        return execute(context);
+    }
+
+    @Override
+    public SQLAction createSQLAction(SQLActionVisitor visitor) {
+        return visitor.objectUpdateAction(this);
+    }
+}
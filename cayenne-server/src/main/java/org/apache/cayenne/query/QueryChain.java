@@ -26,6 +26,7 @@ import org.apache.cayenne.map.EntityResolver;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 
 /**
  * A Query decorator for a collection of other queries. Note that QueryChain will always
@@ -38,6 +39,11 @@ public class QueryChain implements Query {
 
     protected Collection<Query> chain;
 
+    /**
+     * @since 4.2
+     */
+    protected boolean parallel;
+
     /**
      * Creates an empty QueryChain.
      */
@@ -85,6 +91,36 @@ public class QueryChain implements Query {
         return chain == null || chain.isEmpty();
     }
 
+    /**
+     * Returns an unmodifiable collection of queries in this chain.
+     *
+     * @since 4.2
+     */
+    public Collection<Query> getQueries() {
+        return chain != null ? Collections.unmodifiableCollection(chain) : Collections.emptyList();
+    }
+
+    /**
+     * @since 4.2
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Enables concurrent execution of the chain. If all queries in the chain are selects and
+     * there is no transaction bound to the calling thread, each query is run in its own
+     * transaction on the DataDomain async executor, using a separate connection. The results are
+     * still returned in the order of queries in the chain. As the queries do not share a
+     * transaction, they may see different states of the database. Otherwise the chain is
+     * executed sequentially.
+     *
+     * @since 4.2
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
     /**
      * Delegates routing to each individual query in the chain. If there is no queries,
      * this method does nothing.
@@ -0,0 +1,113 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+import org.apache.cayenne.ObjectContext;
+import org.apache.cayenne.PersistenceState;
+import org.apache.cayenne.Persistent;
+import org.apache.cayenne.ResultIterator;
+import org.apache.cayenne.access.DataContext;
+
+/**
+ * Spliterator over an open {@link ResultIterator}, used to back streams returned by
+ * {@link FluentSelect#stream(ObjectContext)}. Optionally unregisters consumed unmodified
+ * objects from the {@link DataContext} in batches, so that the context doesn't grow
+ * with the size of the result.
+ *
+ * @since 4.2
+ */
+class ResultIteratorSpliterator<T> extends Spliterators.AbstractSpliterator<T> implements AutoCloseable {
+
+    private final ResultIterator<T> iterator;
+    private final DataContext context;
+    private final int unregisterBatchSize;
+    private final List<Persistent> consumed;
+    private boolean closed;
+
+    ResultIteratorSpliterator(ResultIterator<T> iterator, ObjectContext context, int unregisterBatchSize) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED);
+        this.iterator = iterator;
+
+        // unregistering only makes sense for a DataContext that has its own ObjectStore
+        if (unregisterBatchSize > 0 && context instanceof DataContext) {
+            this.context = (DataContext) context;
+            this.unregisterBatchSize = unregisterBatchSize;
+            this.consumed = new ArrayList<>(unregisterBatchSize);
+        } else {
+            this.context = null;
+            this.unregisterBatchSize = 0;
+            this.consumed = null;
+        }
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (closed) {
+            return false;
+        }
+
+        if (!iterator.hasNextRow()) {
+            close();
+            return false;
+        }
+
+        // objects from the previous batch were already passed downstream by now
+        if (consumed != null && consumed.size() >= unregisterBatchSize) {
+            unregisterConsumed();
+        }
+
+        T next = iterator.nextRow();
+        if (consumed != null && next instanceof Persistent) {
+            consumed.add((Persistent) next);
+        }
+
+        action.accept(next);
+        return true;
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            iterator.close();
+        }
+    }
+
+    private void unregisterConsumed() {
+        List<Persistent> unmodified = new ArrayList<>(consumed.size());
+        for (Persistent object : consumed) {
+            int state = object.getPersistenceState();
+            if (object.getObjectContext() == context
+                    && (state == PersistenceState.COMMITTED || state == PersistenceState.HOLLOW)) {
+                unmodified.add(object);
+            }
+        }
+
+        consumed.clear();
+        if (!unmodified.isEmpty()) {
+            context.unregisterObjects(unmodified);
+        }
+    }
+}
@@ -19,6 +19,8 @@
 
 package org.apache.cayenne.query;
 
+import org.apache.cayenne.CayenneRuntimeException;
+
 /**
  * A factory interface to create standard SQLActions for a set of standard queries.
  * Instances of SQLActionVisitor are passed by Cayenne to a Query in
@@ -62,4 +64,22 @@ public interface SQLActionVisitor {
      * Creates an action to execute EJBQL query.
      */
     SQLAction ejbqlAction(EJBQLQuery query);
+
+    /**
+     * Creates an action to execute a set-based ObjectUpdate. The default
+     * implementation throws an exception, as the query is not supported.
+     * @since 4.2
+     */
+    default SQLAction objectUpdateAction(ObjectUpdate<?> query) {
+        throw new CayenneRuntimeException("ObjectUpdate is not supported by %s", getClass().getName());
+    }
+
+    /**
+     * Creates an action to execute a set-based ObjectDelete. The default
+     * implementation throws an exception, as the query is not supported.
+     * @since 4.2
+     */
+    default SQLAction objectDeleteAction(ObjectDelete<?> query) {
+        throw new CayenneRuntimeException("ObjectDelete is not supported by %s", getClass().getName());
+    }
 }
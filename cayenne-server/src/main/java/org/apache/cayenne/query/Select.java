@@ -25,6 +25,7 @@ import org.apache.cayenne.ResultIterator;
 import org.apache.cayenne.ResultIteratorCallback;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * A common interface for grouping together different kinds of queries that
@@ -41,6 +42,19 @@ public interface Select<T> extends Query {
 	 */
 	List<T> select(ObjectContext context);
 
+	/**
+	 * Selects objects using provided context on a separate thread. See
+	 * {@link ObjectContext#selectAsync(Select)} for the thread confinement
+	 * rules.
+	 * <p>
+	 * Essentially the inversion of "ObjectContext.selectAsync(Select)".
+	 *
+	 * @since 4.2
+	 */
+	default CompletableFuture<List<T>> selectAsync(ObjectContext context) {
+		return context.selectAsync(this);
+	}
+
 	/**
 	 * Selects a single object using provided context. The query is expected to
 	 * match zero or one object. It returns null if no objects were matched. If
@@ -32,13 +32,26 @@ class DataObjectAccessor implements Accessor {
 
     protected String propertyName;
 
+    /**
+     * @since 4.2
+     */
+    protected int slot;
+
     DataObjectAccessor(String propertyName) {
+        this(propertyName, -1);
+    }
+
+    /**
+     * @since 4.2
+     */
+    DataObjectAccessor(String propertyName, int slot) {
 
         if (propertyName == null) {
             throw new IllegalArgumentException("Null propertyName");
         }
 
         this.propertyName = propertyName;
+        this.slot = slot;
     }
 
     public String getName() {
@@ -53,7 +66,9 @@ class DataObjectAccessor implements Accessor {
         try {
 
             DataObject dataObject = (DataObject) object;
-            return dataObject.readPropertyDirectly(propertyName);
+            return slot >= 0
+                    ? dataObject.readPropertyDirectly(slot)
+                    : dataObject.readPropertyDirectly(propertyName);
         }
         catch (ClassCastException e) {
             throw new PropertyException("Object is not a DataObject: '"
@@ -74,7 +89,12 @@ class DataObjectAccessor implements Accessor {
     public void setValue(Object object, Object newValue) throws PropertyException {
 
         try {
-            ((DataObject) object).writePropertyDirectly(propertyName, newValue);
+            DataObject dataObject = (DataObject) object;
+            if (slot >= 0) {
+                dataObject.writePropertyDirectly(slot, newValue);
+            } else {
+                dataObject.writePropertyDirectly(propertyName, newValue);
+            }
         }
         catch (ClassCastException e) {
             throw new PropertyException("Object is not a DataObject: '"
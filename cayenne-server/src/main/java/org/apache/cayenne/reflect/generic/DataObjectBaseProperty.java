@@ -32,6 +32,13 @@ import org.apache.cayenne.reflect.PropertyVisitor;
  */
 abstract class DataObjectBaseProperty implements PropertyDescriptor, Serializable {
 
+    /**
+     * Numeric property slot, or -1 if the object class doesn't support slot-based access.
+     *
+     * @since 4.2
+     */
+    protected int slot = -1;
+
     public abstract String getName();
 
     public abstract void injectValueHolder(Object object) throws PropertyException;
@@ -67,7 +74,10 @@ abstract class DataObjectBaseProperty implements PropertyDescriptor, Serializabl
 
     public Object readPropertyDirectly(Object object) throws PropertyException {
         try {
-            return toDataObject(object).readPropertyDirectly(getName());
+            DataObject dataObject = toDataObject(object);
+            return slot >= 0
+                    ? dataObject.readPropertyDirectly(slot)
+                    : dataObject.readPropertyDirectly(getName());
         }
         catch (Throwable th) {
             throw new PropertyException(
@@ -81,7 +91,12 @@ abstract class DataObjectBaseProperty implements PropertyDescriptor, Serializabl
     public void writePropertyDirectly(Object object, Object oldValue, Object newValue)
             throws PropertyException {
         try {
-            toDataObject(object).writePropertyDirectly(getName(), newValue);
+            DataObject dataObject = toDataObject(object);
+            if (slot >= 0) {
+                dataObject.writePropertyDirectly(slot, newValue);
+            } else {
+                dataObject.writePropertyDirectly(getName(), newValue);
+            }
         }
         catch (Throwable th) {
             throw new PropertyException(
@@ -92,6 +107,20 @@ abstract class DataObjectBaseProperty implements PropertyDescriptor, Serializabl
         }
     }
 
+    /**
+     * @since 4.2
+     */
+    int getSlot() {
+        return slot;
+    }
+
+    /**
+     * @since 4.2
+     */
+    void setSlot(int slot) {
+        this.slot = slot;
+    }
+
     protected final DataObject toDataObject(Object object) throws PropertyException {
         try {
             return (DataObject) object;
@@ -18,7 +18,14 @@
  ****************************************************************/
 package org.apache.cayenne.reflect.generic;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
 import org.apache.cayenne.DataObject;
+import org.apache.cayenne.map.ObjAttribute;
+import org.apache.cayenne.map.ObjEntity;
+import org.apache.cayenne.map.ObjRelationship;
 import org.apache.cayenne.reflect.PersistentDescriptor;
 import org.apache.cayenne.reflect.PropertyException;
 
@@ -33,6 +40,8 @@ import org.apache.cayenne.reflect.PropertyException;
 // for other object types.
 class DataObjectDescriptor extends PersistentDescriptor {
 
+    private transient Map<String, Integer> propertySlots;
+
     @Override
     public void shallowMerge(Object from, Object to) throws PropertyException {
         
@@ -45,4 +54,78 @@ class DataObjectDescriptor extends PersistentDescriptor {
                     .setSnapshotVersion(((DataObject) from).getSnapshotVersion());
         }
     }
+
+    /**
+     * Returns a numeric slot of a declared property, or -1 if the object class doesn't
+     * support slot-based access for this entity. Must be called after the entity and the
+     * object class are set.
+     *
+     * @since 4.2
+     */
+    int getPropertySlot(String propertyName) {
+        if (propertySlots == null) {
+            propertySlots = indexPropertySlots();
+        }
+
+        Integer slot = propertySlots.get(propertyName);
+        return slot != null ? slot : -1;
+    }
+
+    private Map<String, Integer> indexPropertySlots() {
+        if (!supportsPropertySlots()) {
+            return Collections.emptyMap();
+        }
+
+        ObjEntity superEntity = entity.getSuperEntity();
+        int slot = superEntity != null ? countPropertySlots(superEntity) : 0;
+
+        // slot order must match the one used by the class generator templates
+        Map<String, Integer> slots = new HashMap<>();
+        for (ObjAttribute attribute : entity.getDeclaredAttributes()) {
+            slots.put(attribute.getName(), slot++);
+        }
+
+        for (ObjRelationship relationship : entity.getDeclaredRelationships()) {
+            if (!relationship.isRuntime()) {
+                slots.put(relationship.getName(), slot++);
+            }
+        }
+
+        return slots;
+    }
+
+    /**
+     * Checks that slot-based accessors are implemented by the object class itself and not
+     * only inherited from a class of the super entity, that knows nothing about the
+     * properties declared by this entity.
+     */
+    private boolean supportsPropertySlots() {
+        if (objectClass == null || !DataObject.class.isAssignableFrom(objectClass)) {
+            return false;
+        }
+
+        Class<?> declaringClass;
+        try {
+            declaringClass = objectClass.getMethod("readPropertyDirectly", Integer.TYPE).getDeclaringClass();
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+
+        if (declaringClass == DataObject.class) {
+            return false;
+        }
+
+        return superclassDescriptor == null
+                || !declaringClass.isAssignableFrom(superclassDescriptor.getObjectClass());
+    }
+
+    private static int countPropertySlots(ObjEntity entity) {
+        int count = entity.getAttributes().size();
+        for (ObjRelationship relationship : entity.getRelationships()) {
+            if (!relationship.isRuntime()) {
+                count++;
+            }
+        }
+        return count;
+    }
 }
@@ -71,7 +71,7 @@ public class DataObjectDescriptorFactory extends PersistentDescriptorFactory {
             ObjAttribute attribute) {
         DataObjectAttributeProperty property
                 = new DataObjectAttributeProperty(attribute, valueComparisonStrategyFactory.getStrategy(attribute));
-        descriptor.addDeclaredProperty(property);
+        addDeclaredProperty(descriptor, property);
     }
 
     @Override
@@ -81,7 +81,7 @@ public class DataObjectDescriptorFactory extends PersistentDescriptorFactory {
 
         ClassDescriptor targetDescriptor = descriptorMap.getDescriptor(relationship
                 .getTargetEntityName());
-        descriptor.addDeclaredProperty(new DataObjectToManyProperty(
+        addDeclaredProperty(descriptor, new DataObjectToManyProperty(
                 relationship,
                 targetDescriptor,
                 faultFactory.getListFault()));
@@ -95,7 +95,7 @@ public class DataObjectDescriptorFactory extends PersistentDescriptorFactory {
                 .getTargetEntityName());
 
         Accessor mapKeyAccessor = createMapKeyAccessor(relationship, targetDescriptor);
-        descriptor.addDeclaredProperty(new DataObjectToManyMapProperty(
+        addDeclaredProperty(descriptor, new DataObjectToManyMapProperty(
                 relationship,
                 targetDescriptor,
                 faultFactory.getMapFault(mapKeyAccessor),
@@ -108,7 +108,7 @@ public class DataObjectDescriptorFactory extends PersistentDescriptorFactory {
             ObjRelationship relationship) {
         ClassDescriptor targetDescriptor = descriptorMap.getDescriptor(relationship
                 .getTargetEntityName());
-        descriptor.addDeclaredProperty(new DataObjectToManyProperty(
+        addDeclaredProperty(descriptor, new DataObjectToManyProperty(
                 relationship,
                 targetDescriptor,
                 faultFactory.getSetFault()));
@@ -120,7 +120,7 @@ public class DataObjectDescriptorFactory extends PersistentDescriptorFactory {
             ObjRelationship relationship) {
         ClassDescriptor targetDescriptor = descriptorMap.getDescriptor(relationship
                 .getTargetEntityName());
-        descriptor.addDeclaredProperty(new DataObjectToManyProperty(
+        addDeclaredProperty(descriptor, new DataObjectToManyProperty(
                 relationship,
                 targetDescriptor,
                 faultFactory.getCollectionFault()));
@@ -133,7 +133,7 @@ public class DataObjectDescriptorFactory extends PersistentDescriptorFactory {
 
         ClassDescriptor targetDescriptor = descriptorMap.getDescriptor(relationship
                 .getTargetEntityName());
-        descriptor.addDeclaredProperty(new DataObjectToOneProperty(
+        addDeclaredProperty(descriptor, new DataObjectToOneProperty(
                 relationship,
                 targetDescriptor,
                 faultFactory.getToOneFault()));
@@ -144,6 +144,17 @@ public class DataObjectDescriptorFactory extends PersistentDescriptorFactory {
             PersistentDescriptor descriptor,
             String propertyName,
             Class<?> propertyType) throws PropertyException {
-        return new DataObjectAccessor(propertyName);
+        return new DataObjectAccessor(propertyName, propertySlot(descriptor, propertyName));
+    }
+
+    private void addDeclaredProperty(PersistentDescriptor descriptor, DataObjectBaseProperty property) {
+        property.setSlot(propertySlot(descriptor, property.getName()));
+        descriptor.addDeclaredProperty(property);
+    }
+
+    private int propertySlot(PersistentDescriptor descriptor, String propertyName) {
+        return descriptor instanceof DataObjectDescriptor
+                ? ((DataObjectDescriptor) descriptor).getPropertySlot(propertyName)
+                : -1;
     }
 }
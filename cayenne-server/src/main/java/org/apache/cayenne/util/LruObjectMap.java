@@ -0,0 +1,395 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.util;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.apache.cayenne.PersistenceState;
+import org.apache.cayenne.Persistent;
+
+/**
+ * A map of persistent objects that holds hard references to at most "capacity" recently
+ * accessed objects. When the capacity is exceeded, least recently used objects that have
+ * no uncommitted changes (i.e. in COMMITTED or HOLLOW state) are turned into hollow faults
+ * and are retained via weak references, so they are still found in the map as long as
+ * the application keeps a reference to them. Objects with uncommitted changes are never
+ * evicted, so the map may temporarily grow over capacity.
+ * <p>
+ * Recency of access is tracked separately from the entries, and iterators work over a
+ * snapshot of the entries, so accessing the map while iterating over it doesn't cause a
+ * {@link java.util.ConcurrentModificationException}.
+ * Like other object maps, this implementation is not thread safe.
+ * </p>
+ *
+ * @since 4.2
+ */
+public class LruObjectMap<K, V extends Persistent> extends AbstractMap<K, V> implements Serializable {
+
+    private static final long serialVersionUID = 2530462351637440715L;
+
+    private final int capacity;
+
+    // all entries, both retained and evicted
+    private transient HashMap<K, Node<K, V>> entries;
+
+    // retained entries in access order, never exposed to the callers
+    private transient LinkedHashMap<K, Node<K, V>> retained;
+    private transient ReferenceQueue<V> referenceQueue;
+
+    private transient Set<Entry<K, V>> entrySet;
+
+    public LruObjectMap(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+
+        this.capacity = capacity;
+        init();
+    }
+
+    private void init() {
+        this.entries = new HashMap<>();
+        this.retained = new LinkedHashMap<>(16, 0.75f, true);
+        this.referenceQueue = new ReferenceQueue<>();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns a number of objects retained via hard references.
+     */
+    public int getRetainedCount() {
+        return retained.size();
+    }
+
+    @Override
+    public int size() {
+        checkReferenceQueue();
+        return entries.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        checkReferenceQueue();
+        return entries.isEmpty();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        Node<K, V> node = entries.get(key);
+        return node != null && node.get() != null;
+    }
+
+    @Override
+    public V get(Object key) {
+        Node<K, V> node = entries.get(key);
+        if (node == null) {
+            return null;
+        }
+
+        if (node.value != null) {
+            // update recency
+            retained.get(key);
+            return node.value;
+        }
+
+        V value = node.get();
+        if (value != null) {
+            // accessed again, bring it back to the retained set
+            node.retain(value);
+            retained.put(node.key, node);
+            evict();
+        }
+
+        return value;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        if (value == null) {
+            throw new NullPointerException("LruObjectMap can't contain null values");
+        }
+
+        checkReferenceQueue();
+
+        V old = null;
+        Node<K, V> node = entries.get(key);
+        if (node != null) {
+            old = node.get();
+        } else {
+            node = new Node<>(key);
+            entries.put(key, node);
+        }
+
+        node.retain(value);
+        retained.put(key, node);
+        evict();
+        return old;
+    }
+
+    @Override
+    public V remove(Object key) {
+        checkReferenceQueue();
+
+        Node<K, V> node = entries.remove(key);
+        if (node == null) {
+            return null;
+        }
+
+        retained.remove(key);
+        return node.discard();
+    }
+
+    @Override
+    public void clear() {
+        entries.clear();
+        retained.clear();
+        while (referenceQueue.poll() != null) {
+            // just purge the queue
+        }
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        Set<Entry<K, V>> es = entrySet;
+        if (es == null) {
+            entrySet = es = new EntrySet();
+        }
+        return es;
+    }
+
+    private void evict() {
+        int overflow = retained.size() - capacity;
+        if (overflow <= 0) {
+            return;
+        }
+
+        List<K> pinned = null;
+        Iterator<Node<K, V>> it = retained.values().iterator();
+        while (overflow > 0 && it.hasNext()) {
+            Node<K, V> node = it.next();
+
+            switch (node.value.getPersistenceState()) {
+                case PersistenceState.COMMITTED:
+                    node.value.setPersistenceState(PersistenceState.HOLLOW);
+                case PersistenceState.HOLLOW:
+                    it.remove();
+                    node.evict(referenceQueue);
+                    overflow--;
+                    break;
+                default:
+                    if (pinned == null) {
+                        pinned = new ArrayList<>();
+                    }
+                    pinned.add(node.key);
+                    break;
+            }
+        }
+
+        // move modified objects to the tail so that they are not scanned on every put
+        if (pinned != null) {
+            for (K key : pinned) {
+                retained.get(key);
+            }
+        }
+    }
+
+    /**
+     * Removes entries of the evicted objects collected by GC.
+     */
+    @SuppressWarnings("unchecked")
+    private void checkReferenceQueue() {
+        Reference<? extends V> reference;
+        while ((reference = referenceQueue.poll()) != null) {
+            Node<K, V> node = ((NodeReference<K, V>) reference).node;
+
+            // the object might have been retained or removed since it was evicted
+            if (node.reference == reference) {
+                entries.remove(node.key, node);
+            }
+        }
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+
+        // evicted objects go first, so that the retained ones are retained again when read back
+        Map<K, V> snapshot = new LinkedHashMap<>();
+        for (Node<K, V> node : entries.values()) {
+            V value = node.reference != null ? node.reference.get() : null;
+            if (value != null) {
+                snapshot.put(node.key, value);
+            }
+        }
+        for (Node<K, V> node : retained.values()) {
+            snapshot.put(node.key, node.value);
+        }
+        out.writeObject(snapshot);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        init();
+
+        @SuppressWarnings("unchecked")
+        Map<K, V> snapshot = (Map<K, V>) in.readObject();
+        for (Entry<K, V> e : snapshot.entrySet()) {
+            put(e.getKey(), e.getValue());
+        }
+    }
+
+    /**
+     * Holds either a hard reference to a retained object or a weak reference to an evicted one.
+     */
+    private static final class Node<K, V> {
+
+        final K key;
+        V value;
+        NodeReference<K, V> reference;
+
+        Node(K key) {
+            this.key = key;
+        }
+
+        V get() {
+            return value != null ? value : reference != null ? reference.get() : null;
+        }
+
+        void retain(V value) {
+            this.value = value;
+            this.reference = null;
+        }
+
+        void evict(ReferenceQueue<V> queue) {
+            this.reference = new NodeReference<>(value, queue, this);
+            this.value = null;
+        }
+
+        V discard() {
+            V old = get();
+            this.value = null;
+            this.reference = null;
+            return old;
+        }
+    }
+
+    private static final class NodeReference<K, V> extends WeakReference<V> {
+
+        final Node<K, V> node;
+
+        NodeReference(V referent, ReferenceQueue<? super V> queue, Node<K, V> node) {
+            super(referent, queue);
+            this.node = node;
+        }
+    }
+
+    private class EntrySet extends AbstractSet<Entry<K, V>> {
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return LruObjectMap.this.size();
+        }
+    }
+
+    /**
+     * Iterates over a snapshot of the retained entries followed by the evicted ones, skipping
+     * evicted objects already collected by GC.
+     */
+    private class EntryIterator implements Iterator<Entry<K, V>> {
+
+        private final Iterator<Node<K, V>> iterator;
+        private Node<K, V> nextNode;
+        private V nextValue;
+        private Node<K, V> current;
+
+        EntryIterator() {
+            List<Node<K, V>> nodes = new ArrayList<>(entries.size());
+            nodes.addAll(retained.values());
+            for (Node<K, V> node : entries.values()) {
+                if (node.value == null) {
+                    nodes.add(node);
+                }
+            }
+            this.iterator = nodes.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (nextNode == null && iterator.hasNext()) {
+                Node<K, V> node = iterator.next();
+                V value = node.get();
+                if (value != null) {
+                    nextNode = node;
+                    nextValue = value;
+                }
+            }
+
+            return nextNode != null;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            current = nextNode;
+            Entry<K, V> e = new SimpleImmutableEntry<>(nextNode.key, nextValue);
+            nextNode = null;
+            nextValue = null;
+            return e;
+        }
+
+        @Override
+        public void remove() {
+            if (current == null) {
+                throw new IllegalStateException();
+            }
+
+            if (entries.remove(current.key, current)) {
+                retained.remove(current.key);
+                current.discard();
+            }
+            current = null;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.apache.cayenne.util.Util;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CompactDataRowTest {
+
+    private static final CompactDataRow.Index INDEX = new CompactDataRow.Index("a", "b", "c");
+
+    @Test
+    public void testGetPut() {
+        CompactDataRow row = new CompactDataRow(INDEX);
+        assertTrue(row.isEmpty());
+
+        row.set(0, 1);
+        row.set(2, null);
+        assertEquals(2, row.size());
+        assertEquals(1, row.get("a"));
+        assertNull(row.get("b"));
+        assertNull(row.get("c"));
+        assertFalse(row.containsKey("b"));
+        assertTrue(row.containsKey("c"));
+        assertTrue(row.containsValue(null));
+
+        assertEquals(1, row.put("a", 2));
+        assertNull(row.put("b", 3));
+        assertNull(row.put("x", 4));
+        assertEquals(4, row.size());
+        assertEquals(4, row.get("x"));
+        assertEquals("dflt", row.getOrDefault("y", "dflt"));
+    }
+
+    @Test
+    public void testRemove() {
+        CompactDataRow row = new CompactDataRow(INDEX);
+        row.put("a", 1);
+        row.put("b", 2);
+        row.put("x", 3);
+
+        assertEquals(1, row.remove("a"));
+        assertNull(row.remove("a"));
+        assertEquals(3, row.remove("x"));
+        assertEquals(1, row.size());
+        assertFalse(row.containsKey("a"));
+
+        row.clear();
+        assertTrue(row.isEmpty());
+    }
+
+    @Test
+    public void testEqualsRegularMap() {
+        CompactDataRow row = new CompactDataRow(INDEX);
+        row.put("a", 1);
+        row.put("c", "C");
+        row.put("x", null);
+
+        Map<String, Object> map = new HashMap<>();
+        map.put("a", 1);
+        map.put("c", "C");
+        map.put("x", null);
+
+        assertEquals(map, row);
+        assertEquals(row, map);
+        assertEquals(map.hashCode(), row.hashCode());
+        assertEquals(map.keySet(), row.keySet());
+        assertEquals(new DataRow(map), new DataRow(row));
+    }
+
+    @Test
+    public void testEntrySetWriteThrough() {
+        CompactDataRow row = new CompactDataRow(INDEX);
+        row.put("a", 1);
+        row.put("b", 2);
+        row.put("x", 3);
+
+        for (Map.Entry<String, Object> e : row.entrySet()) {
+            e.setValue(((Integer) e.getValue()) * 10);
+        }
+        assertEquals(10, row.get("a"));
+        assertEquals(20, row.get("b"));
+        assertEquals(30, row.get("x"));
+
+        Iterator<String> it = row.keySet().iterator();
+        while (it.hasNext()) {
+            String key = it.next();
+            if (!"b".equals(key)) {
+                it.remove();
+            }
+        }
+        assertEquals(1, row.size());
+        assertEquals(20, row.get("b"));
+    }
+
+    @Test
+    public void testApplyDiff() {
+        CompactDataRow row = new CompactDataRow(INDEX);
+        row.setEntityName("E");
+        row.put("a", 1);
+        row.put("b", 2);
+
+        DataRow diff = new DataRow(2);
+        diff.put("b", 3);
+        diff.put("x", 4);
+
+        DataRow merged = row.applyDiff(diff);
+        assertTrue(merged instanceof CompactDataRow);
+        assertEquals(2, row.get("b"));
+        assertEquals(1, merged.get("a"));
+        assertEquals(3, merged.get("b"));
+        assertEquals(4, merged.get("x"));
+        assertEquals("E", merged.getEntityName());
+        assertFalse(row.getVersion() == merged.getVersion());
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        CompactDataRow row = new CompactDataRow(INDEX);
+        row.setEntityName("E");
+        row.setReplacesVersion(5);
+        row.put("a", 1);
+        row.put("x", 2);
+
+        DataRow copy = Util.cloneViaSerialization(row);
+        assertSame(DataRow.class, copy.getClass());
+        assertEquals(row, copy);
+        assertEquals("E", copy.getEntityName());
+        assertEquals(row.getVersion(), copy.getVersion());
+        assertEquals(5, copy.getReplacesVersion());
+    }
+
+    @Test
+    public void testIndexForLabels() {
+        int[] positions = new int[4];
+        CompactDataRow.Index index = CompactDataRow.Index.forLabels(new String[]{"a", "b", "a", "c"}, positions);
+        assertEquals(3, index.size());
+        assertArrayEquals(new int[]{0, 1, 0, 2}, positions);
+        assertEquals(-1, index.position("z"));
+    }
+}
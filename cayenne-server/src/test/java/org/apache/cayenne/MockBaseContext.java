@@ -86,6 +86,10 @@ public class MockBaseContext extends BaseContext {
     public void registerNewObject(Object object) {
     }
 
+    @Override
+    public void registerForUpsert(Persistent object) {
+    }
+
     @Override
     public void rollbackChanges() {
     }
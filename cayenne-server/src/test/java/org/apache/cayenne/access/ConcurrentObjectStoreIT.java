@@ -0,0 +1,170 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.cayenne.PersistenceState;
+import org.apache.cayenne.configuration.DefaultRuntimeProperties;
+import org.apache.cayenne.configuration.server.ServerRuntime;
+import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.event.DefaultEventManager;
+import org.apache.cayenne.query.ObjectSelect;
+import org.apache.cayenne.test.jdbc.DBHelper;
+import org.apache.cayenne.test.jdbc.TableHelper;
+import org.apache.cayenne.test.parallel.ParallelTestContainer;
+import org.apache.cayenne.testdo.testmap.Artist;
+import org.apache.cayenne.unit.di.server.CayenneProjects;
+import org.apache.cayenne.unit.di.server.ServerCaseContextsSync;
+import org.apache.cayenne.unit.di.server.UseServerRuntime;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@UseServerRuntime(CayenneProjects.TESTMAP_PROJECT)
+public class ConcurrentObjectStoreIT extends ServerCaseContextsSync {
+
+    @Inject
+    private ServerRuntime runtime;
+
+    @Inject
+    private DBHelper dbHelper;
+
+    private DefaultEventManager eventManager;
+    private DataRowStore cache;
+
+    @Before
+    public void setUp() throws Exception {
+        eventManager = new DefaultEventManager();
+        cache = new DataRowStore(
+                "concurrentStoreTest",
+                new DefaultRuntimeProperties(Collections.<String, String>emptyMap()),
+                eventManager);
+
+        TableHelper tArtist = new TableHelper(dbHelper, "ARTIST");
+        tArtist.setColumns("ARTIST_ID", "ARTIST_NAME");
+        for (int i = 1; i <= 40; i++) {
+            tArtist.insert(i, "artist" + i);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        if (eventManager != null) {
+            eventManager.shutdown();
+        }
+    }
+
+    private DataContext createContext(boolean sync) {
+        return new DataContext(runtime.getDataDomain(),
+                new ConcurrentObjectStore(cache, new HashMap<>(), sync));
+    }
+
+    @Test
+    public void testConcurrentModifications() throws Exception {
+        final DataContext context = createContext(false);
+        final List<Artist> artists = ObjectSelect.query(Artist.class).orderBy(Artist.ARTIST_NAME.asc()).select(context);
+        assertEquals(40, artists.size());
+
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final int offset = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = offset; i < artists.size(); i += threads) {
+                        Artist a = artists.get(i);
+                        assertSame(a, context.getObjectStore().getNode(a.getObjectId()));
+                        a.setArtistName("x" + a.getArtistName());
+                    }
+                }));
+            }
+
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(40, context.getObjectStore().getChangesByObjectId().size());
+        assertEquals(40, context.getObjectStore().objectsInState(PersistenceState.MODIFIED).size());
+
+        context.commitChanges();
+        assertFalse(context.hasChanges());
+
+        DataContext freshContext = createContext(false);
+        for (Artist a : ObjectSelect.query(Artist.class).select(freshContext)) {
+            assertTrue(a.getArtistName().startsWith("xartist"));
+        }
+    }
+
+    @Test
+    public void testRollback() {
+        DataContext context = createContext(false);
+        List<Artist> artists = ObjectSelect.query(Artist.class).select(context);
+
+        Artist newArtist = context.newObject(Artist.class);
+        newArtist.setArtistName("new");
+        artists.get(0).setArtistName("changed");
+        assertTrue(context.hasChanges());
+
+        context.rollbackChanges();
+        assertFalse(context.hasChanges());
+        assertEquals(40, context.getObjectStore().registeredObjectsCount());
+
+        artists.get(1).setArtistName("changed");
+        assertTrue(context.hasChanges());
+        assertEquals(1, context.getObjectStore().getChangesByObjectId().size());
+    }
+
+    @Test
+    public void testSnapshotEventMerge() throws Exception {
+        DataContext c1 = createContext(true);
+        DataContext c2 = createContext(true);
+
+        final Artist a1 = ObjectSelect.query(Artist.class).where(Artist.ARTIST_NAME.eq("artist1")).selectOne(c1);
+        final Artist a2 = ObjectSelect.query(Artist.class).where(Artist.ARTIST_NAME.eq("artist1")).selectOne(c2);
+        assertNotSame(a1, a2);
+
+        a1.setArtistName("merged");
+        c1.commitChanges();
+
+        new ParallelTestContainer() {
+
+            @Override
+            protected void assertResult() throws Exception {
+                assertEquals("merged", a2.getArtistName());
+            }
+        }.runTest(3000);
+    }
+}
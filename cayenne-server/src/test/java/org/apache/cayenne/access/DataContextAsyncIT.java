@@ -0,0 +1,142 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.apache.cayenne.CayenneRuntimeException;
+import org.apache.cayenne.PersistenceState;
+import org.apache.cayenne.QueryResponse;
+import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.query.ObjectSelect;
+import org.apache.cayenne.query.QueryChain;
+import org.apache.cayenne.query.SQLSelect;
+import org.apache.cayenne.test.jdbc.DBHelper;
+import org.apache.cayenne.test.jdbc.TableHelper;
+import org.apache.cayenne.testdo.testmap.Artist;
+import org.apache.cayenne.unit.di.server.CayenneProjects;
+import org.apache.cayenne.unit.di.server.ServerCase;
+import org.apache.cayenne.unit.di.server.UseServerRuntime;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@UseServerRuntime(CayenneProjects.TESTMAP_PROJECT)
+public class DataContextAsyncIT extends ServerCase {
+
+    @Inject
+    private DataContext context;
+
+    @Inject
+    private DBHelper dbHelper;
+
+    @Before
+    public void createArtistsDataSet() throws Exception {
+        TableHelper tArtist = new TableHelper(dbHelper, "ARTIST");
+        tArtist.setColumns("ARTIST_ID", "ARTIST_NAME");
+        for (int i = 1; i <= 10; i++) {
+            tArtist.insert(i, "artist" + i);
+        }
+    }
+
+    @Test
+    public void testExecutorIsSet() {
+        assertNotNull(context.getAsyncQueryExecutor());
+    }
+
+    @Test
+    public void testSelectAsync() throws Exception {
+        List<Artist> artists = ObjectSelect.query(Artist.class).selectAsync(context).get();
+        assertEquals(10, artists.size());
+        for (Artist artist : artists) {
+            assertSame(context, artist.getObjectContext());
+            assertSame(artist, context.getGraphManager().getNode(artist.getObjectId()));
+        }
+    }
+
+    @Test
+    public void testSelectAsyncFanOut() throws Exception {
+        List<CompletableFuture<List<Artist>>> futures = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            futures.add(ObjectSelect.query(Artist.class)
+                    .where(Artist.ARTIST_NAME.eq("artist" + i))
+                    .selectAsync(context));
+        }
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
+        for (int i = 0; i < futures.size(); i++) {
+            List<Artist> result = futures.get(i).get();
+            assertEquals(1, result.size());
+            assertEquals("artist" + (i + 1), result.get(0).getArtistName());
+        }
+
+        assertEquals(10, context.getObjectStore().registeredObjectsCount());
+    }
+
+    @Test
+    public void testSQLSelectAsync() throws Exception {
+        List<String> names = SQLSelect.scalarQuery(String.class, "SELECT ARTIST_NAME FROM ARTIST ORDER BY ARTIST_ID")
+                .selectAsync(context).get();
+        assertEquals(10, names.size());
+        assertEquals("artist1", names.get(0));
+    }
+
+    @Test
+    public void testSelectAsyncFailure() throws Exception {
+        try {
+            SQLSelect.dataRowQuery("SELECT * FROM NO_SUCH_TABLE").selectAsync(context).get();
+            fail("Must have failed");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof CayenneRuntimeException);
+        }
+    }
+
+    @Test
+    public void testPerformGenericQueryAsync() throws Exception {
+        QueryChain chain = new QueryChain();
+        chain.addQuery(ObjectSelect.query(Artist.class));
+        chain.addQuery(ObjectSelect.query(Artist.class).where(Artist.ARTIST_NAME.eq("artist1")));
+
+        QueryResponse response = context.performGenericQueryAsync(chain).get();
+        assertEquals(2, response.size());
+        response.reset();
+        response.next();
+        assertEquals(10, response.currentList().size());
+        response.next();
+        assertEquals(1, response.currentList().size());
+    }
+
+    @Test
+    public void testCommitChangesAsync() throws Exception {
+        Artist artist = context.newObject(Artist.class);
+        artist.setArtistName("async");
+
+        context.commitChangesAsync().get();
+        assertEquals(PersistenceState.COMMITTED, artist.getPersistenceState());
+        assertEquals(11, ObjectSelect.query(Artist.class).selectCount(context));
+    }
+}
@@ -0,0 +1,229 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.access;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.cayenne.CayenneRuntimeException;
+import org.apache.cayenne.ObjectId;
+import org.apache.cayenne.PersistenceState;
+import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.test.jdbc.DBHelper;
+import org.apache.cayenne.test.jdbc.TableHelper;
+import org.apache.cayenne.testdo.testmap.Artist;
+import org.apache.cayenne.testdo.testmap.Exhibit;
+import org.apache.cayenne.testdo.testmap.Gallery;
+import org.apache.cayenne.testdo.testmap.Painting;
+import org.apache.cayenne.unit.di.server.CayenneProjects;
+import org.apache.cayenne.unit.di.server.ServerCase;
+import org.apache.cayenne.unit.di.server.UseServerRuntime;
+import org.apache.cayenne.validation.ValidationException;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@UseServerRuntime(CayenneProjects.TESTMAP_PROJECT)
+public class DataContextCommitChunksIT extends ServerCase {
+
+    @Inject
+    private DataContext context;
+
+    @Inject
+    private DBHelper dbHelper;
+
+    private TableHelper tArtist;
+    private TableHelper tPainting;
+    private TableHelper tGallery;
+    private TableHelper tExhibit;
+
+    @Before
+    public void setUp() {
+        tArtist = new TableHelper(dbHelper, "ARTIST");
+        tPainting = new TableHelper(dbHelper, "PAINTING");
+        tGallery = new TableHelper(dbHelper, "GALLERY");
+        tExhibit = new TableHelper(dbHelper, "EXHIBIT");
+    }
+
+    @Test
+    public void testCommitChangesInChunks() throws Exception {
+        List<Artist> artists = new ArrayList<>();
+
+        // each artist with a painting is two changed objects
+        context.commitChangesInChunks(4, () -> {
+            for (int i = 0; i < 5; i++) {
+                Artist artist = context.newObject(Artist.class);
+                artist.setArtistName("artist" + i);
+
+                Painting painting = context.newObject(Painting.class);
+                painting.setPaintingTitle("painting" + i);
+                painting.setToArtist(artist);
+
+                artists.add(artist);
+
+                if (i == 2) {
+                    // the first two pairs were committed when the third artist was created
+                    assertEquals(PersistenceState.HOLLOW, artists.get(0).getPersistenceState());
+                    assertEquals(PersistenceState.NEW, artists.get(2).getPersistenceState());
+                }
+            }
+        });
+
+        assertEquals(5, tArtist.getRowCount());
+        assertEquals(5, tPainting.getRowCount());
+        assertEquals(0, context.getObjectStore().changedObjectsCount());
+        assertEquals(0, context.getCommitChunkSize());
+
+        for (Artist artist : artists) {
+            assertEquals(PersistenceState.HOLLOW, artist.getPersistenceState());
+            assertEquals(1, artist.getPaintingArray().size());
+        }
+    }
+
+    @Test
+    public void testCommitChangesInChunks_ReleasedLocally() throws Exception {
+        List<Artist> artists = new ArrayList<>();
+
+        context.commitChangesInChunks(2, () -> {
+            for (int i = 0; i < 3; i++) {
+                Artist artist = context.newObject(Artist.class);
+                artist.setArtistName("artist" + i);
+                artists.add(artist);
+            }
+
+            // committed objects are dropped from the context, but not from the shared cache
+            ObjectId id = artists.get(0).getObjectId();
+            assertNull(context.getObjectStore().getNode(id));
+            assertNotNull(context.getObjectStore().getDataRowCache().getCachedSnapshot(id));
+        });
+
+        Artist artist = artists.get(0);
+        assertEquals(PersistenceState.HOLLOW, artist.getPersistenceState());
+        assertEquals("artist0", artist.getArtistName());
+        assertEquals(PersistenceState.COMMITTED, artist.getPersistenceState());
+        assertSame(artist, context.getObjectStore().getNode(artist.getObjectId()));
+    }
+
+    @Test
+    public void testCommitChangesInChunks_Rollback() throws Exception {
+        try {
+            context.commitChangesInChunks(2, () -> {
+                for (int i = 0; i < 5; i++) {
+                    context.newObject(Artist.class).setArtistName("artist" + i);
+                }
+
+                throw new IllegalStateException("test");
+            });
+            fail("exception expected");
+        } catch (CayenneRuntimeException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+
+        assertEquals(0, tArtist.getRowCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCommitChangesInChunks_InvalidSize() {
+        context.commitChangesInChunks(0, () -> {});
+    }
+
+    @Test
+    public void testSetCommitChunkSize() throws Exception {
+        context.setCommitChunkSize(2);
+
+        Artist a1 = context.newObject(Artist.class);
+        a1.setArtistName("artist1");
+        Artist a2 = context.newObject(Artist.class);
+        a2.setArtistName("artist2");
+        assertEquals(0, tArtist.getRowCount());
+
+        Artist a3 = context.newObject(Artist.class);
+        a3.setArtistName("artist3");
+        assertEquals(2, tArtist.getRowCount());
+        assertEquals(PersistenceState.HOLLOW, a1.getPersistenceState());
+        assertEquals(PersistenceState.NEW, a3.getPersistenceState());
+
+        context.commitChanges();
+        assertEquals(3, tArtist.getRowCount());
+    }
+
+    @Test
+    public void testCommitChangesInChunks_MandatoryToOneAtChunkBoundary() throws Exception {
+        context.commitChangesInChunks(3, () -> {
+            Gallery gallery = context.newObject(Gallery.class);
+            gallery.setGalleryName("gallery");
+
+            for (int i = 0; i < 4; i++) {
+                // every other exhibit is the third changed object, i.e. it fills up a chunk
+                Exhibit exhibit = context.newObject(Exhibit.class);
+                exhibit.setOpeningDate(new Date());
+                exhibit.setClosingDate(new Date());
+                exhibit.setToGallery(gallery);
+            }
+        });
+
+        assertEquals(1, tGallery.getRowCount());
+        assertEquals(4, tExhibit.getRowCount());
+    }
+
+    @Test
+    public void testSetCommitChunkSize_HalfInitializedObject() throws Exception {
+        context.setCommitChunkSize(3);
+
+        Gallery g1 = context.newObject(Gallery.class);
+        g1.setGalleryName("g1");
+        Exhibit e1 = context.newObject(Exhibit.class);
+        e1.setOpeningDate(new Date());
+        e1.setClosingDate(new Date());
+        e1.setToGallery(g1);
+
+        // the third changed object, its mandatory gallery is not set yet
+        Exhibit e2 = context.newObject(Exhibit.class);
+        e2.setOpeningDate(new Date());
+        e2.setClosingDate(new Date());
+
+        // creating the gallery commits the chunk, including e2 without a gallery
+        try {
+            context.newObject(Gallery.class);
+            fail("ValidationException expected");
+        } catch (ValidationException e) {
+            // expected
+        }
+
+        assertEquals(0, tGallery.getRowCount());
+        assertEquals(0, tExhibit.getRowCount());
+        assertEquals(PersistenceState.NEW, e2.getPersistenceState());
+        assertEquals(3, context.getObjectStore().changedObjectsCount());
+
+        // once the changes are valid, the chunk is committed
+        e2.setToGallery(g1);
+        Gallery g2 = context.newObject(Gallery.class);
+        assertEquals(1, tGallery.getRowCount());
+        assertEquals(2, tExhibit.getRowCount());
+        assertEquals(PersistenceState.NEW, g2.getPersistenceState());
+    }
+}
@@ -18,10 +18,13 @@
  ****************************************************************/
 package org.apache.cayenne.access;
 
+import org.apache.cayenne.Cayenne;
+import org.apache.cayenne.DataChannelQueryFilter;
 import org.apache.cayenne.PersistenceState;
 import org.apache.cayenne.ValueHolder;
 import org.apache.cayenne.di.Inject;
 import org.apache.cayenne.query.ObjectSelect;
+import org.apache.cayenne.query.PrefetchSelectQuery;
 import org.apache.cayenne.query.SQLSelect;
 import org.apache.cayenne.query.SortOrder;
 import org.apache.cayenne.test.jdbc.DBHelper;
@@ -40,11 +43,15 @@ import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 @UseServerRuntime(CayenneProjects.TESTMAP_PROJECT)
 public class DataContextDisjointByIdPrefetchIT extends ServerCase {
@@ -264,4 +271,136 @@ public class DataContextDisjointByIdPrefetchIT extends ServerCase {
         });
     }
 
+    @Test
+    public void testManyToOne_Chunked() throws Exception {
+        createThreeArtistsWithPlentyOfPaintingsDataSet();
+
+        DataDomain domain = context.getParentDataDomain();
+        int chunkSize = domain.getPrefetchChunkSize();
+        domain.setPrefetchChunkSize(2);
+        try {
+            int queries = queryInterceptor.runWithQueryCounter(() -> {
+                List<Painting> result = ObjectSelect.query(Painting.class)
+                        .prefetch(Painting.TO_ARTIST.disjointById())
+                        .select(context);
+                assertPaintingsWithArtists(result);
+            });
+
+            // main query + two prefetch chunks for three artists
+            assertEquals(3, queries);
+        } finally {
+            domain.setPrefetchChunkSize(chunkSize);
+        }
+    }
+
+    @Test
+    public void testOneToMany_ChunkedParallel() throws Exception {
+        createThreeArtistsWithPlentyOfPaintingsDataSet();
+
+        DataDomain domain = context.getParentDataDomain();
+        int chunkSize = domain.getPrefetchChunkSize();
+        int parallelism = domain.getPrefetchParallelism();
+        domain.setPrefetchChunkSize(1);
+        domain.setPrefetchParallelism(3);
+        try {
+            List<Artist> result = ObjectSelect.query(Artist.class)
+                    .prefetch(Artist.PAINTING_ARRAY.disjointById())
+                    .orderBy(Artist.ARTIST_NAME.asc())
+                    .select(context);
+
+            queryInterceptor.runWithQueriesBlocked(() -> {
+                assertEquals(3, result.size());
+                assertEquals(5, result.get(0).getPaintingArray().size());
+                assertEquals(2, result.get(1).getPaintingArray().size());
+                assertEquals(3, result.get(2).getPaintingArray().size());
+
+                for (Artist a : result) {
+                    for (Painting p : a.getPaintingArray()) {
+                        assertEquals(PersistenceState.COMMITTED, p.getPersistenceState());
+                        assertEquals(a, p.getToArtist());
+                    }
+                }
+            });
+        } finally {
+            domain.setPrefetchChunkSize(chunkSize);
+            domain.setPrefetchParallelism(parallelism);
+        }
+    }
+
+    @Test
+    public void testManyToOne_ChunkedParallel() throws Exception {
+        createThreeArtistsWithPlentyOfPaintingsDataSet();
+
+        DataDomain domain = context.getParentDataDomain();
+        int chunkSize = domain.getPrefetchChunkSize();
+        int parallelism = domain.getPrefetchParallelism();
+        domain.setPrefetchChunkSize(1);
+        domain.setPrefetchParallelism(2);
+        try {
+            List<Painting> result = ObjectSelect.query(Painting.class)
+                    .prefetch(Painting.TO_ARTIST.disjointById())
+                    .select(context);
+            assertPaintingsWithArtists(result);
+        } finally {
+            domain.setPrefetchChunkSize(chunkSize);
+            domain.setPrefetchParallelism(parallelism);
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testChunkedParallel_WorkerError() throws Exception {
+        createThreeArtistsWithPlentyOfPaintingsDataSet();
+
+        Thread callingThread = Thread.currentThread();
+        CountDownLatch workerStarted = new CountDownLatch(1);
+        AssertionError workerError = new AssertionError("prefetch worker failure");
+
+        // make sure that a background worker gets to run one of the queries and fails with an Error
+        DataChannelQueryFilter filter = (originatingContext, query, filterChain) -> {
+            if (query instanceof PrefetchSelectQuery) {
+                if (Thread.currentThread() != callingThread) {
+                    workerStarted.countDown();
+                    throw workerError;
+                }
+
+                try {
+                    workerStarted.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return filterChain.onQuery(originatingContext, query);
+        };
+
+        DataDomain domain = context.getParentDataDomain();
+        int chunkSize = domain.getPrefetchChunkSize();
+        int parallelism = domain.getPrefetchParallelism();
+        domain.setPrefetchChunkSize(1);
+        domain.setPrefetchParallelism(3);
+        domain.addQueryFilter(filter);
+        try {
+            ObjectSelect.query(Artist.class)
+                    .prefetch(Artist.PAINTING_ARRAY.disjointById())
+                    .select(context);
+            fail("Worker error must be rethrown on the calling thread");
+        } catch (AssertionError e) {
+            assertSame(workerError, e);
+        } finally {
+            domain.removeQueryFilter(filter);
+            domain.setPrefetchChunkSize(chunkSize);
+            domain.setPrefetchParallelism(parallelism);
+        }
+    }
+
+    private void assertPaintingsWithArtists(List<Painting> result) {
+        queryInterceptor.runWithQueriesBlocked(() -> {
+            assertEquals(10, result.size());
+            for (Painting p : result) {
+                Artist a = (Artist) p.readPropertyDirectly(Painting.TO_ARTIST.getName());
+                assertNotNull(a);
+                assertEquals(PersistenceState.COMMITTED, a.getPersistenceState());
+                assertEquals("bag" + Cayenne.longPKForObject(a), a.getArtistName());
+            }
+        });
+    }
 }
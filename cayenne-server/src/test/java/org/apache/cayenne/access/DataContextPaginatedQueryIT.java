@@ -32,8 +32,10 @@ import org.apache.cayenne.unit.di.server.UseServerRuntime;
 import org.junit.Before;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 @UseServerRuntime(CayenneProjects.TESTMAP_PROJECT)
 public class DataContextPaginatedQueryIT extends ServerCase {
@@ -92,4 +94,28 @@ public class DataContextPaginatedQueryIT extends ServerCase {
         assertNotNull(results4);
         assertSame(results1, results4);
     }
+
+    @Test
+    public void testReadAhead() throws Exception {
+        createArtistsDataSet();
+
+        DataDomain domain = context.getParentDataDomain();
+        int readAhead = domain.getPaginatedReadAhead();
+        domain.setPaginatedReadAhead(3);
+        try {
+            List<Artist> results = ObjectSelect.query(Artist.class)
+                    .orderBy(Artist.ARTIST_NAME.asc())
+                    .pageSize(2)
+                    .select(context);
+
+            assertTrue(results instanceof IncrementalFaultList);
+            assertEquals(3, ((IncrementalFaultList<?>) results).getReadAheadPages());
+
+            for (int i = 0; i < results.size(); i++) {
+                assertNotNull(results.get(i).getArtistName());
+            }
+        } finally {
+            domain.setPaginatedReadAhead(readAhead);
+        }
+    }
 }
@@ -19,12 +19,17 @@
 package org.apache.cayenne.access;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 import org.apache.cayenne.DataRow;
 import org.apache.cayenne.QueryResponse;
 import org.apache.cayenne.di.Inject;
 import org.apache.cayenne.query.ObjectSelect;
 import org.apache.cayenne.query.QueryChain;
+import org.apache.cayenne.query.SQLSelect;
+import org.apache.cayenne.query.SQLTemplate;
 import org.apache.cayenne.testdo.testmap.Artist;
 import org.apache.cayenne.unit.di.server.CayenneProjects;
 import org.apache.cayenne.unit.di.server.ServerCase;
@@ -32,6 +37,7 @@ import org.apache.cayenne.unit.di.server.UseServerRuntime;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 @UseServerRuntime(CayenneProjects.TESTMAP_PROJECT)
@@ -64,4 +70,76 @@ public class DataContextQueryChainIT extends ServerCase {
         assertTrue(l1.get(0) instanceof DataRow);
         assertTrue(l2.get(0) instanceof DataRow);
     }
+
+    @Test
+    public void testParallelSelectQueries() {
+        for (int i = 1; i <= 5; i++) {
+            Artist a = context.newObject(Artist.class);
+            a.setArtistName("a" + i);
+        }
+        context.commitChanges();
+
+        QueryChain chain = new QueryChain();
+        for (int i = 1; i <= 5; i++) {
+            chain.addQuery(ObjectSelect.query(Artist.class).where(Artist.ARTIST_NAME.eq("a" + i)));
+        }
+        chain.addQuery(SQLSelect.scalarQuery(Integer.class, "SELECT COUNT(*) FROM ARTIST"));
+
+        QueryResponse sequential = context.performGenericQuery(chain);
+        chain.setParallel(true);
+
+        DataDomain domain = context.getParentDataDomain();
+        AtomicInteger submitted = new AtomicInteger();
+        AsyncQueryExecutor executor = domain.getAsyncQueryExecutor();
+        domain.setAsyncQueryExecutor(new AsyncQueryExecutor() {
+            @Override
+            public <T> CompletableFuture<T> submit(Supplier<T> task) {
+                submitted.incrementAndGet();
+                return executor.submit(task);
+            }
+        });
+
+        QueryResponse r;
+        try {
+            r = context.performGenericQuery(chain);
+        } finally {
+            domain.setAsyncQueryExecutor(executor);
+        }
+
+        assertEquals(5, submitted.get());
+        assertEquals(sequential.size(), r.size());
+
+        r.reset();
+        for (int i = 1; i <= 5; i++) {
+            r.next();
+            List<?> rows = r.currentList();
+            assertEquals(1, rows.size());
+            assertEquals("a" + i, ((DataRow) rows.get(0)).get("ARTIST_NAME"));
+        }
+
+        r.next();
+        assertEquals(5, ((Number) r.currentList().get(0)).intValue());
+
+        for (sequential.reset(), r.reset(); sequential.next() && r.next(); ) {
+            assertEquals(sequential.isList(), r.isList());
+        }
+    }
+
+    @Test
+    public void testParallelChainWithUpdatesRunsSequentially() {
+        QueryChain chain = new QueryChain();
+        chain.setParallel(true);
+        chain.addQuery(new SQLTemplate(Artist.class, "INSERT INTO ARTIST (ARTIST_ID, ARTIST_NAME) VALUES (1, 'a1')"));
+        chain.addQuery(ObjectSelect.query(Artist.class));
+
+        assertFalse(ParallelQueryChainAction.canRunInParallel(context.getParentDataDomain(), chain));
+
+        QueryResponse r = context.performGenericQuery(chain);
+        assertEquals(2, r.size());
+        r.reset();
+        r.next();
+        assertFalse(r.isList());
+        r.next();
+        assertEquals(1, r.currentList().size());
+    }
 }
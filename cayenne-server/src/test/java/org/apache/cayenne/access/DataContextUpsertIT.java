@@ -0,0 +1,223 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.access;
+
+import java.util.List;
+
+import org.apache.cayenne.CayenneRuntimeException;
+import org.apache.cayenne.ObjectId;
+import org.apache.cayenne.PersistenceState;
+import org.apache.cayenne.access.flush.DataDomainFlushActionFactory;
+import org.apache.cayenne.configuration.server.ServerRuntime;
+import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.query.ObjectSelect;
+import org.apache.cayenne.test.jdbc.DBHelper;
+import org.apache.cayenne.test.jdbc.TableHelper;
+import org.apache.cayenne.testdo.testmap.ArtGroup;
+import org.apache.cayenne.testdo.testmap.Artist;
+import org.apache.cayenne.testdo.testmap.CompoundPainting;
+import org.apache.cayenne.unit.UnitDbAdapter;
+import org.apache.cayenne.unit.di.server.CayenneProjects;
+import org.apache.cayenne.unit.di.server.ServerCase;
+import org.apache.cayenne.unit.di.server.UseServerRuntime;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+@UseServerRuntime(CayenneProjects.TESTMAP_PROJECT)
+public class DataContextUpsertIT extends ServerCase {
+
+    @Inject
+    private DataContext context;
+
+    @Inject
+    private ServerRuntime runtime;
+
+    @Inject
+    private DBHelper dbHelper;
+
+    @Inject
+    private UnitDbAdapter accessStackAdapter;
+
+    private TableHelper tArtist;
+
+    @Before
+    public void setUp() throws Exception {
+        assumeTrue(accessStackAdapter.supportsUpsert());
+
+        tArtist = new TableHelper(dbHelper, "ARTIST");
+        tArtist.setColumns("ARTIST_ID", "ARTIST_NAME");
+    }
+
+    @Test
+    public void testUpsert() throws Exception {
+        tArtist.insert(33001, "artist1");
+
+        Artist existing = newArtist(33001, "artist1_updated");
+        Artist added = newArtist(33002, "artist2");
+        context.registerForUpsert(existing);
+        context.registerForUpsert(added);
+
+        context.commitChanges();
+
+        assertEquals(PersistenceState.COMMITTED, existing.getPersistenceState());
+        assertEquals(PersistenceState.COMMITTED, added.getPersistenceState());
+        assertEquals(33001L, existing.getObjectId().getIdSnapshot().get("ARTIST_ID"));
+
+        List<Artist> artists = ObjectSelect.query(Artist.class)
+                .orderBy(Artist.ARTIST_NAME.asc())
+                .select(runtime.newContext());
+        assertEquals(2, artists.size());
+        assertEquals("artist1_updated", artists.get(0).getArtistName());
+        assertEquals("artist2", artists.get(1).getArtistName());
+    }
+
+    @Test
+    public void testUpsert_MixedWithInsert() throws Exception {
+        tArtist.insert(33001, "artist1");
+
+        context.registerForUpsert(newArtist(33001, "artist1_updated"));
+        Artist inserted = context.newObject(Artist.class);
+        inserted.setArtistName("artist3");
+
+        context.commitChanges();
+
+        assertEquals(2, tArtist.getRowCount());
+        assertEquals(1, tArtist.selectAll().stream().filter(r -> "artist1_updated".equals(((String) r[1]).trim())).count());
+    }
+
+    @Test
+    public void testUpsert_UnsetAttributeOverwritten() throws Exception {
+        tArtist.setColumns("ARTIST_ID", "ARTIST_NAME", "DATE_OF_BIRTH")
+                .insert(33001, "artist1", new java.sql.Date(System.currentTimeMillis()));
+
+        // DATE_OF_BIRTH is never set, so it must be written as NULL
+        context.registerForUpsert(newArtist(33001, "artist1_updated"));
+        context.commitChanges();
+
+        Object[] row = tArtist.select();
+        assertEquals("artist1_updated", ((String) row[1]).trim());
+        assertNull(row[2]);
+    }
+
+    @Test
+    public void testUpsert_LegacyFlushAction() throws Exception {
+        DataDomain domain = runtime.getDataDomain();
+        DataDomainFlushActionFactory defaultFactory = domain.flushActionFactory;
+        domain.flushActionFactory = LegacyDataDomainFlushAction::new;
+
+        try {
+            context.registerForUpsert(newArtist(33001, "artist1"));
+            context.commitChanges();
+            fail("Upsert must not run as a plain insert");
+        } catch (CayenneRuntimeException e) {
+            // expected
+        } finally {
+            domain.flushActionFactory = defaultFactory;
+        }
+
+        assertEquals(0, tArtist.getRowCount());
+    }
+
+    @Test
+    public void testUpsert_NoKey() {
+        Artist artist = context.newObject(Artist.class);
+        artist.setArtistName("artist1");
+        context.registerForUpsert(artist);
+
+        try {
+            context.commitChanges();
+            fail("Upsert without a key must fail");
+        } catch (CayenneRuntimeException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testRegisterForUpsert_Committed() throws Exception {
+        tArtist.insert(33001, "artist1");
+        Artist artist = ObjectSelect.query(Artist.class).selectOne(context);
+
+        try {
+            context.registerForUpsert(artist);
+            fail("Only NEW objects can be upserted");
+        } catch (CayenneRuntimeException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testRegisterForUpsert_ClearedOnRollback() {
+        Artist artist = newArtist(33001, "artist1");
+        ObjectId id = artist.getObjectId();
+        context.registerForUpsert(artist);
+        assertTrue(context.getObjectStore().isRegisteredForUpsert(id));
+
+        context.rollbackChanges();
+        assertFalse(context.getObjectStore().isRegisteredForUpsert(id));
+    }
+
+    @Test
+    public void testRegisterForUpsert_FlattenedAttribute() {
+        CompoundPainting painting = context.newObject(CompoundPainting.class);
+        painting.setPaintingTitle("painting1");
+
+        try {
+            context.registerForUpsert(painting);
+            fail("Entities mapped to more than one table can't be upserted");
+        } catch (CayenneRuntimeException e) {
+            // expected
+        }
+        assertFalse(context.getObjectStore().isRegisteredForUpsert(painting.getObjectId()));
+    }
+
+    @Test
+    public void testUpsert_FlattenedRelationship() throws Exception {
+        new TableHelper(dbHelper, "ARTGROUP").setColumns("GROUP_ID", "NAME").insert(33101, "group1");
+        ArtGroup group = ObjectSelect.query(ArtGroup.class).selectOne(context);
+
+        Artist artist = newArtist(33001, "artist1");
+        artist.addToGroupArray(group);
+        context.registerForUpsert(artist);
+
+        try {
+            context.commitChanges();
+            fail("Join table row of an upserted object can't be inserted");
+        } catch (CayenneRuntimeException e) {
+            // expected
+        }
+
+        assertEquals(0, tArtist.getRowCount());
+        assertEquals(0, new TableHelper(dbHelper, "ARTIST_GROUP").getRowCount());
+    }
+
+    private Artist newArtist(long id, String name) {
+        Artist artist = context.newObject(Artist.class);
+        artist.setArtistName(name);
+        artist.getObjectId().getReplacementIdMap().put(Artist.ARTIST_ID_PK_COLUMN, id);
+        return artist;
+    }
+}
@@ -23,6 +23,7 @@ import org.apache.cayenne.DataRow;
 import org.apache.cayenne.ObjectId;
 import org.apache.cayenne.configuration.Constants;
 import org.apache.cayenne.configuration.DefaultRuntimeProperties;
+import org.apache.cayenne.event.MockEventManager;
 import org.apache.cayenne.testdo.testmap.Artist;
 import org.apache.cayenne.unit.di.server.CayenneProjects;
 import org.apache.cayenne.unit.di.server.ServerCase;
@@ -37,6 +38,7 @@ import java.util.Map;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -123,4 +125,72 @@ public class DataRowStoreIT extends ServerCase {
         assertNotNull(cache.getCachedSnapshot(key3));
         assertNull(cache.getCachedSnapshot(key1));
     }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testSnapshotsMap() {
+        cache = new DataRowStore(
+                "cacheXYZ",
+                new DefaultRuntimeProperties(Collections.<String, String>emptyMap()),
+                new MockEventManager());
+
+        ObjectId key = ObjectId.of("Artist", Artist.ARTIST_ID_PK_COLUMN, 1);
+        DataRow row = new DataRow(2);
+        row.put(Artist.ARTIST_ID_PK_COLUMN, 1);
+        row.put("ARTIST_NAME", "a1");
+
+        // subclasses accessing the legacy map must see the snapshots of the heap storage
+        cache.snapshots.put(key, row);
+        assertSame(row, cache.getCachedSnapshot(key));
+        assertEquals(1, cache.size());
+
+        cache = new DataRowStore(
+                "cacheXYZ",
+                new DefaultRuntimeProperties(Collections.<String, String>emptyMap()),
+                new MockEventManager(),
+                new OffHeapSnapshotStorage(1024 * 1024));
+        assertNull(cache.snapshots);
+    }
+
+    @Test
+    public void testOffHeapStorage() {
+        cache = new DataRowStore(
+                "cacheXYZ",
+                new DefaultRuntimeProperties(Collections.<String, String>emptyMap()),
+                new MockEventManager(),
+                new OffHeapSnapshotStorage(1024 * 1024));
+
+        ObjectId key = ObjectId.of("Artist", Artist.ARTIST_ID_PK_COLUMN, 1);
+        DataRow row = new DataRow(2);
+        row.put(Artist.ARTIST_ID_PK_COLUMN, 1);
+        row.put("ARTIST_NAME", "a1");
+
+        cache.processSnapshotChanges(
+                this,
+                Collections.singletonMap(key, row),
+                Collections.<ObjectId>emptyList(),
+                Collections.<ObjectId>emptyList(),
+                Collections.<ObjectId>emptyList());
+        assertEquals(1, cache.size());
+
+        DataRow cached = cache.getCachedSnapshot(key);
+        assertEquals(row, cached);
+        assertEquals(row.getVersion(), cached.getVersion());
+
+        // an update based on the cached version must be accepted
+        DataRow updated = new DataRow(cached);
+        updated.put("ARTIST_NAME", "a2");
+        updated.setReplacesVersion(cached.getVersion());
+
+        cache.processSnapshotChanges(
+                this,
+                Collections.singletonMap(key, updated),
+                Collections.<ObjectId>emptyList(),
+                Collections.<ObjectId>emptyList(),
+                Collections.<ObjectId>emptyList());
+        assertEquals("a2", cache.getCachedSnapshot(key).get("ARTIST_NAME"));
+
+        cache.forgetSnapshot(key);
+        assertNull(cache.getCachedSnapshot(key));
+    }
 }
@@ -54,6 +54,7 @@ import org.junit.Test;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 @UseServerRuntime(CayenneProjects.MULTI_TIER_PROJECT)
 public class DefaultDataRowStoreFactoryIT extends ServerCase {
@@ -94,6 +95,28 @@ public class DefaultDataRowStoreFactoryIT extends ServerCase {
         assertNull(dataStore.getEventBridge());
     }
 
+    @Test
+    public void testGetDataRowStoreOffHeap() {
+        final DataDomain DOMAIN = new DataDomain("test");
+        final EventManager EVENT_MANAGER = new DefaultEventManager();
+
+        Module testModule = binder -> {
+            binder.bind(DataDomain.class).toInstance(DOMAIN);
+            binder.bind(EventManager.class).toInstance(EVENT_MANAGER);
+            binder.bind(RuntimeProperties.class).to(DefaultRuntimeProperties.class);
+            binder.bind(EventBridge.class).toProvider(NoopEventBridgeProvider.class);
+            binder.bind(DataRowStoreFactory.class).to(DefaultDataRowStoreFactory.class);
+            ServerModule.setSnapshotCacheOffHeapSize(binder, 1024 * 1024);
+        };
+
+        Injector injector = DIBootstrap.createInjector(testModule);
+        DataRowStore dataStore = injector.getInstance(DataRowStoreFactory.class)
+                .createDataRowStore("test");
+
+        assertTrue(dataStore.getSnapshotStorage() instanceof OffHeapSnapshotStorage);
+        assertEquals(1024 * 1024, ((OffHeapSnapshotStorage) dataStore.getSnapshotStorage()).getCapacity());
+    }
+
     @Test
     public void testGetDataRowStoreWithBridge() {
         final DataDomain DOMAIN = new DataDomain("test");
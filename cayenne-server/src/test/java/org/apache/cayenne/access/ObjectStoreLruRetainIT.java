@@ -0,0 +1,93 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access;
+
+import java.util.List;
+
+import org.apache.cayenne.PersistenceState;
+import org.apache.cayenne.configuration.server.ServerRuntime;
+import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.query.ObjectSelect;
+import org.apache.cayenne.test.jdbc.DBHelper;
+import org.apache.cayenne.test.jdbc.TableHelper;
+import org.apache.cayenne.testdo.testmap.Artist;
+import org.apache.cayenne.unit.di.server.CayenneProjects;
+import org.apache.cayenne.unit.di.server.ServerCase;
+import org.apache.cayenne.unit.di.server.UseServerRuntime;
+import org.apache.cayenne.util.LruObjectMap;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+@UseServerRuntime(CayenneProjects.TESTMAP_PROJECT)
+public class ObjectStoreLruRetainIT extends ServerCase {
+
+    @Inject
+    private ServerRuntime runtime;
+
+    @Inject
+    private DBHelper dbHelper;
+
+    @Before
+    public void setUp() throws Exception {
+        TableHelper tArtist = new TableHelper(dbHelper, "ARTIST");
+        tArtist.setColumns("ARTIST_ID", "ARTIST_NAME");
+        for (int i = 1; i <= 20; i++) {
+            tArtist.insert(i, "artist" + i);
+        }
+    }
+
+    @Test
+    public void testEvictedObjectsAreHollow() {
+        DataDomain domain = runtime.getDataDomain();
+        DataContext context = new DataContext(domain,
+                new ObjectStore(domain.getSharedSnapshotCache(), new LruObjectMap<>(5)));
+
+        List<Artist> artists = ObjectSelect.query(Artist.class).orderBy(Artist.ARTIST_NAME.asc()).select(context);
+        assertEquals(20, artists.size());
+        assertEquals(20, context.getObjectStore().registeredObjectsCount());
+
+        int hollow = 0;
+        for (Artist a : artists) {
+            if (a.getPersistenceState() == PersistenceState.HOLLOW) {
+                hollow++;
+            }
+        }
+        assertEquals(15, hollow);
+
+        // evicted objects keep their identity and are resolved on access
+        Artist first = artists.get(0);
+        assertSame(first, context.getObjectStore().getNode(first.getObjectId()));
+        assertEquals("artist1", first.getArtistName());
+        assertEquals(PersistenceState.COMMITTED, first.getPersistenceState());
+
+        // changes made to an evicted object are preserved
+        first.setArtistName("changed");
+        for (Artist a : artists) {
+            a.getArtistName();
+        }
+        assertEquals(PersistenceState.MODIFIED, first.getPersistenceState());
+        context.commitChanges();
+
+        assertEquals("changed", ObjectSelect.columnQuery(Artist.class, Artist.ARTIST_NAME)
+                .where(Artist.ARTIST_NAME.eq("changed")).selectOne(context));
+    }
+}
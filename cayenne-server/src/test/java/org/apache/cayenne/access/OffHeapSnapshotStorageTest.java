@@ -0,0 +1,161 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.access;
+
+import org.apache.cayenne.DataRow;
+import org.apache.cayenne.ObjectId;
+import org.apache.cayenne.util.Util;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class OffHeapSnapshotStorageTest {
+
+    private static DataRow row(int id, String name) {
+        DataRow row = new DataRow(4);
+        row.setEntityName("Artist");
+        row.put("ARTIST_ID", id);
+        row.put("ARTIST_NAME", name);
+        return row;
+    }
+
+    private static ObjectId id(int id) {
+        return ObjectId.of("Artist", "ARTIST_ID", id);
+    }
+
+    @Test
+    public void testPutGet() {
+        OffHeapSnapshotStorage storage = new OffHeapSnapshotStorage(1024 * 1024);
+
+        DataRow row = row(1, "a1");
+        row.put("DATE_OF_BIRTH", new Timestamp(1000L));
+        row.put("ESTIMATED_PRICE", new BigDecimal("10.25"));
+        row.put("NOTES", null);
+        row.setReplacesVersion(5);
+
+        assertNull(storage.put(id(1), row));
+        assertEquals(1, storage.size());
+
+        DataRow cached = storage.get(id(1));
+        assertNotNull(cached);
+        assertEquals(row, cached);
+        assertEquals("Artist", cached.getEntityName());
+        assertEquals(row.getVersion(), cached.getVersion());
+        assertEquals(5, cached.getReplacesVersion());
+
+        assertNull(storage.get(id(2)));
+    }
+
+    @Test
+    public void testReplaceRemove() {
+        OffHeapSnapshotStorage storage = new OffHeapSnapshotStorage(1024 * 1024);
+
+        DataRow r1 = row(1, "a1");
+        DataRow r2 = row(1, "a2");
+        storage.put(id(1), r1);
+
+        DataRow previous = storage.put(id(1), r2);
+        assertEquals(r1, previous);
+        assertEquals(r1.getVersion(), previous.getVersion());
+        assertEquals(1, storage.size());
+        assertEquals("a2", storage.get(id(1)).get("ARTIST_NAME"));
+
+        assertEquals(r2, storage.remove(id(1)));
+        assertNull(storage.remove(id(1)));
+        assertNull(storage.get(id(1)));
+        assertEquals(0, storage.size());
+    }
+
+    @Test
+    public void testEvictionByBytes() {
+        OffHeapSnapshotStorage storage = new OffHeapSnapshotStorage(1024, 256);
+
+        for (int i = 0; i < 1000; i++) {
+            storage.put(id(i), row(i, "artist" + i));
+        }
+
+        assertTrue(storage.size() > 0);
+        assertTrue(storage.size() < 1000);
+
+        // the latest entries are present
+        assertEquals("artist999", storage.get(id(999)).get("ARTIST_NAME"));
+        assertNull(storage.get(id(0)));
+    }
+
+    @Test
+    public void testEvictionKeepsReadEntries() {
+        OffHeapSnapshotStorage storage = new OffHeapSnapshotStorage(1024, 256);
+
+        storage.put(id(0), row(0, "hot"));
+        for (int i = 1; i < 1000; i++) {
+            assertNotNull(storage.get(id(0)));
+            storage.put(id(i), row(i, "artist" + i));
+        }
+
+        assertEquals("hot", storage.get(id(0)).get("ARTIST_NAME"));
+    }
+
+    @Test
+    public void testTooLargeSnapshot() {
+        OffHeapSnapshotStorage storage = new OffHeapSnapshotStorage(1024, 64);
+
+        storage.put(id(1), row(1, "a"));
+        assertNotNull(storage.get(id(1)));
+
+        DataRow large = row(1, new String(new char[100]).replace('\0', 'x'));
+        storage.put(id(1), large);
+        assertNull(storage.get(id(1)));
+        assertEquals(0, storage.size());
+    }
+
+    @Test
+    public void testClear() {
+        OffHeapSnapshotStorage storage = new OffHeapSnapshotStorage(1024 * 1024);
+        storage.put(id(1), row(1, "a1"));
+        storage.put(id(2), row(2, "a2"));
+
+        storage.clear();
+        assertEquals(0, storage.size());
+        assertNull(storage.get(id(1)));
+
+        storage.put(id(3), row(3, "a3"));
+        assertEquals("a3", storage.get(id(3)).get("ARTIST_NAME"));
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        OffHeapSnapshotStorage storage = new OffHeapSnapshotStorage(1024 * 1024, 1024);
+        storage.put(id(1), row(1, "a1"));
+
+        OffHeapSnapshotStorage clone = Util.cloneViaSerialization(storage);
+        assertEquals(1024 * 1024, clone.getCapacity());
+        assertEquals(1024, clone.getSlabSize());
+        assertEquals(0, clone.size());
+
+        clone.put(id(1), row(1, "a1"));
+        assertEquals("a1", clone.get(id(1)).get("ARTIST_NAME"));
+    }
+}
@@ -22,6 +22,7 @@ package org.apache.cayenne.access;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.cayenne.DataObject;
 import org.apache.cayenne.di.Inject;
@@ -29,6 +30,7 @@ import org.apache.cayenne.query.ObjectSelect;
 import org.apache.cayenne.query.SortOrder;
 import org.apache.cayenne.test.jdbc.DBHelper;
 import org.apache.cayenne.test.jdbc.TableHelper;
+import org.apache.cayenne.test.parallel.ParallelTestContainer;
 import org.apache.cayenne.testdo.testmap.Artist;
 import org.apache.cayenne.unit.di.server.CayenneProjects;
 import org.apache.cayenne.unit.di.server.ServerCase;
@@ -158,6 +160,81 @@ public class SimpleIdIncrementalFaultListIT extends ServerCase {
         }
     }
 
+    @Test
+    public void testReadAheadIterator() throws Exception {
+        SimpleIdIncrementalFaultList<?> list = prepareList(6);
+        list.setReadAheadPages(2);
+        assertEquals(2, list.getReadAheadPages());
+
+        Iterator<?> it = list.iterator();
+        int counter = 0;
+        while (it.hasNext()) {
+            Artist artist = (Artist) it.next();
+            assertEquals("artist" + (counter + 1), artist.getArtistName());
+            counter++;
+        }
+
+        assertEquals(25, counter);
+        assertEquals(0, list.getUnfetchedObjects());
+    }
+
+    @Test
+    public void testReadAheadNextPages() throws Exception {
+        final SimpleIdIncrementalFaultList<?> list = prepareList(6);
+        list.setReadAheadPages(2);
+
+        assertTrue(list.get(0) instanceof Artist);
+
+        // pages 1 and 2 are resolved in background, page 3 and 4 are not
+        new ParallelTestContainer() {
+
+            @Override
+            protected void assertResult() throws Exception {
+                assertEquals(25 - 18, list.getUnfetchedObjects());
+            }
+        }.runTest(5000);
+
+        assertTrue(list.elements.get(17) instanceof Artist);
+        assertFalse(list.elements.get(18) instanceof Artist);
+
+        // random access doesn't trigger read-ahead
+        assertTrue(list.get(24) instanceof Artist);
+        assertEquals(25 - 19, list.getUnfetchedObjects());
+    }
+
+    @Test
+    public void testReadAheadOffAfterModification() throws Exception {
+        SimpleIdIncrementalFaultList<?> list = prepareList(6);
+        list.setReadAheadPages(2);
+        assertNotNull(list.pageStates);
+
+        list.remove(0);
+        assertNull(list.pageStates);
+        assertEquals(24, list.size());
+
+        for (int i = 0; i < list.size(); i++) {
+            assertEquals("artist" + (i + 2), ((Artist) list.get(i)).getArtistName());
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testRemoveDuringReadAhead() throws Exception {
+        SimpleIdIncrementalFaultList<?> list = prepareList(6);
+        list.setReadAheadPages(2);
+
+        // emulate a background load of page 1 that is still running
+        CompletableFuture<Void> load = new CompletableFuture<>();
+        list.pageLoads.put(1, load);
+
+        try {
+            Artist removed = (Artist) list.remove(7);
+            assertEquals("artist8", removed.getArtistName());
+            assertEquals(24, list.size());
+        } finally {
+            load.complete(null);
+        }
+    }
+
     @Test
     public void testNewObject() throws Exception {
 
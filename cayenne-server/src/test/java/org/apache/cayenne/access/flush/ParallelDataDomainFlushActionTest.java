@@ -0,0 +1,226 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access.flush;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+
+import org.apache.cayenne.CayenneRuntimeException;
+import org.apache.cayenne.access.DataDomain;
+import org.apache.cayenne.access.DataNode;
+import org.apache.cayenne.access.OperationObserver;
+import org.apache.cayenne.access.flush.operation.DbRowOpSorter;
+import org.apache.cayenne.log.JdbcEventLogger;
+import org.apache.cayenne.map.DataMap;
+import org.apache.cayenne.map.DbAttribute;
+import org.apache.cayenne.map.DbEntity;
+import org.apache.cayenne.map.DbJoin;
+import org.apache.cayenne.map.DbRelationship;
+import org.apache.cayenne.map.EntityResolver;
+import org.apache.cayenne.query.InsertBatchQuery;
+import org.apache.cayenne.query.Query;
+import org.apache.cayenne.query.QueryMetadata;
+import org.apache.cayenne.tx.BaseTransaction;
+import org.apache.cayenne.tx.Transaction;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @since 4.2
+ */
+public class ParallelDataDomainFlushActionTest {
+
+    private ExecutorService executor;
+    private DataDomain dataDomain;
+    private Transaction transaction;
+    private ParallelDataDomainFlushAction action;
+
+    @Before
+    public void before() {
+        executor = Executors.newFixedThreadPool(2);
+        dataDomain = mock(DataDomain.class);
+        when(dataDomain.getEntityResolver()).thenReturn(mock(EntityResolver.class));
+        transaction = mock(Transaction.class);
+        BaseTransaction.bindThreadTransaction(transaction);
+        action = new ParallelDataDomainFlushAction(dataDomain, mock(DbRowOpSorter.class), mock(JdbcEventLogger.class), executor);
+    }
+
+    @After
+    public void after() {
+        BaseTransaction.bindThreadTransaction(null);
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testExecuteQueriesConcurrently() throws Exception {
+        DataNode node1 = mockNode("map1");
+        DataNode node2 = mockNode("map2");
+
+        Query q1 = mockQuery(node1.getDataMap("map1"));
+        Query q2 = mockQuery(node2.getDataMap("map2"));
+        Query q3 = mockQuery(node1.getDataMap("map1"));
+        Query q4 = mockQuery(node2.getDataMap("map2"));
+
+        // each node waits for the other one, so this only completes if they run in parallel
+        CountDownLatch latch = new CountDownLatch(2);
+        List<Transaction> transactions = Collections.synchronizedList(new ArrayList<>());
+        List<List<Query>> executed = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+        for (DataNode node : Arrays.asList(node1, node2)) {
+            doAnswer(invocation -> {
+                latch.countDown();
+                assertTrue(latch.await(5, TimeUnit.SECONDS));
+                transactions.add(BaseTransaction.getThreadTransaction());
+                executed.add(invocation.getArgument(0));
+                threads.add(Thread.currentThread());
+                return null;
+            }).when(node).performQueries(anyList(), any(OperationObserver.class));
+        }
+
+        action.executeQueries(Arrays.asList(q1, q2, q3, q4));
+
+        assertEquals(2, executed.size());
+        assertTrue(executed.contains(Arrays.asList(q1, q3)));
+        assertTrue(executed.contains(Arrays.asList(q2, q4)));
+        assertSame(transaction, transactions.get(0));
+        assertSame(transaction, transactions.get(1));
+        assertNotSame(threads.get(0), threads.get(1));
+        assertTrue(threads.contains(Thread.currentThread()));
+
+        // connections are opened upfront in the calling thread
+        verify(node1.getDataSource()).getConnection();
+        verify(node2.getDataSource()).getConnection();
+    }
+
+    @Test
+    public void testExecuteQueriesSingleNode() throws Exception {
+        DataNode node = mockNode("map1");
+        Query q1 = mockQuery(node.getDataMap("map1"));
+        Query q2 = mockQuery(node.getDataMap("map1"));
+
+        action.executeQueries(Arrays.asList(q1, q2));
+
+        verify(node).performQueries(Arrays.asList(q1, q2), action.observer);
+        verify(node.getDataSource(), times(0)).getConnection();
+    }
+
+    @Test
+    public void testExecuteQueriesFailure() throws Exception {
+        DataNode node1 = mockNode("map1");
+        DataNode node2 = mockNode("map2");
+        Query q1 = mockQuery(node1.getDataMap("map1"));
+        Query q2 = mockQuery(node2.getDataMap("map2"));
+
+        doThrow(new CayenneRuntimeException("test failure"))
+                .when(node2).performQueries(anyList(), any(OperationObserver.class));
+
+        try {
+            action.executeQueries(Arrays.asList(q1, q2));
+            fail("Exception expected");
+        } catch (CayenneRuntimeException e) {
+            assertTrue(e.getMessage().contains("test failure"));
+        }
+
+        verify(node1).performQueries(Collections.singletonList(q1), action.observer);
+    }
+
+    @Test
+    public void testCrossNodeGeneratedKeys() throws Exception {
+        DataNode node1 = mockNode("map1");
+        DataNode node2 = mockNode("map2");
+
+        DbEntity master = new DbEntity("MASTER");
+        DbAttribute pk = new DbAttribute("ID");
+        pk.setPrimaryKey(true);
+        pk.setGenerated(true);
+        master.addAttribute(pk);
+        node1.getDataMap("map1").addDbEntity(master);
+
+        DbEntity detail = new DbEntity("DETAIL");
+        node2.getDataMap("map2").addDbEntity(detail);
+        DbRelationship toMaster = new DbRelationship("toMaster");
+        toMaster.setSourceEntity(detail);
+        toMaster.setTargetEntityName(master);
+        toMaster.addJoin(new DbJoin(toMaster, "MASTER_ID", "ID"));
+        detail.addRelationship(toMaster);
+
+        InsertBatchQuery q1 = new InsertBatchQuery(master, 1);
+        InsertBatchQuery q2 = new InsertBatchQuery(detail, 1);
+
+        when(dataDomain.lookupDataNode(node1.getDataMap("map1"))).thenReturn(node1);
+        when(dataDomain.lookupDataNode(node2.getDataMap("map2"))).thenReturn(node2);
+
+        List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+        for (DataNode node : Arrays.asList(node1, node2)) {
+            doAnswer(invocation -> {
+                threads.add(Thread.currentThread());
+                return null;
+            }).when(node).performQueries(anyList(), any(OperationObserver.class));
+        }
+
+        action.executeQueries(Arrays.asList(q1, q2));
+
+        // sequential execution in the calling thread
+        assertEquals(Arrays.asList(Thread.currentThread(), Thread.currentThread()), threads);
+    }
+
+    private DataNode mockNode(String mapName) throws Exception {
+        DataMap map = new DataMap(mapName);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(mock(Connection.class));
+
+        DataNode node = mock(DataNode.class);
+        when(node.getName()).thenReturn(mapName);
+        when(node.getDataMap(mapName)).thenReturn(map);
+        when(node.getDataSource()).thenReturn(dataSource);
+        when(dataDomain.lookupDataNode(map)).thenReturn(node);
+        return node;
+    }
+
+    private Query mockQuery(DataMap map) {
+        QueryMetadata metadata = mock(QueryMetadata.class);
+        when(metadata.getDataMap()).thenReturn(map);
+        Query query = mock(Query.class);
+        when(query.getMetaData(any())).thenReturn(metadata);
+        return query;
+    }
+}
@@ -19,20 +19,32 @@
 
 package org.apache.cayenne.access.jdbc;
 
+import org.apache.cayenne.ObjectId;
 import org.apache.cayenne.access.DataNode;
+import org.apache.cayenne.access.MockOperationObserver;
 import org.apache.cayenne.access.jdbc.reader.RowReaderFactory;
 import org.apache.cayenne.configuration.server.ServerRuntime;
 import org.apache.cayenne.dba.JdbcAdapter;
 import org.apache.cayenne.di.AdhocObjectFactory;
 import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.map.DbEntity;
 import org.apache.cayenne.map.EntityResolver;
 import org.apache.cayenne.query.InsertBatchQuery;
+import org.apache.cayenne.query.Query;
+import org.apache.cayenne.test.jdbc.DBHelper;
 import org.apache.cayenne.testdo.testmap.Artist;
 import org.apache.cayenne.unit.di.server.CayenneProjects;
 import org.apache.cayenne.unit.di.server.ServerCase;
 import org.apache.cayenne.unit.di.server.UseServerRuntime;
 import org.junit.Test;
 
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.mockito.Mockito.mock;
 
@@ -45,6 +57,9 @@ public class BatchActionIT extends ServerCase {
     @Inject
     private AdhocObjectFactory objectFactory;
 
+    @Inject
+    private DBHelper dbHelper;
+
     @Test
     public void testHasGeneratedKeys1() throws Exception {
         EntityResolver resolver = runtime.getChannel().getEntityResolver();
@@ -77,9 +92,87 @@ public class BatchActionIT extends ServerCase {
         assertFalse(new BatchAction(batch2, node, false).hasGeneratedKeys());
     }
 
+    @Test
+    public void testRunAsBatch_Chunked() throws Exception {
+        DataNode node = buildNode(3, false);
+        InsertBatchQuery batch = buildArtistBatch(10);
+
+        ChunkCountingObserver observer = new ChunkCountingObserver();
+        try (Connection c = node.getDataSource().getConnection()) {
+            c.setAutoCommit(false);
+            new BatchAction(batch, node, true).runAsBatch(c, node.batchTranslator(batch, null), observer, false);
+            c.commit();
+        }
+
+        assertEquals(4, observer.chunks.size());
+        assertEquals(3, observer.chunks.get(0).length);
+        assertEquals(1, observer.chunks.get(3).length);
+        assertEquals(10, dbHelper.getRowCount("ARTIST"));
+    }
+
+    @Test
+    public void testRunAsBatch_Pipelined() throws Exception {
+        DataNode node = buildNode(4, true);
+        InsertBatchQuery batch = buildArtistBatch(10);
+
+        ChunkCountingObserver observer = new ChunkCountingObserver();
+        try (Connection c = node.getDataSource().getConnection()) {
+            c.setAutoCommit(false);
+            new BatchAction(batch, node, true).runAsBatch(c, node.batchTranslator(batch, null), observer, false);
+            c.commit();
+        }
+
+        assertEquals(3, observer.chunks.size());
+        assertEquals(4, observer.chunks.get(0).length);
+        assertEquals(4, observer.chunks.get(1).length);
+        assertEquals(2, observer.chunks.get(2).length);
+        assertEquals(10, dbHelper.getRowCount("ARTIST"));
+    }
+
+    private DataNode buildNode(int maxBatchSize, boolean pipelining) {
+        DataNode runtimeNode = runtime.getDataDomain().getDataNodes().iterator().next();
+
+        DataNode node = new DataNode();
+        node.setAdapter(runtimeNode.getAdapter());
+        node.setDataSource(runtimeNode.getDataSource());
+        node.setEntityResolver(runtime.getChannel().getEntityResolver());
+        node.setRowReaderFactory(mock(RowReaderFactory.class));
+        node.setBatchTranslatorFactory(runtimeNode.getBatchTranslatorFactory());
+        node.setMaxBatchSize(maxBatchSize);
+        if (pipelining) {
+            node.setBatchPipelineExecutor(runtime.getDataDomain().getAsyncQueryExecutor());
+        }
+        return node;
+    }
+
+    private InsertBatchQuery buildArtistBatch(int size) {
+        DbEntity artistEntity = runtime.getChannel().getEntityResolver().getObjEntity(Artist.class).getDbEntity();
+        InsertBatchQuery batch = new InsertBatchQuery(artistEntity, size);
+
+        for (int i = 1; i <= size; i++) {
+            Map<String, Object> snapshot = new HashMap<>();
+            snapshot.put("ARTIST_ID", (long) i);
+            snapshot.put("ARTIST_NAME", "artist" + i);
+            batch.add(snapshot, ObjectId.of("Artist", "ARTIST_ID", (long) i));
+        }
+
+        return batch;
+    }
+
     JdbcAdapter buildAdapter(boolean supportGeneratedKeys) {
         JdbcAdapter adapter = objectFactory.newInstance(JdbcAdapter.class, JdbcAdapter.class.getName());
         adapter.setSupportsGeneratedKeys(supportGeneratedKeys);
         return adapter;
     }
+
+    static class ChunkCountingObserver extends MockOperationObserver {
+
+        final List<int[]> chunks = new ArrayList<>();
+
+        @Override
+        public void nextBatchCount(Query query, int[] resultCount) {
+            chunks.add(resultCount);
+            super.nextBatchCount(query, resultCount);
+        }
+    }
 }
@@ -0,0 +1,108 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access.jdbc;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.cayenne.Cayenne;
+import org.apache.cayenne.ObjectContext;
+import org.apache.cayenne.access.DataNode;
+import org.apache.cayenne.access.translator.batch.BatchTranslatorFactory;
+import org.apache.cayenne.access.translator.batch.MultiRowInsertTranslatorFactory;
+import org.apache.cayenne.configuration.server.ServerRuntime;
+import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.query.ObjectSelect;
+import org.apache.cayenne.testdo.generated.GeneratedColumnTestEntity;
+import org.apache.cayenne.unit.di.server.CayenneProjects;
+import org.apache.cayenne.unit.di.server.ServerCase;
+import org.apache.cayenne.unit.di.server.UseServerRuntime;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+@UseServerRuntime(CayenneProjects.GENERATED_PROJECT)
+public class BatchActionMultiRowInsertIT extends ServerCase {
+
+    @Inject
+    private ServerRuntime runtime;
+
+    @Inject
+    private ObjectContext context;
+
+    @Inject
+    private DataNode dataNode;
+
+    private BatchTranslatorFactory oldFactory;
+
+    @Before
+    public void installFactory() {
+        oldFactory = dataNode.getBatchTranslatorFactory();
+        dataNode.setBatchTranslatorFactory(new MultiRowInsertTranslatorFactory(10));
+    }
+
+    @After
+    public void restoreFactory() {
+        dataNode.setBatchTranslatorFactory(oldFactory);
+    }
+
+    @Test
+    public void testInsertWithGeneratedKeys() {
+        // 2 full chunks and a tail
+        List<GeneratedColumnTestEntity> objects = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            GeneratedColumnTestEntity object = context.newObject(GeneratedColumnTestEntity.class);
+            object.setName("name" + i);
+            objects.add(object);
+        }
+        context.commitChanges();
+
+        Map<Integer, String> names = new HashMap<>();
+        for (GeneratedColumnTestEntity object : objects) {
+            assertFalse(object.getObjectId().isTemporary());
+            names.put(Cayenne.intPKForObject(object), object.getName());
+        }
+        assertEquals(25, names.size());
+
+        List<GeneratedColumnTestEntity> fetched = ObjectSelect.query(GeneratedColumnTestEntity.class)
+                .select(runtime.newContext());
+        assertEquals(25, fetched.size());
+        for (GeneratedColumnTestEntity object : fetched) {
+            assertEquals(names.get(Cayenne.intPKForObject(object)), object.getName());
+        }
+    }
+
+    @Test
+    public void testInsertSingleRow() {
+        GeneratedColumnTestEntity object = context.newObject(GeneratedColumnTestEntity.class);
+        object.setName("single");
+        context.commitChanges();
+
+        assertFalse(object.getObjectId().isTemporary());
+        GeneratedColumnTestEntity fetched = ObjectSelect.query(GeneratedColumnTestEntity.class)
+                .selectOne(runtime.newContext());
+        assertEquals("single", fetched.getName());
+        assertEquals(Cayenne.intPKForObject(object), Cayenne.intPKForObject(fetched));
+    }
+}
@@ -0,0 +1,180 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access.translator.batch;
+
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.cayenne.ObjectId;
+import org.apache.cayenne.access.translator.DbAttributeBinding;
+import org.apache.cayenne.configuration.server.ServerRuntime;
+import org.apache.cayenne.dba.DbAdapter;
+import org.apache.cayenne.dba.JdbcAdapter;
+import org.apache.cayenne.dba.sqlserver.SQLServerAdapter;
+import org.apache.cayenne.di.AdhocObjectFactory;
+import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.map.DbAttribute;
+import org.apache.cayenne.map.DbEntity;
+import org.apache.cayenne.query.InsertBatchQuery;
+import org.apache.cayenne.testdo.locking.SimpleLockingTestEntity;
+import org.apache.cayenne.unit.di.server.CayenneProjects;
+import org.apache.cayenne.unit.di.server.ServerCase;
+import org.apache.cayenne.unit.di.server.UseServerRuntime;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@UseServerRuntime(CayenneProjects.LOCKING_PROJECT)
+public class MultiRowInsertBatchTranslatorIT extends ServerCase {
+
+    @Inject
+    private ServerRuntime runtime;
+
+    @Inject
+    private AdhocObjectFactory objectFactory;
+
+    private DbEntity entity;
+
+    @Before
+    public void before() {
+        entity = runtime.getDataDomain().getEntityResolver()
+                .getObjEntity(SimpleLockingTestEntity.class)
+                .getDbEntity();
+    }
+
+    @Test
+    public void testCreateSqlString() {
+        DbAdapter adapter = objectFactory.newInstance(DbAdapter.class, JdbcAdapter.class.getName());
+        MultiRowInsertBatchTranslator translator = new MultiRowInsertBatchTranslator(new InsertBatchQuery(entity, 3), adapter, 10);
+
+        assertEquals("INSERT INTO " + entity.getName() + "( DESCRIPTION, INT_COLUMN_NOTNULL, INT_COLUMN_NULL, LOCKING_TEST_ID, NAME) " +
+                        "VALUES( ?, ?, ?, ?, ?)",
+                translator.getSql());
+        assertEquals(5, translator.getBindings().length);
+
+        assertEquals("INSERT INTO " + entity.getName() + "( DESCRIPTION, INT_COLUMN_NOTNULL, INT_COLUMN_NULL, LOCKING_TEST_ID, NAME) " +
+                        "VALUES( ?, ?, ?, ?, ?),( ?, ?, ?, ?, ?),( ?, ?, ?, ?, ?)",
+                translator.getSql(3));
+        assertEquals(15, translator.getBindings().length);
+
+        // bindings must not accumulate between calls
+        translator.getSql(2);
+        assertEquals(10, translator.getBindings().length);
+    }
+
+    @Test
+    public void testUpdateBindings() {
+        DbAdapter adapter = objectFactory.newInstance(DbAdapter.class, JdbcAdapter.class.getName());
+        InsertBatchQuery query = new InsertBatchQuery(entity, 2);
+        query.add(row("a", 1), ObjectId.of("SimpleLockingTestEntity", "LOCKING_TEST_ID", 1));
+        query.add(row("b", 2), ObjectId.of("SimpleLockingTestEntity", "LOCKING_TEST_ID", 2));
+
+        MultiRowInsertBatchTranslator translator = new MultiRowInsertBatchTranslator(query, adapter, 10);
+        translator.getSql(2);
+        DbAttributeBinding[] bindings = translator.updateBindings(query.getRows());
+
+        assertEquals(10, bindings.length);
+        for (int i = 0; i < bindings.length; i++) {
+            assertEquals(i + 1, bindings[i].getStatementPosition());
+        }
+        assertEquals("a", bindings[4].getValue());
+        assertEquals(1, bindings[3].getValue());
+        assertEquals("b", bindings[9].getValue());
+        assertEquals(2, bindings[8].getValue());
+    }
+
+    @Test
+    public void testMaxRowsPerStatement() {
+        DbAdapter adapter = mock(DbAdapter.class);
+        MultiRowInsertBatchTranslator translator = new MultiRowInsertBatchTranslator(new InsertBatchQuery(entity, 1), adapter, 10);
+
+        // no limit
+        assertEquals(10, translator.getMaxRowsPerStatement());
+
+        // 5 parameters per row
+        when(adapter.getMaxBindParameters()).thenReturn(12);
+        assertEquals(2, translator.getMaxRowsPerStatement());
+
+        when(adapter.getMaxBindParameters()).thenReturn(3);
+        assertEquals(1, translator.getMaxRowsPerStatement());
+    }
+
+    @Test
+    public void testMaxRowsPerStatement_RowLimit() {
+        DbAdapter adapter = mock(DbAdapter.class);
+        MultiRowInsertBatchTranslator translator = new MultiRowInsertBatchTranslator(new InsertBatchQuery(entity, 1), adapter, 10);
+
+        when(adapter.getMaxRowsPerInsert()).thenReturn(3);
+        assertEquals(3, translator.getMaxRowsPerStatement());
+
+        // the parameter limit is still applied, 5 parameters per row
+        when(adapter.getMaxBindParameters()).thenReturn(10);
+        assertEquals(2, translator.getMaxRowsPerStatement());
+    }
+
+    @Test
+    public void testMaxRowsPerStatement_SQLServer() {
+        DbAdapter adapter = objectFactory.newInstance(DbAdapter.class, SQLServerAdapter.class.getName());
+
+        // 5 parameters per row, bounded by the parameter limit
+        MultiRowInsertBatchTranslator translator = new MultiRowInsertBatchTranslator(new InsertBatchQuery(entity, 1), adapter, 5000);
+        assertEquals(2098 / 5, translator.getMaxRowsPerStatement());
+        translator.getSql(translator.getMaxRowsPerStatement());
+        assertTrue(translator.getBindings().length <= 2098);
+
+        // 2 parameters per row, bounded by the row constructor limit
+        DbEntity narrowEntity = new DbEntity("NARROW");
+        DbAttribute id = new DbAttribute("ID", Types.INTEGER, narrowEntity);
+        id.setPrimaryKey(true);
+        narrowEntity.addAttribute(id);
+        narrowEntity.addAttribute(new DbAttribute("NAME", Types.VARCHAR, narrowEntity));
+
+        translator = new MultiRowInsertBatchTranslator(new InsertBatchQuery(narrowEntity, 1), adapter, 5000);
+        assertEquals(1000, translator.getMaxRowsPerStatement());
+        translator.getSql(1000);
+        assertEquals(2000, translator.getBindings().length);
+    }
+
+    @Test
+    public void testFactory() {
+        InsertBatchQuery query = new InsertBatchQuery(entity, 1);
+        MultiRowInsertTranslatorFactory factory = new MultiRowInsertTranslatorFactory();
+
+        DbAdapter adapter = mock(DbAdapter.class);
+        assertEquals(InsertBatchTranslator.class, factory.translator(query, adapter, null).getClass());
+
+        when(adapter.supportsMultiRowInsert()).thenReturn(true);
+        assertThat(factory.translator(query, adapter, null), instanceOf(MultiRowInsertBatchTranslator.class));
+    }
+
+    private Map<String, Object> row(String name, int intValue) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("NAME", name);
+        row.put("INT_COLUMN_NOTNULL", intValue);
+        row.put("LOCKING_TEST_ID", intValue);
+        return row;
+    }
+}
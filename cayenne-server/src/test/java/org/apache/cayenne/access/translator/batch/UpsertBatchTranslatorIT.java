@@ -0,0 +1,169 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.access.translator.batch;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.cayenne.CayenneRuntimeException;
+import org.apache.cayenne.ObjectId;
+import org.apache.cayenne.access.translator.DbAttributeBinding;
+import org.apache.cayenne.configuration.server.ServerRuntime;
+import org.apache.cayenne.dba.DbAdapter;
+import org.apache.cayenne.dba.JdbcAdapter;
+import org.apache.cayenne.dba.h2.H2Adapter;
+import org.apache.cayenne.dba.hsqldb.HSQLDBAdapter;
+import org.apache.cayenne.dba.mysql.MySQLAdapter;
+import org.apache.cayenne.dba.oracle.OracleAdapter;
+import org.apache.cayenne.dba.postgres.PostgresAdapter;
+import org.apache.cayenne.dba.sqlserver.SQLServerAdapter;
+import org.apache.cayenne.di.AdhocObjectFactory;
+import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.map.DbEntity;
+import org.apache.cayenne.query.UpsertBatchQuery;
+import org.apache.cayenne.testdo.locking.SimpleLockingTestEntity;
+import org.apache.cayenne.unit.di.server.CayenneProjects;
+import org.apache.cayenne.unit.di.server.ServerCase;
+import org.apache.cayenne.unit.di.server.UseServerRuntime;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+@UseServerRuntime(CayenneProjects.LOCKING_PROJECT)
+public class UpsertBatchTranslatorIT extends ServerCase {
+
+    @Inject
+    private ServerRuntime runtime;
+
+    @Inject
+    private AdhocObjectFactory objectFactory;
+
+    private DbEntity entity;
+
+    @Before
+    public void before() {
+        entity = runtime.getDataDomain().getEntityResolver()
+                .getObjEntity(SimpleLockingTestEntity.class)
+                .getDbEntity();
+    }
+
+    @Test
+    public void testPostgres() {
+        assertEquals("INSERT INTO " + entity.getName() + " (DESCRIPTION, INT_COLUMN_NOTNULL, INT_COLUMN_NULL, LOCKING_TEST_ID, NAME) " +
+                        "VALUES (?, ?, ?, ?, ?) ON CONFLICT (LOCKING_TEST_ID) DO UPDATE SET " +
+                        "DESCRIPTION = EXCLUDED.DESCRIPTION, INT_COLUMN_NOTNULL = EXCLUDED.INT_COLUMN_NOTNULL, " +
+                        "INT_COLUMN_NULL = EXCLUDED.INT_COLUMN_NULL, NAME = EXCLUDED.NAME",
+                translator(PostgresAdapter.class).getSql());
+    }
+
+    @Test
+    public void testMySQL() {
+        assertEquals("INSERT INTO " + entity.getName() + " (DESCRIPTION, INT_COLUMN_NOTNULL, INT_COLUMN_NULL, LOCKING_TEST_ID, NAME) " +
+                        "VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE " +
+                        "DESCRIPTION = VALUES(DESCRIPTION), INT_COLUMN_NOTNULL = VALUES(INT_COLUMN_NOTNULL), " +
+                        "INT_COLUMN_NULL = VALUES(INT_COLUMN_NULL), NAME = VALUES(NAME)",
+                translator(MySQLAdapter.class).getSql());
+    }
+
+    @Test
+    public void testH2() {
+        assertEquals("MERGE INTO " + entity.getName() + " (DESCRIPTION, INT_COLUMN_NOTNULL, INT_COLUMN_NULL, LOCKING_TEST_ID, NAME) " +
+                        "KEY (LOCKING_TEST_ID) VALUES (?, ?, ?, ?, ?)",
+                translator(H2Adapter.class).getSql());
+    }
+
+    @Test
+    public void testOracle() {
+        assertEquals("MERGE INTO " + entity.getName() + " t USING (SELECT ? DESCRIPTION, ? INT_COLUMN_NOTNULL, " +
+                        "? INT_COLUMN_NULL, ? LOCKING_TEST_ID, ? NAME FROM DUAL) s ON (t.LOCKING_TEST_ID = s.LOCKING_TEST_ID) " +
+                        "WHEN MATCHED THEN UPDATE SET t.DESCRIPTION = s.DESCRIPTION, t.INT_COLUMN_NOTNULL = s.INT_COLUMN_NOTNULL, " +
+                        "t.INT_COLUMN_NULL = s.INT_COLUMN_NULL, t.NAME = s.NAME " +
+                        "WHEN NOT MATCHED THEN INSERT (DESCRIPTION, INT_COLUMN_NOTNULL, INT_COLUMN_NULL, LOCKING_TEST_ID, NAME) " +
+                        "VALUES (s.DESCRIPTION, s.INT_COLUMN_NOTNULL, s.INT_COLUMN_NULL, s.LOCKING_TEST_ID, s.NAME)",
+                translator(OracleAdapter.class).getSql());
+    }
+
+    @Test
+    public void testSQLServer() {
+        assertEquals("MERGE INTO " + entity.getName() + " WITH (HOLDLOCK) AS t USING (VALUES (?, ?, ?, ?, ?)) " +
+                        "AS s (DESCRIPTION, INT_COLUMN_NOTNULL, INT_COLUMN_NULL, LOCKING_TEST_ID, NAME) " +
+                        "ON t.LOCKING_TEST_ID = s.LOCKING_TEST_ID " +
+                        "WHEN MATCHED THEN UPDATE SET t.DESCRIPTION = s.DESCRIPTION, t.INT_COLUMN_NOTNULL = s.INT_COLUMN_NOTNULL, " +
+                        "t.INT_COLUMN_NULL = s.INT_COLUMN_NULL, t.NAME = s.NAME " +
+                        "WHEN NOT MATCHED THEN INSERT (DESCRIPTION, INT_COLUMN_NOTNULL, INT_COLUMN_NULL, LOCKING_TEST_ID, NAME) " +
+                        "VALUES (s.DESCRIPTION, s.INT_COLUMN_NOTNULL, s.INT_COLUMN_NULL, s.LOCKING_TEST_ID, s.NAME);",
+                translator(SQLServerAdapter.class).getSql());
+    }
+
+    @Test
+    public void testHSQLDB() {
+        assertEquals("MERGE INTO " + entity.getName() + " t USING (VALUES (?, ?, ?, ?, ?)) " +
+                        "AS s (DESCRIPTION, INT_COLUMN_NOTNULL, INT_COLUMN_NULL, LOCKING_TEST_ID, NAME) " +
+                        "ON t.LOCKING_TEST_ID = s.LOCKING_TEST_ID " +
+                        "WHEN MATCHED THEN UPDATE SET t.DESCRIPTION = s.DESCRIPTION, t.INT_COLUMN_NOTNULL = s.INT_COLUMN_NOTNULL, " +
+                        "t.INT_COLUMN_NULL = s.INT_COLUMN_NULL, t.NAME = s.NAME " +
+                        "WHEN NOT MATCHED THEN INSERT (DESCRIPTION, INT_COLUMN_NOTNULL, INT_COLUMN_NULL, LOCKING_TEST_ID, NAME) " +
+                        "VALUES (s.DESCRIPTION, s.INT_COLUMN_NOTNULL, s.INT_COLUMN_NULL, s.LOCKING_TEST_ID, s.NAME)",
+                translator(HSQLDBAdapter.class).getSql());
+    }
+
+    @Test
+    public void testUpdateBindings() {
+        UpsertBatchQuery query = new UpsertBatchQuery(entity, 1);
+        Map<String, Object> row = new HashMap<>();
+        row.put("NAME", "a");
+        row.put("LOCKING_TEST_ID", 1);
+        query.add(row, ObjectId.of("SimpleLockingTestEntity", "LOCKING_TEST_ID", 1));
+
+        DbAdapter adapter = objectFactory.newInstance(DbAdapter.class, PostgresAdapter.class.getName());
+        UpsertBatchTranslator translator = adapter.getUpsertTranslator(query);
+        translator.getSql();
+        DbAttributeBinding[] bindings = translator.updateBindings(query.getRows().get(0));
+
+        assertEquals(5, bindings.length);
+        for (int i = 0; i < bindings.length; i++) {
+            assertEquals(i + 1, bindings[i].getStatementPosition());
+        }
+        assertEquals(1, bindings[3].getValue());
+        assertEquals("a", bindings[4].getValue());
+    }
+
+    @Test
+    public void testFactory_Unsupported() {
+        DbAdapter adapter = objectFactory.newInstance(DbAdapter.class, JdbcAdapter.class.getName());
+        UpsertBatchQuery query = new UpsertBatchQuery(entity, 1);
+        assertNull(adapter.getUpsertTranslator(query));
+
+        try {
+            new DefaultBatchTranslatorFactory().translator(query, adapter, null);
+            fail("Upsert must not be translated for an adapter that doesn't support it");
+        } catch (CayenneRuntimeException e) {
+            // expected
+        }
+    }
+
+    private UpsertBatchTranslator translator(Class<? extends DbAdapter> adapterType) {
+        DbAdapter adapter = objectFactory.newInstance(DbAdapter.class, adapterType.getName());
+        return adapter.getUpsertTranslator(new UpsertBatchQuery(entity, 1));
+    }
+}
@@ -0,0 +1,200 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.access.translator.select;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.apache.cayenne.access.DataContext;
+import org.apache.cayenne.access.DataNode;
+import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.query.ObjectSelect;
+import org.apache.cayenne.testdo.testmap.Artist;
+import org.apache.cayenne.testdo.testmap.Painting;
+import org.apache.cayenne.unit.di.server.CayenneProjects;
+import org.apache.cayenne.unit.di.server.ServerCase;
+import org.apache.cayenne.unit.di.server.UseServerRuntime;
+import org.junit.Before;
+import org.junit.Test;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@UseServerRuntime(CayenneProjects.TESTMAP_PROJECT)
+public class CachingSelectTranslatorFactoryIT extends ServerCase {
+
+    @Inject
+    private DataContext context;
+
+    private CachingSelectTranslatorFactory factory;
+
+    private Artist[] artists;
+
+    @Before
+    public void before() {
+        DataNode node = context.getParentDataDomain().getDataNodes().iterator().next();
+        factory = (CachingSelectTranslatorFactory) node.getSelectTranslatorFactory();
+        factory.clear();
+
+        artists = new Artist[3];
+        for (int i = 0; i < artists.length; i++) {
+            artists[i] = context.newObject(Artist.class);
+            artists[i].setArtistName(name(i));
+
+            for (int j = 0; j <= i; j++) {
+                Painting painting = context.newObject(Painting.class);
+                painting.setPaintingTitle(name(i) + "_" + j);
+                painting.setEstimatedPrice(new BigDecimal(j));
+                painting.setToArtist(artists[i]);
+            }
+        }
+        context.commitChanges();
+    }
+
+    private static String name(int i) {
+        // build a new String for each call, so that the literals are never the same object
+        return new StringBuilder("a").append(i).toString();
+    }
+
+    @Test
+    public void testRebindValues() {
+        long hits = factory.getHitCount();
+
+        for (int i = 0; i < artists.length; i++) {
+            List<Artist> result = ObjectSelect.query(Artist.class)
+                    .where(Artist.ARTIST_NAME.eq(name(i)))
+                    .select(context);
+
+            assertEquals(1, result.size());
+            assertEquals(name(i), result.get(0).getArtistName());
+        }
+
+        // the first query captures the plan, the second verifies it, the third reuses it
+        assertEquals(hits + 1, factory.getHitCount());
+        assertEquals(1, factory.size());
+    }
+
+    @Test
+    public void testNullValue() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, ObjectSelect.query(Artist.class)
+                    .where(Artist.ARTIST_NAME.eq((String) null))
+                    .selectCount(context));
+            assertEquals(1, ObjectSelect.query(Artist.class)
+                    .where(Artist.ARTIST_NAME.eq(name(i)))
+                    .selectCount(context));
+        }
+    }
+
+    @Test
+    public void testInList() {
+        long hits = factory.getHitCount();
+
+        for (int i = 0; i < 3; i++) {
+            List<Artist> result = ObjectSelect.query(Artist.class)
+                    .where(Artist.ARTIST_NAME.in(name(i), name((i + 1) % 3)))
+                    .select(context);
+            assertEquals(2, result.size());
+
+            result = ObjectSelect.query(Artist.class)
+                    .where(Artist.ARTIST_NAME.in(asList(name(i))))
+                    .select(context);
+            assertEquals(1, result.size());
+            assertEquals(name(i), result.get(0).getArtistName());
+        }
+
+        assertEquals(hits + 2, factory.getHitCount());
+    }
+
+    @Test
+    public void testRelatedObjectValue() {
+        long hits = factory.getHitCount();
+
+        for (int i = 0; i < artists.length; i++) {
+            List<Painting> result = ObjectSelect.query(Painting.class)
+                    .where(Painting.TO_ARTIST.eq(artists[i]))
+                    .select(context);
+
+            assertEquals(i + 1, result.size());
+            for (Painting painting : result) {
+                assertEquals(artists[i], painting.getToArtist());
+            }
+        }
+
+        assertEquals(hits + 1, factory.getHitCount());
+    }
+
+    @Test
+    public void testLimit() {
+        for (int i = 1; i <= 3; i++) {
+            assertEquals(i, ObjectSelect.query(Painting.class)
+                    .orderBy(Painting.PAINTING_TITLE.asc())
+                    .limit(i)
+                    .select(context).size());
+        }
+    }
+
+    @Test
+    public void testColumnQuery() {
+        long hits = factory.getHitCount();
+
+        for (int i = 0; i < artists.length; i++) {
+            List<Object[]> result = ObjectSelect.columnQuery(Painting.class,
+                    Painting.PAINTING_TITLE, Painting.ESTIMATED_PRICE)
+                    .where(Painting.TO_ARTIST.dot(Artist.ARTIST_NAME).eq(name(i)))
+                    .orderBy(Painting.PAINTING_TITLE.asc())
+                    .select(context);
+
+            assertEquals(i + 1, result.size());
+            for (int j = 0; j <= i; j++) {
+                assertEquals(name(i) + "_" + j, result.get(j)[0]);
+                assertEquals(0, new BigDecimal(j).compareTo((BigDecimal) result.get(j)[1]));
+            }
+        }
+
+        assertEquals(hits + 1, factory.getHitCount());
+    }
+
+    @Test
+    public void testJointPrefetch() {
+        for (int i = 0; i < artists.length; i++) {
+            List<Painting> result = ObjectSelect.query(Painting.class)
+                    .where(Painting.PAINTING_TITLE.like(name(i) + "%"))
+                    .prefetch(Painting.TO_ARTIST.joint())
+                    .select(context);
+
+            assertEquals(i + 1, result.size());
+            for (Painting painting : result) {
+                assertEquals(name(i), painting.getToArtist().getArtistName());
+            }
+        }
+    }
+
+    @Test
+    public void testCacheDisabled() {
+        DataNode node = context.getParentDataDomain().getDataNodes().iterator().next();
+        CachingSelectTranslatorFactory disabled
+                = new CachingSelectTranslatorFactory(new DefaultSelectTranslatorFactory(), 0);
+
+        SelectTranslator translator = disabled.translator(ObjectSelect.query(Artist.class),
+                node.getAdapter(), node.getEntityResolver());
+        assertTrue(translator instanceof DefaultSelectTranslator);
+    }
+}
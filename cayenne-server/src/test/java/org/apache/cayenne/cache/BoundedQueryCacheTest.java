@@ -0,0 +1,244 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.cayenne.query.MockQueryMetadata;
+import org.apache.cayenne.query.QueryMetadata;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class BoundedQueryCacheTest {
+
+    private static QueryMetadata metadata(String group, String key) {
+        return new MockQueryMetadata() {
+            @Override
+            public String getCacheKey() {
+                return key;
+            }
+
+            @Override
+            public String getCacheGroup() {
+                return group;
+            }
+        };
+    }
+
+    private static List<Object> list(int size) {
+        List<Object> list = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            list.add("value" + i);
+        }
+        return list;
+    }
+
+    @Test
+    public void testPutGet() {
+        BoundedQueryCache cache = new BoundedQueryCache(10);
+        List<Object> list = list(1);
+
+        assertNull(cache.get(metadata(null, "a")));
+        cache.put(metadata(null, "a"), list);
+        assertSame(list, cache.get(metadata(null, "a")));
+        assertNull(cache.get(metadata("g1", "a")));
+
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void testGetWithFactory() {
+        BoundedQueryCache cache = new BoundedQueryCache(10);
+        List<Object> list = list(1);
+
+        assertSame(list, cache.get(metadata(null, "a"), () -> list));
+        assertSame(list, cache.get(metadata(null, "a"), Collections::emptyList));
+    }
+
+    @Test
+    public void testRemoveAndRemoveGroup() {
+        BoundedQueryCache cache = new BoundedQueryCache(10);
+        cache.put(metadata("g1", "a"), list(1));
+        cache.put(metadata("g2", "a"), list(1));
+        cache.put(metadata("g2", "b"), list(1));
+        cache.put(metadata("g3", "c"), list(1));
+        assertEquals(4, cache.size());
+
+        cache.remove("a");
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(metadata("g2", "b")));
+
+        cache.removeGroup("g2");
+        assertEquals(1, cache.size());
+        assertNull(cache.get(metadata("g2", "b")));
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testSizeBound() {
+        BoundedQueryCache cache = new BoundedQueryCache(5);
+        for (int i = 0; i < 20; i++) {
+            cache.put(metadata("g" + (i % 3), "k" + i), list(1));
+        }
+
+        assertEquals(5, cache.size());
+        assertEquals(15, cache.getEvictionCount());
+        assertNotNull(cache.get(metadata("g1", "k19")));
+    }
+
+    @Test
+    public void testWeightBound() {
+        BoundedQueryCache cache = new BoundedQueryCache(1000, 2000, group -> 0L);
+        for (int i = 0; i < 10; i++) {
+            cache.put(metadata(null, "k" + i), list(10));
+        }
+
+        assertTrue(cache.getWeight() > 0);
+        assertTrue(cache.getWeight() <= 2000);
+        assertTrue(cache.size() < 10);
+        assertEquals(10 - cache.size(), cache.getEvictionCount());
+        assertNotNull(cache.get(metadata(null, "k9")));
+
+        cache.clear();
+        assertEquals(0, cache.getWeight());
+    }
+
+    @Test
+    public void testTimeToLive() {
+        long[] time = {1000};
+        BoundedQueryCache cache = new BoundedQueryCache(10, 0, group -> "short".equals(group) ? 100L : 0L) {
+            @Override
+            protected long currentTimeMillis() {
+                return time[0];
+            }
+        };
+
+        cache.put(metadata("short", "a"), list(1));
+        cache.put(metadata("long", "a"), list(1));
+
+        time[0] += 99;
+        assertNotNull(cache.get(metadata("short", "a")));
+
+        time[0] += 1;
+        assertNull(cache.get(metadata("short", "a")));
+        assertNotNull(cache.get(metadata("long", "a")));
+        assertEquals(1, cache.getExpirationCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testPut_ConcurrentRemoveGroup() throws Exception {
+        BoundedQueryCache cache = new BoundedQueryCache(100_000);
+
+        for (int round = 0; round < 20; round++) {
+            CountDownLatch start = new CountDownLatch(1);
+
+            Thread writer = new Thread(() -> {
+                await(start);
+                for (int i = 0; i < 2000; i++) {
+                    cache.put(metadata("g", "k" + i), list(1));
+                }
+            });
+
+            Thread invalidator = new Thread(() -> {
+                await(start);
+                for (int i = 0; i < 2000; i++) {
+                    cache.removeGroup("g");
+                }
+            });
+
+            writer.start();
+            invalidator.start();
+            start.countDown();
+            writer.join();
+            invalidator.join();
+
+            // every entry stored in the group must be reachable by the group invalidation
+            cache.removeGroup("g");
+            assertEquals(0, cache.size());
+        }
+    }
+
+    @Test
+    public void testPut_ConcurrentExpire() throws Exception {
+        AtomicLong clock = new AtomicLong();
+        AtomicBoolean putOnExpire = new AtomicBoolean(true);
+
+        BoundedQueryCache cache = new BoundedQueryCache(100, 0, group -> 100L) {
+
+            @Override
+            protected long currentTimeMillis() {
+                return clock.get();
+            }
+
+            @Override
+            protected void onRemoved(GroupKey key, CacheEntry entry) {
+                // another thread stores a fresh entry right after the expired one was removed,
+                // but before it is untracked from the group
+                if (putOnExpire.getAndSet(false)) {
+                    Thread writer = new Thread(() -> put(metadata("g", "k"), list(1)));
+                    writer.start();
+                    try {
+                        writer.join();
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+
+                super.onRemoved(key, entry);
+            }
+        };
+
+        cache.put(metadata("g", "k"), list(1));
+        clock.set(1000);
+        assertNull(cache.get(metadata("g", "k")));
+        assertEquals(1, cache.getExpirationCount());
+
+        clock.set(1050);
+        assertEquals(1, cache.size());
+        assertNotNull(cache.get(metadata("g", "k")));
+
+        // the fresh entry must still be reachable by the group invalidation
+        cache.removeGroup("g");
+        assertEquals(0, cache.size());
+        assertNull(cache.get(metadata("g", "k")));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -18,9 +18,11 @@
  ****************************************************************/
 package org.apache.cayenne.configuration.server;
 
+import org.apache.cayenne.access.AsyncQueryExecutor;
 import org.apache.cayenne.access.DataContext;
 import org.apache.cayenne.access.DataDomain;
 import org.apache.cayenne.access.DataRowStoreFactory;
+import org.apache.cayenne.access.DefaultAsyncQueryExecutor;
 import org.apache.cayenne.access.DefaultDataRowStoreFactory;
 import org.apache.cayenne.access.DefaultObjectMapRetainStrategy;
 import org.apache.cayenne.access.ObjectMapRetainStrategy;
@@ -80,6 +82,7 @@ public class DataContextFactoryTest {
                     DefaultObjectMapRetainStrategy.class);
             binder.bind(ObjectStoreFactory.class).to(DefaultObjectStoreFactory.class);
             binder.bind(TransactionFactory.class).to(DefaultTransactionFactory.class);
+            binder.bind(AsyncQueryExecutor.class).toInstance(new DefaultAsyncQueryExecutor(Runnable::run));
             binder.bind(TransactionManager.class).to(DefaultTransactionManager.class);
             binder.bind(DataRowStoreFactory.class).to(DefaultDataRowStoreFactory.class);
             binder.bind(EventBridge.class).toProvider(NoopEventBridgeProvider.class);
@@ -122,6 +125,7 @@ public class DataContextFactoryTest {
                     DefaultObjectMapRetainStrategy.class);
             binder.bind(ObjectStoreFactory.class).to(DefaultObjectStoreFactory.class);
             binder.bind(TransactionFactory.class).to(DefaultTransactionFactory.class);
+            binder.bind(AsyncQueryExecutor.class).toInstance(new DefaultAsyncQueryExecutor(Runnable::run));
             binder.bind(TransactionManager.class).to(DefaultTransactionManager.class);
             binder.bind(EventBridge.class).toProvider(NoopEventBridgeProvider.class);
             binder.bind(DataRowStoreFactory.class).to(DefaultDataRowStoreFactory.class);
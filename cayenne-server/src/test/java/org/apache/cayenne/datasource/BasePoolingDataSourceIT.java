@@ -21,6 +21,8 @@ package org.apache.cayenne.datasource;
 import java.sql.Driver;
 import java.sql.SQLException;
 
+import javax.sql.DataSource;
+
 import org.apache.cayenne.conn.DataSourceInfo;
 import org.apache.cayenne.di.AdhocObjectFactory;
 import org.apache.cayenne.di.Inject;
@@ -51,7 +53,12 @@ public class BasePoolingDataSourceIT extends ServerCase {
 				dataSourceInfo.getUserName(), dataSourceInfo.getPassword());
 
 		PoolingDataSourceParameters poolParameters = createParameters();
-		this.dataSource = new UnmanagedPoolingDataSource(nonPooling, poolParameters);
+		this.dataSource = createDataSource(nonPooling, poolParameters);
+	}
+
+	protected UnmanagedPoolingDataSource createDataSource(DataSource nonPooling,
+			PoolingDataSourceParameters poolParameters) {
+		return new UnmanagedPoolingDataSource(nonPooling, poolParameters);
 	}
 
 	@After
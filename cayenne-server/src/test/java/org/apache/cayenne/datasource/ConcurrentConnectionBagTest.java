@@ -0,0 +1,133 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.datasource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ConcurrentConnectionBagTest {
+
+	private ConcurrentConnectionBag bag;
+
+	@Before
+	public void before() {
+		bag = new ConcurrentConnectionBag();
+	}
+
+	@Test
+	public void testOfferPoll() {
+		PoolAwareConnection c1 = mock(PoolAwareConnection.class);
+		PoolAwareConnection c2 = mock(PoolAwareConnection.class);
+
+		assertNull(bag.poll());
+
+		assertTrue(bag.offer(c1));
+		assertTrue(bag.offer(c2));
+		assertEquals(2, bag.size());
+
+		assertNotNull(bag.poll());
+		assertEquals(1, bag.size());
+		assertNotNull(bag.poll());
+		assertEquals(0, bag.size());
+		assertNull(bag.poll());
+	}
+
+	@Test
+	public void testPoll_LastUsedFirst() {
+		PoolAwareConnection c1 = mock(PoolAwareConnection.class);
+		PoolAwareConnection c2 = mock(PoolAwareConnection.class);
+
+		bag.offer(c1);
+		bag.offer(c2);
+
+		PoolAwareConnection c = bag.poll();
+		bag.offer(c);
+		assertSame(c, bag.poll());
+
+		PoolAwareConnection other = bag.poll();
+		bag.offer(other);
+		assertSame(other, bag.poll());
+	}
+
+	@Test
+	public void testRemove() {
+		PoolAwareConnection c1 = mock(PoolAwareConnection.class);
+
+		bag.offer(c1);
+		bag.remove(c1);
+
+		assertEquals(0, bag.size());
+		assertNull(bag.poll());
+	}
+
+	@Test
+	public void testClear() {
+		bag.offer(mock(PoolAwareConnection.class));
+		bag.offer(mock(PoolAwareConnection.class));
+		bag.clear();
+
+		assertEquals(0, bag.size());
+		assertNull(bag.poll());
+	}
+
+	@Test
+	public void testPoll_Timeout() throws InterruptedException {
+		long t0 = System.currentTimeMillis();
+		assertNull(bag.poll(100, TimeUnit.MILLISECONDS));
+		assertTrue(System.currentTimeMillis() - t0 >= 100);
+	}
+
+	@Test
+	public void testPoll_Handoff() throws Exception {
+		PoolAwareConnection c1 = mock(PoolAwareConnection.class);
+		bag.offer(c1);
+		assertSame(c1, bag.poll());
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			CountDownLatch started = new CountDownLatch(1);
+			Future<PoolAwareConnection> waiter = executor.submit(() -> {
+				started.countDown();
+				return bag.poll(10, TimeUnit.SECONDS);
+			});
+
+			started.await();
+			Thread.sleep(50);
+			bag.offer(c1);
+
+			assertSame(c1, waiter.get(5, TimeUnit.SECONDS));
+			assertEquals(0, bag.size());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,130 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.datasource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import org.apache.cayenne.unit.di.server.CayenneProjects;
+import org.apache.cayenne.unit.di.server.UseServerRuntime;
+import org.junit.Test;
+
+@UseServerRuntime(CayenneProjects.TESTMAP_PROJECT)
+public class PoolingDataSource_StatementCacheIT extends BasePoolingDataSourceIT {
+
+	@Override
+	protected PoolingDataSourceParameters createParameters() {
+		PoolingDataSourceParameters params = super.createParameters();
+		params.setMinConnections(1);
+		params.setMaxConnections(1);
+		params.setStatementCacheSize(2);
+		return params;
+	}
+
+	@Test
+	public void testPrepareStatement_Reused() throws Exception {
+
+		PreparedStatement underlying;
+		try (Connection c = dataSource.getConnection()) {
+			try (PreparedStatement st = c.prepareStatement("SELECT count(1) FROM ARTIST WHERE ARTIST_NAME = ?")) {
+				underlying = st.unwrap(CachedPreparedStatement.class).getDelegate();
+				st.setString(1, "X");
+				st.setFetchSize(5);
+
+				try (ResultSet rs = st.executeQuery()) {
+					assertTrue(rs.next());
+				}
+			}
+		}
+
+		assertEquals(0, dataSource.getStatementCacheStatistics().getHits());
+		assertEquals(1, dataSource.getStatementCacheStatistics().getMisses());
+
+		try (Connection c = dataSource.getConnection()) {
+			try (PreparedStatement st = c.prepareStatement("SELECT count(1) FROM ARTIST WHERE ARTIST_NAME = ?")) {
+				assertSame(underlying, st.unwrap(CachedPreparedStatement.class).getDelegate());
+				assertEquals(0, underlying.getFetchSize());
+				assertSame(c, st.getConnection());
+
+				st.setString(1, "Y");
+				try (ResultSet rs = st.executeQuery()) {
+					assertTrue(rs.next());
+				}
+			}
+		}
+
+		assertEquals(1, dataSource.getStatementCacheStatistics().getHits());
+		assertEquals(1, dataSource.getStatementCacheStatistics().getMisses());
+	}
+
+	@Test
+	public void testPrepareStatement_ConcurrentlyOpen() throws Exception {
+
+		try (Connection c = dataSource.getConnection()) {
+			try (PreparedStatement st1 = c.prepareStatement("SELECT count(1) FROM ARTIST")) {
+				try (PreparedStatement st2 = c.prepareStatement("SELECT count(1) FROM ARTIST")) {
+					assertNotSame(st1.unwrap(CachedPreparedStatement.class).getDelegate(),
+							st2.unwrap(CachedPreparedStatement.class).getDelegate());
+				}
+			}
+		}
+
+		assertEquals(0, dataSource.getStatementCacheStatistics().getHits());
+		assertEquals(2, dataSource.getStatementCacheStatistics().getMisses());
+	}
+
+	@Test
+	public void testPrepareStatement_Evicted() throws Exception {
+
+		PreparedStatement first;
+		try (Connection c = dataSource.getConnection()) {
+			try (PreparedStatement st = c.prepareStatement("SELECT count(1) FROM ARTIST")) {
+				first = st.unwrap(CachedPreparedStatement.class).getDelegate();
+			}
+
+			c.prepareStatement("SELECT count(1) FROM PAINTING").close();
+			c.prepareStatement("SELECT count(1) FROM GALLERY").close();
+		}
+
+		assertEquals(1, dataSource.getStatementCacheStatistics().getEvictions());
+		assertTrue(first.isClosed());
+	}
+
+	@Test
+	public void testClose_ClosesCachedStatements() throws Exception {
+
+		PreparedStatement underlying;
+		try (Connection c = dataSource.getConnection()) {
+			try (PreparedStatement st = c.prepareStatement("SELECT count(1) FROM ARTIST")) {
+				underlying = st.unwrap(CachedPreparedStatement.class).getDelegate();
+			}
+		}
+
+		assertFalse(underlying.isClosed());
+		dataSource.close();
+		assertTrue(underlying.isClosed());
+	}
+}
@@ -0,0 +1,119 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.datasource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class PreparedStatementCacheTest {
+
+	private StatementCacheStatistics statistics;
+	private PreparedStatementCache cache;
+
+	@Before
+	public void before() {
+		statistics = new StatementCacheStatistics();
+		cache = new PreparedStatementCache(2, statistics);
+	}
+
+	private static PreparedStatementCache.Key key(String sql) {
+		return new PreparedStatementCache.Key(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY,
+				Statement.NO_GENERATED_KEYS);
+	}
+
+	@Test
+	public void testKey() {
+		assertEquals(key("SELECT 1"), key("SELECT 1"));
+		assertEquals(key("SELECT 1").hashCode(), key("SELECT 1").hashCode());
+		assertFalse(key("SELECT 1").equals(key("SELECT 2")));
+		assertFalse(key("SELECT 1").equals(new PreparedStatementCache.Key("SELECT 1", ResultSet.TYPE_FORWARD_ONLY,
+				ResultSet.CONCUR_READ_ONLY, Statement.RETURN_GENERATED_KEYS)));
+	}
+
+	@Test
+	public void testCheckout() {
+		PreparedStatement st = mock(PreparedStatement.class);
+
+		assertNull(cache.checkout(key("SELECT 1")));
+		assertTrue(cache.checkin(key("SELECT 1"), st));
+		assertEquals(1, cache.size());
+
+		assertSame(st, cache.checkout(key("SELECT 1")));
+		assertEquals(0, cache.size());
+		assertNull(cache.checkout(key("SELECT 1")));
+
+		assertEquals(1, statistics.getHits());
+		assertEquals(2, statistics.getMisses());
+	}
+
+	@Test
+	public void testCheckin_Duplicate() {
+		assertTrue(cache.checkin(key("SELECT 1"), mock(PreparedStatement.class)));
+		assertFalse(cache.checkin(key("SELECT 1"), mock(PreparedStatement.class)));
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void testCheckin_EvictLeastRecentlyUsed() throws SQLException {
+		PreparedStatement st1 = mock(PreparedStatement.class);
+		PreparedStatement st2 = mock(PreparedStatement.class);
+		PreparedStatement st3 = mock(PreparedStatement.class);
+
+		cache.checkin(key("SELECT 1"), st1);
+		cache.checkin(key("SELECT 2"), st2);
+
+		// touch the first statement, so that the second one becomes the eldest
+		cache.checkin(key("SELECT 1"), cache.checkout(key("SELECT 1")));
+		cache.checkin(key("SELECT 3"), st3);
+
+		assertEquals(2, cache.size());
+		assertEquals(1, statistics.getEvictions());
+		verify(st2).close();
+		verify(st1, never()).close();
+		verify(st3, never()).close();
+	}
+
+	@Test
+	public void testClear() throws SQLException {
+		PreparedStatement st1 = mock(PreparedStatement.class);
+		PreparedStatement st2 = mock(PreparedStatement.class);
+
+		cache.checkin(key("SELECT 1"), st1);
+		cache.checkin(key("SELECT 2"), st2);
+		cache.clear();
+
+		assertEquals(0, cache.size());
+		verify(st1).close();
+		verify(st2).close();
+	}
+}
@@ -21,6 +21,7 @@ package org.apache.cayenne.dba;
 
 import org.apache.cayenne.access.DataNode;
 import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.map.DbAttribute;
 import org.apache.cayenne.map.DbEntity;
 import org.apache.cayenne.unit.UnitDbAdapter;
 import org.apache.cayenne.unit.di.server.CayenneProjects;
@@ -30,9 +31,12 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
@@ -88,4 +92,32 @@ public class PkGeneratorIT extends ServerCase {
             pkList.add(pk);
         }
     }
+
+    @Test
+    public void testGeneratePks() throws Exception {
+        DbAttribute pkAttribute = paintingEntity.getPrimaryKeys().iterator().next();
+
+        // take a few keys from the cache first, so that bulk generation has to use both the cache and the database
+        Object first = pkGenerator.generatePk(node, pkAttribute);
+
+        int testSize = 55;
+        List<Object> pks = pkGenerator.generatePks(node, pkAttribute, testSize);
+        assertEquals(testSize, pks.size());
+
+        Set<Object> unique = new HashSet<>(pks);
+        unique.add(first);
+        assertEquals(testSize + 1, unique.size());
+
+        Object next = pkGenerator.generatePk(node, pkAttribute);
+        assertFalse(unique.contains(next));
+
+        if (accessStackAdapter.supportsBatchPK()) {
+            long last = ((Number) first).longValue();
+            for (Object pk : pks) {
+                assertEquals(last + 1, ((Number) pk).longValue());
+                last = ((Number) pk).longValue();
+            }
+            assertEquals(last + 1, ((Number) next).longValue());
+        }
+    }
 }
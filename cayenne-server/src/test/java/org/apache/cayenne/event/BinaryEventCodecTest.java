@@ -0,0 +1,168 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.event;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.cayenne.DataRow;
+import org.apache.cayenne.ObjectId;
+import org.apache.cayenne.access.DataRowStore;
+import org.apache.cayenne.access.event.SnapshotEvent;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class BinaryEventCodecTest {
+
+    private final BinaryEventCodec codec = new BinaryEventCodec();
+
+    @Test
+    public void testSnapshotEvent() throws Exception {
+        ObjectId id1 = ObjectId.of("Artist", "ARTIST_ID", 5L);
+        ObjectId id2 = ObjectId.of("Artist", "ARTIST_ID", 6L);
+
+        Map<String, Object> compoundKey = new HashMap<>();
+        compoundKey.put("KEY1", 1);
+        compoundKey.put("KEY2", "a");
+        ObjectId id3 = ObjectId.of("Compound", compoundKey);
+
+        DataRow diff = new DataRow(10);
+        diff.setEntityName("Artist");
+        diff.setReplacesVersion(45L);
+        diff.put("ARTIST_NAME", "X Ü");
+        diff.put("DATE_OF_BIRTH", new java.sql.Date(123456789L));
+        diff.put("ESTIMATED_PRICE", new BigDecimal("-12.3400"));
+        diff.put("NULL_COLUMN", null);
+        diff.put("FLAG", Boolean.TRUE);
+        diff.put("DATA", new byte[]{1, 2, 3});
+        diff.put("LIST", new java.util.ArrayList<>(Arrays.asList("x", "y")));
+
+        Timestamp timestamp = new Timestamp(1000000L);
+        timestamp.setNanos(123456789);
+        diff.put("CREATED", timestamp);
+
+        SnapshotEvent event = new SnapshotEvent(this, this,
+                Collections.singletonMap(id1, diff),
+                Collections.singletonList(id2),
+                null,
+                Collections.singletonList(id3));
+        event.setSubject(EventSubject.getSubject(DataRowStore.class, "test"));
+
+        List<CayenneEvent> decoded = codec.decode(codec.encode(Collections.singletonList(event)));
+        assertEquals(1, decoded.size());
+
+        SnapshotEvent result = (SnapshotEvent) decoded.get(0);
+        assertEquals(event.getSubject(), result.getSubject());
+        assertEquals(Collections.singletonList(id2), result.getDeletedIds());
+        assertTrue(result.getInvalidatedIds().isEmpty());
+        assertEquals(Collections.singletonList(id3), result.getIndirectlyModifiedIds());
+
+        DataRow resultDiff = result.getModifiedDiffs().get(id1);
+        assertNotNull(resultDiff);
+        assertEquals("Artist", resultDiff.getEntityName());
+        assertEquals(45L, resultDiff.getReplacesVersion());
+        assertEquals(diff.keySet(), resultDiff.keySet());
+
+        for (Map.Entry<String, Object> entry : diff.entrySet()) {
+            Object value = resultDiff.get(entry.getKey());
+            if (entry.getValue() instanceof byte[]) {
+                assertArrayEquals((byte[]) entry.getValue(), (byte[]) value);
+            } else {
+                assertEquals(entry.getKey(), entry.getValue(), value);
+                if (entry.getValue() != null) {
+                    assertEquals(entry.getValue().getClass(), value.getClass());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMultipleEvents() throws Exception {
+        EventSubject subject = EventSubject.getSubject(DataRowStore.class, "test");
+
+        SnapshotEvent event1 = new SnapshotEvent(this, this, null,
+                Collections.singletonList(ObjectId.of("Artist", "ARTIST_ID", 1)), null, null);
+        event1.setSubject(subject);
+
+        CayenneEvent event2 = new CayenneEvent(this);
+        event2.setSubject(subject);
+
+        SnapshotEvent event3 = new SnapshotEvent(this, this, null,
+                null, Collections.singletonList(ObjectId.of("Artist", "ARTIST_ID", 2)), null);
+
+        List<CayenneEvent> decoded = codec.decode(codec.encode(Arrays.asList(event1, event2, event3)));
+        assertEquals(3, decoded.size());
+
+        assertTrue(decoded.get(0) instanceof SnapshotEvent);
+        assertEquals(event1.getDeletedIds(), ((SnapshotEvent) decoded.get(0)).getDeletedIds());
+
+        assertEquals(CayenneEvent.class, decoded.get(1).getClass());
+        assertEquals(subject, decoded.get(1).getSubject());
+
+        assertEquals(event3.getInvalidatedIds(), ((SnapshotEvent) decoded.get(2)).getInvalidatedIds());
+        assertEquals(null, decoded.get(2).getSubject());
+    }
+
+    @Test
+    public void testSmallerThanSerialization() throws Exception {
+        Map<ObjectId, DataRow> diffs = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            DataRow diff = new DataRow(2);
+            diff.put("ARTIST_NAME", "name" + i);
+            diff.put("DATE_OF_BIRTH", new java.util.Date(i));
+            diffs.put(ObjectId.of("Artist", "ARTIST_ID", i), diff);
+        }
+
+        SnapshotEvent event = new SnapshotEvent(this, this, diffs, null, null, null);
+        List<SnapshotEvent> events = Collections.singletonList(event);
+
+        byte[] binary = codec.encode(events);
+        byte[] serialized = new SerializationEventCodec().encode(events);
+        assertTrue(binary.length * 2 < serialized.length);
+
+        SnapshotEvent result = (SnapshotEvent) codec.decode(binary).get(0);
+        assertEquals(diffs, result.getModifiedDiffs());
+    }
+
+    @Test
+    public void testSerializationCodec() throws Exception {
+        SnapshotEvent event = new SnapshotEvent(this, this, null,
+                Collections.singletonList(ObjectId.of("Artist", "ARTIST_ID", 1)), null, null);
+
+        SerializationEventCodec serializationCodec = new SerializationEventCodec();
+        List<CayenneEvent> decoded = serializationCodec.decode(serializationCodec.encode(Arrays.asList(event, event)));
+        assertEquals(2, decoded.size());
+        assertEquals(event.getDeletedIds(), ((SnapshotEvent) decoded.get(1)).getDeletedIds());
+    }
+
+    @Test(expected = IOException.class)
+    public void testDecodeInvalid() throws Exception {
+        codec.decode(new byte[]{1, 2, 3, 4, 5});
+    }
+}
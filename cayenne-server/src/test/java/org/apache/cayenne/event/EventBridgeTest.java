@@ -26,9 +26,14 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
@@ -166,9 +171,108 @@ public class EventBridgeTest {
         helper1.runTest(5000);
     }
 
+    @Test
+    public void testCoalescingWindow() throws Exception {
+        final EventSubject local = EventSubject.getSubject(
+                EventBridgeTest.class,
+                "testCoalescingWindow");
+        final TestBridge bridge = new TestBridge(local, "externalSubject");
+        bridge.setCoalescingWindow(1000);
+
+        DefaultEventManager manager = new DefaultEventManager(2);
+        managersToClean.add(manager);
+        bridge.startup(manager, EventBridge.RECEIVE_LOCAL_EXTERNAL);
+
+        for (int i = 0; i < 3; i++) {
+            manager.postEvent(new SnapshotEvent(this, this, null, null, null, null), local);
+        }
+
+        ParallelTestContainer helper = new ParallelTestContainer() {
+
+            @Override
+            protected void assertResult() throws Exception {
+                assertEquals(1, bridge.batches.size());
+                assertEquals(3, bridge.batches.get(0).size());
+            }
+        };
+
+        helper.runTest(5000);
+
+        // events queued right before shutdown must still be sent
+        manager.postEvent(new SnapshotEvent(this, this, null, null, null, null), local);
+        ParallelTestContainer helper1 = new ParallelTestContainer() {
+
+            @Override
+            protected void assertResult() throws Exception {
+                assertNotNull(bridge.pendingEvents);
+                assertEquals(1, bridge.pendingEvents.size());
+            }
+        };
+        helper1.runTest(5000);
+
+        bridge.shutdown();
+        assertEquals(2, bridge.batches.size());
+        assertEquals(1, bridge.batches.get(1).size());
+        assertNull(bridge.coalescingExecutor);
+    }
+
+    @Test
+    public void testCoalescingWindow_EventAfterShutdown() throws Exception {
+        EventSubject local = EventSubject.getSubject(
+                EventBridgeTest.class,
+                "testCoalescingWindow_EventAfterShutdown");
+        TestBridge bridge = new TestBridge(local, "externalSubject");
+        bridge.setCoalescingWindow(1000);
+
+        DefaultEventManager manager = new DefaultEventManager(2);
+        managersToClean.add(manager);
+        bridge.startup(manager, EventBridge.RECEIVE_LOCAL_EXTERNAL);
+
+        // a listener that picked up the executor right before the shutdown
+        ScheduledThreadPoolExecutor executor = bridge.coalescingExecutor;
+        assertNotNull(executor);
+        bridge.shutdown();
+
+        SnapshotEvent event = new SnapshotEvent(this, this, null, null, null, null);
+        bridge.queueExternalEvent(executor, event);
+
+        assertSame(event, bridge.lastLocalEvent);
+        assertNull(bridge.pendingEvents);
+        assertTrue(bridge.batches.isEmpty());
+    }
+
+    @Test
+    public void testPropertiesConstructor() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put(EventBridge.EVENT_CODEC_PROPERTY, BinaryEventCodec.class.getName());
+        properties.put(EventBridge.COALESCING_WINDOW_PROPERTY, "15");
+
+        EventBridge bridge = new EventBridge(
+                Collections.singleton(EventSubject.getSubject(EventBridgeTest.class, "testProperties")),
+                "externalSubject",
+                properties) {
+
+            @Override
+            protected void startupExternal() {
+            }
+
+            @Override
+            protected void shutdownExternal() {
+            }
+
+            @Override
+            protected void sendExternalEvent(CayenneEvent localEvent) {
+            }
+        };
+
+        assertTrue(bridge.getEventCodec() instanceof BinaryEventCodec);
+        assertEquals(15, bridge.getCoalescingWindow());
+    }
+
     class TestBridge extends EventBridge {
 
-        CayenneEvent lastLocalEvent;
+        volatile CayenneEvent lastLocalEvent;
+        List<List<CayenneEvent>> batches = Collections.synchronizedList(new ArrayList<>());
         int startupCalls;
         int shutdownCalls;
 
@@ -181,6 +285,11 @@ public class EventBridgeTest {
             lastLocalEvent = event;
         }
 
+        @Override
+        protected void sendExternalEvents(List<CayenneEvent> localEvents) {
+            batches.add(localEvents);
+        }
+
         @Override
         protected void shutdownExternal() throws Exception {
             shutdownCalls++;
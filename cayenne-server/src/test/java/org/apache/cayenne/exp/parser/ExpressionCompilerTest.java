@@ -0,0 +1,133 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.exp.parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.cayenne.exp.CompiledExpression;
+import org.apache.cayenne.exp.Expression;
+import org.apache.cayenne.exp.ExpressionException;
+import org.apache.cayenne.exp.ExpressionFactory;
+import org.apache.cayenne.testdo.testmap.Artist;
+import org.apache.cayenne.unit.util.TstBean;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class ExpressionCompilerTest {
+
+    private static final String[] BEAN_EXPRESSIONS = {
+            "string = 'a1'",
+            "string != 'a1'",
+            "integer > 3",
+            "integer <= 3",
+            "integer between 2 and 5",
+            "integer not between 2 and 5",
+            "string like 'a%'",
+            "string likeIgnoreCase 'A1%'",
+            "string not like 'a%'",
+            "string not likeIgnoreCase 'A%'",
+            "integer in (1, 3, 5)",
+            "integer not in (1, 3, 5)",
+            "string = 'a1' and integer < 5",
+            "string = 'x' or integer >= 7",
+            "not (integer = 2)",
+            "string = null",
+            "relatedBean.string = 'r1'",
+            "relatedBean.integer + 1 > 2",
+            "property2 = 0",
+            "string = 'a1' and (relatedBean.string like 'r%' or integer > 8)"
+    };
+
+    private static List<Object> beans() {
+        List<Object> beans = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            TstBean bean = new TstBean("a" + i, i);
+            if (i % 3 == 0) {
+                bean.setRelatedBean(new TstBean("r" + i, i));
+            }
+            beans.add(bean);
+        }
+
+        beans.add(new TstBean());
+        beans.add(null);
+
+        Map<String, Object> map = new HashMap<>();
+        map.put("string", "a1");
+        map.put("integer", 1);
+        beans.add(map);
+        return beans;
+    }
+
+    @Test
+    public void testBeans() {
+        List<Object> beans = beans();
+        for (String string : BEAN_EXPRESSIONS) {
+            Expression e = ExpressionFactory.exp(string);
+            CompiledExpression compiled = e.compile(TstBean.class);
+            for (Object bean : beans) {
+                assertEquals(string + " " + bean, e.evaluate(bean), compiled.evaluate(bean));
+            }
+
+            assertEquals(string, e.filterObjects(beans), compiled.filterObjects(beans));
+        }
+    }
+
+    @Test
+    public void testDataObjects() {
+        List<Artist> artists = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Artist artist = new Artist();
+            artist.setArtistName("artist" + i);
+            artists.add(artist);
+        }
+        artists.add(new Artist());
+
+        for (String string : Arrays.asList("artistName = 'artist1'", "artistName like 'artist%'",
+                "artistName in ('artist2', 'artist4')", "not (artistName like '%3')")) {
+            Expression e = ExpressionFactory.exp(string);
+            CompiledExpression compiled = e.compile(Artist.class);
+            for (Artist artist : artists) {
+                assertEquals(string, e.evaluate(artist), compiled.evaluate(artist));
+            }
+        }
+    }
+
+    @Test
+    public void testPredicate() {
+        CompiledExpression compiled = ExpressionFactory.exp("integer > 5").compile(TstBean.class);
+        assertEquals(4, beans().stream().filter(compiled).count());
+    }
+
+    @Test
+    public void testInvalidProperty() {
+        CompiledExpression compiled = ExpressionFactory.exp("noSuchProperty = 1").compile(TstBean.class);
+        try {
+            compiled.evaluate(new TstBean());
+            fail("Invalid property must have caused an exception");
+        } catch (ExpressionException e) {
+            // expected
+        }
+    }
+}
@@ -24,9 +24,14 @@ import java.math.BigInteger;
 import java.sql.SQLException;
 import java.sql.Types;
 import java.text.DateFormat;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.cayenne.CayenneRuntimeException;
 import org.apache.cayenne.Fault;
@@ -569,6 +574,49 @@ public class ColumnSelectIT extends ServerCase {
         }
     }
 
+    @Test
+    public void testStreamSingleColumn() {
+        ColumnSelect<String> columnSelect = ObjectSelect.query(Artist.class)
+                .column(Artist.ARTIST_NAME)
+                .orderBy(Artist.ARTIST_NAME.asc());
+
+        try(Stream<String> stream = columnSelect.stream(context)) {
+            List<String> names = stream.limit(3).collect(Collectors.toList());
+            assertEquals(3, names.size());
+            assertTrue(names.get(0).startsWith("artist"));
+        }
+    }
+
+    @Test
+    public void testStreamMultiColumns() {
+        ColumnSelect<Object[]> columnSelect = ObjectSelect.query(Artist.class)
+                .columns(Artist.ARTIST_NAME, Artist.DATE_OF_BIRTH);
+
+        try(Stream<Object[]> stream = columnSelect.stream(context)) {
+            assertEquals(20, stream
+                    .filter(row -> row[0] instanceof String && row[1] instanceof Date)
+                    .count());
+        }
+    }
+
+    @Test
+    public void testStreamNullColumn() throws Exception {
+        tArtist.insert(21, "artist21", null);
+
+        ColumnSelect<Date> columnSelect = ObjectSelect.query(Artist.class)
+                .column(Artist.DATE_OF_BIRTH);
+
+        try(Stream<Date> stream = columnSelect.stream(context)) {
+            Spliterator<Date> spliterator = stream.spliterator();
+            assertFalse(spliterator.hasCharacteristics(Spliterator.NONNULL));
+
+            List<Date> dates = new ArrayList<>();
+            spliterator.forEachRemaining(dates::add);
+            assertEquals(21, dates.size());
+            assertEquals(1, dates.stream().filter(Objects::isNull).count());
+        }
+    }
+
     /*
      *  Test select with page size
      */
@@ -0,0 +1,108 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.query;
+
+import org.apache.cayenne.ObjectContext;
+import org.apache.cayenne.PersistenceState;
+import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.test.jdbc.DBHelper;
+import org.apache.cayenne.test.jdbc.TableHelper;
+import org.apache.cayenne.testdo.testmap.Artist;
+import org.apache.cayenne.testdo.testmap.Painting;
+import org.apache.cayenne.unit.di.server.CayenneProjects;
+import org.apache.cayenne.unit.di.server.ServerCase;
+import org.apache.cayenne.unit.di.server.UseServerRuntime;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@UseServerRuntime(CayenneProjects.TESTMAP_PROJECT)
+public class ObjectDeleteIT extends ServerCase {
+
+    @Inject
+    private ObjectContext context;
+
+    @Inject
+    private DBHelper dbHelper;
+
+    private TableHelper tArtist;
+    private TableHelper tPainting;
+
+    @Before
+    public void createArtistsAndPaintings() throws Exception {
+        tArtist = new TableHelper(dbHelper, "ARTIST");
+        tArtist.setColumns("ARTIST_ID", "ARTIST_NAME");
+        for (int i = 1; i <= 3; i++) {
+            tArtist.insert(i, "artist" + i);
+        }
+
+        tPainting = new TableHelper(dbHelper, "PAINTING");
+        tPainting.setColumns("PAINTING_ID", "PAINTING_TITLE", "ARTIST_ID");
+        for (int i = 1; i <= 6; i++) {
+            tPainting.insert(i, "painting" + i, i % 3 + 1);
+        }
+    }
+
+    @Test
+    public void testDelete() throws Exception {
+        int deleted = ObjectDelete.query(Painting.class)
+                .where(Painting.PAINTING_TITLE.in("painting1", "painting2"))
+                .delete(context);
+
+        assertEquals(2, deleted);
+        assertEquals(4, tPainting.getRowCount());
+    }
+
+    @Test
+    public void testDelete_NoQualifier() throws Exception {
+        assertEquals(6, ObjectDelete.query(Painting.class).delete(context));
+        assertEquals(0, tPainting.getRowCount());
+    }
+
+    @Test
+    public void testDelete_JoinedQualifier() throws Exception {
+        int deleted = ObjectDelete.query(Painting.class)
+                .where(Painting.TO_ARTIST.dot(Artist.ARTIST_NAME).eq("artist2"))
+                .or(Painting.PAINTING_TITLE.eq("painting3"))
+                .delete(context);
+
+        // paintings 1 and 4 belong to artist2
+        assertEquals(3, deleted);
+        assertEquals(3, tPainting.getRowCount());
+    }
+
+    @Test
+    public void testDelete_InvalidateSnapshots() throws Exception {
+        Painting p1 = SelectById.query(Painting.class, 1).selectOne(context);
+        Painting p2 = SelectById.query(Painting.class, 2).selectOne(context);
+
+        int deleted = ObjectDelete.query(Painting.class)
+                .where(Painting.PAINTING_TITLE.eq("painting1"))
+                .invalidateSnapshots()
+                .delete(context);
+
+        assertEquals(1, deleted);
+        assertEquals(PersistenceState.TRANSIENT, p1.getPersistenceState());
+        assertNull(context.getGraphManager().getNode(p1.getObjectId()));
+        assertEquals(PersistenceState.COMMITTED, p2.getPersistenceState());
+    }
+}
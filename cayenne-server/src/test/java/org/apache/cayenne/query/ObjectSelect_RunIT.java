@@ -18,10 +18,14 @@
  ****************************************************************/
 package org.apache.cayenne.query;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.cayenne.CayenneRuntimeException;
 import org.apache.cayenne.DataRow;
+import org.apache.cayenne.PersistenceState;
 import org.apache.cayenne.ResultBatchIterator;
 import org.apache.cayenne.ResultIterator;
 import org.apache.cayenne.access.DataContext;
@@ -39,6 +43,7 @@ import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 
 @UseServerRuntime(CayenneProjects.TESTMAP_PROJECT)
@@ -120,6 +125,60 @@ public class ObjectSelect_RunIT extends ServerCase {
 		}
 	}
 
+	@Test
+	public void test_Stream() {
+		try (Stream<Artist> stream = ObjectSelect.query(Artist.class).statementFetchSize(5).stream(context)) {
+			List<String> names = stream
+					.map(Artist::getArtistName)
+					.filter(name -> name.endsWith("1"))
+					.collect(Collectors.toList());
+			assertEquals(2, names.size());
+		}
+
+		// all objects stay registered
+		assertEquals(20, context.getObjectStore().registeredObjectsCount());
+	}
+
+	@Test
+	public void test_StreamUnregister() {
+		int[] maxRegistered = new int[1];
+		try (Stream<Artist> stream = ObjectSelect.query(Artist.class).stream(context, 5)) {
+			long count = stream
+					.peek(a -> maxRegistered[0] = Math.max(maxRegistered[0], context.getObjectStore().registeredObjectsCount()))
+					.count();
+			assertEquals(20, count);
+		}
+
+		assertEquals(5, maxRegistered[0]);
+		assertEquals(5, context.getObjectStore().registeredObjectsCount());
+	}
+
+	@Test
+	public void test_StreamUnregisterSkipsModified() {
+		Artist modified;
+		try (Stream<Artist> stream = ObjectSelect.query(Artist.class)
+				.orderBy(Artist.ARTIST_NAME.asc())
+				.stream(context, 5)) {
+			Iterator<Artist> it = stream.iterator();
+			modified = it.next();
+			modified.setArtistName("modified");
+			while (it.hasNext()) {
+				assertEquals(PersistenceState.COMMITTED, it.next().getPersistenceState());
+			}
+		}
+
+		assertEquals(PersistenceState.MODIFIED, modified.getPersistenceState());
+		assertSame(context, modified.getObjectContext());
+	}
+
+	@Test
+	public void test_StreamCloseTwice() {
+		Stream<Artist> stream = ObjectSelect.query(Artist.class).stream(context);
+		stream.close();
+		// closing twice is a no-op
+		stream.close();
+	}
+
 	@Test
 	public void test_SelectDataRows() {
 		List<DataRow> result = ObjectSelect.dataRowQuery(Artist.class).select(context);
@@ -0,0 +1,141 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+
+package org.apache.cayenne.query;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.apache.cayenne.CayenneRuntimeException;
+import org.apache.cayenne.ObjectContext;
+import org.apache.cayenne.PersistenceState;
+import org.apache.cayenne.di.Inject;
+import org.apache.cayenne.test.jdbc.DBHelper;
+import org.apache.cayenne.test.jdbc.TableHelper;
+import org.apache.cayenne.testdo.testmap.Artist;
+import org.apache.cayenne.testdo.testmap.Painting;
+import org.apache.cayenne.unit.di.server.CayenneProjects;
+import org.apache.cayenne.unit.di.server.ServerCase;
+import org.apache.cayenne.unit.di.server.UseServerRuntime;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@UseServerRuntime(CayenneProjects.TESTMAP_PROJECT)
+public class ObjectUpdateIT extends ServerCase {
+
+    @Inject
+    private ObjectContext context;
+
+    @Inject
+    private DBHelper dbHelper;
+
+    private TableHelper tPainting;
+
+    @Before
+    public void createArtistsAndPaintings() throws Exception {
+        TableHelper tArtist = new TableHelper(dbHelper, "ARTIST");
+        tArtist.setColumns("ARTIST_ID", "ARTIST_NAME");
+        for (int i = 1; i <= 3; i++) {
+            tArtist.insert(i, "artist" + i);
+        }
+
+        tPainting = new TableHelper(dbHelper, "PAINTING");
+        tPainting.setColumns("PAINTING_ID", "PAINTING_TITLE", "ARTIST_ID", "ESTIMATED_PRICE");
+        for (int i = 1; i <= 6; i++) {
+            tPainting.insert(i, "painting" + i, i % 3 + 1, 1000);
+        }
+    }
+
+    @Test
+    public void testUpdate() throws Exception {
+        int updated = ObjectUpdate.query(Painting.class)
+                .set(Painting.ESTIMATED_PRICE, new BigDecimal(5))
+                .set(Painting.PAINTING_DESCRIPTION, "cheap")
+                .where(Painting.PAINTING_TITLE.in("painting1", "painting2"))
+                .update(context);
+
+        assertEquals(2, updated);
+
+        List<Object[]> rows = ObjectSelect.columnQuery(Painting.class, Painting.PAINTING_TITLE, Painting.ESTIMATED_PRICE)
+                .where(Painting.PAINTING_DESCRIPTION.eq("cheap"))
+                .orderBy(Painting.PAINTING_TITLE.asc())
+                .select(context);
+        assertEquals(2, rows.size());
+        assertEquals("painting1", rows.get(0)[0]);
+        assertEquals(0, new BigDecimal(5).compareTo((BigDecimal) rows.get(0)[1]));
+    }
+
+    @Test
+    public void testUpdate_NoQualifier() throws Exception {
+        int updated = ObjectUpdate.query(Painting.class)
+                .set(Painting.ESTIMATED_PRICE, null)
+                .update(context);
+
+        assertEquals(6, updated);
+        for (Object[] row : tPainting.setColumns("ESTIMATED_PRICE").selectAll()) {
+            assertNull(row[0]);
+        }
+    }
+
+    @Test
+    public void testUpdate_JoinedQualifier() throws Exception {
+        int updated = ObjectUpdate.query(Painting.class)
+                .set(Painting.PAINTING_DESCRIPTION, "artist2 work")
+                .where(Painting.TO_ARTIST.dot(Artist.ARTIST_NAME).eq("artist2"))
+                .update(context);
+
+        // paintings 1 and 4 belong to artist2
+        assertEquals(2, updated);
+        assertEquals(2, ObjectSelect.query(Painting.class)
+                .where(Painting.PAINTING_DESCRIPTION.eq("artist2 work"))
+                .selectCount(context));
+    }
+
+    @Test
+    public void testUpdate_InvalidateSnapshots() throws Exception {
+        Painting p1 = SelectById.query(Painting.class, 1).selectOne(context);
+        Painting p2 = SelectById.query(Painting.class, 2).selectOne(context);
+
+        int updated = ObjectUpdate.query(Painting.class)
+                .set(Painting.PAINTING_TITLE, "renamed")
+                .where(Painting.PAINTING_TITLE.eq("painting1"))
+                .invalidateSnapshots()
+                .update(context);
+
+        assertEquals(1, updated);
+        assertEquals(PersistenceState.HOLLOW, p1.getPersistenceState());
+        assertEquals("renamed", p1.getPaintingTitle());
+        assertEquals(PersistenceState.COMMITTED, p2.getPersistenceState());
+    }
+
+    @Test(expected = CayenneRuntimeException.class)
+    public void testUpdate_RelatedAttribute() {
+        ObjectUpdate.query(Painting.class)
+                .set(Painting.TO_ARTIST.dot(Artist.ARTIST_NAME), "x")
+                .update(context);
+    }
+
+    @Test(expected = CayenneRuntimeException.class)
+    public void testUpdate_NoValues() {
+        ObjectUpdate.query(Painting.class).update(context);
+    }
+}
@@ -0,0 +1,74 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.query;
+
+import org.apache.cayenne.CayenneRuntimeException;
+import org.apache.cayenne.testdo.testmap.Painting;
+import org.junit.Test;
+
+public class SQLActionVisitorTest {
+
+    @Test(expected = CayenneRuntimeException.class)
+    public void testObjectUpdateAction_NotSupported() {
+        ObjectUpdate.query(Painting.class)
+                .set(Painting.ESTIMATED_PRICE, null)
+                .createSQLAction(new LegacyVisitor());
+    }
+
+    @Test(expected = CayenneRuntimeException.class)
+    public void testObjectDeleteAction_NotSupported() {
+        ObjectDelete.query(Painting.class).createSQLAction(new LegacyVisitor());
+    }
+
+    /**
+     * A visitor that only implements the methods that existed before set-based queries.
+     */
+    private static class LegacyVisitor implements SQLActionVisitor {
+
+        @Override
+        public SQLAction batchAction(BatchQuery query) {
+            return null;
+        }
+
+        @Override
+        public <T> SQLAction objectSelectAction(SelectQuery<T> query) {
+            return null;
+        }
+
+        @Override
+        public <T> SQLAction objectSelectAction(FluentSelect<T> query) {
+            return null;
+        }
+
+        @Override
+        public SQLAction sqlAction(SQLTemplate query) {
+            return null;
+        }
+
+        @Override
+        public SQLAction procedureAction(ProcedureQuery query) {
+            return null;
+        }
+
+        @Override
+        public SQLAction ejbqlAction(EJBQLQuery query) {
+            return null;
+        }
+    }
+}
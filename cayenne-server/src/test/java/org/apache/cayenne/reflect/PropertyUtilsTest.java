@@ -365,6 +365,14 @@ public class PropertyUtilsTest {
 		assertEquals(445, o1.getNumber());
 	}
 
+	@Test
+	public void testGetter() {
+		TstJavaBean o1 = createBean();
+		assertEquals("aaaaa", PropertyUtils.getter(TstJavaBean.class, "stringField").apply(o1));
+		assertEquals(-44, PropertyUtils.getter(TstJavaBean.class, "intField").apply(o1));
+		assertEquals(33, PropertyUtils.getter(Map.class, "integerField").apply(createMap()));
+	}
+
 	private TstJavaBean createBean() {
 		TstJavaBean o1 = new TstJavaBean();
 		o1.setByteArrayField(new byte[] { 1, 2, 3 });
@@ -0,0 +1,273 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.reflect.generic;
+
+import java.util.Collections;
+
+import org.apache.cayenne.BaseDataObject;
+import org.apache.cayenne.access.types.ValueObjectTypeRegistry;
+import org.apache.cayenne.map.DataMap;
+import org.apache.cayenne.map.EntityResolver;
+import org.apache.cayenne.map.ObjAttribute;
+import org.apache.cayenne.map.ObjEntity;
+import org.apache.cayenne.reflect.ClassDescriptor;
+import org.apache.cayenne.reflect.ClassDescriptorMap;
+import org.apache.cayenne.reflect.SingletonFaultFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+
+public class DataObjectDescriptorFactoryTest {
+
+    private ClassDescriptorMap descriptorMap;
+
+    @Before
+    public void setUp() {
+        DataMap dataMap = new DataMap("test");
+        dataMap.addObjEntity(entity("Slotted", null, SlottedObject.class, "a", "b"));
+        dataMap.addObjEntity(entity("SlottedSub", "Slotted", SlottedSubObject.class, "c"));
+        dataMap.addObjEntity(entity("LegacySub", "Slotted", LegacySubObject.class, "d"));
+        dataMap.addObjEntity(entity("Legacy", null, LegacyObject.class, "a"));
+
+        EntityResolver resolver = new EntityResolver(Collections.singleton(dataMap));
+        descriptorMap = new ClassDescriptorMap(resolver);
+        descriptorMap.addFactory(new DataObjectDescriptorFactory(
+                descriptorMap,
+                new SingletonFaultFactory(),
+                new DefaultValueComparisonStrategyFactory(mock(ValueObjectTypeRegistry.class))));
+    }
+
+    private static ObjEntity entity(String name, String superEntity, Class<?> type, String... attributes) {
+        ObjEntity entity = new ObjEntity(name);
+        entity.setClassName(type.getName());
+        entity.setSuperEntityName(superEntity);
+        for (String attribute : attributes) {
+            ObjAttribute objAttribute = new ObjAttribute(attribute);
+            objAttribute.setType(String.class.getName());
+            entity.addAttribute(objAttribute);
+        }
+        return entity;
+    }
+
+    @Test
+    public void testPropertySlots() {
+        ClassDescriptor descriptor = descriptorMap.getDescriptor("Slotted");
+        assertEquals(0, slot(descriptor, "a"));
+        assertEquals(1, slot(descriptor, "b"));
+
+        SlottedObject object = new SlottedObject();
+        descriptor.getProperty("b").writePropertyDirectly(object, null, "B");
+        assertEquals("B", object.b);
+        assertEquals("B", descriptor.getProperty("b").readPropertyDirectly(object));
+        assertEquals(2, object.slotCalls);
+        assertEquals(0, object.nameCalls);
+    }
+
+    @Test
+    public void testPropertySlots_Subclass() {
+        ClassDescriptor descriptor = descriptorMap.getDescriptor("SlottedSub");
+        assertEquals(0, slot(descriptor, "a"));
+        assertEquals(2, slot(descriptor, "c"));
+
+        SlottedSubObject object = new SlottedSubObject();
+        descriptor.getProperty("a").writePropertyDirectly(object, null, "A");
+        descriptor.getProperty("c").writePropertyDirectly(object, null, "C");
+        assertEquals("A", object.a);
+        assertEquals("C", object.c);
+        assertEquals(2, object.slotCalls);
+        assertEquals(0, object.nameCalls);
+    }
+
+    @Test
+    public void testPropertySlots_LegacySubclass() {
+        ClassDescriptor descriptor = descriptorMap.getDescriptor("LegacySub");
+        assertEquals(0, slot(descriptor, "a"));
+        assertEquals(-1, slot(descriptor, "d"));
+
+        LegacySubObject object = new LegacySubObject();
+        descriptor.getProperty("d").writePropertyDirectly(object, null, "D");
+        assertEquals("D", object.d);
+        assertEquals("D", descriptor.getProperty("d").readPropertyDirectly(object));
+        assertEquals(0, object.slotCalls);
+        assertEquals(2, object.nameCalls);
+    }
+
+    @Test
+    public void testPropertySlots_Legacy() {
+        ClassDescriptor descriptor = descriptorMap.getDescriptor("Legacy");
+        assertEquals(-1, slot(descriptor, "a"));
+
+        LegacyObject object = new LegacyObject();
+        assertNull(descriptor.getProperty("a").readPropertyDirectly(object));
+        descriptor.getProperty("a").writePropertyDirectly(object, null, "A");
+        assertEquals("A", object.a);
+    }
+
+    private static int slot(ClassDescriptor descriptor, String property) {
+        return ((DataObjectBaseProperty) descriptor.getProperty(property)).getSlot();
+    }
+
+    public static class LegacyObject extends BaseDataObject {
+
+        String a;
+
+        @Override
+        public Object readPropertyDirectly(String propName) {
+            return "a".equals(propName) ? a : super.readPropertyDirectly(propName);
+        }
+
+        @Override
+        public void writePropertyDirectly(String propName, Object val) {
+            if ("a".equals(propName)) {
+                a = (String) val;
+            } else {
+                super.writePropertyDirectly(propName, val);
+            }
+        }
+    }
+
+    public static class SlottedObject extends BaseDataObject {
+
+        String a;
+        String b;
+        int slotCalls;
+        int nameCalls;
+
+        @Override
+        public Object readPropertyDirectly(String propName) {
+            nameCalls++;
+            switch (propName) {
+                case "a":
+                    return a;
+                case "b":
+                    return b;
+                default:
+                    return super.readPropertyDirectly(propName);
+            }
+        }
+
+        @Override
+        public void writePropertyDirectly(String propName, Object val) {
+            nameCalls++;
+            switch (propName) {
+                case "a":
+                    a = (String) val;
+                    break;
+                case "b":
+                    b = (String) val;
+                    break;
+                default:
+                    super.writePropertyDirectly(propName, val);
+            }
+        }
+
+        @Override
+        public Object readPropertyDirectly(int slot) {
+            slotCalls++;
+            switch (slot) {
+                case 0:
+                    return a;
+                case 1:
+                    return b;
+                default:
+                    return super.readPropertyDirectly(slot);
+            }
+        }
+
+        @Override
+        public void writePropertyDirectly(int slot, Object val) {
+            slotCalls++;
+            switch (slot) {
+                case 0:
+                    a = (String) val;
+                    break;
+                case 1:
+                    b = (String) val;
+                    break;
+                default:
+                    super.writePropertyDirectly(slot, val);
+            }
+        }
+    }
+
+    public static class SlottedSubObject extends SlottedObject {
+
+        String c;
+
+        @Override
+        public Object readPropertyDirectly(String propName) {
+            return "c".equals(propName) ? c : super.readPropertyDirectly(propName);
+        }
+
+        @Override
+        public void writePropertyDirectly(String propName, Object val) {
+            if ("c".equals(propName)) {
+                c = (String) val;
+            } else {
+                super.writePropertyDirectly(propName, val);
+            }
+        }
+
+        @Override
+        public Object readPropertyDirectly(int slot) {
+            if (slot == 2) {
+                slotCalls++;
+                return c;
+            }
+            return super.readPropertyDirectly(slot);
+        }
+
+        @Override
+        public void writePropertyDirectly(int slot, Object val) {
+            if (slot == 2) {
+                slotCalls++;
+                c = (String) val;
+            } else {
+                super.writePropertyDirectly(slot, val);
+            }
+        }
+    }
+
+    public static class LegacySubObject extends SlottedObject {
+
+        String d;
+
+        @Override
+        public Object readPropertyDirectly(String propName) {
+            if ("d".equals(propName)) {
+                nameCalls++;
+                return d;
+            }
+            return super.readPropertyDirectly(propName);
+        }
+
+        @Override
+        public void writePropertyDirectly(String propName, Object val) {
+            if ("d".equals(propName)) {
+                nameCalls++;
+                d = (String) val;
+            } else {
+                super.writePropertyDirectly(propName, val);
+            }
+        }
+    }
+}
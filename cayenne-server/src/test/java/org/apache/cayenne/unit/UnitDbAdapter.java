@@ -29,6 +29,7 @@ import org.apache.cayenne.exp.parser.ASTExtract;
 import org.apache.cayenne.map.DataMap;
 import org.apache.cayenne.map.DbEntity;
 import org.apache.cayenne.map.Procedure;
+import org.apache.cayenne.query.UpsertBatchQuery;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -415,4 +416,8 @@ public class UnitDbAdapter {
     public boolean supportsNullComparison() {
         return true;
     }
+
+    public boolean supportsUpsert() {
+        return adapter.getUpsertTranslator(new UpsertBatchQuery(new DbEntity("UPSERT_TEST"), 1)) != null;
+    }
 }
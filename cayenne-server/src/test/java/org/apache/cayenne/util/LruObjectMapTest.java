@@ -0,0 +1,195 @@
+/*****************************************************************
+ *   Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ ****************************************************************/
+package org.apache.cayenne.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.cayenne.MockDataObject;
+import org.apache.cayenne.ObjectId;
+import org.apache.cayenne.PersistenceState;
+import org.apache.cayenne.Persistent;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class LruObjectMapTest {
+
+    private static Persistent object(int id, int state) {
+        return new MockDataObject(null, ObjectId.of("T", "ID", id), state);
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() {
+        LruObjectMap<Object, Persistent> map = new LruObjectMap<>(2);
+
+        // keep hard references, so that evicted objects are not collected
+        List<Persistent> objects = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            objects.add(object(i, PersistenceState.COMMITTED));
+        }
+
+        map.put(objects.get(0).getObjectId(), objects.get(0));
+        map.put(objects.get(1).getObjectId(), objects.get(1));
+
+        // touch the first object
+        assertSame(objects.get(0), map.get(objects.get(0).getObjectId()));
+
+        map.put(objects.get(2).getObjectId(), objects.get(2));
+
+        assertEquals(2, map.getRetainedCount());
+        assertEquals(3, map.size());
+
+        assertEquals(PersistenceState.COMMITTED, objects.get(0).getPersistenceState());
+        assertEquals(PersistenceState.HOLLOW, objects.get(1).getPersistenceState());
+        assertEquals(PersistenceState.COMMITTED, objects.get(2).getPersistenceState());
+
+        // evicted object is still found while referenced
+        assertTrue(map.containsKey(objects.get(1).getObjectId()));
+        assertSame(objects.get(1), map.get(objects.get(1).getObjectId()));
+
+        // ... and is retained again after access, evicting the next object
+        assertEquals(2, map.getRetainedCount());
+        assertEquals(PersistenceState.HOLLOW, objects.get(0).getPersistenceState());
+    }
+
+    @Test
+    public void testModifiedObjectsNotEvicted() {
+        LruObjectMap<Object, Persistent> map = new LruObjectMap<>(1);
+
+        Persistent modified = object(1, PersistenceState.MODIFIED);
+        Persistent created = object(2, PersistenceState.NEW);
+        Persistent committed = object(3, PersistenceState.COMMITTED);
+
+        map.put(modified.getObjectId(), modified);
+        map.put(created.getObjectId(), created);
+
+        assertEquals(2, map.getRetainedCount());
+        assertEquals(PersistenceState.MODIFIED, modified.getPersistenceState());
+        assertEquals(PersistenceState.NEW, created.getPersistenceState());
+
+        map.put(committed.getObjectId(), committed);
+
+        assertEquals(2, map.getRetainedCount());
+        assertEquals(PersistenceState.HOLLOW, committed.getPersistenceState());
+        assertSame(committed, map.get(committed.getObjectId()));
+    }
+
+    @Test
+    public void testRemove() {
+        LruObjectMap<Object, Persistent> map = new LruObjectMap<>(1);
+
+        Persistent o1 = object(1, PersistenceState.COMMITTED);
+        Persistent o2 = object(2, PersistenceState.COMMITTED);
+        map.put(o1.getObjectId(), o1);
+        map.put(o2.getObjectId(), o2);
+
+        assertSame(o1, map.remove(o1.getObjectId()));
+        assertSame(o2, map.remove(o2.getObjectId()));
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(o1.getObjectId()));
+    }
+
+    @Test
+    public void testIterator() {
+        LruObjectMap<Object, Persistent> map = new LruObjectMap<>(1);
+
+        Persistent o1 = object(1, PersistenceState.COMMITTED);
+        Persistent o2 = object(2, PersistenceState.NEW);
+        map.put(o1.getObjectId(), o1);
+        map.put(o2.getObjectId(), o2);
+
+        List<Persistent> values = new ArrayList<>(map.values());
+        assertEquals(2, values.size());
+        assertTrue(values.contains(o1));
+        assertTrue(values.contains(o2));
+
+        Iterator<Persistent> it = map.values().iterator();
+        assertSame(o2, it.next());
+        it.remove();
+
+        assertEquals(1, map.size());
+        assertSame(o1, map.get(o1.getObjectId()));
+    }
+
+    @Test
+    public void testGetWhileIterating() {
+        LruObjectMap<Object, Persistent> map = new LruObjectMap<>(2);
+
+        List<Persistent> objects = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            objects.add(object(i, PersistenceState.COMMITTED));
+            map.put(objects.get(i).getObjectId(), objects.get(i));
+        }
+
+        // accessing retained and evicted objects reorders the map, but must not break the iteration
+        int count = 0;
+        for (Persistent object : map.values()) {
+            assertSame(object, map.get(object.getObjectId()));
+            assertSame(objects.get(0), map.get(objects.get(0).getObjectId()));
+            count++;
+        }
+        assertEquals(4, count);
+        assertEquals(4, map.size());
+    }
+
+    @Test
+    public void testIteratorRemoveEvicted() {
+        LruObjectMap<Object, Persistent> map = new LruObjectMap<>(1);
+
+        Persistent o1 = object(1, PersistenceState.COMMITTED);
+        Persistent o2 = object(2, PersistenceState.COMMITTED);
+        map.put(o1.getObjectId(), o1);
+        map.put(o2.getObjectId(), o2);
+        assertEquals(1, map.getRetainedCount());
+
+        Iterator<Persistent> it = map.values().iterator();
+        while (it.hasNext()) {
+            if (it.next() == o1) {
+                // o1 is evicted and only weakly referenced by the map
+                it.remove();
+            }
+        }
+
+        assertEquals(1, map.size());
+        assertFalse(map.containsKey(o1.getObjectId()));
+        assertSame(o2, map.get(o2.getObjectId()));
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        LruObjectMap<Object, Persistent> map = new LruObjectMap<>(1);
+
+        Persistent o1 = object(1, PersistenceState.COMMITTED);
+        Persistent o2 = object(2, PersistenceState.COMMITTED);
+        map.put(o1.getObjectId(), o1);
+        map.put(o2.getObjectId(), o2);
+
+        LruObjectMap<Object, Persistent> clone = Util.cloneViaSerialization(map);
+        assertEquals(1, clone.getCapacity());
+        assertEquals(1, clone.getRetainedCount());
+        Persistent o2Clone = clone.get(o2.getObjectId());
+        assertEquals(o2.getObjectId(), o2Clone.getObjectId());
+        assertEquals(PersistenceState.COMMITTED, o2Clone.getPersistenceState());
+    }
+}